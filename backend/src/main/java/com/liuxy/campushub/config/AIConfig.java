@@ -1,10 +1,14 @@
 package com.liuxy.campushub.config;
 
 import com.alibaba.fastjson.JSONObject;
+import com.liuxy.campushub.util.ModelGateway;
+import com.liuxy.campushub.utils.ApiAuthAlgorithm;
+import com.liuxy.campushub.utils.SparkAIUtil;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import okhttp3.OkHttpClient;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
@@ -22,6 +26,18 @@ public class AIConfig {
     @Value("${ai.spark.url}")
     private String sparkUrl;
 
+    @Value("${ai.gateway.max-sessions:32}")
+    private int gatewayMaxSessions;
+
+    @Value("${ai.gateway.max-queue:200}")
+    private int gatewayMaxQueue;
+
+    @Value("${ai.gateway.queue-timeout-ms:10000}")
+    private long gatewayQueueTimeoutMs;
+
+    @Value("${ai.gateway.auth-url-ttl-seconds:60}")
+    private long gatewayAuthUrlTtlSeconds;
+
     @Bean
     public OkHttpClient okHttpClient() {
         return new OkHttpClient.Builder()
@@ -40,4 +56,33 @@ public class AIConfig {
         config.put("url", sparkUrl);
         return config;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 星火大模型对话网关
+     */
+    @Bean(destroyMethod = "close")
+    public ModelGateway sparkModelGateway(OkHttpClient okHttpClient, SparkAIUtil sparkAIUtil) {
+        return new ModelGateway("spark", okHttpClient, sparkAIUtil::signUrl, gatewaySettings());
+    }
+
+    /**
+     * 星火知识库文档问答网关
+     */
+    @Bean(destroyMethod = "close")
+    public ModelGateway chatDocGateway(OkHttpClient okHttpClient, SparkConfig sparkConfig) {
+        return new ModelGateway("chatdoc", okHttpClient, timestamp -> String.format(
+                "wss://chatdoc.xfyun.cn/openapi/chat?appId=%s&timestamp=%d&signature=%s",
+                sparkConfig.getAppId(),
+                timestamp,
+                ApiAuthAlgorithm.getSignature(sparkConfig.getAppId(), sparkConfig.getSecret(), timestamp)),
+                gatewaySettings());
+    }
+
+    private ModelGateway.Settings gatewaySettings() {
+        return new ModelGateway.Settings(
+                gatewayMaxSessions,
+                gatewayMaxQueue,
+                Duration.ofMillis(gatewayQueueTimeoutMs),
+                Duration.ofSeconds(gatewayAuthUrlTtlSeconds));
+    }
+}
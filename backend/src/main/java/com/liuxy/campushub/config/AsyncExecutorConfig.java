@@ -0,0 +1,111 @@
+package com.liuxy.campushub.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 后台线程池配置类
+ * <p>
+ * 线程数和队列长度均有上限，队列满时由调用线程执行，形成背压而不是无限堆积。
+ */
+@Configuration
+public class AsyncExecutorConfig {
+
+    @Value("${post.image.ingest.pool-size:4}")
+    private int imageIngestPoolSize;
+
+    @Value("${post.image.ingest.queue-capacity:100}")
+    private int imageIngestQueueCapacity;
+
+    @Value("${image.variant.pool-size:2}")
+    private int imageVariantPoolSize;
+
+    @Value("${image.variant.queue-capacity:200}")
+    private int imageVariantQueueCapacity;
+
+    @Value("${login.executor.pool-size:4}")
+    private int loginPoolSize;
+
+    @Value("${login.executor.queue-capacity:64}")
+    private int loginQueueCapacity;
+
+    @Value("${hot.score.recalc.pool-size:2}")
+    private int hotScoreRecalcPoolSize;
+
+    /**
+     * 帖子图片上传线程池
+     */
+    @Bean(name = "imageIngestExecutor")
+    public ThreadPoolTaskExecutor imageIngestExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageIngestPoolSize);
+        executor.setMaxPoolSize(imageIngestPoolSize);
+        executor.setQueueCapacity(imageIngestQueueCapacity);
+        executor.setThreadNamePrefix("image-ingest-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * 缩略图生成线程池
+     * <p>
+     * 缩略图不是必需的，队列满时拒绝任务而不是阻塞上传请求，列表暂时使用原图，
+     * 被拒绝的任务由缩略图服务的定时补偿任务重新提交
+     */
+    @Bean(name = "imageVariantExecutor")
+    public ThreadPoolTaskExecutor imageVariantExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageVariantPoolSize);
+        executor.setMaxPoolSize(imageVariantPoolSize);
+        executor.setQueueCapacity(imageVariantQueueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * 登录密码校验线程池
+     * <p>
+     * BCrypt 校验是CPU密集操作，集中到固定数量的线程执行；队列满时直接拒绝，
+     * 撞库等突发登录请求不会占满 Tomcat 的请求线程
+     */
+    @Bean(name = "loginExecutor")
+    public ThreadPoolTaskExecutor loginExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(loginPoolSize);
+        executor.setMaxPoolSize(loginPoolSize);
+        executor.setQueueCapacity(loginQueueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * 热度分数定时重算线程池
+     * <p>
+     * 读取下一段的同时计算和写回前几段；队列只保留少量分段，写库跟不上时由读取线程自己执行，
+     * 内存中最多同时存在 线程数 + 队列长度 + 1 段数据
+     */
+    @Bean(name = "hotScoreRecalcExecutor")
+    public ThreadPoolTaskExecutor hotScoreRecalcExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hotScoreRecalcPoolSize);
+        executor.setMaxPoolSize(hotScoreRecalcPoolSize);
+        executor.setQueueCapacity(hotScoreRecalcPoolSize);
+        executor.setThreadNamePrefix("hot-score-recalc-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
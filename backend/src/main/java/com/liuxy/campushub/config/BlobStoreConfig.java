@@ -0,0 +1,128 @@
+package com.liuxy.campushub.config;
+
+import com.liuxy.campushub.storage.BlobKeys;
+import com.liuxy.campushub.storage.BlobStore;
+import com.liuxy.campushub.storage.LocalBlobStore;
+import com.liuxy.campushub.storage.RoutingBlobStore;
+import com.liuxy.campushub.storage.S3BlobStore;
+import com.liuxy.campushub.storage.SftpBlobStore;
+import com.liuxy.campushub.util.SftpChannelPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 文件存储配置类，按 storage.type 选择存储实现：local、sftp（默认）、s3
+ * <p>
+ * 为兼容已有文件，以下目录默认沿用原来的存储位置：
+ * <ul>
+ *     <li>商品图片（products）：storage.products=local 时仍写入 app.image.upload.path 本地目录，
+ *     访问地址为 app.image.url.prefix，设为 shared 后随 storage.type 存储</li>
+ *     <li>头像、附件、帖子图片（avatars）：storage.type=sftp 时仍写入 upload.avatar.path，
+ *     访问地址为 upload.avatar.url</li>
+ * </ul>
+ */
+@Configuration
+public class BlobStoreConfig {
+    private static final Logger logger = LoggerFactory.getLogger(BlobStoreConfig.class);
+
+    @Value("${storage.type:sftp}")
+    private String type;
+
+    @Value("${storage.root:/data/images}")
+    private String root;
+
+    @Value("${storage.public-base-url:http://localhost:8081}")
+    private String publicBaseUrl;
+
+    @Value("${storage.s3.endpoint:}")
+    private String s3Endpoint;
+
+    @Value("${storage.s3.region:us-east-1}")
+    private String s3Region;
+
+    @Value("${storage.s3.bucket:campushub}")
+    private String s3Bucket;
+
+    @Value("${storage.s3.prefix:}")
+    private String s3Prefix;
+
+    @Value("${storage.s3.access-key:}")
+    private String s3AccessKey;
+
+    @Value("${storage.s3.secret-key:}")
+    private String s3SecretKey;
+
+    @Value("${storage.s3.path-style:true}")
+    private boolean s3PathStyle;
+
+    @Value("${storage.products:local}")
+    private String productsStorage;
+
+    @Value("${app.image.upload.path:/data/images}")
+    private String productUploadPath;
+
+    @Value("${app.image.url.prefix:/images}")
+    private String productUrlPrefix;
+
+    @Value("${upload.avatar.path:/data/images/avatars}")
+    private String avatarPath;
+
+    @Value("${upload.avatar.url:http://localhost:8081/avatars}")
+    private String avatarUrl;
+
+    @Bean
+    public BlobStore blobStore(SftpChannelPool sftpChannelPool) {
+        logger.info("文件存储类型: {}, 访问地址: {}", type, publicBaseUrl);
+        BlobStore store = switch (type) {
+            case "local" -> new LocalBlobStore(Paths.get(root), publicBaseUrl);
+            case "sftp" -> new SftpBlobStore(sftpChannelPool, root, publicBaseUrl);
+            case "s3" -> new S3BlobStore(s3Client(), s3Bucket, s3Prefix, publicBaseUrl);
+            default -> throw new IllegalStateException("不支持的存储类型: " + type);
+        };
+
+        Map<String, BlobStore> routes = new LinkedHashMap<>();
+        if ("sftp".equals(type)) {
+            routes.put(BlobKeys.AVATARS, new SftpBlobStore(sftpChannelPool, avatarPath, avatarUrl));
+            logger.info("头像目录: {}, 访问地址: {}", avatarPath, avatarUrl);
+        }
+        switch (productsStorage) {
+            case "local" -> {
+                routes.put(BlobKeys.PRODUCTS, new LocalBlobStore(
+                        Paths.get(productUploadPath, BlobKeys.PRODUCTS), productUrlPrefix + "/" + BlobKeys.PRODUCTS));
+                logger.info("商品图片本地目录: {}, 访问前缀: {}", productUploadPath, productUrlPrefix);
+            }
+            case "shared" -> {
+            }
+            default -> throw new IllegalStateException("不支持的商品图片存储: " + productsStorage);
+        }
+        return routes.isEmpty() ? store : new RoutingBlobStore(store, routes);
+    }
+
+    private S3Client s3Client() {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(s3Region))
+                .forcePathStyle(s3PathStyle);
+        if (!s3Endpoint.isBlank()) {
+            // MinIO 等兼容存储需要指定服务地址
+            builder.endpointOverride(URI.create(s3Endpoint));
+        }
+        if (!s3AccessKey.isBlank()) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(
+                    AwsBasicCredentials.create(s3AccessKey, s3SecretKey)));
+        }
+        return builder.build();
+    }
+}
@@ -1,24 +1,40 @@
 package com.liuxy.campushub.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+@Slf4j
 @Configuration
 public class RabbitMQConfig {
     
     public static final String HOT_POST_QUEUE = "hot.post.queue";
     public static final String HOT_POST_EXCHANGE = "hot.post.exchange";
     public static final String HOT_POST_ROUTING_KEY = "hot.post.routing.key";
+    public static final String HOT_POST_DEAD_LETTER_QUEUE = "hot.post.queue.dlq";
+    public static final String HOT_POST_BATCH_CONTAINER_FACTORY = "hotPostBatchContainerFactory";
     
     @Bean
     public Queue hotPostQueue() {
         return new Queue(HOT_POST_QUEUE, true);
     }
     
+    /**
+     * 批量处理重试耗尽的热度更新消息，排查后可手动移回 hot.post.queue
+     */
+    @Bean
+    public Queue hotPostDeadLetterQueue() {
+        return new Queue(HOT_POST_DEAD_LETTER_QUEUE, true);
+    }
+
     @Bean
     public DirectExchange hotPostExchange() {
         return new DirectExchange(HOT_POST_EXCHANGE);
@@ -37,4 +53,46 @@ public class RabbitMQConfig {
         rabbitTemplate.setMessageConverter(new Jackson2JsonMessageConverter());
         return rabbitTemplate;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 热度更新批量消费容器
+     * <p>
+     * 每个消费者一次最多攒 batchSize 条消息，连续 windowMs 毫秒没有新消息时提前交付，
+     * 同一批中重复的帖子ID只计算一次。
+     * <p>
+     * 监听方法抛出异常时按指数退避重试整批消息，重试 maxAttempts 次仍失败则转发到死信队列并确认原消息，
+     * 既不会丢失消息，也不会在数据库或 Redis 故障时无间隔地反复重新投递。
+     */
+    @Bean(name = HOT_POST_BATCH_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory hotPostBatchContainerFactory(
+            ConnectionFactory connectionFactory,
+            RabbitTemplate rabbitTemplate,
+            @Value("${hot.post.consumer.batch-size:200}") int batchSize,
+            @Value("${hot.post.consumer.window-ms:500}") long windowMs,
+            @Value("${hot.post.consumer.concurrency:1}") int concurrency,
+            @Value("${hot.post.consumer.max-attempts:3}") int maxAttempts,
+            @Value("${hot.post.consumer.retry-interval-ms:1000}") long retryIntervalMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(new Jackson2JsonMessageConverter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setReceiveTimeout(windowMs);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(concurrency);
+        MessageBatchRecoverer recoverer = (messages, cause) -> {
+            log.error("热度更新消息重试耗尽，转入死信队列，消息数: {}", messages.size(), cause);
+            for (Message message : messages) {
+                rabbitTemplate.send("", HOT_POST_DEAD_LETTER_QUEUE, message);
+            }
+        };
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(Math.max(1, maxAttempts))
+                .backOffOptions(retryIntervalMs, 2.0, retryIntervalMs * 10)
+                .recoverer(recoverer)
+                .build());
+        return factory;
+    }
+}
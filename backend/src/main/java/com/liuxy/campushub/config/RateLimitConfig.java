@@ -0,0 +1,71 @@
+package com.liuxy.campushub.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 接口限流配置
+ * <p>
+ * 每条规则按请求方法和路径匹配，按第一条匹配的规则限流；已登录请求按用户ID计数，未登录请求按客户端IP计数。
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitConfig {
+    /**
+     * 是否启用限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 是否通过 Redis 在所有实例间共享限流状态，Redis 不可用时退回本实例限流
+     */
+    private boolean distributed = false;
+
+    /**
+     * 是否信任 X-Forwarded-For 请求头中的客户端IP，仅在部署于可信反向代理之后时开启
+     */
+    private boolean trustForwardedFor = false;
+
+    /**
+     * 本地最多保留的计数键数，超出时清理已回满的令牌桶
+     */
+    private int maxKeys = 100000;
+
+    /**
+     * 限流规则
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        /**
+         * 请求方法，为空时匹配所有方法
+         */
+        private String method;
+
+        /**
+         * 路径，Ant风格
+         */
+        private String pattern;
+
+        /**
+         * 令牌桶容量，即允许的突发请求数
+         */
+        private int capacity = 10;
+
+        /**
+         * 每个补充周期补充的令牌数
+         */
+        private int refillTokens = 10;
+
+        /**
+         * 补充周期（秒）
+         */
+        private int refillPeriodSeconds = 60;
+    }
+}
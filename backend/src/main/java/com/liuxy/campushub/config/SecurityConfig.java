@@ -1,13 +1,18 @@
 package com.liuxy.campushub.config;
 
-import com.liuxy.campushub.service.CustomUserDetailsServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liuxy.campushub.security.UserPrincipalCache;
 import com.liuxy.campushub.utils.JwtTokenUtil;
 import com.liuxy.campushub.filter.JwtAuthenticationFilter;
+import com.liuxy.campushub.filter.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -24,19 +29,28 @@ import java.util.Arrays;
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 public class SecurityConfig {
     private final JwtTokenUtil jwtTokenUtil;
-    private final CustomUserDetailsServiceImpl userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final RateLimitConfig rateLimitConfig;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public SecurityConfig(JwtTokenUtil jwtTokenUtil, CustomUserDetailsServiceImpl userDetailsService) {
+    public SecurityConfig(JwtTokenUtil jwtTokenUtil, UserPrincipalCache userPrincipalCache,
+                          RateLimitConfig rateLimitConfig, StringRedisTemplate stringRedisTemplate,
+                          ObjectMapper objectMapper) {
         this.jwtTokenUtil = jwtTokenUtil;
-        this.userDetailsService = userDetailsService;
+        this.userPrincipalCache = userPrincipalCache;
+        this.rateLimitConfig = rateLimitConfig;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
     }
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenUtil, userDetailsService);
+        return new JwtAuthenticationFilter(jwtTokenUtil, userPrincipalCache);
     }
 
     @Bean
@@ -46,9 +60,14 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> {
+                // 异步响应（SSE、CompletableFuture）完成后的再次分派已在首次请求时鉴权
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                 auth.requestMatchers(HttpMethod.GET, "/api/posts/**").permitAll();
                 auth.requestMatchers(HttpMethod.GET, "/api/topics/**").permitAll();
                 auth.requestMatchers(HttpMethod.GET, "/api/comments/**").permitAll();
+                auth.requestMatchers(HttpMethod.GET, "/media/**").permitAll();
+                // 管理接口与登录接口同在 /api/auth 下，需在放行规则之前单独要求管理员权限
+                auth.requestMatchers("/api/auth/admin/**", "/api/auth/statistics/**").hasAuthority("ADMIN");
                 auth.requestMatchers(
                         "/api/auth/**",
                         "/api/v1/student/login",
@@ -60,6 +79,8 @@ public class SecurityConfig {
                 auth.anyRequest().authenticated();
             })
             .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+            // 认证之后限流，已登录用户按用户ID计数；不注册为Bean，见 RateLimitFilter 说明
+            .addFilterAfter(new RateLimitFilter(rateLimitConfig, stringRedisTemplate, objectMapper), JwtAuthenticationFilter.class)
             .build();
     }
 
@@ -1,15 +1,13 @@
 package com.liuxy.campushub.config;
 
-import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.JSch;
-import com.jcraft.jsch.Session;
+import com.liuxy.campushub.util.SftpChannelPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.Properties;
+import java.time.Duration;
 
 @Configuration
 public class SftpConfig {
@@ -30,38 +28,41 @@ public class SftpConfig {
     @Value("${sftp.remote-path}")
     private String remotePath;
 
-    @Bean
-    public ChannelSftp channelSftp() throws Exception {
-        logger.info("开始配置SFTP连接，主机: {}, 端口: {}, 用户名: {}, 远程路径: {}", 
+    @Value("${sftp.known-hosts:${user.home}/.ssh/known_hosts}")
+    private String knownHosts;
+
+    @Value("${sftp.pool.min-idle:1}")
+    private int minIdle;
+
+    @Value("${sftp.pool.max-total:8}")
+    private int maxTotal;
+
+    @Value("${sftp.pool.max-wait-ms:5000}")
+    private long maxWaitMs;
+
+    @Value("${sftp.pool.idle-timeout-ms:300000}")
+    private long idleTimeoutMs;
+
+    @Value("${sftp.pool.eviction-interval-ms:60000}")
+    private long evictionIntervalMs;
+
+    @Value("${sftp.pool.connect-timeout-ms:10000}")
+    private int connectTimeoutMs;
+
+    /**
+     * SFTP通道池，通道按需创建，不在启动时连接服务器
+     */
+    @Bean(destroyMethod = "close")
+    public SftpChannelPool sftpChannelPool() {
+        logger.info("开始配置SFTP通道池，主机: {}, 端口: {}, 用户名: {}, 远程路径: {}",
             host, port, username, remotePath);
-        
-        JSch jsch = new JSch();
-        Session session = jsch.getSession(username, host, port);
-        session.setPassword(password);
-
-        Properties config = new Properties();
-        config.put("StrictHostKeyChecking", "no");
-        session.setConfig(config);
-
-        logger.info("正在连接SFTP服务器...");
-        session.connect();
-        logger.info("SFTP会话连接成功");
-
-        logger.info("正在打开SFTP通道...");
-        ChannelSftp channelSftp = (ChannelSftp) session.openChannel("sftp");
-        channelSftp.connect();
-        logger.info("SFTP通道连接成功");
-
-        // 验证远程目录
-        try {
-            logger.info("验证远程目录: {}", remotePath);
-            channelSftp.cd(remotePath);
-            logger.info("远程目录验证成功");
-        } catch (Exception e) {
-            logger.error("远程目录验证失败: {}", e.getMessage());
-            throw e;
-        }
-
-        return channelSftp;
+        SftpChannelPool.Settings settings = new SftpChannelPool.Settings(
+                minIdle,
+                maxTotal,
+                Duration.ofMillis(maxWaitMs),
+                Duration.ofMillis(idleTimeoutMs),
+                Duration.ofMillis(evictionIntervalMs),
+                Duration.ofMillis(connectTimeoutMs));
+        return new SftpChannelPool(host, port, username, password, knownHosts, settings);
     }
-} 
\ No newline at end of file
+}
@@ -9,10 +9,13 @@ import com.liuxy.campushub.dto.ChatResponse;
 import com.liuxy.campushub.dto.SparkChatRequest;
 import com.liuxy.campushub.dto.SparkChatResponse;
 import com.liuxy.campushub.service.AIChatService;
+import com.liuxy.campushub.service.AnswerCacheService;
 import com.liuxy.campushub.service.SparkChatService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +49,9 @@ public class AIChatController {
     @Autowired
     private ChatDocUtil chatDocUtil;
     
+    @Autowired
+    private AnswerCacheService answerCacheService;
+    
     @PostMapping("/chat")
     public ResponseEntity<ChatResponse> chat(@Valid @RequestBody com.liuxy.campushub.dto.ChatRequest request) {
         logger.info("收到AI聊天请求: {}", request.getMessage());
@@ -59,6 +65,12 @@ public class AIChatController {
         }
     }
     
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(@Valid @RequestBody com.liuxy.campushub.dto.ChatRequest request) {
+        logger.info("收到AI流式聊天请求: {}", request.getMessage());
+        return aiChatService.chatStream(request);
+    }
+    
     @PostMapping("/spark/chat")
     public ResponseEntity<SparkChatResponse> sparkChat(@Valid @RequestBody SparkChatRequest request) {
         logger.info("收到星火知识库聊天请求: {}", request);
@@ -99,34 +111,39 @@ public class AIChatController {
     public ResponseEntity<ChatRequest> chatWithDoc(@RequestParam String question) {
         logger.info("收到文档问答请求 - 问题: {}", question);
         try {
-            // 先检查文件状态
-            StatusResp statusResp = chatDocUtil.status(STATUS_URL, FILE_ID, APP_ID, SECRET);
-            List<StatusResp.Datas> dataList = statusResp.getData();
-            boolean isVectored = false;
+            // 相同或相近的问题直接返回缓存的答案，不再检查文件状态和调用模型
+            String answer = answerCacheService.get(FILE_ID, question);
+            if (answer == null) {
+                // 先检查文件状态
+                StatusResp statusResp = chatDocUtil.status(STATUS_URL, FILE_ID, APP_ID, SECRET);
+                List<StatusResp.Datas> dataList = statusResp.getData();
+                boolean isVectored = false;
             
-            for (StatusResp.Datas data : dataList) {
-                if ("vectored".equals(data.getFileStatus())) {
-                    isVectored = true;
-                    break;
+                for (StatusResp.Datas data : dataList) {
+                    if ("vectored".equals(data.getFileStatus())) {
+                        isVectored = true;
+                        break;
+                    }
                 }
-            }
             
-            if (!isVectored) {
-                ChatMessage errorMessage = new ChatMessage();
-                errorMessage.setRole("assistant");
-                errorMessage.setContent("文件未向量化，无法进行问答");
+                if (!isVectored) {
+                    ChatMessage errorMessage = new ChatMessage();
+                    errorMessage.setRole("assistant");
+                    errorMessage.setContent("文件未向量化，无法进行问答");
                 
-                return ResponseEntity.badRequest().body(
-                    ChatRequest.builder()
-                        .fileIds(Collections.singletonList(FILE_ID))
-                        .messages(Collections.singletonList(errorMessage))
-                        .build()
-                );
-            }
+                    return ResponseEntity.badRequest().body(
+                        ChatRequest.builder()
+                            .fileIds(Collections.singletonList(FILE_ID))
+                            .messages(Collections.singletonList(errorMessage))
+                            .build()
+                    );
+                }
             
-            // 进行问答并等待结果
-            CompletableFuture<String> futureResponse = chatDocUtil.chat(CHAT_URL, FILE_ID, question, APP_ID, SECRET);
-            String answer = futureResponse.get(30, TimeUnit.SECONDS); // 设置30秒超时
+                // 进行问答并等待结果
+                CompletableFuture<String> futureResponse = chatDocUtil.chat(CHAT_URL, FILE_ID, question, APP_ID, SECRET);
+                answer = futureResponse.get(30, TimeUnit.SECONDS); // 设置30秒超时
+                answerCacheService.put(FILE_ID, question, answer);
+            }
             
             // 构建响应消息
             ChatMessage userMessage = new ChatMessage();
@@ -6,6 +6,14 @@ import com.liuxy.campushub.dto.AdminLoginResponse;
 import com.liuxy.campushub.dto.UserStatisticsResponse;
 import com.liuxy.campushub.entity.StudentUser;
 import com.liuxy.campushub.service.AdminService;
+import com.liuxy.campushub.service.AnswerCacheService;
+import com.liuxy.campushub.service.HotPostRankingService;
+import com.liuxy.campushub.service.HotScoreRecalcService;
+import com.liuxy.campushub.service.HotScoreService;
+import com.liuxy.campushub.service.PostCounterService;
+import com.liuxy.campushub.service.PostVelocityService;
+import com.liuxy.campushub.util.ModelGateway;
+import com.liuxy.campushub.util.SftpUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +23,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 管理员认证控制器
  *
@@ -28,6 +40,14 @@ public class AdminController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
     private final AdminService adminService;
+    private final HotPostRankingService hotPostRankingService;
+    private final PostCounterService postCounterService;
+    private final SftpUtil sftpUtil;
+    private final List<ModelGateway> modelGateways;
+    private final AnswerCacheService answerCacheService;
+    private final HotScoreService hotScoreService;
+    private final HotScoreRecalcService hotScoreRecalcService;
+    private final PostVelocityService postVelocityService;
 
     /**
      * 管理员登录
@@ -88,7 +108,7 @@ public class AdminController {
      * @return 用户统计信息
      */
     @GetMapping("/statistics/users")
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<UserStatisticsResponse> getUserStatistics() {
         try {
             UserStatisticsResponse statistics = adminService.getUserStatistics();
@@ -106,7 +126,7 @@ public class AdminController {
      * @return 分页用户信息
      */
     @GetMapping("/admin/users")
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<PageInfo<StudentUser>> getUserList(
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize,
@@ -120,4 +140,172 @@ public class AdminController {
             return ResponseEntity.badRequest().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 修改用户状态（禁用、启用）
+     *
+     * @param userId 用户ID
+     * @param status 状态：1正常，0禁用，2未激活
+     * @return 是否修改成功
+     */
+    @PutMapping("/admin/users/{userId}/status")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Boolean> updateUserStatus(@PathVariable Long userId, @RequestParam Integer status) {
+        if (status < 0 || status > 2) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return adminService.updateUserStatus(userId, status)
+                    ? ResponseEntity.ok(true) : ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("修改用户状态失败", e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 修改用户角色
+     *
+     * @param userId 用户ID
+     * @param userRole 角色
+     * @return 是否修改成功
+     */
+    @PutMapping("/admin/users/{userId}/role")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Boolean> updateUserRole(@PathVariable Long userId, @RequestParam Integer userRole) {
+        try {
+            return adminService.updateUserRole(userId, userRole)
+                    ? ResponseEntity.ok(true) : ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("修改用户角色失败", e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 从数据库重建热点帖子排行
+     *
+     * @return 载入的帖子数
+     */
+    @PostMapping("/admin/hot-posts/rebuild")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Integer> rebuildHotPostRanking() {
+        try {
+            return ResponseEntity.ok(hotPostRankingService.rebuild());
+        } catch (Exception e) {
+            logger.error("重建热点帖子排行失败", e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 按当前配置的计算方式重新计算全部已发布帖子的热度分数，并写回数据库和热度排行
+     * <p>
+     * 切换 hot.score.mode 后需要执行一次，否则新旧两种分数会混在同一个排行中
+     *
+     * @return 计算方式和回填的帖子数
+     */
+    @PostMapping("/admin/hot-score/backfill")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, Object>> backfillHotScores() {
+        int count = hotScoreService.backfill();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", hotScoreService.getMode());
+        result.put("count", count);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 立即重算热度分数过期的帖子，不等待定时任务
+     *
+     * @return 更新的帖子数
+     */
+    @PostMapping("/admin/hot-score/recalc")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Integer> recalculateHotScores() {
+        return ResponseEntity.ok(hotScoreRecalcService.recalculate());
+    }
+
+    /**
+     * 获取热度分数定时重算统计信息（当前进度、待重算帖子数、最大滞后时长等）
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/admin/hot-score/recalc/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getHotScoreRecalcStats() {
+        return ResponseEntity.ok(hotScoreRecalcService.getStats());
+    }
+
+    /**
+     * 获取帖子计数写回统计（含尚未落库的增量）
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/admin/post-counters/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getPostCounterStats() {
+        return ResponseEntity.ok(postCounterService.getStats());
+    }
+
+    /**
+     * 获取帖子互动速度跟踪统计信息（跟踪的帖子数、突发帖子数、刷新和持久化情况）
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/admin/post-velocity/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getPostVelocityStats() {
+        return ResponseEntity.ok(postVelocityService.getStats());
+    }
+
+    /**
+     * 获取SFTP通道池统计信息（活跃/空闲通道数、借用等待时间等）
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/admin/sftp-pool/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSftpPoolStats() {
+        return ResponseEntity.ok(sftpUtil.getPoolStats());
+    }
+
+    /**
+     * 获取大模型网关统计信息（活跃会话数、排队数、排队等待和首条消息延迟等），按网关名称分组
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/admin/ai-gateway/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getModelGatewayStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (ModelGateway gateway : modelGateways) {
+            stats.put(gateway.getName(), gateway.getStats());
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * 获取知识库问答缓存统计信息（精确/相似命中次数、命中率等）
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/admin/ai-answer-cache/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getAnswerCacheStats() {
+        return ResponseEntity.ok(answerCacheService.getStats());
+    }
+
+    /**
+     * 知识库内容更新后使其缓存的答案全部失效
+     *
+     * @param knowledgeBaseId 知识库ID
+     * @return 操作结果
+     */
+    @DeleteMapping("/admin/ai-answer-cache/{knowledgeBaseId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> invalidateAnswerCache(@PathVariable String knowledgeBaseId) {
+        answerCacheService.invalidate(knowledgeBaseId);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -1,8 +1,10 @@
 package com.liuxy.campushub.controller;
 
 import com.liuxy.campushub.entity.Attachment;
+import com.liuxy.campushub.exception.BusinessException;
 import com.liuxy.campushub.service.AttachmentService;
 import com.liuxy.campushub.common.Result;
+import com.liuxy.campushub.vo.ScrollResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -39,6 +41,8 @@ public class AttachmentController {
             }
             Long fileId = attachmentService.uploadFile(file, postId);
             return Result.success(fileId);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (IOException e) {
             return Result.error("文件上传失败: " + e.getMessage());
         } catch (Exception e) {
@@ -62,6 +66,8 @@ public class AttachmentController {
             }
             List<Long> fileIds = attachmentService.uploadFiles(files, postId);
             return Result.success(fileIds);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (IOException e) {
             return Result.error("文件上传失败: " + e.getMessage());
         } catch (Exception e) {
@@ -136,8 +142,30 @@ public class AttachmentController {
                                                        @RequestParam(defaultValue = "1") int pageNum,
                                                        @RequestParam(defaultValue = "10") int pageSize) {
         try {
-            List<Attachment> attachments = attachmentService.getAttachmentsByType(fileType, pageNum, pageSize);
+            ScrollResult<Attachment> attachments = attachmentService.getAttachmentsByType(fileType, null, pageNum, pageSize);
+            return Result.success(attachments.getItems());
+        } catch (Exception e) {
+            return Result.error("获取附件列表失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 根据类型滚动加载附件列表
+     *
+     * @param fileType 文件类型
+     * @param cursor 上一页返回的游标（首次加载不传）
+     * @param pageSize 每页数量
+     * @return 附件列表及下一页游标
+     */
+    @GetMapping("/type/{fileType}/scroll")
+    public Result<ScrollResult<Attachment>> getAttachmentsByTypeScroll(@PathVariable String fileType,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(defaultValue = "10") int pageSize) {
+        try {
+            ScrollResult<Attachment> attachments = attachmentService.getAttachmentsByType(fileType, cursor, 1, ScrollResult.clampPageSize(pageSize));
             return Result.success(attachments);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (Exception e) {
             return Result.error("获取附件列表失败: " + e.getMessage());
         }
@@ -2,13 +2,18 @@ package com.liuxy.campushub.controller;
 
 import com.liuxy.campushub.common.Result;
 import com.liuxy.campushub.entity.Comment;
+import com.liuxy.campushub.security.AuthUser;
+import com.liuxy.campushub.security.CurrentUser;
 import com.liuxy.campushub.service.CommentService;
 import com.liuxy.campushub.vo.CommentVO;
+import com.liuxy.campushub.vo.ScrollResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -33,17 +38,9 @@ public class CommentController {
      * @return 评论ID
      */
     @PostMapping
-    public Result<Long> createComment(@RequestBody Comment comment) {
+    public Result<Long> createComment(@CurrentUser AuthUser currentUser, @RequestBody Comment comment) {
         logger.info("创建评论请求，comment: {}", comment);
-        try {
-            // 从安全上下文获取当前用户ID
-            Long userId = com.liuxy.campushub.utils.SecurityUtil.getCurrentUserId();
-            logger.info("从安全上下文获取到当前用户ID: {}", userId);
-            comment.setUserId(userId);
-        } catch (Exception e) {
-            logger.error("获取当前用户ID失败", e);
-            return Result.error("无法获取用户ID");
-        }
+        comment.setUserId(currentUser.getId());
         Long commentId = commentService.createComment(comment);
         return Result.success(commentId);
     }
@@ -74,6 +71,26 @@ public class CommentController {
         return Result.success(comments);
     }
 
+    /**
+     * 滚动加载帖子评论
+     *
+     * @param postId 帖子ID
+     * @param lastTime 上一页最后一条顶级评论的时间（首次加载传null）
+     * @param lastId 上一页最后一条顶级评论的ID
+     * @param pageSize 每页顶级评论数，默认10
+     * @return 评论列表
+     */
+    @GetMapping("/post/{postId}/scroll")
+    public Result<ScrollResult<CommentVO>> getCommentsByPostScroll(
+            @PathVariable Long postId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date lastTime,
+            @RequestParam(required = false) Long lastId,
+            @RequestParam(defaultValue = "10") int pageSize) {
+        logger.info("滚动加载帖子评论请求，postId: {}, lastTime: {}, lastId: {}", postId, lastTime, lastId);
+        ScrollResult<CommentVO> result = commentService.getCommentsByPostIdScroll(postId, lastTime, lastId, pageSize);
+        return Result.success(result);
+    }
+
     /**
      * 获取用户评论列表
      *
@@ -88,7 +105,25 @@ public class CommentController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int pageSize) {
         logger.info("获取用户评论列表请求，userId: {}, page: {}, pageSize: {}", userId, page, pageSize);
-        List<CommentVO> comments = commentService.getCommentsByUserId(userId, page, pageSize);
+        ScrollResult<CommentVO> comments = commentService.getCommentsByUserId(userId, null, page, pageSize);
+        return Result.success(comments.getItems());
+    }
+
+    /**
+     * 滚动加载用户评论列表
+     *
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标（首次加载不传）
+     * @param pageSize 每页大小
+     * @return 评论列表及下一页游标
+     */
+    @GetMapping("/user/{userId}/scroll")
+    public Result<ScrollResult<CommentVO>> getCommentsByUserScroll(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int pageSize) {
+        logger.info("滚动加载用户评论请求，userId: {}, cursor: {}, pageSize: {}", userId, cursor, pageSize);
+        ScrollResult<CommentVO> comments = commentService.getCommentsByUserId(userId, cursor, 1, ScrollResult.clampPageSize(pageSize));
         return Result.success(comments);
     }
 
@@ -3,6 +3,8 @@ package com.liuxy.campushub.controller;
 import com.liuxy.campushub.entity.LostFound;
 import com.liuxy.campushub.service.LostFoundService;
 import com.liuxy.campushub.common.Result;
+import com.liuxy.campushub.exception.BusinessException;
+import com.liuxy.campushub.vo.ScrollResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -101,11 +103,33 @@ public class LostFoundController {
      */
     @GetMapping("/search")
     public Result<List<LostFound>> searchLostFound(@RequestParam String keyword,
-                                                 @RequestParam(defaultValue = "1") int pageNum,
-                                                 @RequestParam(defaultValue = "10") int pageSize) {
+                                                   @RequestParam(defaultValue = "1") int pageNum,
+                                                   @RequestParam(defaultValue = "10") int pageSize) {
+        try {
+            ScrollResult<LostFound> lostFounds = lostFoundService.searchLostFound(keyword, null, pageNum, pageSize);
+            return Result.success(lostFounds.getItems());
+        } catch (Exception e) {
+            return Result.error("搜索失物招领失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 滚动加载失物招领搜索结果
+     *
+     * @param keyword 关键词
+     * @param cursor 上一页返回的游标（首次加载不传）
+     * @param pageSize 每页数量
+     * @return 失物招领列表及下一页游标
+     */
+    @GetMapping("/search/scroll")
+    public Result<ScrollResult<LostFound>> searchLostFoundScroll(@RequestParam String keyword,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "10") int pageSize) {
         try {
-            List<LostFound> lostFounds = lostFoundService.searchLostFound(keyword, pageNum, pageSize);
+            ScrollResult<LostFound> lostFounds = lostFoundService.searchLostFound(keyword, cursor, 1, ScrollResult.clampPageSize(pageSize));
             return Result.success(lostFounds);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (Exception e) {
             return Result.error("搜索失物招领失败: " + e.getMessage());
         }
@@ -120,10 +144,30 @@ public class LostFoundController {
      */
     @GetMapping("/unfound")
     public Result<List<LostFound>> getUnfoundItems(@RequestParam(defaultValue = "1") int pageNum,
-                                                 @RequestParam(defaultValue = "10") int pageSize) {
+                                                   @RequestParam(defaultValue = "10") int pageSize) {
         try {
-            List<LostFound> lostFounds = lostFoundService.getUnfoundItems(pageNum, pageSize);
+            ScrollResult<LostFound> lostFounds = lostFoundService.getUnfoundItems(null, pageNum, pageSize);
+            return Result.success(lostFounds.getItems());
+        } catch (Exception e) {
+            return Result.error("获取未找到物品列表失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 滚动加载未找到的物品列表
+     *
+     * @param cursor 上一页返回的游标（首次加载不传）
+     * @param pageSize 每页数量
+     * @return 失物招领列表及下一页游标
+     */
+    @GetMapping("/unfound/scroll")
+    public Result<ScrollResult<LostFound>> getUnfoundItemsScroll(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "10") int pageSize) {
+        try {
+            ScrollResult<LostFound> lostFounds = lostFoundService.getUnfoundItems(cursor, 1, ScrollResult.clampPageSize(pageSize));
             return Result.success(lostFounds);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (Exception e) {
             return Result.error("获取未找到物品列表失败: " + e.getMessage());
         }
@@ -138,10 +182,30 @@ public class LostFoundController {
      */
     @GetMapping("/found")
     public Result<List<LostFound>> getFoundItems(@RequestParam(defaultValue = "1") int pageNum,
-                                               @RequestParam(defaultValue = "10") int pageSize) {
+                                                 @RequestParam(defaultValue = "10") int pageSize) {
         try {
-            List<LostFound> lostFounds = lostFoundService.getFoundItems(pageNum, pageSize);
+            ScrollResult<LostFound> lostFounds = lostFoundService.getFoundItems(null, pageNum, pageSize);
+            return Result.success(lostFounds.getItems());
+        } catch (Exception e) {
+            return Result.error("获取已找到物品列表失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 滚动加载已找到的物品列表
+     *
+     * @param cursor 上一页返回的游标（首次加载不传）
+     * @param pageSize 每页数量
+     * @return 失物招领列表及下一页游标
+     */
+    @GetMapping("/found/scroll")
+    public Result<ScrollResult<LostFound>> getFoundItemsScroll(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "10") int pageSize) {
+        try {
+            ScrollResult<LostFound> lostFounds = lostFoundService.getFoundItems(cursor, 1, ScrollResult.clampPageSize(pageSize));
             return Result.success(lostFounds);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (Exception e) {
             return Result.error("获取已找到物品列表失败: " + e.getMessage());
         }
@@ -159,13 +223,39 @@ public class LostFoundController {
      */
     @GetMapping("/nearby")
     public Result<List<LostFound>> getNearbyLostFound(@RequestParam double longitude,
-                                                    @RequestParam double latitude,
-                                                    @RequestParam(defaultValue = "1000") int radius,
-                                                    @RequestParam(defaultValue = "1") int pageNum,
-                                                    @RequestParam(defaultValue = "10") int pageSize) {
+                                                      @RequestParam double latitude,
+                                                      @RequestParam(defaultValue = "1000") int radius,
+                                                      @RequestParam(defaultValue = "1") int pageNum,
+                                                      @RequestParam(defaultValue = "10") int pageSize) {
+        try {
+            ScrollResult<LostFound> lostFounds = lostFoundService.getNearbyLostFound(longitude, latitude, radius, null, pageNum, pageSize);
+            return Result.success(lostFounds.getItems());
+        } catch (Exception e) {
+            return Result.error("获取附近失物招领失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 滚动加载附近的失物招领
+     *
+     * @param longitude 经度
+     * @param latitude 纬度
+     * @param radius 半径（米）
+     * @param cursor 上一页返回的游标（首次加载不传）
+     * @param pageSize 每页数量
+     * @return 失物招领列表及下一页游标
+     */
+    @GetMapping("/nearby/scroll")
+    public Result<ScrollResult<LostFound>> getNearbyLostFoundScroll(@RequestParam double longitude,
+                                                                    @RequestParam double latitude,
+                                                                    @RequestParam(defaultValue = "1000") int radius,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "10") int pageSize) {
         try {
-            List<LostFound> lostFounds = lostFoundService.getNearbyLostFound(longitude, latitude, radius, pageNum, pageSize);
+            ScrollResult<LostFound> lostFounds = lostFoundService.getNearbyLostFound(longitude, latitude, radius, cursor, 1, ScrollResult.clampPageSize(pageSize));
             return Result.success(lostFounds);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (Exception e) {
             return Result.error("获取附近失物招领失败: " + e.getMessage());
         }
@@ -181,11 +271,33 @@ public class LostFoundController {
      */
     @GetMapping("/type/{itemType}")
     public Result<List<LostFound>> getLostFoundByItemType(@PathVariable String itemType,
-                                                        @RequestParam(defaultValue = "1") int pageNum,
-                                                        @RequestParam(defaultValue = "10") int pageSize) {
+                                                          @RequestParam(defaultValue = "1") int pageNum,
+                                                          @RequestParam(defaultValue = "10") int pageSize) {
         try {
-            List<LostFound> lostFounds = lostFoundService.getLostFoundByItemType(itemType, pageNum, pageSize);
+            ScrollResult<LostFound> lostFounds = lostFoundService.getLostFoundByItemType(itemType, null, pageNum, pageSize);
+            return Result.success(lostFounds.getItems());
+        } catch (Exception e) {
+            return Result.error("获取物品类型列表失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 根据物品类型滚动加载
+     *
+     * @param itemType 物品类型
+     * @param cursor 上一页返回的游标（首次加载不传）
+     * @param pageSize 每页数量
+     * @return 失物招领列表及下一页游标
+     */
+    @GetMapping("/type/{itemType}/scroll")
+    public Result<ScrollResult<LostFound>> getLostFoundByItemTypeScroll(@PathVariable String itemType,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(defaultValue = "10") int pageSize) {
+        try {
+            ScrollResult<LostFound> lostFounds = lostFoundService.getLostFoundByItemType(itemType, cursor, 1, ScrollResult.clampPageSize(pageSize));
             return Result.success(lostFounds);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (Exception e) {
             return Result.error("获取物品类型列表失败: " + e.getMessage());
         }
@@ -202,12 +314,36 @@ public class LostFoundController {
      */
     @GetMapping("/time-range")
     public Result<List<LostFound>> getLostFoundByTimeRange(@RequestParam String startTime,
-                                                         @RequestParam String endTime,
-                                                         @RequestParam(defaultValue = "1") int pageNum,
-                                                         @RequestParam(defaultValue = "10") int pageSize) {
+                                                           @RequestParam String endTime,
+                                                           @RequestParam(defaultValue = "1") int pageNum,
+                                                           @RequestParam(defaultValue = "10") int pageSize) {
+        try {
+            ScrollResult<LostFound> lostFounds = lostFoundService.getLostFoundByTimeRange(startTime, endTime, null, pageNum, pageSize);
+            return Result.success(lostFounds.getItems());
+        } catch (Exception e) {
+            return Result.error("获取时间范围列表失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 根据时间范围滚动加载
+     *
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param cursor 上一页返回的游标（首次加载不传）
+     * @param pageSize 每页数量
+     * @return 失物招领列表及下一页游标
+     */
+    @GetMapping("/time-range/scroll")
+    public Result<ScrollResult<LostFound>> getLostFoundByTimeRangeScroll(@RequestParam String startTime,
+                                                                         @RequestParam String endTime,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(defaultValue = "10") int pageSize) {
         try {
-            List<LostFound> lostFounds = lostFoundService.getLostFoundByTimeRange(startTime, endTime, pageNum, pageSize);
+            ScrollResult<LostFound> lostFounds = lostFoundService.getLostFoundByTimeRange(startTime, endTime, cursor, 1, ScrollResult.clampPageSize(pageSize));
             return Result.success(lostFounds);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (Exception e) {
             return Result.error("获取时间范围列表失败: " + e.getMessage());
         }
@@ -0,0 +1,151 @@
+package com.liuxy.campushub.controller;
+
+import com.liuxy.campushub.storage.BlobKeys;
+import com.liuxy.campushub.storage.BlobStore;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+
+/**
+ * 文件访问控制器
+ * <p>
+ * 从文件存储读取图片、附件并输出，支持单段 Range 请求。
+ * 存储为本地磁盘时可将 storage.public-base-url 指向本接口，不再依赖单独的静态文件服务器。
+ * <p>
+ * 本接口与 API 同源，只有白名单中的图片类型内联显示；其余文件（html、svg 等）
+ * 一律以 application/octet-stream 作为附件下载，并禁止浏览器嗅探内容类型，防止上传的文件被当作页面执行。
+ *
+ * GET /media/{key}
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@RestController
+public class MediaController {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaController.class);
+
+    /**
+     * 文件名唯一，内容不会变化，允许客户端长期缓存
+     */
+    private static final String CACHE_CONTROL = "public, max-age=2592000, immutable";
+
+    @Autowired
+    private BlobStore blobStore;
+
+    /**
+     * 读取文件
+     *
+     * @param key 对象键，如 avatars/20240407_120000_ab12cd34.jpg
+     * @param range Range 请求头
+     * @param response HTTP响应
+     */
+    @GetMapping("/media/{*key}")
+    public void getMedia(@PathVariable("key") String key,
+                         @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                         HttpServletResponse response) throws IOException {
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        String normalized;
+        long size;
+        try {
+            normalized = BlobKeys.normalize(key);
+            size = blobStore.size(normalized);
+        } catch (IllegalArgumentException | NoSuchFileException e) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        long start = 0;
+        long end = size - 1;
+        // 多段 Range 较少见，按规范忽略并返回完整内容
+        if (range != null && range.indexOf(',') < 0) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        long length = Math.max(end - start + 1, 0);
+        String imageType = BlobKeys.inlineImageType(normalized);
+        if (imageType != null) {
+            response.setContentType(imageType);
+        } else {
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(normalized.substring(normalized.lastIndexOf('/') + 1), StandardCharsets.UTF_8)
+                    .build().toString());
+        }
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (length > 0) {
+            try {
+                blobStore.transferTo(normalized, start, length, Channels.newChannel(response.getOutputStream()));
+            } catch (IOException e) {
+                if (response.isCommitted()) {
+                    // 状态码已发出，只能中断输出，客户端按 Content-Length 可发现内容不完整
+                    logger.warn("文件输出中断: {}, {}", normalized, e.getMessage());
+                } else {
+                    logger.error("读取文件失败: {}", normalized, e);
+                    response.reset();
+                    response.sendError(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                }
+            }
+        }
+    }
+
+    /**
+     * 解析单段 Range，返回 [起始, 结束]，不可满足时返回null
+     */
+    private long[] parseRange(String range, long size) {
+        if (!range.startsWith("bytes=") || size == 0) {
+            return null;
+        }
+        String spec = range.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // bytes=-N 表示最后N个字节
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(size - suffix, 0);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            return start <= end && start < size ? new long[]{start, end} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -10,6 +10,8 @@ import com.liuxy.campushub.service.AttachmentService;
 import com.liuxy.campushub.service.LostFoundService;
 import com.liuxy.campushub.service.HotPostService;
 import com.liuxy.campushub.common.Result;
+import com.liuxy.campushub.security.AuthUser;
+import com.liuxy.campushub.security.CurrentUser;
 import com.liuxy.campushub.vo.PostVO;
 import com.liuxy.campushub.vo.ScrollResult;
 import com.liuxy.campushub.vo.HotPostVO;
@@ -23,7 +25,6 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.util.*;
 
-import static com.liuxy.campushub.utils.SecurityUtil.getCurrentUserId;
 
 /**
  * 帖子控制器
@@ -68,13 +69,11 @@ public class PostController {
      * @return 创建结果
      */
     @PostMapping
-    public Result createPost(@RequestBody Map<String, Object> params) {
+    public Result createPost(@CurrentUser AuthUser currentUser, @RequestBody Map<String, Object> params) {
         try {
             logger.info("收到创建帖子请求，请求参数: {}", params);
             
-            // 获取当前用户ID
-            Long userId = getCurrentUserId();
-            logger.info("从安全上下文获取到当前用户ID: {}", userId);
+            Long userId = currentUser.getId();
             
             // 构建帖子对象
             Post post = new Post();
@@ -123,7 +122,8 @@ public class PostController {
      * @return 更新结果
      */
     @PutMapping("/{postId}")
-    public Result<Boolean> updatePost(@PathVariable Long postId, @RequestBody Map<String, Object> request) {
+    public Result<Boolean> updatePost(@CurrentUser AuthUser currentUser, @PathVariable Long postId,
+                                      @RequestBody Map<String, Object> request) {
         try {
             logger.info("收到更新帖子请求，postId: {}，请求参数: {}", postId, request);
             
@@ -149,22 +149,7 @@ public class PostController {
                 }
             }
             
-            // 从安全上下文获取当前用户ID
-            Long userId;
-            try {
-                userId = getCurrentUserId();
-                logger.info("从安全上下文获取到当前用户ID: {}", userId);
-            } catch (Exception e) {
-                logger.error("获取当前用户ID失败，尝试从请求中获取", e);
-                // 如果从安全上下文获取失败，尝试从请求中获取
-                if (request.containsKey("userId")) {
-                    userId = Long.valueOf(request.get("userId").toString());
-                    logger.info("从请求中获取到用户ID: {}", userId);
-                } else {
-                    logger.warn("无法获取用户ID，使用默认值null");
-                    userId = null;
-                }
-            }
+            Long userId = currentUser.getId();
             
             Post post = new Post();
             post.setPostId(postId);
@@ -279,8 +264,10 @@ public class PostController {
     @PostMapping("/{postId}/like")
     public Result<Boolean> likePost(@PathVariable Long postId) {
         try {
-            boolean success = postService.incrementLikeCount(postId);
-            return Result.success(success);
+            if (!postService.incrementLikeCount(postId)) {
+                return Result.error(404, "帖子不存在");
+            }
+            return Result.success(true);
         } catch (Exception e) {
             return Result.error("点赞失败: " + e.getMessage());
         }
@@ -295,8 +282,10 @@ public class PostController {
     @PostMapping("/{postId}/share")
     public Result<Boolean> sharePost(@PathVariable Long postId) {
         try {
-            boolean success = postService.incrementShareCount(postId);
-            return Result.success(success);
+            if (!postService.incrementShareCount(postId)) {
+                return Result.error(404, "帖子不存在");
+            }
+            return Result.success(true);
         } catch (Exception e) {
             return Result.error("分享失败: " + e.getMessage());
         }
@@ -309,13 +298,11 @@ public class PostController {
      * @return 删除结果
      */
     @DeleteMapping("/{postId}")
-    public Result<Boolean> deletePost(@PathVariable Long postId) {
+    public Result<Boolean> deletePost(@CurrentUser AuthUser currentUser, @PathVariable Long postId) {
         try {
             logger.info("收到删除帖子请求，postId: {}", postId);
             
-            // 从安全上下文获取当前用户ID
-            Long currentUserId = getCurrentUserId();
-            logger.info("从安全上下文获取到当前用户ID: {}", currentUserId);
+            Long currentUserId = currentUser.getId();
             
             // 获取帖子信息
             Post post = postService.getPostById(postId);
@@ -352,16 +339,22 @@ public class PostController {
      * 获取帖子列表（滚动分页）
      *
      * @param lastTime 最后一条记录的时间戳（首次传空）
+     * @param lastId 最后一条记录的帖子ID（即上一页返回的 nextId）
+     * @param cursor 上一页返回的游标，可代替 lastTime、lastId
      * @param pageSize 每页数量，默认10
      * @return 帖子列表
      */
     @GetMapping("/list")
     public Result<ScrollResult<PostVO>> getPostList(
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date lastTime,
+            @RequestParam(required = false) Long lastId,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int pageSize) {
         try {
-            ScrollResult<PostVO> result = postService.getPostList(lastTime, pageSize);
+            ScrollResult<PostVO> result = postService.getPostList(lastTime, lastId, cursor, pageSize);
             return Result.success(result);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (Exception e) {
             logger.error("获取帖子列表失败", e);
             return Result.error("获取帖子列表失败: " + e.getMessage());
@@ -372,16 +365,22 @@ public class PostController {
      * 瀑布流加载帖子列表
      *
      * @param lastTime 最后一条记录的时间戳（首次加载传null）
+     * @param lastId 最后一条记录的帖子ID（即上一页返回的 nextId）
+     * @param cursor 上一页返回的游标，可代替 lastTime、lastId
      * @param limit 获取条数，默认10条
      * @return 帖子列表
      */
     @GetMapping("/waterfall")
     public Result<ScrollResult<PostVO>> getPostsWaterfall(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date lastTime,
+            @RequestParam(required = false) Long lastId,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int limit) {
         try {
-            ScrollResult<PostVO> result = postService.getPostsWaterfall(lastTime, limit);
+            ScrollResult<PostVO> result = postService.getPostsWaterfall(lastTime, lastId, cursor, limit);
             return Result.success(result);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (Exception e) {
             logger.error("瀑布流加载失败", e);
             return Result.error("瀑布流加载失败: " + e.getMessage());
@@ -397,7 +396,7 @@ public class PostController {
     public Result<ScrollResult<PostVO>> getRoot() {
         logger.debug("访问根路径 /api/posts/，重定向到列表接口");
         try {
-            return getPostList(null, 10);
+            return getPostList(null, null, null, 10);
         } catch (Exception e) {
             logger.error("根路径处理失败", e);
             return Result.error("获取帖子列表失败: " + e.getMessage());
@@ -407,23 +406,26 @@ public class PostController {
     /**
      * 获取当前用户发布的帖子列表
      *
+     * @param cursor 上一页返回的游标，传入时忽略页码
      * @param page 页码，默认1
-     * @param pageSize 每页大小，默认10
+     * @param pageSize 每页大小，默认10，按游标翻页时最多50
      * @return 帖子列表
      */
     @GetMapping("/my")
     public Result<ScrollResult<PostVO>> getMyPosts(
+            @CurrentUser AuthUser currentUser,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int pageSize) {
         try {
             logger.info("获取当前用户发布的帖子列表，page: {}, pageSize: {}", page, pageSize);
             
-            // 从安全上下文获取当前用户ID
-            Long userId = getCurrentUserId();
-            logger.info("从安全上下文获取到当前用户ID: {}", userId);
-            
-            ScrollResult<PostVO> result = postService.getPostsByUserId(userId, page, pageSize);
+            Long userId = currentUser.getId();
+            ScrollResult<PostVO> result = postService.getPostsByUserId(userId, cursor, page,
+                    cursor != null ? ScrollResult.clampPageSize(pageSize) : pageSize);
             return Result.success(result);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (Exception e) {
             logger.error("获取当前用户帖子列表失败", e);
             return Result.error("获取帖子列表失败: " + e.getMessage());
@@ -449,7 +451,7 @@ public class PostController {
     }
     
     /**
-     * 获取热点帖子列表（带分页）
+     * 获取热点帖子列表（带分页），最多可翻到排行的前 hot.ranking.capacity 名
      *
      * @param page 页码，从1开始
      * @param pageSize 每页大小，默认10
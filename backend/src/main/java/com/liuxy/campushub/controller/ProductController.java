@@ -3,8 +3,11 @@ package com.liuxy.campushub.controller;
 import com.liuxy.campushub.dto.ProductRequest;
 import com.liuxy.campushub.dto.ProductResponse;
 import com.liuxy.campushub.dto.ProductListResponse;
+import com.liuxy.campushub.security.AuthUser;
+import com.liuxy.campushub.security.CurrentUser;
 import com.liuxy.campushub.service.ProductService;
 import com.liuxy.campushub.service.ImageService;
+import com.liuxy.campushub.vo.ScrollResult;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -107,14 +110,14 @@ public class ProductController {
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Long> publishProduct(
-            @RequestParam("userId") Long userId,
+            @CurrentUser AuthUser currentUser,
             @Valid @RequestBody ProductRequest request) {
-        logger.info("收到发布商品请求，发布者ID：{}", userId);
+        logger.info("收到发布商品请求，发布者ID：{}", currentUser.getId());
         try {
-            Long productId = productService.publishProduct(userId, request);
+            Long productId = productService.publishProduct(currentUser.getId(), currentUser.getUsername(), request);
             return ResponseEntity.ok(productId);
         } catch (Exception e) {
-            logger.error("发布商品失败，发布者ID：" + userId, e);
+            logger.error("发布商品失败，发布者ID：" + currentUser.getId(), e);
             throw e;
         }
     }
@@ -141,20 +144,22 @@ public class ProductController {
     @GetMapping("/my")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ProductListResponse> getMyProducts(
-            @RequestAttribute("userId") Long userId,
+            @CurrentUser AuthUser currentUser,
             @RequestParam(required = false, defaultValue = "出售中") String status,
             @RequestParam(required = false, defaultValue = "createTime") String sortField,
             @RequestParam(required = false, defaultValue = "desc") String sortOrder,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize) {
         logger.info("获取用户发布的商品列表，用户ID：{}，状态：{}，排序：{} {}，页码：{}，每页数量：{}", 
-            userId, status, sortField, sortOrder, pageNum, pageSize);
+            currentUser.getId(), status, sortField, sortOrder, pageNum, pageSize);
         try {
             ProductListResponse response = productService.getMyProducts(
-                userId, status, sortField, sortOrder, pageNum, pageSize);
+                currentUser.getId(), status, sortField, sortOrder, cursor, pageNum,
+                cursor != null ? ScrollResult.clampPageSize(pageSize) : pageSize);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            logger.error("获取用户发布的商品列表失败，用户ID：" + userId, e);
+            logger.error("获取用户发布的商品列表失败，用户ID：" + currentUser.getId(), e);
             throw e;
         }
     }
@@ -166,11 +171,11 @@ public class ProductController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Void> updateProduct(
             @PathVariable Long productId,
-            @RequestAttribute("userId") Long userId,
+            @CurrentUser AuthUser currentUser,
             @Valid @RequestBody ProductRequest request) {
-        logger.info("更新商品信息，商品ID：{}，发布者ID：{}", productId, userId);
+        logger.info("更新商品信息，商品ID：{}，发布者ID：{}", productId, currentUser.getId());
         try {
-            productService.updateProduct(productId, userId, request);
+            productService.updateProduct(productId, currentUser.getId(), request);
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             logger.error("更新商品信息失败，商品ID：" + productId, e);
@@ -185,10 +190,10 @@ public class ProductController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Void> takeDownProduct(
             @PathVariable Long productId,
-            @RequestAttribute("userId") Long userId) {
-        logger.info("下架商品，商品ID：{}，发布者ID：{}", productId, userId);
+            @CurrentUser AuthUser currentUser) {
+        logger.info("下架商品，商品ID：{}，发布者ID：{}", productId, currentUser.getId());
         try {
-            productService.takeDownProduct(productId, userId);
+            productService.takeDownProduct(productId, currentUser.getId());
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             logger.error("下架商品失败，商品ID：" + productId, e);
@@ -203,10 +208,10 @@ public class ProductController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Void> markProductAsCompleted(
             @PathVariable Long productId,
-            @RequestAttribute("userId") Long userId) {
-        logger.info("标记商品为已达成，商品ID：{}，发布者ID：{}", productId, userId);
+            @CurrentUser AuthUser currentUser) {
+        logger.info("标记商品为已达成，商品ID：{}，发布者ID：{}", productId, currentUser.getId());
         try {
-            productService.markProductAsCompleted(productId, userId);
+            productService.markProductAsCompleted(productId, currentUser.getId());
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             logger.error("标记商品状态失败，商品ID：" + productId, e);
@@ -227,6 +232,7 @@ public class ProductController {
             @RequestParam(required = false, defaultValue = "出售中") String status,
             @RequestParam(required = false, defaultValue = "createTime") String sortField,
             @RequestParam(required = false, defaultValue = "desc") String sortOrder,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize) {
         logger.info("获取商品列表，分类：{}，关键词：{}，搜索类型：{}，价格区间：{}-{}，状态：{}，排序：{} {}，页码：{}，每页数量：{}", 
@@ -234,7 +240,8 @@ public class ProductController {
         try {
             ProductListResponse response = productService.getProductList(
                 categoryId, keyword, searchType, minPrice, maxPrice, status,
-                sortField, sortOrder, pageNum, pageSize);
+                sortField, sortOrder, cursor, pageNum,
+                cursor != null ? ScrollResult.clampPageSize(pageSize) : pageSize);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("获取商品列表失败", e);
@@ -249,13 +256,13 @@ public class ProductController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<List<Long>> uploadProductImages(
             @RequestParam("files") List<MultipartFile> files,
-            @RequestAttribute("userId") Long userId) {
-        logger.info("上传商品图片，上传者ID：{}", userId);
+            @CurrentUser AuthUser currentUser) {
+        logger.info("上传商品图片，上传者ID：{}", currentUser.getId());
         try {
-            List<Long> imageIds = productService.uploadProductImages(files, userId);
+            List<Long> imageIds = productService.uploadProductImages(files, currentUser.getId());
             return ResponseEntity.ok(imageIds);
         } catch (Exception e) {
-            logger.error("上传商品图片失败，上传者ID：" + userId, e);
+            logger.error("上传商品图片失败，上传者ID：" + currentUser.getId(), e);
             throw e;
         }
     }
@@ -267,10 +274,10 @@ public class ProductController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Void> deleteProductImage(
             @PathVariable Long imageId,
-            @RequestAttribute("userId") Long userId) {
-        logger.info("删除商品图片，图片ID：{}，用户ID：{}", imageId, userId);
+            @CurrentUser AuthUser currentUser) {
+        logger.info("删除商品图片，图片ID：{}，用户ID：{}", imageId, currentUser.getId());
         try {
-            productService.deleteProductImage(imageId, userId);
+            productService.deleteProductImage(imageId, currentUser.getId());
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             logger.error("删除商品图片失败，图片ID：" + imageId, e);
@@ -11,6 +11,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import jakarta.validation.Valid;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 学生用户控制器
  * 
@@ -160,7 +162,7 @@ public class StudentUserController {
      * @return 用户详细信息
      */
     @GetMapping("/{userId}")
-    @PreAuthorize("hasRole('ADMIN') or principal.userId == #userId")
+    @PreAuthorize("hasAuthority('ADMIN') or principal.id == #userId")
     public ResponseEntity<UserInfoDTO> getUserInfo(@PathVariable Long userId) {
         logger.info("查询用户信息，用户ID：{}", userId);
         try {
@@ -179,16 +181,16 @@ public class StudentUserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
         logger.info("收到登录请求，登录凭证：{}", request.getLoginId());
-        try {
-            LoginResponse response = studentUserService.login(request);
-            logger.info("用户登录成功：{}", request.getLoginId());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("登录失败：" + request.getLoginId(), e);
-            throw e;
-        }
+        // 密码校验在登录线程池中完成，等待期间不占用请求线程
+        return studentUserService.login(request)
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        logger.error("登录失败：" + request.getLoginId(), e);
+                    }
+                })
+                .thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -198,7 +200,7 @@ public class StudentUserController {
      * @return 更新结果
      */
     @PutMapping("/{userId}")
-    @PreAuthorize("hasRole('ADMIN') or principal.userId == #userId")
+    @PreAuthorize("hasAuthority('ADMIN') or principal.id == #userId")
     public ResponseEntity<UpdateResponse> updateUserInfo(
             @PathVariable Long userId,
             @Valid @RequestBody UpdateUserRequest request) {
@@ -219,7 +221,7 @@ public class StudentUserController {
      * @return 修改结果
      */
     @PutMapping("/{userId}/password")
-    @PreAuthorize("hasRole('ADMIN') or principal.userId == #userId")
+    @PreAuthorize("hasAuthority('ADMIN') or principal.id == #userId")
     public ResponseEntity<UpdateResponse> changePassword(
             @PathVariable Long userId,
             @Valid @RequestBody ChangePasswordRequest request) {
@@ -240,7 +242,7 @@ public class StudentUserController {
      * @return 上传结果
      */
     @PostMapping("/{userId}/avatar")
-    @PreAuthorize("hasRole('ADMIN') or principal.userId == #userId")
+    @PreAuthorize("hasAuthority('ADMIN') or principal.id == #userId")
     public ResponseEntity<UpdateResponse> uploadAvatar(
             @PathVariable Long userId,
             @RequestParam("file") MultipartFile file) {
@@ -0,0 +1,47 @@
+package com.liuxy.campushub.controller;
+
+import com.liuxy.campushub.common.Result;
+import com.liuxy.campushub.dto.TokenPair;
+import com.liuxy.campushub.dto.TokenRefreshRequest;
+import com.liuxy.campushub.exception.BusinessException;
+import com.liuxy.campushub.service.RefreshTokenService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 令牌刷新控制器，学生用户和管理员共用
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@RestController
+@RequestMapping("/api/auth/token")
+@RequiredArgsConstructor
+public class TokenController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenController.class);
+    private final RefreshTokenService refreshTokenService;
+
+    /**
+     * 用刷新令牌换取新的访问令牌和刷新令牌，旧的刷新令牌随即失效
+     *
+     * @param request 刷新请求
+     * @return 新令牌；刷新令牌无效时返回401，客户端需重新登录
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Result<TokenPair>> refresh(@Valid @RequestBody TokenRefreshRequest request) {
+        try {
+            return ResponseEntity.ok(Result.success(refreshTokenService.refresh(request.getRefreshToken())));
+        } catch (BusinessException e) {
+            logger.info("令牌刷新失败: {}", e.getMessage());
+            return ResponseEntity.status(e.getErrorCode()).body(Result.error(e.getErrorCode(), e.getMessage()));
+        }
+    }
+}
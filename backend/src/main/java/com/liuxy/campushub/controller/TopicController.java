@@ -3,6 +3,8 @@ package com.liuxy.campushub.controller;
 import com.liuxy.campushub.entity.Topic;
 import com.liuxy.campushub.service.TopicService;
 import com.liuxy.campushub.common.Result;
+import com.liuxy.campushub.exception.BusinessException;
+import com.liuxy.campushub.vo.ScrollResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -186,8 +188,30 @@ public class TopicController {
                                           @RequestParam(defaultValue = "1") int pageNum,
                                           @RequestParam(defaultValue = "10") int pageSize) {
         try {
-            List<Topic> topics = topicService.searchTopics(keyword, pageNum, pageSize);
+            ScrollResult<Topic> topics = topicService.searchTopics(keyword, null, pageNum, pageSize);
+            return Result.success(topics.getItems());
+        } catch (Exception e) {
+            return Result.error("搜索话题失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 滚动加载话题搜索结果
+     *
+     * @param keyword 关键词
+     * @param cursor 上一页返回的游标（首次加载不传）
+     * @param pageSize 每页数量
+     * @return 话题列表及下一页游标
+     */
+    @GetMapping("/search/scroll")
+    public Result<ScrollResult<Topic>> searchTopicsScroll(@RequestParam String keyword,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "10") int pageSize) {
+        try {
+            ScrollResult<Topic> topics = topicService.searchTopics(keyword, cursor, 1, ScrollResult.clampPageSize(pageSize));
             return Result.success(topics);
+        } catch (BusinessException e) {
+            return Result.error(e.getErrorCode(), e.getMessage());
         } catch (Exception e) {
             return Result.error("搜索话题失败: " + e.getMessage());
         }
@@ -7,5 +7,6 @@ import lombok.Data;
 @Builder
 public class AdminLoginResponse {
     private String token;
+    private String refreshToken;
     private AdminInfoDTO admin;
 } 
\ No newline at end of file
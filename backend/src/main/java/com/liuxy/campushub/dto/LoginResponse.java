@@ -12,15 +12,17 @@ public class LoginResponse {
     private String username;
     private Integer userRole;
     private String token;
+    private String refreshToken;
 
-    public static LoginResponse success(Long userId, String username, Integer userRole, String token) {
+    public static LoginResponse success(Long userId, String username, Integer userRole, TokenPair tokens) {
         return LoginResponse.builder()
                 .success(true)
                 .message("登录成功")
                 .userId(userId)
                 .username(username)
                 .userRole(userRole)
-                .token(token)
+                .token(tokens.getToken())
+                .refreshToken(tokens.getRefreshToken())
                 .build();
     }
 
@@ -30,6 +30,16 @@ public class ProductListResponse {
      */
     private Integer pageSize;
 
+    /**
+     * 是否还有下一页
+     */
+    private Boolean hasMore;
+
+    /**
+     * 下一页游标，原样传回即可继续翻页
+     */
+    private String nextCursor;
+
     public List<ProductResponse> getProducts() {
         return products;
     }
@@ -61,4 +71,20 @@ public class ProductListResponse {
     public void setPageSize(Integer pageSize) {
         this.pageSize = pageSize;
     }
+
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
\ No newline at end of file
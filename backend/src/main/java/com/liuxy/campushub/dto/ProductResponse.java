@@ -73,6 +73,11 @@ public class ProductResponse {
      */
     private List<String> coverImages;
 
+    /**
+     * 列表展示用的封面缩略图（首张封面图），尚未生成时为空
+     */
+    private String coverThumbnail;
+
     /**
      * 卖家微信ID（加密存储）
      */
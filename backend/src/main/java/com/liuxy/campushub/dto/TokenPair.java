@@ -0,0 +1,16 @@
+package com.liuxy.campushub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 访问令牌和刷新令牌
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenPair {
+    private String token;
+    private String refreshToken;
+}
@@ -0,0 +1,10 @@
+package com.liuxy.campushub.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class TokenRefreshRequest {
+    @NotBlank(message = "刷新令牌不能为空")
+    private String refreshToken;
+}
@@ -28,6 +28,12 @@ public class Attachment {
     @JoinColumn(name = "post_id")
     private Post post;
 
+    /**
+     * 关联帖子ID（MyBatis 读写 post_id 列使用）
+     */
+    @Transient
+    private Long postId;
+
     /**
      * 文件类型: image图片/pdf文档/ppt幻灯片/video视频
      */
@@ -43,6 +49,16 @@ public class Attachment {
      */
     private String thumbnailUrl;
 
+    /**
+     * 已生成的缩略图宽度，逗号分隔；为null表示尚未生成
+     */
+    private String variantWidths;
+
+    /**
+     * 缩略图格式：webp 表示同时生成了 WebP，为null或jpg表示只有 JPEG
+     */
+    private String variantFormat;
+
     /**
      * 文件大小（单位KB）
      */
@@ -52,8 +68,4 @@ public class Attachment {
      * 上传时间
      */
     private LocalDateTime uploadTime;
-
-    public void setPostId(Long postId) {
-        //return this.post.getPostId();
-    }
 }
\ No newline at end of file
@@ -87,6 +87,18 @@ public class Image {
     @Column(name = "stored_path", nullable = false, length = 255)
     private String storedPath;
 
+    /**
+     * 已生成的缩略图宽度，逗号分隔；为null表示尚未生成
+     */
+    @Column(name = "variant_widths", length = 64)
+    private String variantWidths;
+
+    /**
+     * 缩略图格式：webp 表示同时生成了 WebP，为null或jpg表示只有 JPEG
+     */
+    @Column(name = "variant_format", length = 8)
+    private String variantFormat;
+
     /**
      * 图片用途枚举
      */
@@ -0,0 +1,16 @@
+package com.liuxy.campushub.enums;
+
+/**
+ * 热度分数计算方式枚举
+ */
+public enum HotScoreModeEnum {
+    /**
+     * 按天指数衰减：基础分 * 0.2^(小时数/24)，分数随时间持续变化，需要定期全量重算
+     */
+    DECAY,
+
+    /**
+     * 对数空间：ln(基础分) + 发布时刻偏移，分数只在计数变化时改变，任意时刻的排序与 DECAY 一致（不计突发系数）
+     */
+    LOG
+}
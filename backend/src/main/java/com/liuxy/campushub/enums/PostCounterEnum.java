@@ -0,0 +1,21 @@
+package com.liuxy.campushub.enums;
+
+/**
+ * 帖子计数类型枚举
+ */
+public enum PostCounterEnum {
+    VIEW("view_count"),
+    LIKE("like_count"),
+    COMMENT("comment_count"),
+    SHARE("share_count");
+
+    private final String column;
+
+    PostCounterEnum(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+}
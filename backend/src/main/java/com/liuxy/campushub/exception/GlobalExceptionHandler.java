@@ -20,6 +20,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.internalServerError().body(response);
     }
 
+    /**
+     * 业务异常的错误码在4xx范围内时作为HTTP状态码返回，其余仍按服务器内部错误处理
+     */
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<Map<String, String>> handleBusinessException(BusinessException e) {
+        if (e.getErrorCode() < 400 || e.getErrorCode() >= 500) {
+            return handleException(e);
+        }
+        Map<String, String> response = new HashMap<>();
+        response.put("success", "false");
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(e.getErrorCode()).body(response);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> response = new HashMap<>();
@@ -1,18 +1,17 @@
 package com.liuxy.campushub.filter;
 
+import com.liuxy.campushub.security.UserDetailsImpl;
+import com.liuxy.campushub.security.UserPrincipalCache;
 import com.liuxy.campushub.utils.JwtTokenUtil;
-import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -24,11 +23,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtTokenUtil jwtTokenUtil;
-    private final UserDetailsService userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
 
-    public JwtAuthenticationFilter(JwtTokenUtil jwtTokenUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenUtil jwtTokenUtil, UserPrincipalCache userPrincipalCache) {
         this.jwtTokenUtil = jwtTokenUtil;
-        this.userDetailsService = userDetailsService;
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     @Override
@@ -45,7 +44,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String requestTokenHeader = request.getHeader("Authorization");
-        logger.debug("Authorization header: {}", requestTokenHeader);
 
         // 如果没有token，直接放行
         if (requestTokenHeader == null || !requestTokenHeader.startsWith("Bearer ")) {
@@ -53,46 +51,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        String username = null;
         String jwtToken = requestTokenHeader.substring(7);
-        if (jwtToken == null || jwtToken.isBlank() || "null".equalsIgnoreCase(jwtToken)) {
+        if (jwtToken.isBlank() || "null".equalsIgnoreCase(jwtToken)) {
             filterChain.doFilter(request, response);
             return;
         }
-        Long userId = null;
-            logger.debug("JWT Token: {}", jwtToken);
-            try {
-                var claims = jwtTokenUtil.parseToken(jwtToken);
-                username = claims.get("username", String.class);
-                userId = claims.get("userId", Long.class);
-                logger.debug("Parsed username: {}, userId: {}", username, userId);
-            } catch (IllegalArgumentException | ExpiredJwtException e) {
-                logger.error("JWT Token解析错误", e);
-        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            logger.debug("Loading user details for username: {}", username);
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            // 签名、有效期和吊销状态在同一次解析中校验
+            Claims claims = jwtTokenUtil.verifyAndParse(jwtToken);
+            String username = claims != null ? claims.get("username", String.class) : null;
+            if (username == null) {
+                logger.debug("Token validation failed");
+            } else {
+                UserDetailsImpl userDetails = userPrincipalCache.get(username);
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authenticationToken =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
 
-            if (jwtTokenUtil.validateToken(jwtToken)) {
-                logger.debug("Token is valid, setting authentication");
-                UsernamePasswordAuthenticationToken authenticationToken = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                
-                // 将用户ID添加到请求属性中
-                if (userId != null) {
-                    request.setAttribute("userId", userId);
-                    logger.debug("Added userId to request attributes: {}", userId);
+                    // 将用户ID添加到请求属性中
+                    Long userId = claims.get("userId", Long.class);
+                    if (userId != null) {
+                        request.setAttribute("userId", userId);
+                    }
+                } else {
+                    logger.debug("User not found or disabled: {}", username);
                 }
-            } else {
-                logger.debug("Token validation failed");
             }
-        } else {
-            logger.debug("No username found or authentication already exists");
         }
-        
+
         filterChain.doFilter(request, response);
     }
 }
\ No newline at end of file
@@ -0,0 +1,205 @@
+package com.liuxy.campushub.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liuxy.campushub.common.Result;
+import com.liuxy.campushub.config.RateLimitConfig;
+import com.liuxy.campushub.security.UserDetailsImpl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 接口限流过滤器
+ * <p>
+ * 位于 JwtAuthenticationFilter 之后，已登录请求按用户ID计数，未登录请求按客户端IP计数。
+ * 令牌桶以 GCRA 方式实现：每个桶只记录一个“理论到达时间”，本地模式用 AtomicLong 的CAS更新，无锁；
+ * 分布式模式在 Redis 中用 Lua 脚本原子更新，以 Redis 服务器时间为准。
+ * 超限时返回429及 Retry-After、RateLimit-* 响应头，请求不会进入后续的过滤器和控制器。
+ * <p>
+ * 不注册为 Spring Bean，避免被 Spring Boot 自动注册为 Servlet 过滤器后在认证之前执行。
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String KEY_PREFIX = "rate:";
+    private static final long SWEEP_INTERVAL_MS = 60_000;
+
+    /**
+     * 返回 {是否通过, 通过时为剩余容量/拒绝时为需等待的毫秒数, 桶回满的毫秒数}
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GCRA_SCRIPT = new DefaultRedisScript<>(
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) " +
+            "local interval = tonumber(ARGV[1]) " +
+            "local burst = tonumber(ARGV[2]) " +
+            "local tat = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "if tat < now then tat = now end " +
+            "local newTat = tat + interval " +
+            "local diff = newTat - now " +
+            "if diff > burst then return {0, diff - burst, tat - now} end " +
+            "redis.call('SET', KEYS[1], newTat, 'PX', diff) " +
+            "return {1, burst - diff, diff}", List.class);
+
+    private final RateLimitConfig config;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // 本地令牌桶：键 -> 理论到达时间（毫秒）
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private volatile long lastSweep = System.currentTimeMillis();
+
+    public RateLimitFilter(RateLimitConfig config, StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper) {
+        this.config = config;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!config.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        int ruleIndex = matchRule(request);
+        if (ruleIndex < 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitConfig.Rule rule = config.getRules().get(ruleIndex);
+        long interval = Math.max(1, Math.round(rule.getRefillPeriodSeconds() * 1000.0 / Math.max(1, rule.getRefillTokens())));
+        long burst = interval * Math.max(1, rule.getCapacity());
+        String key = ruleIndex + ":" + clientKey(request);
+
+        long[] result = config.isDistributed() ? acquireDistributed(key, interval, burst) : null;
+        if (result == null) {
+            result = acquireLocal(key, interval, burst);
+        }
+
+        response.setHeader("RateLimit-Limit", String.valueOf(rule.getCapacity()));
+        response.setHeader("RateLimit-Reset", String.valueOf(ceilSeconds(result[2])));
+        if (result[0] == 1) {
+            response.setHeader("RateLimit-Remaining", String.valueOf(result[1] / interval));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        logger.debug("请求被限流: {} {}, key: {}", request.getMethod(), request.getRequestURI(), key);
+        response.setHeader("RateLimit-Remaining", "0");
+        response.setHeader("Retry-After", String.valueOf(ceilSeconds(result[1])));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(),
+                Result.error(HttpStatus.TOO_MANY_REQUESTS.value(), "请求过于频繁，请稍后再试"));
+    }
+
+    private int matchRule(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        List<RateLimitConfig.Rule> rules = config.getRules();
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitConfig.Rule rule = rules.get(i);
+            if (rule.getMethod() != null && !rule.getMethod().isEmpty()
+                    && !rule.getMethod().equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            if (rule.getPattern() != null && pathMatcher.match(rule.getPattern(), path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl principal) {
+            return "u:" + principal.getId();
+        }
+        if (config.isTrustForwardedFor()) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                return "ip:" + forwarded.split(",")[0].trim();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private long[] acquireLocal(String key, long interval, long burst) {
+        long now = System.currentTimeMillis();
+        sweepIfNeeded(now);
+        AtomicLong tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long diff = base + interval - now;
+            if (diff > burst) {
+                return new long[]{0, diff - burst, base - now};
+            }
+            if (tat.compareAndSet(current, base + interval)) {
+                return new long[]{1, burst - diff, diff};
+            }
+        }
+    }
+
+    private long[] acquireDistributed(String key, long interval, long burst) {
+        try {
+            @SuppressWarnings("unchecked")
+            List<Object> result = stringRedisTemplate.execute(GCRA_SCRIPT, List.of(KEY_PREFIX + key),
+                    String.valueOf(interval), String.valueOf(burst));
+            if (result == null || result.size() < 3) {
+                return null;
+            }
+            return new long[]{
+                    ((Number) result.get(0)).longValue(),
+                    ((Number) result.get(1)).longValue(),
+                    ((Number) result.get(2)).longValue()};
+        } catch (Exception e) {
+            logger.warn("Redis限流失败，退回本地限流: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 理论到达时间早于当前时间的桶已经回满，与新建的桶等价，可以直接删除
+     */
+    private void sweepIfNeeded(long now) {
+        // 键数超限时每秒最多清理一次，避免每个请求都遍历
+        long interval = buckets.size() > config.getMaxKeys() ? 1000 : SWEEP_INTERVAL_MS;
+        if (now - lastSweep < interval) {
+            return;
+        }
+        lastSweep = now;
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            if (entry.getValue().get() <= now) {
+                buckets.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static long ceilSeconds(long millis) {
+        return (Math.max(0, millis) + 999) / 1000;
+    }
+}
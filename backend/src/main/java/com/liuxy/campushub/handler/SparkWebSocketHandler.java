@@ -2,14 +2,12 @@ package com.liuxy.campushub.handler;
 
 import com.liuxy.campushub.dto.SparkChatResponse;
 import com.alibaba.fastjson.JSON;
-import org.springframework.web.socket.CloseStatus;
-import org.springframework.web.socket.TextMessage;
-import org.springframework.web.socket.WebSocketMessage;
-import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
 import java.util.concurrent.CompletableFuture;
 
-public class SparkWebSocketHandler extends TextWebSocketHandler {
+public class SparkWebSocketHandler extends WebSocketListener {
     private final CompletableFuture<SparkChatResponse> future;
     private final StringBuilder contentBuilder = new StringBuilder();
 
@@ -18,41 +16,37 @@ public class SparkWebSocketHandler extends TextWebSocketHandler {
     }
 
     @Override
-    public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
-        if (message instanceof TextMessage) {
-            String text = ((TextMessage) message).getPayload();
-            SparkChatResponse response = JSON.parseObject(text, SparkChatResponse.class);
-            
-            // 累积内容
-            if (response.getContent() != null) {
-                contentBuilder.append(response.getContent());
-            }
-            
-            // 如果是最后一个消息，完成future
-            if (response.getStatus() == 2) {
-                response.setContent(contentBuilder.toString());
-                future.complete(response);
-                session.close();
-            }
+    public void onMessage(WebSocket webSocket, String text) {
+        SparkChatResponse response = JSON.parseObject(text, SparkChatResponse.class);
+
+        // 累积内容
+        if (response.getContent() != null) {
+            contentBuilder.append(response.getContent());
+        }
+
+        // 如果是最后一个消息，完成future
+        if (response.getStatus() != null && response.getStatus() == 2) {
+            response.setContent(contentBuilder.toString());
+            future.complete(response);
+            webSocket.close(1000, null);
         }
     }
 
     @Override
-    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
-        SparkChatResponse response = new SparkChatResponse();
-        response.setCode(500);
-        response.setMessage("WebSocket传输错误: " + exception.getMessage());
-        future.complete(response);
-        session.close(CloseStatus.SERVER_ERROR);
+    public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+        SparkChatResponse result = new SparkChatResponse();
+        result.setCode(500);
+        result.setMessage("WebSocket传输错误: " + t.getMessage());
+        future.complete(result);
     }
 
     @Override
-    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
+    public void onClosed(WebSocket webSocket, int code, String reason) {
         if (!future.isDone()) {
             SparkChatResponse response = new SparkChatResponse();
             response.setCode(500);
-            response.setMessage("WebSocket连接已关闭: " + status.getReason());
+            response.setMessage("WebSocket连接已关闭: " + reason);
             future.complete(response);
         }
     }
-} 
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.liuxy.campushub.mapper;
 
 import com.liuxy.campushub.entity.Attachment;
 import org.apache.ibatis.annotations.*;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -46,16 +47,85 @@ public interface AttachmentMapper {
      * 根据文件类型查询附件
      *
      * @param fileType 文件类型
+     * @param cursorTime 游标上传时间，为空表示游标记录的该列为NULL
+     * @param cursorId 游标附件ID，为空时按偏移量分页
      * @param offset 偏移量
      * @param pageSize 限制数量
      * @return 附件列表
      */
-    @Select("SELECT * FROM attachment WHERE file_type = #{fileType} " +
-            "ORDER BY upload_time DESC LIMIT #{offset}, #{pageSize}")
+    @Select("<script>" +
+            "SELECT * FROM attachment WHERE file_type = #{fileType} " +
+            "<if test='cursorId != null'>" +
+            "<choose><when test='cursorTime != null'>" +
+            "AND (upload_time &lt; #{cursorTime} OR (upload_time = #{cursorTime} AND file_id &lt; #{cursorId}) OR upload_time IS NULL) " +
+            "</when><otherwise>" +
+            "AND upload_time IS NULL AND file_id &lt; #{cursorId} " +
+            "</otherwise></choose>" +
+            "</if>" +
+            "ORDER BY upload_time DESC, file_id DESC LIMIT #{offset}, #{pageSize}" +
+            "</script>")
     List<Attachment> selectByType(@Param("fileType") String fileType,
+                                @Param("cursorTime") LocalDateTime cursorTime,
+                                @Param("cursorId") Long cursorId,
                                 @Param("offset") int offset,
                                 @Param("pageSize") int pageSize);
     
+    /**
+     * 批量查询帖子的首张图片附件（按附件ID最小）
+     *
+     * @param postIds 帖子ID列表
+     * @return 附件列表，每个帖子最多一条
+     */
+    @Select("<script>" +
+            "SELECT a.* FROM attachment a JOIN (" +
+            "SELECT MIN(file_id) AS file_id FROM attachment WHERE file_type = 'image' AND post_id IN " +
+            "<foreach collection='postIds' item='postId' open='(' separator=',' close=')'>#{postId}</foreach>" +
+            " GROUP BY post_id) f ON a.file_id = f.file_id" +
+            "</script>")
+    List<Attachment> selectFirstImagesByPostIds(@Param("postIds") List<Long> postIds);
+
+    /**
+     * 回写缩略图信息
+     *
+     * @param fileId 附件ID
+     * @param thumbnailUrl 最小缩略图地址
+     * @param variantWidths 已生成的宽度，逗号分隔
+     * @param variantFormat 缩略图格式
+     * @return 影响行数
+     */
+    @Update("UPDATE attachment SET thumbnail_url = #{thumbnailUrl}, variant_widths = #{variantWidths}, " +
+            "variant_format = #{variantFormat} WHERE file_id = #{fileId}")
+    int updateVariants(@Param("fileId") Long fileId,
+                       @Param("thumbnailUrl") String thumbnailUrl,
+                       @Param("variantWidths") String variantWidths,
+                       @Param("variantFormat") String variantFormat);
+
+    /**
+     * 缩略图生成失败，累加尝试次数
+     *
+     * @param fileId 附件ID
+     * @return 影响行数
+     */
+    @Update("UPDATE attachment SET variant_attempts = variant_attempts + 1 WHERE file_id = #{fileId}")
+    int incrementVariantAttempts(@Param("fileId") Long fileId);
+
+    /**
+     * 按ID游标查询尚未生成缩略图的图片附件，用于补偿和存量回填
+     *
+     * @param afterId 上一批最后一条的ID，首批传0
+     * @param maxAttempts 尝试次数上限，达到上限的不再查询
+     * @param uploadedBefore 只取此时间之前上传的附件，刚上传的仍在队列中处理
+     * @param limit 条数
+     * @return 按ID升序的附件列表
+     */
+    @Select("SELECT * FROM attachment WHERE file_type = 'image' AND variant_widths IS NULL AND file_id > #{afterId} " +
+            "AND variant_attempts < #{maxAttempts} AND (upload_time IS NULL OR upload_time < #{uploadedBefore}) " +
+            "ORDER BY file_id LIMIT #{limit}")
+    List<Attachment> selectPendingVariants(@Param("afterId") Long afterId,
+                                           @Param("maxAttempts") int maxAttempts,
+                                           @Param("uploadedBefore") LocalDateTime uploadedBefore,
+                                           @Param("limit") int limit);
+
     /**
      * 删除附件
      *
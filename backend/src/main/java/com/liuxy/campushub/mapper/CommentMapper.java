@@ -5,6 +5,7 @@ import com.liuxy.campushub.vo.CommentVO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -49,6 +50,36 @@ public interface CommentMapper {
      */
     List<CommentVO> selectByParentId(Long parentId);
     
+    /**
+     * 查询帖子下的全部评论（不区分层级，按时间正序）
+     *
+     * @param postId 帖子ID
+     * @return 评论列表
+     */
+    List<CommentVO> selectAllByPostId(Long postId);
+    
+    /**
+     * 按游标查询帖子的顶级评论（按时间倒序）
+     *
+     * @param postId 帖子ID
+     * @param lastTime 上一页最后一条评论的时间，首页传null
+     * @param lastId 上一页最后一条评论的ID
+     * @param limit 查询条数
+     * @return 顶级评论列表
+     */
+    List<CommentVO> selectTopLevelForScroll(@Param("postId") Long postId,
+                                            @Param("lastTime") Date lastTime,
+                                            @Param("lastId") Long lastId,
+                                            @Param("limit") int limit);
+    
+    /**
+     * 根据多个父评论ID批量查询子评论
+     *
+     * @param parentIds 父评论ID列表
+     * @return 子评论列表
+     */
+    List<CommentVO> selectByParentIds(@Param("parentIds") List<Long> parentIds);
+    
     /**
      * 更新评论
      *
@@ -77,11 +108,15 @@ public interface CommentMapper {
      * 根据用户ID查询评论列表
      *
      * @param userId 用户ID
+     * @param cursorTime 游标时间，为空表示游标评论的创建时间为NULL
+     * @param cursorId 游标评论ID，为空时按偏移量分页
      * @param offset 偏移量
      * @param pageSize 每页大小
      * @return 评论列表
      */
     List<CommentVO> selectByUserId(@Param("userId") Long userId, 
+                                  @Param("cursorTime") Date cursorTime,
+                                  @Param("cursorId") Long cursorId,
                                   @Param("offset") int offset, 
                                   @Param("pageSize") int pageSize);
     
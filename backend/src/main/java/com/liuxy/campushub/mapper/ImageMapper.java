@@ -3,6 +3,9 @@ package com.liuxy.campushub.mapper;
 import com.liuxy.campushub.entity.Image;
 import org.apache.ibatis.annotations.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * 图片Mapper接口
  *
@@ -43,6 +46,57 @@ public interface ImageMapper {
     @Update("UPDATE image SET status = #{status} WHERE id = #{id}")
     int update(Image image);
     
+    /**
+     * 回写已生成的缩略图宽度和格式
+     *
+     * @param id 图片ID
+     * @param variantWidths 已生成的宽度，逗号分隔
+     * @param variantFormat 缩略图格式
+     * @return 影响行数
+     */
+    @Update("UPDATE image SET variant_widths = #{variantWidths}, variant_format = #{variantFormat} WHERE id = #{id}")
+    int updateVariants(@Param("id") Integer id,
+                       @Param("variantWidths") String variantWidths,
+                       @Param("variantFormat") String variantFormat);
+
+    /**
+     * 缩略图生成失败，累加尝试次数
+     *
+     * @param id 图片ID
+     * @return 影响行数
+     */
+    @Update("UPDATE image SET variant_attempts = variant_attempts + 1 WHERE id = #{id}")
+    int incrementVariantAttempts(@Param("id") Integer id);
+
+    /**
+     * 按ID游标查询尚未生成缩略图的有效图片，用于补偿和存量回填
+     *
+     * @param afterId 上一批最后一条的ID，首批传0
+     * @param maxAttempts 尝试次数上限，达到上限的不再查询
+     * @param uploadedBefore 只取此时间之前上传的图片，刚上传的仍在队列中处理
+     * @param limit 条数
+     * @return 按ID升序的图片列表
+     */
+    @Select("SELECT * FROM image WHERE variant_widths IS NULL AND status = 1 AND id > #{afterId} " +
+            "AND variant_attempts < #{maxAttempts} AND (upload_time IS NULL OR upload_time < #{uploadedBefore}) " +
+            "ORDER BY id LIMIT #{limit}")
+    List<Image> selectPendingVariants(@Param("afterId") Integer afterId,
+                                      @Param("maxAttempts") int maxAttempts,
+                                      @Param("uploadedBefore") LocalDateTime uploadedBefore,
+                                      @Param("limit") int limit);
+
+    /**
+     * 按存储路径批量查询有效图片
+     *
+     * @param filePaths 存储路径列表
+     * @return 图片列表
+     */
+    @Select("<script>" +
+            "SELECT * FROM image WHERE status = 1 AND file_path IN " +
+            "<foreach collection='filePaths' item='filePath' open='(' separator=',' close=')'>#{filePath}</foreach>" +
+            "</script>")
+    List<Image> selectByFilePaths(@Param("filePaths") List<String> filePaths);
+
     /**
      * 删除图片
      *
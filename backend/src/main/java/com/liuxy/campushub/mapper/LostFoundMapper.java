@@ -2,6 +2,7 @@ package com.liuxy.campushub.mapper;
 
 import com.liuxy.campushub.entity.LostFound;
 import org.apache.ibatis.annotations.*;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -12,6 +13,17 @@ import java.util.List;
  */
 @Mapper
 public interface LostFoundMapper {
+
+    /**
+     * 按丢失时间倒序翻页的游标条件，降序时 NULL 排在最后
+     */
+    String LOST_TIME_CURSOR = "<if test='cursorId != null'>" +
+            "<choose><when test='cursorTime != null'>" +
+            "AND (lost_time &lt; #{cursorTime} OR (lost_time = #{cursorTime} AND post_id &lt; #{cursorId}) OR lost_time IS NULL) " +
+            "</when><otherwise>" +
+            "AND lost_time IS NULL AND post_id &lt; #{cursorId} " +
+            "</otherwise></choose>" +
+            "</if>";
     
     /**
      * 创建失物招领记录
@@ -63,67 +75,105 @@ public interface LostFoundMapper {
      * 搜索失物招领信息
      *
      * @param keyword 关键词
+     * @param cursorTime 游标丢失时间，为空表示游标记录的该列为NULL
+     * @param cursorId 游标帖子ID，为空时按偏移量分页
      * @param offset 偏移量
      * @param pageSize 限制数量
      * @return 失物招领列表
      */
-    @Select("SELECT *, ST_X(lost_location) as longitude, ST_Y(lost_location) as latitude " +
+    @Select("<script>" +
+            "SELECT *, ST_X(lost_location) as longitude, ST_Y(lost_location) as latitude " +
             "FROM lost_found " +
             "WHERE MATCH(item_name, description) AGAINST(#{keyword} IN BOOLEAN MODE) " +
-            "ORDER BY lost_time DESC LIMIT #{offset}, #{pageSize}")
+            LOST_TIME_CURSOR +
+            "ORDER BY lost_time DESC, post_id DESC LIMIT #{offset}, #{pageSize}" +
+            "</script>")
     List<LostFound> search(@Param("keyword") String keyword,
+                          @Param("cursorTime") LocalDateTime cursorTime,
+                          @Param("cursorId") Long cursorId,
                           @Param("offset") int offset,
                           @Param("pageSize") int pageSize);
     
     /**
      * 查询未找回的失物招领信息
      *
+     * @param cursorTime 游标丢失时间，为空表示游标记录的该列为NULL
+     * @param cursorId 游标帖子ID，为空时按偏移量分页
      * @param offset 偏移量
      * @param pageSize 限制数量
      * @return 失物招领列表
      */
-    @Select("SELECT *, ST_X(lost_location) as longitude, ST_Y(lost_location) as latitude " +
+    @Select("<script>" +
+            "SELECT *, ST_X(lost_location) as longitude, ST_Y(lost_location) as latitude " +
             "FROM lost_found WHERE found_time IS NULL " +
-            "ORDER BY lost_time DESC LIMIT #{offset}, #{pageSize}")
-    List<LostFound> selectUnfound(@Param("offset") int offset,
+            LOST_TIME_CURSOR +
+            "ORDER BY lost_time DESC, post_id DESC LIMIT #{offset}, #{pageSize}" +
+            "</script>")
+    List<LostFound> selectUnfound(@Param("cursorTime") LocalDateTime cursorTime,
+                                 @Param("cursorId") Long cursorId,
+                                 @Param("offset") int offset,
                                  @Param("pageSize") int pageSize);
     
     /**
      * 查询已找回的失物招领信息
      *
+     * @param cursorTime 游标找回时间，为空表示游标记录的该列为NULL
+     * @param cursorId 游标帖子ID，为空时按偏移量分页
      * @param offset 偏移量
      * @param pageSize 限制数量
      * @return 失物招领列表
      */
-    @Select("SELECT *, ST_X(lost_location) as longitude, ST_Y(lost_location) as latitude " +
+    @Select("<script>" +
+            "SELECT *, ST_X(lost_location) as longitude, ST_Y(lost_location) as latitude " +
             "FROM lost_found WHERE found_time IS NOT NULL " +
-            "ORDER BY found_time DESC LIMIT #{offset}, #{pageSize}")
-    List<LostFound> selectFound(@Param("offset") int offset,
+            "<if test='cursorId != null'>" +
+            "AND (found_time &lt; #{cursorTime} OR (found_time = #{cursorTime} AND post_id &lt; #{cursorId})) " +
+            "</if>" +
+            "ORDER BY found_time DESC, post_id DESC LIMIT #{offset}, #{pageSize}" +
+            "</script>")
+    List<LostFound> selectFound(@Param("cursorTime") LocalDateTime cursorTime,
+                               @Param("cursorId") Long cursorId,
+                               @Param("offset") int offset,
                                @Param("pageSize") int pageSize);
 
-    @Select("SELECT *, ST_X(lost_location) as longitude, ST_Y(lost_location) as latitude " +
+    @Select("<script>" +
+            "SELECT *, ST_X(lost_location) as longitude, ST_Y(lost_location) as latitude " +
             "FROM lost_found " +
-            "WHERE ST_Distance_Sphere(lost_location, ST_GeomFromText(POINT(#{longitude}, #{latitude}))) <= #{radius} " +
-            "ORDER BY lost_time DESC LIMIT #{offset}, #{pageSize}")
+            "WHERE ST_Distance_Sphere(lost_location, ST_GeomFromText(POINT(#{longitude}, #{latitude}))) &lt;= #{radius} " +
+            LOST_TIME_CURSOR +
+            "ORDER BY lost_time DESC, post_id DESC LIMIT #{offset}, #{pageSize}" +
+            "</script>")
     List<LostFound> selectNearby(@Param("longitude") double longitude,
                                 @Param("latitude") double latitude,
                                 @Param("radius") int radius,
+                                @Param("cursorTime") LocalDateTime cursorTime,
+                                @Param("cursorId") Long cursorId,
                                 @Param("offset") int offset,
                                 @Param("pageSize") int pageSize);
 
-    @Select("SELECT *, ST_X(lost_location) as longitude, ST_Y(lost_location) as latitude " +
+    @Select("<script>" +
+            "SELECT *, ST_X(lost_location) as longitude, ST_Y(lost_location) as latitude " +
             "FROM lost_found WHERE item_type = #{itemType} " +
-            "ORDER BY lost_time DESC LIMIT #{offset}, #{pageSize}")
+            LOST_TIME_CURSOR +
+            "ORDER BY lost_time DESC, post_id DESC LIMIT #{offset}, #{pageSize}" +
+            "</script>")
     List<LostFound> selectByItemType(@Param("itemType") String itemType,
+                                    @Param("cursorTime") LocalDateTime cursorTime,
+                                    @Param("cursorId") Long cursorId,
                                     @Param("offset") int offset,
                                     @Param("pageSize") int pageSize);
 
-    @Select("SELECT *, ST_X(lost_location) as longitude, ST_Y(lost_location) as latitude " +
+    @Select("<script>" +
+            "SELECT *, ST_X(lost_location) as longitude, ST_Y(lost_location) as latitude " +
             "FROM lost_found " +
             "WHERE lost_time BETWEEN #{startTime} AND #{endTime} " +
-            "ORDER BY lost_time DESC LIMIT #{offset}, #{pageSize}")
+            LOST_TIME_CURSOR +
+            "ORDER BY lost_time DESC, post_id DESC LIMIT #{offset}, #{pageSize}" +
+            "</script>")
     List<LostFound> selectByTimeRange(@Param("startTime") String startTime,
                                      @Param("endTime") String endTime,
+                                     @Param("cursorTime") LocalDateTime cursorTime,
+                                     @Param("cursorId") Long cursorId,
                                      @Param("offset") int offset,
                                      @Param("pageSize") int pageSize);
-} 
\ No newline at end of file
+} 
@@ -3,6 +3,7 @@ package com.liuxy.campushub.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.liuxy.campushub.entity.Post;
 import com.liuxy.campushub.entity.PostStatusEnum;
+import com.liuxy.campushub.model.PostCounterDelta;
 import com.liuxy.campushub.vo.PostVO;
 import org.apache.ibatis.annotations.*;
 import org.slf4j.Logger;
@@ -76,6 +77,14 @@ public interface PostMapper extends BaseMapper<Post> {
     @Update("UPDATE post SET share_count = share_count + 1 WHERE post_id = #{postId}")
     int incrementShareCount(Long postId);
 
+    /**
+     * 批量累加帖子计数（多行合并为一条UPDATE）
+     *
+     * @param deltas 计数增量列表
+     * @return 影响行数
+     */
+    int batchIncrementCounters(@Param("deltas") List<PostCounterDelta> deltas);
+
     @Select("SELECT * FROM post " +
             "ORDER BY created_at DESC LIMIT #{offset}, #{pageSize}")
     List<Post> selectList(@Param("offset") int offset, @Param("pageSize") int pageSize);
@@ -101,7 +110,7 @@ public interface PostMapper extends BaseMapper<Post> {
     /**
      * 根据分类滚动分页查询帖子列表
      *
-     * @param params 查询参数，包含 categoryId、pageSize 和可选的 lastTime
+     * @param params 查询参数，包含 categoryId、pageSize 和可选的 lastTime、lastId
      * @return 帖子VO列表
      */
     List<PostVO> selectByCategoryForScroll(Map<String, Object> params);
@@ -109,7 +118,7 @@ public interface PostMapper extends BaseMapper<Post> {
     /**
      * 根据用户滚动分页查询帖子列表
      *
-     * @param params 查询参数，包含 userId、pageSize 和可选的 lastTime
+     * @param params 查询参数，包含 userId、pageSize 和可选的 lastTime、lastId
      * @return 帖子VO列表
      */
     List<PostVO> selectByUserForScroll(Map<String, Object> params);
@@ -118,16 +127,19 @@ public interface PostMapper extends BaseMapper<Post> {
      * 按时间倒序查询帖子列表
      *
      * @param lastTime 最后一条记录的时间戳
+     * @param lastId 最后一条记录的帖子ID，与时间组成复合游标
      * @param pageSize 每页大小
      * @return 帖子列表
      */
-    List<PostVO> selectPostsByTime(@Param("lastTime") Date lastTime, @Param("pageSize") int pageSize);
+    List<PostVO> selectPostsByTime(@Param("lastTime") Date lastTime,
+                                   @Param("lastId") Long lastId,
+                                   @Param("pageSize") int pageSize);
 
     /**
      * 瀑布流加载帖子列表
      * 按时间倒序查询，支持时间戳分页
      *
-     * @param params 查询参数，包含 status、limit 和可选的 lastTime
+     * @param params 查询参数，包含 status、limit 和可选的 lastTime、lastId
      * @return 帖子列表
      */
     List<PostVO> getPostsWaterfall(Map<String, Object> params);
@@ -135,7 +147,7 @@ public interface PostMapper extends BaseMapper<Post> {
     /**
      * 根据用户ID分页查询帖子列表
      *
-     * @param params 查询参数，包含userId、offset和pageSize
+     * @param params 查询参数，包含userId、offset、pageSize，以及可选的游标 cursorTime、cursorId
      * @return 帖子列表
      */
     List<PostVO> selectByUser(Map<String, Object> params);
@@ -148,6 +160,25 @@ public interface PostMapper extends BaseMapper<Post> {
      */
     @Select("SELECT * FROM post WHERE status = #{status}")
     List<Post> findAllByStatus(PostStatusEnum status);
+
+    /**
+     * 获取热点排行的候选帖子（指定时间之后发布的已发布帖子），只查询计数和发布时间
+     *
+     * @param fromTime 起始发布时间
+     * @return 帖子列表
+     */
+    @Select("SELECT post_id, view_count, like_count, comment_count, share_count, created_at FROM post " +
+            "WHERE status = 'PUBLISHED' AND created_at >= #{fromTime}")
+    List<Post> findRankingCandidates(@Param("fromTime") LocalDateTime fromTime);
+
+    /**
+     * 判断帖子是否存在且已发布（主键查询）
+     *
+     * @param postId 帖子ID
+     * @return 存在时为1，否则为0
+     */
+    @Select("SELECT COUNT(1) FROM post WHERE post_id = #{postId} AND status = 'PUBLISHED'")
+    int countPublishedById(@Param("postId") Long postId);
     
     /**
      * 根据ID列表批量查询帖子VO
@@ -199,6 +230,14 @@ public interface PostMapper extends BaseMapper<Post> {
             "WHERE post_id = #{postId}")
     int updateHotScore(@Param("postId") Long postId, @Param("hotScore") BigDecimal hotScore);
 
+    /**
+     * 批量更新帖子热度分数（多行合并为一条UPDATE）
+     *
+     * @param posts 帖子列表，只使用 postId 和 hotScore
+     * @return 影响行数
+     */
+    int batchUpdateHotScores(@Param("posts") List<Post> posts);
+
     /**
      * 获取需要更新热度的帖子列表
      *
@@ -210,6 +249,57 @@ public interface PostMapper extends BaseMapper<Post> {
             "AND (last_hot_calc IS NULL OR last_hot_calc < #{lastCalcTime})")
     List<Post> getPostsNeedHotCalc(@Param("lastCalcTime") LocalDateTime lastCalcTime);
 
+    /**
+     * 按帖子ID顺序分段获取需要更新热度的帖子，只查询计算热度所需的列
+     *
+     * @param lastCalcTime 上次计算时间
+     * @param afterId 上一段最后一个帖子ID，第一段传0
+     * @param limit 每段条数
+     * @return 帖子列表
+     */
+    @Select("SELECT post_id, view_count, like_count, comment_count, share_count, created_at FROM post " +
+            "WHERE status = 'PUBLISHED' " +
+            "AND (last_hot_calc IS NULL OR last_hot_calc < #{lastCalcTime}) " +
+            "AND post_id > #{afterId} " +
+            "ORDER BY post_id " +
+            "LIMIT #{limit}")
+    List<Post> getPostsNeedHotCalcAfter(@Param("lastCalcTime") LocalDateTime lastCalcTime,
+                                        @Param("afterId") Long afterId,
+                                        @Param("limit") int limit);
+
+    /**
+     * 按帖子ID顺序分段获取已发布帖子，只查询计算热度所需的列
+     *
+     * @param afterId 上一段最后一个帖子ID，第一段传0
+     * @param limit 每段条数
+     * @return 帖子列表
+     */
+    @Select("SELECT post_id, view_count, like_count, comment_count, share_count, created_at FROM post " +
+            "WHERE status = 'PUBLISHED' " +
+            "AND post_id > #{afterId} " +
+            "ORDER BY post_id " +
+            "LIMIT #{limit}")
+    List<Post> getPublishedPostsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * 统计需要更新热度的帖子数
+     *
+     * @param lastCalcTime 上次计算时间
+     * @return 帖子数
+     */
+    @Select("SELECT COUNT(*) FROM post " +
+            "WHERE status = 'PUBLISHED' " +
+            "AND (last_hot_calc IS NULL OR last_hot_calc < #{lastCalcTime})")
+    long countPostsNeedHotCalc(@Param("lastCalcTime") LocalDateTime lastCalcTime);
+
+    /**
+     * 获取已发布帖子中最早的热度计算时间，从未计算过的按发布时间算
+     *
+     * @return 最早的计算时间，没有已发布帖子时为null
+     */
+    @Select("SELECT MIN(COALESCE(last_hot_calc, created_at)) FROM post WHERE status = 'PUBLISHED'")
+    LocalDateTime getOldestHotCalcTime();
+
     /**
      * 获取5天内按热度排序的热点帖子
      * @param fromTime 起始时间（5天前）
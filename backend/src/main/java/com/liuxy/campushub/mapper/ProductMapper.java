@@ -110,8 +110,10 @@ public interface ProductMapper {
      * @param minPrice 最低价
      * @param maxPrice 最高价
      * @param status 商品状态
-     * @param sortField 排序字段
-     * @param sortOrder 排序方式
+     * @param sortField 排序字段：createTime、price、viewCount
+     * @param sortDirection 排序方向：ASC、DESC
+     * @param cursorKey 游标排序值，为空表示游标记录的排序列为NULL
+     * @param cursorId 游标商品ID，为空时按偏移量分页
      * @param offset 偏移量
      * @param pageSize 每页记录数
      * @return 商品列表
@@ -124,7 +126,9 @@ public interface ProductMapper {
             @Param("maxPrice") BigDecimal maxPrice,
             @Param("status") String status,
             @Param("sortField") String sortField,
-            @Param("sortOrder") String sortOrder,
+            @Param("sortDirection") String sortDirection,
+            @Param("cursorKey") Object cursorKey,
+            @Param("cursorId") Long cursorId,
             @Param("offset") Integer offset,
             @Param("pageSize") Integer pageSize);
     
@@ -152,8 +156,10 @@ public interface ProductMapper {
      *
      * @param userId 用户ID
      * @param status 商品状态
-     * @param sortField 排序字段
-     * @param sortOrder 排序方式
+     * @param sortColumn 排序列（由服务层从白名单中选取）
+     * @param sortDirection 排序方向：ASC、DESC
+     * @param cursorKey 游标排序值，为空表示游标记录的排序列为NULL
+     * @param cursorId 游标商品ID，为空时按偏移量分页
      * @param offset 偏移量
      * @param pageSize 每页记录数
      * @return 商品列表
@@ -166,7 +172,18 @@ public interface ProductMapper {
             "<if test='status != null'>" +
             "AND p.status = #{status} " +
             "</if>" +
-            "ORDER BY p.${sortField} ${sortOrder} " +
+            "<if test='cursorId != null'>" +
+            "<bind name='cmp' value='sortDirection == \"ASC\" ? \"&gt;\" : \"&lt;\"'/>" +
+            "<choose><when test='cursorKey != null'>" +
+            "AND (${sortColumn} ${cmp} #{cursorKey} " +
+            "OR (${sortColumn} = #{cursorKey} AND p.product_id ${cmp} #{cursorId}) " +
+            "<if test='sortDirection != \"ASC\"'>OR ${sortColumn} IS NULL</if>) " +
+            "</when><otherwise>" +
+            "AND ((${sortColumn} IS NULL AND p.product_id ${cmp} #{cursorId}) " +
+            "<if test='sortDirection == \"ASC\"'>OR ${sortColumn} IS NOT NULL</if>) " +
+            "</otherwise></choose>" +
+            "</if>" +
+            "ORDER BY ${sortColumn} ${sortDirection}, p.product_id ${sortDirection} " +
             "LIMIT #{offset}, #{pageSize}" +
             "</script>")
     @Results({
@@ -191,8 +208,10 @@ public interface ProductMapper {
     List<Product> selectMyProducts(
             @Param("userId") Long userId,
             @Param("status") String status,
-            @Param("sortField") String sortField,
-            @Param("sortOrder") String sortOrder,
+            @Param("sortColumn") String sortColumn,
+            @Param("sortDirection") String sortDirection,
+            @Param("cursorKey") Object cursorKey,
+            @Param("cursorId") Long cursorId,
             @Param("offset") Integer offset,
             @Param("pageSize") Integer pageSize);
 
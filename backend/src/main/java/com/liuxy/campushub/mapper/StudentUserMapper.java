@@ -61,10 +61,6 @@ public interface StudentUserMapper {
     List<StudentUser> selectByCondition(@Param("username") String username, @Param("status") Integer status,
                                       @Param("realName") String realName, @Param("studentNumber") String studentNumber);
 
-    @Select("SELECT * FROM student_user WHERE username = #{loginId} OR student_number = #{loginId} OR phone = #{loginId}")
-    @ResultMap("userResultMap")
-    StudentUser findByLoginId(@Param("loginId") String loginId);
-
     @Update("UPDATE student_user SET " +
             "real_name = #{realName}, " +
             "phone = #{phone}, " +
@@ -75,6 +71,12 @@ public interface StudentUserMapper {
             "WHERE user_id = #{userId}")
     int update(StudentUser studentUser);
 
+    @Update("UPDATE student_user SET status = #{status} WHERE user_id = #{userId}")
+    int updateStatus(@Param("userId") Long userId, @Param("status") Integer status);
+
+    @Update("UPDATE student_user SET user_role = #{userRole} WHERE user_id = #{userId}")
+    int updateRole(@Param("userId") Long userId, @Param("userRole") Integer userRole);
+
     @Select("SELECT COUNT(*) FROM student_user")
     Integer countTotalUsers();
 
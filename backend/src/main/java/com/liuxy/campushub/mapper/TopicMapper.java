@@ -130,16 +130,29 @@ public interface TopicMapper {
      * 搜索话题
      *
      * @param keyword 关键词
+     * @param cursorUsage 游标使用次数，为空表示游标记录的该列为NULL
+     * @param cursorId 游标话题ID，为空时按偏移量分页
      * @param offset 偏移量
      * @param pageSize 限制数量
      * @return 话题列表
      */
-    @Select("SELECT t.*, i.file_path as avatarUrl FROM topic t " +
+    @Select("<script>" +
+            "SELECT t.*, i.file_path as avatarUrl FROM topic t " +
             "LEFT JOIN student_user u ON t.creator_id = u.user_id " +
             "LEFT JOIN image i ON u.avatar_image_id = i.id " +
             "WHERE t.topic_name LIKE CONCAT('%', #{keyword}, '%') " +
-            "ORDER BY t.usage_count DESC LIMIT #{offset}, #{pageSize}")
+            "<if test='cursorId != null'>" +
+            "<choose><when test='cursorUsage != null'>" +
+            "AND (t.usage_count &lt; #{cursorUsage} OR (t.usage_count = #{cursorUsage} AND t.topic_id &lt; #{cursorId}) OR t.usage_count IS NULL) " +
+            "</when><otherwise>" +
+            "AND t.usage_count IS NULL AND t.topic_id &lt; #{cursorId} " +
+            "</otherwise></choose>" +
+            "</if>" +
+            "ORDER BY t.usage_count DESC, t.topic_id DESC LIMIT #{offset}, #{pageSize}" +
+            "</script>")
     List<Topic> search(@Param("keyword") String keyword,
+                      @Param("cursorUsage") Long cursorUsage,
+                      @Param("cursorId") Long cursorId,
                       @Param("offset") int offset,
                       @Param("pageSize") int pageSize);
     
@@ -1,6 +1,8 @@
 package com.liuxy.campushub.model;
 
 import com.liuxy.campushub.entity.Post;
+import com.liuxy.campushub.enums.HotScoreModeEnum;
+import com.liuxy.campushub.enums.PostCounterEnum;
 import lombok.extern.slf4j.Slf4j;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -21,6 +23,10 @@ public class HotPostModel {
     // 突发阈值
     private static final int BURST_COMMENT_THRESHOLD = 100; // 突发评论数阈值
     private static final int BURST_TIME_THRESHOLD = 24; // 突发时间阈值（小时）
+
+    // 对数空间分数（排序键、LOG 热度分数）的时间起点，以及基础分为0时的取值（小于任何非零基础分）
+    public static final LocalDateTime SCORE_EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final double MIN_LOG_BASE = 0.05;
     
     /**
      * 计算帖子热度值
@@ -30,36 +36,164 @@ public class HotPostModel {
      */
     public static double calculateHotness(Post post) {
         try {
-            // 获取时间衰减因子
-            long hoursSinceCreation = ChronoUnit.HOURS.between(post.getCreatedAt(), LocalDateTime.now());
-            double timeDecay = Math.pow(TIME_DECAY_FACTOR, hoursSinceCreation / 24.0); // 按天衰减
-            
-            // 计算基础热度值
-            double baseHotness = post.getViewCount() * VIEW_WEIGHT +
-                               post.getLikeCount() * LIKE_WEIGHT +
-                               post.getCommentCount() * COMMENT_WEIGHT +
-                               post.getShareCount() * SHARE_WEIGHT;
-            
-            // 突发系数（如果24小时内评论数超过阈值，给予额外热度）
-            double burstMultiplier = 1.0;
-            if (isBurstHot(post)) {
-                burstMultiplier = 1.5;
-                log.debug("帖子[{}]触发突发系数，评论数: {}", post.getPostId(), post.getCommentCount());
-            }
-            
-            // 最终热度计算
-            double finalHotness = baseHotness * timeDecay * burstMultiplier;
-            
-            log.debug("帖子[{}]热度计算: 基础分={}, 衰减系数={}, 突发系数={}, 最终热度={}", 
-                    post.getPostId(), baseHotness, timeDecay, burstMultiplier, finalHotness);
-            
-            return finalHotness;
+            return calculateHotness(post.getPostId(), post.getViewCount(), post.getLikeCount(),
+                    post.getCommentCount(), post.getShareCount(), post.getCreatedAt());
         } catch (Exception e) {
             log.error("计算帖子热度失败: postId=" + post.getPostId(), e);
             return 0.0;
         }
     }
+
+    /**
+     * 根据计数计算帖子热度值，用于只查询了计数和发布时间的批量场景
+     *
+     * @param postId 帖子ID，仅用于日志
+     * @param viewCount 浏览量
+     * @param likeCount 点赞量
+     * @param commentCount 评论量
+     * @param shareCount 分享量
+     * @param createdAt 发布时间
+     * @return 热度值
+     */
+    public static double calculateHotness(Long postId, long viewCount, long likeCount, long commentCount,
+                                          long shareCount, LocalDateTime createdAt) {
+        // 获取时间衰减因子
+        long hoursSinceCreation = ChronoUnit.HOURS.between(createdAt, LocalDateTime.now());
+        double timeDecay = Math.pow(TIME_DECAY_FACTOR, hoursSinceCreation / 24.0); // 按天衰减
+
+        // 计算基础热度值
+        double baseHotness = baseScore(viewCount, likeCount, commentCount, shareCount);
+
+        // 突发系数（如果24小时内评论数超过阈值，给予额外热度）
+        double burstMultiplier = 1.0;
+        if (isBurstHot(commentCount, createdAt)) {
+            burstMultiplier = 1.5;
+            log.debug("帖子[{}]触发突发系数，评论数: {}", postId, commentCount);
+        }
+
+        // 最终热度计算
+        double finalHotness = baseHotness * timeDecay * burstMultiplier;
+
+        log.debug("帖子[{}]热度计算: 基础分={}, 衰减系数={}, 突发系数={}, 最终热度={}",
+                postId, baseHotness, timeDecay, burstMultiplier, finalHotness);
+
+        return finalHotness;
+    }
     
+    /**
+     * 计算帖子排序键（对数空间，与当前时间无关）
+     * <p>
+     * 热度 = 基础分 * 0.2^(小时数/24)，两帖热度之比只取决于发布时间差，
+     * 因此 ln(基础分) + ln(5) * 发布时刻(小时)/24 与连续时间下的热度排序一致，
+     * 计数变化时只需重算单个帖子的排序键，无需全量重排。
+     * 注意 calculateHotness 将发布时长向下取整到小时，而这里按秒计算，
+     * 发布时长落在同一小时内的两个帖子，两者的先后可能不同。
+     *
+     * @param viewCount 浏览量
+     * @param likeCount 点赞量
+     * @param commentCount 评论量
+     * @param shareCount 分享量
+     * @param createdAt 发布时间
+     * @param burst 是否处于突发状态
+     * @return 排序键，基础分为0时返回负无穷
+     */
+    public static double calculateRankingKey(long viewCount, long likeCount, long commentCount, long shareCount,
+                                             LocalDateTime createdAt, boolean burst) {
+        double baseHotness = baseScore(viewCount, likeCount, commentCount, shareCount);
+        if (baseHotness <= 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double key = logScore(baseHotness, createdAt);
+        return burst ? key + Math.log(1.5) : key;
+    }
+
+    /**
+     * 计算对数空间的热度分数（Reddit/HN 风格），可直接写入 hot:posts 和 post.hot_score
+     * <p>
+     * 与 {@link #calculateRankingKey}（不含突发时）的排序一致，区别是基础分为0时按最小分计入而不是负无穷，
+     * 发布时刻从 {@link #SCORE_EPOCH} 起算，使分数保持在较小的数值范围内，便于以定点小数存储。
+     * 分数只在计数变化时改变，已存储的分数不会随时间过期。
+     * 突发系数只在发布后24小时内有效，而存储的分数在窗口结束时不会重算，因此不计入突发系数，
+     * 与 DECAY 的差别仅限于突发窗口内的帖子。
+     *
+     * @param viewCount 浏览量
+     * @param likeCount 点赞量
+     * @param commentCount 评论量
+     * @param shareCount 分享量
+     * @param createdAt 发布时间
+     * @return 热度分数
+     */
+    public static double calculateLogScore(long viewCount, long likeCount, long commentCount, long shareCount,
+                                           LocalDateTime createdAt) {
+        double baseHotness = baseScore(viewCount, likeCount, commentCount, shareCount);
+        return logScore(Math.max(baseHotness, MIN_LOG_BASE), createdAt);
+    }
+
+    /**
+     * 基础热度值：各项计数的加权和
+     */
+    private static double baseScore(long viewCount, long likeCount, long commentCount, long shareCount) {
+        return viewCount * VIEW_WEIGHT +
+               likeCount * LIKE_WEIGHT +
+               commentCount * COMMENT_WEIGHT +
+               shareCount * SHARE_WEIGHT;
+    }
+
+    /**
+     * 对数空间分数：ln(基础分) + ln(5) * 发布时刻(小时，从 SCORE_EPOCH 起算)/24
+     */
+    private static double logScore(double baseHotness, LocalDateTime createdAt) {
+        double createdHours = ChronoUnit.SECONDS.between(SCORE_EPOCH, createdAt) / 3600.0;
+        return Math.log(baseHotness) - Math.log(TIME_DECAY_FACTOR) * createdHours / 24.0;
+    }
+
+    /**
+     * 按指定方式计算热度分数
+     *
+     * @param mode 计算方式
+     * @param postId 帖子ID，仅用于日志
+     * @param viewCount 浏览量
+     * @param likeCount 点赞量
+     * @param commentCount 评论量
+     * @param shareCount 分享量
+     * @param createdAt 发布时间
+     * @return 热度分数
+     */
+    public static double calculateScore(HotScoreModeEnum mode, Long postId, long viewCount, long likeCount,
+                                        long commentCount, long shareCount, LocalDateTime createdAt) {
+        if (mode == HotScoreModeEnum.LOG) {
+            return calculateLogScore(viewCount, likeCount, commentCount, shareCount, createdAt);
+        }
+        return calculateHotness(postId, viewCount, likeCount, commentCount, shareCount, createdAt);
+    }
+
+    /**
+     * 单次互动在热度中的权重，与热度计算使用相同的权重
+     *
+     * @param counter 计数类型
+     * @return 权重
+     */
+    public static double engagementWeight(PostCounterEnum counter) {
+        return switch (counter) {
+            case VIEW -> VIEW_WEIGHT;
+            case LIKE -> LIKE_WEIGHT;
+            case COMMENT -> COMMENT_WEIGHT;
+            case SHARE -> SHARE_WEIGHT;
+        };
+    }
+
+    /**
+     * 根据计数判断是否为突发热点
+     *
+     * @param commentCount 评论量
+     * @param createdAt 发布时间
+     * @return 是否为突发热点
+     */
+    public static boolean isBurstHot(long commentCount, LocalDateTime createdAt) {
+        return commentCount > BURST_COMMENT_THRESHOLD &&
+               ChronoUnit.HOURS.between(createdAt, LocalDateTime.now()) <= BURST_TIME_THRESHOLD;
+    }
+
     /**
      * 判断是否为突发热点
      * 
@@ -78,6 +212,16 @@ public class HotPostModel {
      * @return 是否为新发布
      */
     public static boolean isNewPost(Post post) {
-        return ChronoUnit.HOURS.between(post.getCreatedAt(), LocalDateTime.now()) <= BURST_TIME_THRESHOLD;
+        return isNewPost(post.getCreatedAt());
+    }
+
+    /**
+     * 根据发布时间判断是否为新发布
+     *
+     * @param createdAt 发布时间
+     * @return 是否为新发布
+     */
+    public static boolean isNewPost(LocalDateTime createdAt) {
+        return ChronoUnit.HOURS.between(createdAt, LocalDateTime.now()) <= BURST_TIME_THRESHOLD;
     }
 } 
\ No newline at end of file
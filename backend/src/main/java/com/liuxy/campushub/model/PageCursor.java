@@ -0,0 +1,176 @@
+package com.liuxy.campushub.model;
+
+import com.liuxy.campushub.exception.BusinessException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * 键集分页游标
+ * <p>
+ * 由排序字段值和决胜ID组成，序列化为不透明的Base64字符串返回给前端。
+ * 下一页查询条件为 (排序值, ID) 严格位于游标之后，翻页代价与页码无关。
+ * <p>
+ * 排序值带类型标记：时间以毫秒时间戳保存（T），整数（L），小数（D），空值（N）。
+ * 空值单独标记，查询时按 MySQL 的空值排序规则（升序在前、降序在后）处理，
+ * 不会把空值当成排序值参与比较。解析时校验全部字段，无效游标统一返回400。
+ */
+public class PageCursor {
+
+    private static final String SEPARATOR = "|";
+    private static final char TYPE_NULL = 'N';
+    private static final char TYPE_TIME = 'T';
+    private static final char TYPE_LONG = 'L';
+    private static final char TYPE_DECIMAL = 'D';
+
+    private final char type;
+    private final Long longKey;
+    private final BigDecimal decimalKey;
+    private final Long id;
+
+    private PageCursor(char type, Long longKey, BigDecimal decimalKey, Long id) {
+        this.type = type;
+        this.longKey = longKey;
+        this.decimalKey = decimalKey;
+        this.id = id;
+    }
+
+    /**
+     * 根据当前页最后一条记录构建游标
+     *
+     * @param sortKey 排序字段值（Date、LocalDateTime、整数、BigDecimal），可为null
+     * @param id 决胜ID
+     * @return 游标
+     */
+    public static PageCursor of(Object sortKey, Long id) {
+        if (sortKey == null) {
+            return new PageCursor(TYPE_NULL, null, null, id);
+        } else if (sortKey instanceof Date date) {
+            return new PageCursor(TYPE_TIME, date.getTime(), null, id);
+        } else if (sortKey instanceof LocalDateTime time) {
+            return new PageCursor(TYPE_TIME, time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), null, id);
+        } else if (sortKey instanceof BigDecimal decimal) {
+            return new PageCursor(TYPE_DECIMAL, null, decimal, id);
+        } else if (sortKey instanceof Long || sortKey instanceof Integer || sortKey instanceof Short) {
+            return new PageCursor(TYPE_LONG, ((Number) sortKey).longValue(), null, id);
+        }
+        throw new IllegalArgumentException("不支持的游标排序值类型: " + sortKey.getClass().getName());
+    }
+
+    /**
+     * 解析前端传回的游标，结构、类型标记、排序值和ID任一无效时返回400
+     *
+     * @param cursor 游标字符串
+     * @return 游标，为空时返回null
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index < 1) {
+                throw invalid();
+            }
+            long id = Long.parseLong(raw.substring(index + 1));
+            char type = raw.charAt(0);
+            String value = raw.substring(1, index);
+            return switch (type) {
+                case TYPE_NULL -> {
+                    if (!value.isEmpty()) {
+                        throw invalid();
+                    }
+                    yield new PageCursor(TYPE_NULL, null, null, id);
+                }
+                case TYPE_TIME, TYPE_LONG -> new PageCursor(type, Long.parseLong(value), null, id);
+                case TYPE_DECIMAL -> new PageCursor(TYPE_DECIMAL, null, new BigDecimal(value), id);
+                default -> throw invalid();
+            };
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * 计算偏移量：有游标时从游标之后开始，否则按页码兼容旧的分页方式
+     *
+     * @param cursor 游标，可为null
+     * @param page 页码，从1开始
+     * @param pageSize 每页大小
+     * @return 偏移量
+     */
+    public static int offsetOf(PageCursor cursor, int page, int pageSize) {
+        return cursor != null ? 0 : (Math.max(page, 1) - 1) * pageSize;
+    }
+
+    /**
+     * 序列化为不透明字符串
+     *
+     * @return 游标字符串
+     */
+    public String encode() {
+        String value = switch (type) {
+            case TYPE_NULL -> "";
+            case TYPE_DECIMAL -> decimalKey.toPlainString();
+            default -> String.valueOf(longKey);
+        };
+        String raw = type + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * 排序值是否为空（最后一条记录的排序列为NULL）
+     */
+    public boolean isSortKeyNull() {
+        return type == TYPE_NULL;
+    }
+
+    public Date getSortKeyAsDate() {
+        return type == TYPE_NULL ? null : new Date(expect(TYPE_TIME));
+    }
+
+    public LocalDateTime getSortKeyAsLocalDateTime() {
+        return type == TYPE_NULL ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(expect(TYPE_TIME)), ZoneId.systemDefault());
+    }
+
+    public Long getSortKeyAsLong() {
+        return type == TYPE_NULL ? null : expect(TYPE_LONG);
+    }
+
+    public BigDecimal getSortKeyAsDecimal() {
+        return switch (type) {
+            case TYPE_NULL -> null;
+            case TYPE_DECIMAL -> decimalKey;
+            // 整数排序值也可以按小数比较
+            case TYPE_LONG -> BigDecimal.valueOf(longKey);
+            default -> throw invalid();
+        };
+    }
+
+    /**
+     * 游标来自其他列表（排序值类型不符）时同样视为无效游标
+     */
+    private long expect(char expected) {
+        if (type != expected) {
+            throw invalid();
+        }
+        return longKey;
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException(400, "无效的分页游标");
+    }
+}
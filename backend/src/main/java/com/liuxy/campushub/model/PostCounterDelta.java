@@ -0,0 +1,24 @@
+package com.liuxy.campushub.model;
+
+import lombok.Data;
+
+/**
+ * 帖子计数增量（用于合并后批量写库）
+ */
+@Data
+public class PostCounterDelta {
+
+    private Long postId;
+
+    private long viewDelta;
+
+    private long likeDelta;
+
+    private long commentDelta;
+
+    private long shareDelta;
+
+    public boolean isEmpty() {
+        return viewDelta == 0 && likeDelta == 0 && commentDelta == 0 && shareDelta == 0;
+    }
+}
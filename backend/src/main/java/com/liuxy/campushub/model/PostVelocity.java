@@ -0,0 +1,41 @@
+package com.liuxy.campushub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 帖子互动速度（单位均为每分钟的加权互动量）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostVelocity {
+
+    private Long postId;
+
+    /**
+     * 最近一个短窗口内的平均速度
+     */
+    private double velocity;
+
+    /**
+     * 加速度：最近一个短窗口与前一个短窗口的速度差
+     */
+    private double acceleration;
+
+    /**
+     * 基线速度：整个窗口中除最近一个短窗口以外的平均速度
+     */
+    private double baseline;
+
+    /**
+     * 突发排序分数：速度加上正向的加速度
+     */
+    private double score;
+
+    /**
+     * 是否处于突发状态
+     */
+    private boolean burst;
+}
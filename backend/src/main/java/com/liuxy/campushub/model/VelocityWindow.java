@@ -0,0 +1,134 @@
+package com.liuxy.campushub.model;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 帖子互动量滑动窗口（按分钟分桶的环形数组）
+ * <p>
+ * 第 m 分钟的互动量存放在下标 m % 窗口长度 处，写入时发现该位置属于更早的分钟则先清零，
+ * 因此不需要定时清理过期的桶。尚未写入 Redis 的增量单独记录，持久化时取出。
+ * 方法均在实例上同步，不同帖子之间互不影响。
+ */
+public class VelocityWindow {
+
+    private final long[] minutes;
+    private final double[] amounts;
+    private final double[] unflushed;
+    private long lastMinute = -1;
+
+    /**
+     * @param size 窗口长度（分钟）
+     */
+    public VelocityWindow(int size) {
+        this.minutes = new long[Math.max(1, size)];
+        this.amounts = new double[minutes.length];
+        this.unflushed = new double[minutes.length];
+        Arrays.fill(minutes, -1);
+    }
+
+    /**
+     * 记录互动量
+     *
+     * @param minute 分钟数（epoch 毫秒 / 60000）
+     * @param amount 加权互动量
+     * @param persisted 是否已在 Redis 中（已在 Redis 中的数据不再重复写回）
+     */
+    public synchronized void add(long minute, double amount, boolean persisted) {
+        int slot = slotOf(minute);
+        if (slot < 0) {
+            return;
+        }
+        amounts[slot] += amount;
+        if (!persisted) {
+            unflushed[slot] += amount;
+        }
+        lastMinute = Math.max(lastMinute, minute);
+    }
+
+    /**
+     * 以 Redis 中合并后的互动量（含其他实例写入的部分）替换该分钟已持久化的部分，未持久化的增量保留
+     *
+     * @param minute 分钟数
+     * @param persistedAmount Redis 中该分钟的互动量
+     */
+    public synchronized void merge(long minute, double persistedAmount) {
+        int slot = slotOf(minute);
+        if (slot < 0) {
+            return;
+        }
+        amounts[slot] = persistedAmount + unflushed[slot];
+        lastMinute = Math.max(lastMinute, minute);
+    }
+
+    /**
+     * 写入 Redis 失败时放回未持久化的增量，不影响窗口内的互动量
+     */
+    public synchronized void restoreUnflushed(long minute, double amount) {
+        int slot = (int) Math.floorMod(minute, (long) minutes.length);
+        if (minutes[slot] == minute) {
+            unflushed[slot] += amount;
+        }
+    }
+
+    /**
+     * 统计 [fromMinute, toMinute) 内的互动量
+     */
+    public synchronized double sum(long fromMinute, long toMinute) {
+        double total = 0;
+        for (int i = 0; i < minutes.length; i++) {
+            if (minutes[i] >= fromMinute && minutes[i] < toMinute) {
+                total += amounts[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 取出全部未持久化的增量
+     *
+     * @return 分钟数 -> 增量
+     */
+    public synchronized Map<Long, Double> drainUnflushed() {
+        Map<Long, Double> drained = new LinkedHashMap<>();
+        for (int i = 0; i < minutes.length; i++) {
+            if (unflushed[i] != 0) {
+                drained.put(minutes[i], unflushed[i]);
+                unflushed[i] = 0;
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * 最近一次互动早于 beforeMinute 且没有待持久化的增量时，窗口可以丢弃
+     */
+    public synchronized boolean isIdle(long beforeMinute) {
+        if (lastMinute >= beforeMinute) {
+            return false;
+        }
+        for (double value : unflushed) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 定位分钟所在的桶，桶属于更早的分钟时先清零；分钟早于桶中已有的数据时返回-1
+     */
+    private int slotOf(long minute) {
+        int slot = (int) Math.floorMod(minute, (long) minutes.length);
+        if (minutes[slot] != minute) {
+            if (minutes[slot] > minute) {
+                return -1;
+            }
+            minutes[slot] = minute;
+            amounts[slot] = 0;
+            unflushed[slot] = 0;
+        }
+        return slot;
+    }
+}
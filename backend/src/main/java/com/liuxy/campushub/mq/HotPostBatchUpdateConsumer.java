@@ -0,0 +1,114 @@
+package com.liuxy.campushub.mq;
+
+import com.liuxy.campushub.config.RabbitMQConfig;
+import com.liuxy.campushub.entity.Post;
+import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.service.HotScoreService;
+import com.liuxy.campushub.vo.HotPostVO;
+import com.liuxy.campushub.vo.PostVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 热度更新批量消费
+ * <p>
+ * 点赞、评论集中爆发时同一个帖子会在短时间内收到大量更新消息。这里一次取出一批消息，
+ * 帖子ID去重后用一条 SQL 批量查询，热度分数用一条 SQL 批量写回，再在一次 Redis 管道中写入全部热度分数和详情缓存，
+ * 同一批内无论收到多少条消息，每个帖子只计算一次。
+ * <p>
+ * 处理失败时抛出异常，由容器按退避间隔重试整批消息，重试耗尽后转入死信队列，不会静默丢弃。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "hot.post.consumer.batch-enabled", havingValue = "true", matchIfMissing = true)
+public class HotPostBatchUpdateConsumer {
+
+    private static final String HOT_POSTS_KEY = "hot:posts";
+    private static final String HOT_POST_DETAIL_KEY = "hot:post:detail:";
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private RedisTemplate<String, HotPostVO> hotPostRedisTemplate;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private HotScoreService hotScoreService;
+
+    @RabbitListener(queues = RabbitMQConfig.HOT_POST_QUEUE,
+            containerFactory = RabbitMQConfig.HOT_POST_BATCH_CONTAINER_FACTORY)
+    public void handleHotPostUpdates(List<Long> postIds) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(postIds);
+        uniqueIds.remove(null);
+        if (uniqueIds.isEmpty()) {
+            return;
+        }
+        try {
+            List<PostVO> posts = postMapper.findPostVOsByIds(new ArrayList<>(uniqueIds));
+            List<HotPostVO> updates = new ArrayList<>(posts.size());
+            List<Post> scores = new ArrayList<>(posts.size());
+            for (PostVO post : posts) {
+                if (post.getCreatedAt() != null) {
+                    HotPostVO vo = HotPostVO.computeFrom(post);
+                    vo.setHotness(hotScoreService.score(post));
+                    updates.add(vo);
+
+                    Post score = new Post();
+                    score.setPostId(vo.getPostId());
+                    score.setHotScore(BigDecimal.valueOf(vo.getHotness()).setScale(4, RoundingMode.HALF_UP));
+                    scores.add(score);
+                }
+            }
+            if (!scores.isEmpty()) {
+                postMapper.batchUpdateHotScores(scores);
+            }
+
+            // 排行成员与详情分别沿用各自模板的序列化方式，在同一个管道中写入
+            @SuppressWarnings("unchecked")
+            RedisSerializer<Object> memberSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+            @SuppressWarnings("unchecked")
+            RedisSerializer<HotPostVO> detailSerializer =
+                    (RedisSerializer<HotPostVO>) hotPostRedisTemplate.getValueSerializer();
+            byte[] hotPostsKey = HOT_POSTS_KEY.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (HotPostVO vo : updates) {
+                    connection.zSetCommands().zAdd(hotPostsKey, vo.getHotness(),
+                            memberSerializer.serialize(vo.getPostId()));
+                    connection.stringCommands().set(
+                            (HOT_POST_DETAIL_KEY + vo.getPostId()).getBytes(StandardCharsets.UTF_8),
+                            detailSerializer.serialize(vo));
+                }
+                return null;
+            });
+
+            if (updates.size() < uniqueIds.size()) {
+                log.warn("部分帖子不存在，跳过热度更新，请求数: {}, 更新数: {}", uniqueIds.size(), updates.size());
+            }
+            log.info("批量更新热度成功，消息数: {}, 去重后: {}, 更新数: {}",
+                    postIds.size(), uniqueIds.size(), updates.size());
+        } catch (Exception e) {
+            log.error("批量处理更新热度消息失败，postIds: {}", uniqueIds, e);
+            throw e;
+        }
+    }
+}
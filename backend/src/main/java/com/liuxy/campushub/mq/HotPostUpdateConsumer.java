@@ -2,17 +2,26 @@ package com.liuxy.campushub.mq;
 
 import com.liuxy.campushub.config.RabbitMQConfig;
 import com.liuxy.campushub.entity.Post;
-import com.liuxy.campushub.model.HotPostModel;
+import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.service.HotScoreService;
 import com.liuxy.campushub.service.PostService;
 import com.liuxy.campushub.vo.HotPostVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 热度更新逐条消费，hot.post.consumer.batch-enabled=false 时启用，默认使用 {@link HotPostBatchUpdateConsumer}
+ */
 @Component
 @Slf4j
+@ConditionalOnProperty(name = "hot.post.consumer.batch-enabled", havingValue = "false")
 public class HotPostUpdateConsumer {
 
     private static final String HOT_POSTS_KEY = "hot:posts";
@@ -20,9 +29,18 @@ public class HotPostUpdateConsumer {
     
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private RedisTemplate<String, HotPostVO> hotPostRedisTemplate;
     
     @Autowired
     private PostService postService;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private HotScoreService hotScoreService;
     
     @RabbitListener(queues = RabbitMQConfig.HOT_POST_QUEUE)
     public void handleHotPostUpdate(Long postId) {
@@ -36,15 +54,17 @@ public class HotPostUpdateConsumer {
                 return;
             }
             
-            // 计算热度
-            double hotness = HotPostModel.calculateHotness(post);
+            // 按配置的方式计算热度并写回数据库
+            double hotness = hotScoreService.score(post);
+            postMapper.updateHotScore(postId, BigDecimal.valueOf(hotness).setScale(4, RoundingMode.HALF_UP));
             
             // 更新Redis中的热度分数
             redisTemplate.opsForZSet().add(HOT_POSTS_KEY, postId, hotness);
             
             // 更新帖子详情缓存
             HotPostVO hotPostVO = HotPostVO.fromPost(post);
-            redisTemplate.opsForValue().set(HOT_POST_DETAIL_KEY + postId, hotPostVO);
+            hotPostVO.setHotness(hotness);
+            hotPostRedisTemplate.opsForValue().set(HOT_POST_DETAIL_KEY + postId, hotPostVO);
             
             log.info("更新热度成功，postId: {}, hotness: {}", postId, hotness);
         } catch (Exception e) {
@@ -0,0 +1,63 @@
+package com.liuxy.campushub.security;
+
+import com.liuxy.campushub.entity.StudentUser;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前登录用户
+ * <p>
+ * ID、用户名和角色来自已校验的令牌，不可变；完整的用户资料在第一次调用 {@link #getProfile()} 时才查询，
+ * 同一请求内只查询一次。每个请求一个实例，不要跨请求保存。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public final class AuthUser {
+
+    public static final String ROLE_ADMIN = "ADMIN";
+
+    private final Long id;
+    private final String username;
+    private final String role;
+    private final Supplier<StudentUser> profileLoader;
+
+    private StudentUser profile;
+    private boolean profileLoaded;
+
+    AuthUser(Long id, String username, String role, Supplier<StudentUser> profileLoader) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.profileLoader = profileLoader;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean isAdmin() {
+        return ROLE_ADMIN.equals(role);
+    }
+
+    /**
+     * 获取学生用户资料，首次调用时查询数据库
+     *
+     * @return 用户资料，管理员账号或用户已不存在时返回null
+     */
+    public StudentUser getProfile() {
+        if (!profileLoaded) {
+            profile = profileLoader.get();
+            profileLoaded = true;
+        }
+        return profile;
+    }
+}
@@ -0,0 +1,26 @@
+package com.liuxy.campushub.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 注入当前登录用户，参数类型为 {@link AuthUser}
+ * <p>
+ * 示例：{@code public Result<Long> create(@CurrentUser AuthUser user, ...)}
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+
+    /**
+     * 是否必须登录。为true时未登录返回401；为false时未登录注入null
+     */
+    boolean required() default true;
+}
@@ -0,0 +1,41 @@
+package com.liuxy.campushub.security;
+
+import com.liuxy.campushub.exception.BusinessException;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * {@link CurrentUser} 参数解析器
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final CurrentUserContext currentUserContext;
+
+    public CurrentUserArgumentResolver(CurrentUserContext currentUserContext) {
+        this.currentUserContext = currentUserContext;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && AuthUser.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        AuthUser user = currentUserContext.get();
+        if (user == null && parameter.getParameterAnnotation(CurrentUser.class).required()) {
+            throw new BusinessException(401, "未登录或登录已过期");
+        }
+        return user;
+    }
+}
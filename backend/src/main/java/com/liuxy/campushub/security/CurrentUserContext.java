@@ -0,0 +1,80 @@
+package com.liuxy.campushub.security;
+
+import com.liuxy.campushub.entity.StudentUser;
+import com.liuxy.campushub.mapper.StudentUserMapper;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 当前登录用户的请求级缓存
+ * <p>
+ * 第一次获取时由安全上下文中的认证信息构造 {@link AuthUser} 并保存到请求属性中，
+ * 同一请求内的控制器参数注入和服务层调用拿到的是同一个实例，用户资料也只查询一次。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Component
+public class CurrentUserContext {
+
+    private static final String ATTRIBUTE = AuthUser.class.getName();
+
+    private final StudentUserMapper studentUserMapper;
+
+    public CurrentUserContext(StudentUserMapper studentUserMapper) {
+        this.studentUserMapper = studentUserMapper;
+    }
+
+    /**
+     * 获取当前登录用户
+     *
+     * @return 当前用户，未登录或不在请求线程中时返回null
+     */
+    public AuthUser get() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object cached = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (cached instanceof AuthUser user) {
+                return user;
+            }
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetailsImpl principal)) {
+            return null;
+        }
+        String role = principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst()
+                .orElse(null);
+        // 与认证时的查找顺序一致：用户名先在学生用户表中查找，查不到的是管理员账号
+        String username = principal.getUsername();
+        AuthUser user = new AuthUser(principal.getId(), username, role,
+                () -> studentUserMapper.findByUsername(username));
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    /**
+     * 按ID获取学生用户，是当前用户本人时复用本请求已加载的资料
+     *
+     * @param userId 用户ID
+     * @return 学生用户，不存在时返回null
+     */
+    public StudentUser findStudent(Long userId) {
+        AuthUser current = get();
+        if (current != null && userId != null && userId.equals(current.getId())) {
+            StudentUser profile = current.getProfile();
+            if (profile != null && userId.equals(profile.getUserId())) {
+                return profile;
+            }
+        }
+        return studentUserMapper.selectById(userId);
+    }
+}
@@ -0,0 +1,87 @@
+package com.liuxy.campushub.security;
+
+import com.liuxy.campushub.entity.StudentUser;
+import com.liuxy.campushub.mapper.StudentUserMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * 登录凭证解析
+ * <p>
+ * 按格式判断登录凭证是手机号、学号还是用户名，按对应字段做单列等值查询，每次查询都能走索引。
+ * 用户名的取值范围与手机号、学号有重叠，首选字段查不到时再按其他可能的字段依次查询，
+ * 因此查找范围与原先 username OR student_number OR phone 的写法一致，凭证存在时通常只查询一次。
+ * 需要 student_user 表在这三列上有索引，见 db/student_user_login_index.sql。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Component
+public class LoginIdResolver {
+
+    private static final Pattern PHONE = Pattern.compile("^1[3-9]\\d{9}$");
+
+    // 纯数字学号，或注册时生成的临时学号：T + 8位数字 + 用户名前3位
+    private static final Pattern STUDENT_NUMBER = Pattern.compile("^(\\d{6,20}|T\\d{8}[a-zA-Z0-9_]{0,3})$");
+
+    /**
+     * 登录凭证类型
+     */
+    public enum LoginIdType {
+        PHONE,
+        STUDENT_NUMBER,
+        USERNAME
+    }
+
+    private final StudentUserMapper studentUserMapper;
+
+    public LoginIdResolver(StudentUserMapper studentUserMapper) {
+        this.studentUserMapper = studentUserMapper;
+    }
+
+    /**
+     * 判断登录凭证类型
+     *
+     * @param loginId 登录凭证
+     * @return 类型
+     */
+    public LoginIdType classify(String loginId) {
+        if (PHONE.matcher(loginId).matches()) {
+            return LoginIdType.PHONE;
+        }
+        if (STUDENT_NUMBER.matcher(loginId).matches()) {
+            return LoginIdType.STUDENT_NUMBER;
+        }
+        return LoginIdType.USERNAME;
+    }
+
+    /**
+     * 按登录凭证查找用户
+     *
+     * @param loginId 登录凭证
+     * @return 用户，不存在时返回null
+     */
+    public StudentUser resolve(String loginId) {
+        for (Function<String, StudentUser> lookup : lookupOrder(classify(loginId))) {
+            StudentUser user = lookup.apply(loginId);
+            if (user != null) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    private List<Function<String, StudentUser>> lookupOrder(LoginIdType type) {
+        return switch (type) {
+            case PHONE -> List.of(studentUserMapper::findByPhone, studentUserMapper::findByUsername,
+                    studentUserMapper::findByStudentNumber);
+            case STUDENT_NUMBER -> List.of(studentUserMapper::findByStudentNumber, studentUserMapper::findByUsername,
+                    studentUserMapper::findByPhone);
+            // 手机号只能是11位数字或临时手机号，不会与此类凭证相同
+            case USERNAME -> List.of(studentUserMapper::findByUsername, studentUserMapper::findByStudentNumber);
+        };
+    }
+}
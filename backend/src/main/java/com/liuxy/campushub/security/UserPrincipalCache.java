@@ -0,0 +1,122 @@
+package com.liuxy.campushub.security;
+
+import com.liuxy.campushub.entity.Admin;
+import com.liuxy.campushub.entity.StudentUser;
+import com.liuxy.campushub.mapper.AdminMapper;
+import com.liuxy.campushub.mapper.StudentUserMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 已认证用户信息缓存
+ * <p>
+ * 令牌通过校验后由此获取当前用户的角色和状态，命中时不访问数据库。
+ * 缓存条数有上限，按访问顺序淘汰；条目过期后重新加载，因此禁用账号或调整角色最迟在一个TTL后生效，
+ * 需要立即生效时调用 {@link #evict(String)}。用户不存在或已禁用的结果同样缓存，避免失效令牌反复查库。
+ * 缓存的用户信息不包含密码。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Slf4j
+@Component
+public class UserPrincipalCache {
+
+    private static final int STATUS_NORMAL = 1;
+
+    private final StudentUserMapper studentUserMapper;
+    private final AdminMapper adminMapper;
+
+    @Value("${security.principal-cache.size:10000}")
+    private int size;
+
+    @Value("${security.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Map<String, Entry> cache;
+
+    public UserPrincipalCache(StudentUserMapper studentUserMapper, AdminMapper adminMapper) {
+        this.studentUserMapper = studentUserMapper;
+        this.adminMapper = adminMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        int maxSize = Math.max(size, 1);
+        cache = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * 获取用户信息
+     *
+     * @param username 用户名
+     * @return 用户信息，用户不存在或已禁用时返回null
+     */
+    public UserDetailsImpl get(String username) {
+        Entry entry = cache.get(username);
+        if (entry != null && entry.expireAt > System.currentTimeMillis()) {
+            return entry.principal;
+        }
+        UserDetailsImpl principal = load(username);
+        cache.put(username, new Entry(principal, System.currentTimeMillis() + ttlSeconds * 1000));
+        return principal;
+    }
+
+    /**
+     * 移除缓存的用户信息，账号状态或角色变更后调用
+     *
+     * @param username 用户名
+     */
+    public void evict(String username) {
+        cache.remove(username);
+    }
+
+    /**
+     * 与 CustomUserDetailsServiceImpl 相同的查找顺序：先学生用户表，再管理员表
+     */
+    private UserDetailsImpl load(String username) {
+        StudentUser studentUser = studentUserMapper.findByUsername(username);
+        if (studentUser != null) {
+            if (studentUser.getStatus() == null || studentUser.getStatus() != STATUS_NORMAL) {
+                log.debug("用户状态异常，拒绝认证: {}", username);
+                return null;
+            }
+            String role = studentUser.getUserRole() != null && studentUser.getUserRole() == 1 ? "ADMIN" : "USER";
+            return UserDetailsImpl.build(studentUser.getUserId(), studentUser.getUsername(), null,
+                    studentUser.getEmail(), List.of(role));
+        }
+
+        Admin admin = adminMapper.findByUsername(username);
+        if (admin != null) {
+            if (admin.getStatus() == null || admin.getStatus() != STATUS_NORMAL) {
+                log.debug("管理员状态异常，拒绝认证: {}", username);
+                return null;
+            }
+            return UserDetailsImpl.build(admin.getId().longValue(), admin.getUsername(), null,
+                    null, List.of("ADMIN"));
+        }
+        return null;
+    }
+
+    private static final class Entry {
+        private final UserDetailsImpl principal;
+        private final long expireAt;
+
+        private Entry(UserDetailsImpl principal, long expireAt) {
+            this.principal = principal;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -2,7 +2,19 @@ package com.liuxy.campushub.service;
 
 import com.liuxy.campushub.dto.ChatRequest;
 import com.liuxy.campushub.dto.ChatResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 public interface AIChatService {
     ChatResponse chat(ChatRequest request);
-} 
\ No newline at end of file
+
+    /**
+     * 流式对话，模型返回的增量内容以 SSE 事件逐段推送
+     * <p>
+     * 事件依次为：session（会话ID）、若干 token（增量文本）、done（结束）或 error（失败原因）。
+     * 方法立即返回，推送在上游连接的回调线程中完成，不占用请求线程。
+     *
+     * @param request 对话请求
+     * @return SSE 发射器
+     */
+    SseEmitter chatStream(ChatRequest request);
+}
@@ -39,4 +39,22 @@ public interface AdminService {
      * @return 分页用户信息
      */
     PageInfo<StudentUser> getUserList(Integer pageNum, Integer pageSize, String username, Integer status);
+
+    /**
+     * 修改用户状态（禁用、启用），立即对已登录的用户生效
+     *
+     * @param userId 用户ID
+     * @param status 状态：1正常，0禁用，2未激活
+     * @return 用户不存在时返回false
+     */
+    boolean updateUserStatus(Long userId, Integer status);
+
+    /**
+     * 修改用户角色，立即对已登录的用户生效
+     *
+     * @param userId 用户ID
+     * @param userRole 角色
+     * @return 用户不存在时返回false
+     */
+    boolean updateUserRole(Long userId, Integer userRole);
 }
\ No newline at end of file
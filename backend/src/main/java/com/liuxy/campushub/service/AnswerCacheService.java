@@ -0,0 +1,47 @@
+package com.liuxy.campushub.service;
+
+import java.util.Map;
+
+/**
+ * 知识库问答结果缓存
+ * <p>
+ * 先按归一化后的问题文本精确匹配（存于 Redis，各实例共享），未命中时再在本机最近问过的问题中
+ * 按 MinHash 相似度查找足够相近的问题。缓存按知识库分版本，知识库更新后递增版本即可使旧答案全部失效。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface AnswerCacheService {
+
+    /**
+     * 查找已缓存的答案
+     *
+     * @param knowledgeBaseId 知识库ID
+     * @param question 问题原文
+     * @return 缓存的答案，未命中时返回null
+     */
+    String get(String knowledgeBaseId, String question);
+
+    /**
+     * 缓存答案，只应缓存成功的回答
+     *
+     * @param knowledgeBaseId 知识库ID
+     * @param question 问题原文
+     * @param answer 答案
+     */
+    void put(String knowledgeBaseId, String question, String answer);
+
+    /**
+     * 使知识库的全部缓存答案失效
+     *
+     * @param knowledgeBaseId 知识库ID
+     */
+    void invalidate(String knowledgeBaseId);
+
+    /**
+     * 获取缓存统计信息（精确命中、相似命中、未命中次数及命中率）
+     *
+     * @return 统计信息
+     */
+    Map<String, Object> getStats();
+}
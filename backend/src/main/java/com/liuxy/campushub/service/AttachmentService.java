@@ -1,10 +1,11 @@
 package com.liuxy.campushub.service;
 
 import com.liuxy.campushub.entity.Attachment;
+import com.liuxy.campushub.vo.ScrollResult;
 import org.springframework.web.multipart.MultipartFile;
-import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 附件服务接口
@@ -63,11 +64,12 @@ public interface AttachmentService {
      * 根据文件类型查询附件
      *
      * @param fileType 文件类型
+     * @param cursor 上一页返回的游标，传入时忽略页码
      * @param pageNum 页码
      * @param pageSize 每页数量
-     * @return 附件列表
+     * @return 滚动分页结果
      */
-    List<Attachment> getAttachmentsByType(String fileType, int pageNum, int pageSize);
+    ScrollResult<Attachment> getAttachmentsByType(String fileType, String cursor, int pageNum, int pageSize);
     
     /**
      * 删除附件
@@ -86,12 +88,20 @@ public interface AttachmentService {
     boolean deleteAttachmentsByPostId(Long postId) throws IOException;
     
     /**
-     * 生成文件缩略图
+     * 只删除帖子的附件记录，不删除文件；用于在事务提交后再清理文件
      *
-     * @param file 文件
-     * @return 缩略图URL
+     * @param postId 帖子ID
+     * @return 被删除记录对应的文件名
+     */
+    List<String> deleteAttachmentRecordsByPostId(Long postId);
+    
+    /**
+     * 批量获取帖子的封面图地址（首张图片附件中适合列表展示的尺寸）
+     *
+     * @param postIds 帖子ID列表
+     * @return 帖子ID到封面图地址的映射，没有图片的帖子不在其中
      */
-    String generateThumbnail(File file);
+    Map<Long, String> getCoverUrls(List<Long> postIds);
     
     /**
      * 获取文件访问URL
@@ -35,4 +35,14 @@ public interface ChatContextService {
      * @return 历史消息列表
      */
     List<ChatMessage> getRecentHistory(String sessionId, int limit);
-} 
\ No newline at end of file
+
+    /**
+     * 获取最近的N条历史消息，并按 token 预算从最早的消息开始截断，最新一条总是保留
+     *
+     * @param sessionId 会话ID
+     * @param limit 消息数量限制
+     * @param maxTokens 估算的 token 上限，不大于0时不按 token 截断
+     * @return 历史消息列表
+     */
+    List<ChatMessage> getRecentHistory(String sessionId, int limit, int maxTokens);
+}
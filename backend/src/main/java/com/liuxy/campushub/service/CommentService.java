@@ -2,7 +2,9 @@ package com.liuxy.campushub.service;
 
 import com.liuxy.campushub.entity.Comment;
 import com.liuxy.campushub.vo.CommentVO;
+import com.liuxy.campushub.vo.ScrollResult;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -38,14 +40,26 @@ public interface CommentService {
     List<CommentVO> getCommentsByPostId(Long postId);
     
     /**
-     * 根据用户ID查询评论列表
+     * 滚动加载帖子评论，按顶级评论分页，每条顶级评论携带完整的回复树
+     *
+     * @param postId 帖子ID
+     * @param lastTime 上一页最后一条顶级评论的时间，首页传null
+     * @param lastId 上一页最后一条顶级评论的ID
+     * @param pageSize 每页顶级评论数
+     * @return 滚动分页结果
+     */
+    ScrollResult<CommentVO> getCommentsByPostIdScroll(Long postId, Date lastTime, Long lastId, int pageSize);
+    
+    /**
+     * 根据用户ID查询评论列表，传入游标时按游标翻页，否则按页码
      *
      * @param userId 用户ID
+     * @param cursor 上一页返回的游标，可为空
      * @param page 页码
      * @param pageSize 每页大小
-     * @return 评论列表
+     * @return 滚动分页结果
      */
-    List<CommentVO> getCommentsByUserId(Long userId, int page, int pageSize);
+    ScrollResult<CommentVO> getCommentsByUserId(Long userId, String cursor, int page, int pageSize);
     
     /**
      * 更新评论
@@ -0,0 +1,71 @@
+package com.liuxy.campushub.service;
+
+import com.liuxy.campushub.entity.Post;
+import com.liuxy.campushub.enums.PostCounterEnum;
+
+import java.util.List;
+
+/**
+ * 热点帖子排行服务（内存Top-K）
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface HotPostRankingService {
+
+    /**
+     * 从数据库全量重建排行（仅启动时或管理员触发）
+     *
+     * @return 载入的帖子数
+     */
+    int rebuild();
+
+    /**
+     * 帖子计数增量变化
+     *
+     * @param postId 帖子ID
+     * @param counter 计数类型
+     * @param delta 增量
+     */
+    void onCounterDelta(Long postId, PostCounterEnum counter, long delta);
+
+    /**
+     * 帖子发布或重新上架
+     *
+     * @param post 帖子实体
+     */
+    void onPostPublished(Post post);
+
+    /**
+     * 帖子删除、隐藏等下架操作
+     *
+     * @param postId 帖子ID
+     */
+    void onPostRemoved(Long postId);
+
+    /**
+     * 获取帖子当前计数（含尚未落库的增量）
+     *
+     * @param postId 帖子ID
+     * @return 仅包含计数字段的Post，不在排行数据中时返回null
+     */
+    Post getCounters(Long postId);
+
+    /**
+     * 按排名分页获取热点帖子，返回的Post仅包含计数、发布时间和热度值
+     * <p>
+     * 只提供前 hot.ranking.capacity 名，超出的页返回空列表
+     *
+     * @param offset 起始位置
+     * @param limit 条数
+     * @return 帖子列表
+     */
+    List<Post> getRankedPosts(int offset, int limit);
+
+    /**
+     * 当前排行中的帖子数，不超过 hot.ranking.capacity
+     *
+     * @return 帖子数
+     */
+    int size();
+}
@@ -0,0 +1,29 @@
+package com.liuxy.campushub.service;
+
+import java.util.Map;
+
+/**
+ * 热度分数定时重算服务
+ * <p>
+ * 定期找出热度分数超过 hot.score.recalc.stale-after-ms 未计算的已发布帖子，按帖子ID分段重算并批量写回
+ * post.hot_score，同时更新 hot:posts 中已有成员的分数。多实例部署时通过 Redis 锁保证同一时刻只有一个实例在重算。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface HotScoreRecalcService {
+
+    /**
+     * 立即执行一次重算
+     *
+     * @return 更新的帖子数
+     */
+    int recalculate();
+
+    /**
+     * 获取重算统计信息（当前进度、待重算帖子数、最久未计算的时长等）
+     *
+     * @return 统计信息
+     */
+    Map<String, Object> getStats();
+}
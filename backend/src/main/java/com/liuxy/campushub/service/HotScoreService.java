@@ -0,0 +1,48 @@
+package com.liuxy.campushub.service;
+
+import com.liuxy.campushub.entity.Post;
+import com.liuxy.campushub.enums.HotScoreModeEnum;
+import com.liuxy.campushub.vo.PostVO;
+
+/**
+ * 热度分数服务
+ * <p>
+ * 按 hot.score.mode 配置的方式计算写入 hot:posts 和 post.hot_score 的分数。
+ * 切换计算方式后两种分数不可比较，需要执行一次 {@link #backfill()}。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface HotScoreService {
+
+    /**
+     * 当前的计算方式
+     *
+     * @return 计算方式
+     */
+    HotScoreModeEnum getMode();
+
+    /**
+     * 计算帖子热度分数
+     *
+     * @param post 帖子实体
+     * @return 热度分数，计算失败时为0
+     */
+    double score(Post post);
+
+    /**
+     * 计算帖子热度分数
+     *
+     * @param post 帖子VO
+     * @return 热度分数，缺少发布时间时为0
+     */
+    double score(PostVO post);
+
+    /**
+     * 按当前计算方式按帖子ID分段重算全部已发布帖子的分数，批量写回 post.hot_score，
+     * 并在临时键上重建 hot:posts 后原子替换
+     *
+     * @return 重算的帖子数
+     */
+    int backfill();
+}
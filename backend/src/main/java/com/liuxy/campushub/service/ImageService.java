@@ -3,6 +3,7 @@ package com.liuxy.campushub.service;
 import com.liuxy.campushub.entity.Image;
 import org.springframework.web.multipart.MultipartFile;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 图片服务接口
@@ -60,7 +61,15 @@ public interface ImageService {
      * 获取图片的存储路径
      *
      * @param image 图片实体
-     * @return 图片存储路径
+     * @return 图片在文件存储中的对象键
      */
     String getImagePath(Image image);
+
+    /**
+     * 批量获取适合列表展示的图片地址，用于商品列表封面
+     *
+     * @param urls 原图地址
+     * @return 原图地址到列表展示地址的映射，不是本站存储的图片或尚未生成缩略图的不在其中
+     */
+    Map<String, String> getFeedUrls(List<String> urls);
 } 
\ No newline at end of file
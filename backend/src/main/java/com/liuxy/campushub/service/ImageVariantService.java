@@ -0,0 +1,54 @@
+package com.liuxy.campushub.service;
+
+import java.util.List;
+
+/**
+ * 图片多尺寸缩略图服务
+ * <p>
+ * 原图上传后在后台线程池中按配置的宽度生成 JPEG（运行环境有 WebP 编码器时同时生成 WebP），
+ * 与原图存放在同一目录，文件名追加 _w{宽度}，例如 avatars/a.jpg 对应 avatars/a_w480.jpg。
+ * 队列满被拒绝或处理失败的任务不会丢失：记录上的已生成宽度仍为空，由定时补偿任务重新提交，
+ * 上线前已有的图片也由同一任务回填。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface ImageVariantService {
+
+    /**
+     * 为附件图片生成缩略图，完成后回写附件的缩略图地址和已生成的宽度。
+     * 事务中调用时在提交后才开始处理
+     *
+     * @param fileId 附件ID
+     * @param key 原图对象键
+     */
+    void submitForAttachment(Long fileId, String key);
+
+    /**
+     * 为图片记录生成缩略图，完成后回写已生成的宽度。
+     * 事务中调用时在提交后才开始处理
+     *
+     * @param imageId 图片ID
+     * @param key 原图对象键
+     */
+    void submitForImage(Integer imageId, String key);
+
+    /**
+     * 选取适合列表展示的图片地址：不小于列表展示宽度的最小缩略图，都不够宽时取最大的一张，
+     * 生成了 WebP 时取 WebP，尚未生成缩略图时返回原图地址
+     *
+     * @param key 原图对象键
+     * @param variantWidths 已生成的宽度，逗号分隔，可为null
+     * @param variantFormat 缩略图格式，可为null
+     * @return 图片地址
+     */
+    String feedUrl(String key, String variantWidths, String variantFormat);
+
+    /**
+     * 获取原图所有可能存在的缩略图对象键，用于随原图一起删除
+     *
+     * @param key 原图对象键
+     * @return 缩略图对象键
+     */
+    List<String> variantKeys(String key);
+}
@@ -1,6 +1,7 @@
 package com.liuxy.campushub.service;
 
 import com.liuxy.campushub.entity.LostFound;
+import com.liuxy.campushub.vo.ScrollResult;
 import java.util.List;
 
 /**
@@ -48,29 +49,32 @@ public interface LostFoundService {
      * 搜索失物招领信息
      *
      * @param keyword 关键词
+     * @param cursor 上一页返回的游标，传入时忽略页码
      * @param pageNum 页码
      * @param pageSize 每页数量
-     * @return 失物招领列表
+     * @return 滚动分页结果
      */
-    List<LostFound> searchLostFound(String keyword, int pageNum, int pageSize);
+    ScrollResult<LostFound> searchLostFound(String keyword, String cursor, int pageNum, int pageSize);
     
     /**
      * 查询未找回的失物招领信息
      *
+     * @param cursor 上一页返回的游标，传入时忽略页码
      * @param pageNum 页码
      * @param pageSize 每页数量
-     * @return 失物招领列表
+     * @return 滚动分页结果
      */
-    List<LostFound> getUnfoundItems(int pageNum, int pageSize);
+    ScrollResult<LostFound> getUnfoundItems(String cursor, int pageNum, int pageSize);
     
     /**
      * 查询已找回的失物招领信息
      *
+     * @param cursor 上一页返回的游标，传入时忽略页码
      * @param pageNum 页码
      * @param pageSize 每页数量
-     * @return 失物招领列表
+     * @return 滚动分页结果
      */
-    List<LostFound> getFoundItems(int pageNum, int pageSize);
+    ScrollResult<LostFound> getFoundItems(String cursor, int pageNum, int pageSize);
     
     /**
      * 根据位置查询附近的失物招领信息
@@ -78,30 +82,33 @@ public interface LostFoundService {
      * @param longitude 经度
      * @param latitude 纬度
      * @param radius 半径（米）
+     * @param cursor 上一页返回的游标，传入时忽略页码
      * @param pageNum 页码
      * @param pageSize 每页数量
-     * @return 失物招领列表
+     * @return 滚动分页结果
      */
-    List<LostFound> getNearbyLostFound(double longitude, double latitude, int radius, int pageNum, int pageSize);
+    ScrollResult<LostFound> getNearbyLostFound(double longitude, double latitude, int radius, String cursor, int pageNum, int pageSize);
     
     /**
      * 根据物品类型查询失物招领信息
      *
      * @param itemType 物品类型
+     * @param cursor 上一页返回的游标，传入时忽略页码
      * @param pageNum 页码
      * @param pageSize 每页数量
-     * @return 失物招领列表
+     * @return 滚动分页结果
      */
-    List<LostFound> getLostFoundByItemType(String itemType, int pageNum, int pageSize);
+    ScrollResult<LostFound> getLostFoundByItemType(String itemType, String cursor, int pageNum, int pageSize);
     
     /**
      * 根据时间范围查询失物招领信息
      *
      * @param startTime 开始时间
      * @param endTime 结束时间
+     * @param cursor 上一页返回的游标，传入时忽略页码
      * @param pageNum 页码
      * @param pageSize 每页数量
-     * @return 失物招领列表
+     * @return 滚动分页结果
      */
-    List<LostFound> getLostFoundByTimeRange(String startTime, String endTime, int pageNum, int pageSize);
+    ScrollResult<LostFound> getLostFoundByTimeRange(String startTime, String endTime, String cursor, int pageNum, int pageSize);
 } 
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.liuxy.campushub.service;
+
+import com.liuxy.campushub.enums.PostCounterEnum;
+import com.liuxy.campushub.model.PostCounterDelta;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 帖子计数写回服务（内存聚合 + 定时批量落库）
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface PostCounterService {
+
+    /**
+     * 累加帖子计数，事务内调用时在提交后生效；调用方须已确认帖子已发布
+     *
+     * @param postId 帖子ID
+     * @param counter 计数类型
+     */
+    void increment(Long postId, PostCounterEnum counter);
+
+    /**
+     * 获取本实例尚未写入数据库的增量
+     *
+     * @param postId 帖子ID
+     * @return 增量，没有未写入的增量时返回null
+     */
+    PostCounterDelta getPendingDelta(Long postId);
+
+    /**
+     * 将内存中累计的增量批量写入数据库
+     *
+     * @return 写入的帖子数
+     */
+    int flush();
+
+    /**
+     * 注册写库回调，每批增量写库成功后以该批帖子ID调用（如让帖子详情缓存失效）
+     *
+     * @param listener 回调，参数为本批写入的帖子ID
+     */
+    void addFlushListener(Consumer<Collection<Long>> listener);
+
+    /**
+     * 获取聚合统计信息（待写入增量、已写入增量、失败次数等）
+     *
+     * @return 统计信息
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,30 @@
+package com.liuxy.campushub.service;
+
+import com.liuxy.campushub.vo.PostDetailResponseVO;
+
+import java.util.function.Supplier;
+
+/**
+ * 帖子详情缓存服务（本地近缓存 + Redis）
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface PostDetailCacheService {
+
+    /**
+     * 读取帖子详情，未命中时通过loader加载并写入缓存，返回前加上本实例未写库的计数增量
+     *
+     * @param postId 帖子ID
+     * @param loader 未命中时的加载方法
+     * @return 帖子详情
+     */
+    PostDetailResponseVO get(Long postId, Supplier<PostDetailResponseVO> loader);
+
+    /**
+     * 使帖子详情缓存失效，事务中调用时提交后会再失效一次
+     *
+     * @param postId 帖子ID
+     */
+    void evict(Long postId);
+}
@@ -0,0 +1,28 @@
+package com.liuxy.campushub.service;
+
+import java.util.List;
+
+/**
+ * 帖子图片上传服务接口
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface PostImageIngestService {
+
+    /**
+     * 并行上传base64图片（支持 data:image/png;base64, 前缀），不经过临时文件。
+     * 任一图片失败时删除本批已上传的文件并抛出异常
+     *
+     * @param base64Images base64图片列表
+     * @return 存储后的文件名，与输入顺序一致
+     */
+    List<String> upload(List<String> base64Images);
+
+    /**
+     * 在后台删除已上传的文件及其缩略图，失败只记录日志
+     *
+     * @param fileNames 文件名列表
+     */
+    void deleteQuietly(List<String> fileNames);
+}
@@ -0,0 +1,28 @@
+package com.liuxy.campushub.service;
+
+/**
+ * 帖子发布状态缓存服务
+ * <p>
+ * 计数接口需要确认帖子已发布，近期帖子由排行数据判断，其余帖子按主键查库后短期缓存结果（含不存在的ID），
+ * 同一帖子的连续互动不再重复查库。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface PostPublishedCacheService {
+
+    /**
+     * 判断帖子是否存在且已发布
+     *
+     * @param postId 帖子ID
+     * @return 是否已发布
+     */
+    boolean isPublished(Long postId);
+
+    /**
+     * 帖子状态变化后清除本实例的缓存，其他实例的缓存在过期后更新
+     *
+     * @param postId 帖子ID
+     */
+    void evict(Long postId);
+}
@@ -46,30 +46,34 @@ public interface PostService {
      * 获取帖子列表（滚动分页）
      *
      * @param lastTime 最后一条记录的时间戳（首次传空）
+     * @param lastId 最后一条记录的帖子ID，与时间组成复合游标
+     * @param cursor 上一页返回的游标，传入时优先于 lastTime、lastId
      * @param pageSize 每页数量
      * @return 滚动分页结果
      */
-    ScrollResult<PostVO> getPostList(Date lastTime, int pageSize);
+    ScrollResult<PostVO> getPostList(Date lastTime, Long lastId, String cursor, int pageSize);
     
     /**
      * 根据分类ID查询帖子（滚动分页）
      *
      * @param categoryId 分类ID
      * @param lastTime 最后一条记录的时间戳（首次传空）
+     * @param lastId 最后一条记录的帖子ID，与时间组成复合游标
      * @param pageSize 每页数量
      * @return 滚动分页结果
      */
-    ScrollResult<PostVO> getPostsByCategory(Integer categoryId, Date lastTime, int pageSize);
+    ScrollResult<PostVO> getPostsByCategory(Integer categoryId, Date lastTime, Long lastId, int pageSize);
     
     /**
      * 根据用户ID查询帖子（滚动分页）
      *
      * @param userId 用户ID
      * @param lastTime 最后一条记录的时间戳（首次传空）
+     * @param lastId 最后一条记录的帖子ID，与时间组成复合游标
      * @param pageSize 每页数量
      * @return 滚动分页结果
      */
-    ScrollResult<PostVO> getPostsByUser(Long userId, Date lastTime, int pageSize);
+    ScrollResult<PostVO> getPostsByUser(Long userId, Date lastTime, Long lastId, int pageSize);
     
     /**
      * 更新帖子状态
@@ -84,7 +88,7 @@ public interface PostService {
      * 增加帖子浏览量
      *
      * @param postId 帖子ID
-     * @return 是否更新成功
+     * @return 是否计数成功，帖子不存在或未发布时返回false
      */
     boolean incrementViewCount(Long postId);
     
@@ -92,7 +96,7 @@ public interface PostService {
      * 增加帖子点赞数
      *
      * @param postId 帖子ID
-     * @return 是否更新成功
+     * @return 是否计数成功，帖子不存在或未发布时返回false
      */
     boolean incrementLikeCount(Long postId);
     
@@ -100,7 +104,7 @@ public interface PostService {
      * 增加帖子评论数
      *
      * @param postId 帖子ID
-     * @return 是否更新成功
+     * @return 是否计数成功，帖子不存在或未发布时返回false
      */
     boolean incrementCommentCount(Long postId);
     
@@ -108,7 +112,7 @@ public interface PostService {
      * 增加帖子分享数
      *
      * @param postId 帖子ID
-     * @return 是否更新成功
+     * @return 是否计数成功，帖子不存在或未发布时返回false
      */
     boolean incrementShareCount(Long postId);
     
@@ -124,10 +128,12 @@ public interface PostService {
      * 瀑布流加载帖子列表
      *
      * @param lastTime 最后一条记录的时间戳（首次加载传null）
+     * @param lastId 最后一条记录的帖子ID，与时间组成复合游标
+     * @param cursor 上一页返回的游标，传入时优先于 lastTime、lastId
      * @param limit 获取条数
      * @return 滚动分页结果
      */
-    ScrollResult<PostVO> getPostsWaterfall(Date lastTime, int limit);
+    ScrollResult<PostVO> getPostsWaterfall(Date lastTime, Long lastId, String cursor, int limit);
     
     /**
      * 获取帖子详情
@@ -138,14 +144,15 @@ public interface PostService {
     PostDetailResponseVO getPostDetail(Long postId);
 
     /**
-     * 根据用户ID分页查询帖子列表
+     * 根据用户ID分页查询帖子列表，传入游标时按游标翻页，否则按页码
      *
      * @param userId 用户ID
+     * @param cursor 上一页返回的游标，可为空
      * @param page 页码
      * @param pageSize 每页大小
      * @return 滚动分页结果
      */
-    ScrollResult<PostVO> getPostsByUserId(Long userId, int page, int pageSize);
+    ScrollResult<PostVO> getPostsByUserId(Long userId, String cursor, int page, int pageSize);
 
     /**
      * 获取热点帖子列表
@@ -156,7 +163,7 @@ public interface PostService {
     List<HotPostVO> getHotPosts(int limit);
     
     /**
-     * 获取热点帖子列表（带分页）
+     * 获取热点帖子列表（带分页），只提供排行的前 hot.ranking.capacity 名，超出后 hasMore 为 false
      *
      * @param page 页码，从1开始
      * @param pageSize 每页大小
@@ -0,0 +1,58 @@
+package com.liuxy.campushub.service;
+
+import com.liuxy.campushub.enums.PostCounterEnum;
+import com.liuxy.campushub.model.PostVelocity;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 帖子互动速度跟踪服务
+ * <p>
+ * 按分钟记录每个帖子最近一段时间的加权互动量，由速度和加速度判断突发热点，
+ * 突发帖子按分数维护一个定期刷新的Top-K列表。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface PostVelocityService {
+
+    /**
+     * 记录一次互动，调用方须已确认帖子已发布，这里不再校验
+     *
+     * @param postId 帖子ID
+     * @param counter 计数类型
+     * @param delta 增量
+     */
+    void record(Long postId, PostCounterEnum counter, long delta);
+
+    /**
+     * 计算帖子当前的互动速度
+     *
+     * @param postId 帖子ID
+     * @return 互动速度，窗口内没有互动时返回null
+     */
+    PostVelocity getVelocity(Long postId);
+
+    /**
+     * 获取突发热点帖子（最近一次刷新的结果）
+     *
+     * @param limit 条数
+     * @return 按突发分数降序排列
+     */
+    List<PostVelocity> getBurstPosts(int limit);
+
+    /**
+     * 帖子下架后不再出现在突发列表中
+     *
+     * @param postId 帖子ID
+     */
+    void onPostRemoved(Long postId);
+
+    /**
+     * 获取统计信息（跟踪的帖子数、突发帖子数、刷新和持久化情况）
+     *
+     * @return 统计信息
+     */
+    Map<String, Object> getStats();
+}
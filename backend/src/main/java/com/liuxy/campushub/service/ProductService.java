@@ -19,10 +19,11 @@ public interface ProductService {
      * 发布商品
      *
      * @param sellerId 发布者ID
+     * @param sellerUsername 发布者用户名
      * @param request 商品信息
      * @return 商品ID
      */
-    Long publishProduct(Long sellerId, ProductRequest request);
+    Long publishProduct(Long sellerId, String sellerUsername, ProductRequest request);
 
     /**
      * 获取商品详情
@@ -75,6 +76,7 @@ public interface ProductService {
      * @param status 商品状态
      * @param sortField 排序字段
      * @param sortOrder 排序方式
+     * @param cursor 上一页返回的游标，传入时忽略页码且不统计总数
      * @param pageNum 页码
      * @param pageSize 每页记录数
      * @return 商品列表响应
@@ -88,6 +90,7 @@ public interface ProductService {
             String status,
             String sortField,
             String sortOrder,
+            String cursor,
             Integer pageNum,
             Integer pageSize);
 
@@ -115,6 +118,7 @@ public interface ProductService {
      * @param status 商品状态
      * @param sortField 排序字段
      * @param sortOrder 排序方式
+     * @param cursor 上一页返回的游标，传入时忽略页码且不统计总数
      * @param pageNum 页码
      * @param pageSize 每页记录数
      * @return 商品列表响应
@@ -124,6 +128,7 @@ public interface ProductService {
             String status,
             String sortField,
             String sortOrder,
+            String cursor,
             Integer pageNum,
             Integer pageSize);
 } 
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.liuxy.campushub.service;
+
+import com.liuxy.campushub.dto.TokenPair;
+
+/**
+ * 刷新令牌服务
+ * <p>
+ * 每次登录开启一个会话，签发访问令牌和刷新令牌。刷新令牌每使用一次就换成新的（轮换），
+ * Redis 中每个会话只记录当前有效的刷新令牌ID。已被换掉的刷新令牌再次出现说明令牌可能泄露，
+ * 此时结束整个会话，会话内签发的访问令牌同时失效。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface RefreshTokenService {
+
+    /**
+     * 登录成功后开启会话
+     *
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param role 角色
+     * @return 访问令牌和刷新令牌
+     */
+    TokenPair startSession(Long userId, String username, Integer role);
+
+    /**
+     * 用刷新令牌换取新的访问令牌和刷新令牌，只校验签名并查询一次 Redis，不校验密码
+     *
+     * @param refreshToken 刷新令牌
+     * @return 新的访问令牌和刷新令牌
+     * @throws com.liuxy.campushub.exception.BusinessException 刷新令牌无效、已过期、已被使用或账号已禁用
+     */
+    TokenPair refresh(String refreshToken);
+
+    /**
+     * 登出：吊销访问令牌并结束其所属会话
+     *
+     * @param accessToken 访问令牌
+     */
+    void endSession(String accessToken);
+}
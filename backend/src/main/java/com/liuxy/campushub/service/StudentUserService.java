@@ -10,15 +10,17 @@ import com.liuxy.campushub.dto.UpdateUserRequest;
 import com.liuxy.campushub.dto.ChangePasswordRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface StudentUserService {
     RegisterResponse register(RegisterRequest request);
 
     /**
-     * 学生用户登录
+     * 学生用户登录，密码校验在登录线程池中执行
      * @param request 登录请求参数
-     * @return 登录响应结果
+     * @return 登录响应结果，线程池已满或同一账号失败次数过多时直接返回失败
      */
-    LoginResponse login(LoginRequest request);
+    CompletableFuture<LoginResponse> login(LoginRequest request);
 
     /**
      * 用户登出
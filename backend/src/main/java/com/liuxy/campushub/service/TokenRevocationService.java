@@ -0,0 +1,32 @@
+package com.liuxy.campushub.service;
+
+import java.util.Date;
+
+/**
+ * 令牌吊销服务
+ * <p>
+ * 按令牌ID（jti）记录已吊销的令牌，记录在令牌原定过期时自动删除。
+ * 吊销记录保存在 Redis 中供所有实例共享，各实例另有本地布隆过滤器，
+ * 绝大多数未吊销的令牌在本地即可判定，不访问 Redis。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface TokenRevocationService {
+
+    /**
+     * 吊销令牌，并通知其他实例
+     *
+     * @param tokenId 令牌ID
+     * @param expiresAt 令牌过期时间，已过期时不做处理
+     */
+    void revoke(String tokenId, Date expiresAt);
+
+    /**
+     * 判断令牌是否已吊销
+     *
+     * @param tokenId 令牌ID
+     * @return 是否已吊销
+     */
+    boolean isRevoked(String tokenId);
+}
@@ -1,6 +1,7 @@
 package com.liuxy.campushub.service;
 
 import com.liuxy.campushub.entity.Topic;
+import com.liuxy.campushub.vo.ScrollResult;
 import java.util.List;
 
 /**
@@ -90,11 +91,12 @@ public interface TopicService {
      * 搜索话题
      *
      * @param keyword 关键词
+     * @param cursor 上一页返回的游标，传入时忽略页码
      * @param pageNum 页码
      * @param pageSize 每页数量
-     * @return 话题列表
+     * @return 滚动分页结果
      */
-    List<Topic> searchTopics(String keyword, int pageNum, int pageSize);
+    ScrollResult<Topic> searchTopics(String keyword, String cursor, int pageNum, int pageSize);
     
     /**
      * 从文本中提取话题
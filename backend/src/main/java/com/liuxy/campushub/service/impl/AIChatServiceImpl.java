@@ -7,144 +7,270 @@ import com.liuxy.campushub.dto.ChatResponse;
 import com.liuxy.campushub.dto.ChatMessage;
 import com.liuxy.campushub.service.AIChatService;
 import com.liuxy.campushub.service.ChatContextService;
+import com.liuxy.campushub.util.ModelGateway;
 import com.liuxy.campushub.utils.SparkAIUtil;
 import okhttp3.Response;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.List;
 
 @Service
 public class AIChatServiceImpl implements AIChatService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(AIChatServiceImpl.class);
     private static final int MAX_HISTORY_LENGTH = 10;
-    
+
     @Autowired
     private SparkAIUtil sparkAIUtil;
-    
+
+    @Autowired
+    @Qualifier("sparkModelGateway")
+    private ModelGateway modelGateway;
+
     @Autowired
     private ChatContextService chatContextService;
-    
+
+    /**
+     * 流式对话的最长持续时间（毫秒）
+     */
+    @Value("${ai.chat.stream-timeout-ms:60000}")
+    private long streamTimeoutMs;
+
+    /**
+     * 发送给模型的历史消息 token 预算，不大于0时只按条数截断
+     */
+    @Value("${ai.chat.history.token-budget:0}")
+    private int historyTokenBudget;
+
     @Override
     public ChatResponse chat(ChatRequest request) {
+        CompletableFuture<WebSocket> socket = null;
         try {
-            // 创建会话ID（如果不存在）
-            String sessionId = request.getSessionId();
-            if (sessionId == null) {
-                sessionId = UUID.randomUUID().toString();
-            }
-            
-            // 保存用户消息到上下文
-            ChatMessage userMessage = ChatMessage.createUserMessage(request.getMessage());
-            chatContextService.saveMessage(sessionId, userMessage);
-            
+            String sessionId = resolveSessionId(request);
+
             // 创建返回结果的 CompletableFuture
             CompletableFuture<String> responseFuture = new CompletableFuture<>();
-            StringBuilder responseBuilder = new StringBuilder();
-            
-            // 创建 WebSocket 监听器
-            WebSocketListener listener = new WebSocketListener() {
-                @Override
-                public void onMessage(WebSocket webSocket, String text) {
-                    JSONObject responseJson = JSONObject.parseObject(text);
-                    JSONObject header = responseJson.getJSONObject("header");
-                    if (header.getInteger("code") == 0) {
-                        JSONObject payload = responseJson.getJSONObject("payload");
-                        JSONObject choices = payload.getJSONObject("choices");
-                        JSONArray textArray = choices.getJSONArray("text");
-                        if (textArray != null && !textArray.isEmpty()) {
-                            String content = textArray.getJSONObject(0).getString("content");
-                            responseBuilder.append(content);
-                        }
-                        
-                        // 如果是最后一条消息，完成 Future
-                        if (choices.getInteger("status") == 2) {
-                            String finalResponse = responseBuilder.toString();
-                            // 保存助手回复到上下文
-                            ChatMessage assistantMessage = ChatMessage.createAssistantMessage(finalResponse);
-                            chatContextService.saveMessage(sessionId, assistantMessage);
-                            responseFuture.complete(finalResponse);
-                            webSocket.close(1000, "正常关闭");
-                        }
-                    } else {
-                        responseFuture.completeExceptionally(
-                            new RuntimeException("请求失败：" + header.getString("message"))
-                        );
-                        webSocket.close(1000, "错误关闭");
-                    }
-                }
-                
-                @Override
-                public void onFailure(WebSocket webSocket, Throwable t, Response response) {
-                    responseFuture.completeExceptionally(t);
-                }
-            };
-            
-            // 创建 WebSocket 连接
-            WebSocket webSocket = sparkAIUtil.createWebSocket(listener);
-            
-            // 获取历史消息
-            List<ChatMessage> history = chatContextService.getRecentHistory(sessionId, MAX_HISTORY_LENGTH);
-            
-            // 构建请求消息
-            JSONObject requestJson = new JSONObject();
-            
-            // 添加 header
-            JSONObject header = new JSONObject();
-            header.put("app_id", sparkAIUtil.getAppId());
-            header.put("uid", sessionId);
-            requestJson.put("header", header);
-            
-            // 添加 parameter
-            JSONObject parameter = new JSONObject();
-            JSONObject chat = new JSONObject();
-            chat.put("domain", "4.0Ultra");
-            chat.put("temperature", 0.5);
-            chat.put("max_tokens", 1024);
-            chat.put("top_k", 4);
-            chat.put("random_threshold", 0.5);
-            chat.put("auditing", "default");
-            parameter.put("chat", chat);
-            requestJson.put("parameter", parameter);
-            
-            // 添加 payload
-            JSONObject payload = new JSONObject();
-            JSONObject message = new JSONObject();
-            
-            // 构建历史消息数组
-            JSONArray textArray = new JSONArray();
-            for (ChatMessage msg : history) {
-                JSONObject textObj = new JSONObject();
-                textObj.put("role", msg.getRole());
-                textObj.put("content", msg.getContent());
-                textArray.add(textObj);
-            }
-            
-            message.put("text", textArray);
-            payload.put("message", message);
-            requestJson.put("payload", payload);
-            
-            // 发送消息
-            String requestString = requestJson.toJSONString();
-            logger.debug("发送请求: {}", requestString);
-            webSocket.send(requestString);
-            
+            socket = openModelStream(sessionId, request.getMessage(), content -> { },
+                    responseFuture::complete, responseFuture::completeExceptionally);
+
             // 等待响应，设置超时时间为30秒
             String response = responseFuture.get(30, TimeUnit.SECONDS);
-            
+
             return ChatResponse.success(response, sessionId);
-            
+
         } catch (Exception e) {
+            // 超时或出错时放弃排队或断开上游连接，立即归还网关名额
+            modelGateway.cancel(socket);
             logger.error("AI聊天服务异常", e);
             return ChatResponse.error("AI服务暂时不可用: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    @Override
+    public SseEmitter chatStream(ChatRequest request) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        String sessionId = resolveSessionId(request);
+        AtomicReference<CompletableFuture<WebSocket>> socketRef = new AtomicReference<>();
+        AtomicBoolean finished = new AtomicBoolean();
+
+        // 客户端断开、超时或出错时放弃排队或关闭上游连接，不再继续消耗模型配额
+        Runnable cancelUpstream = () -> {
+            finished.set(true);
+            modelGateway.cancel(socketRef.get());
+        };
+        emitter.onCompletion(cancelUpstream);
+        emitter.onTimeout(() -> {
+            cancelUpstream.run();
+            emitter.complete();
+        });
+        emitter.onError(e -> cancelUpstream.run());
+
+        try {
+            emitter.send(SseEmitter.event().name("session").data(sessionId));
+            socketRef.set(openModelStream(sessionId, request.getMessage(),
+                    content -> {
+                        if (finished.get()) {
+                            return;
+                        }
+                        try {
+                            emitter.send(SseEmitter.event().name("token").data(content));
+                        } catch (IOException e) {
+                            // 客户端已断开
+                            cancelUpstream.run();
+                        }
+                    },
+                    fullText -> {
+                        if (finished.compareAndSet(false, true)) {
+                            try {
+                                emitter.send(SseEmitter.event().name("done").data(Map.of("sessionId", sessionId)));
+                                emitter.complete();
+                            } catch (IOException e) {
+                                logger.debug("流式对话结束事件发送失败，客户端已断开: {}", sessionId);
+                            }
+                        }
+                    },
+                    e -> {
+                        if (finished.compareAndSet(false, true)) {
+                            logger.error("AI流式对话异常: {}", sessionId, e);
+                            sendErrorAndComplete(emitter, e);
+                        }
+                    }));
+            // 发起连接前客户端已断开
+            if (finished.get()) {
+                cancelUpstream.run();
+            }
+        } catch (Exception e) {
+            logger.error("AI流式对话建立失败: {}", sessionId, e);
+            finished.set(true);
+            sendErrorAndComplete(emitter, e);
+        }
+        return emitter;
+    }
+
+    private void sendErrorAndComplete(SseEmitter emitter, Throwable e) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data("AI服务暂时不可用: " + e.getMessage()));
+            emitter.complete();
+        } catch (IOException ignored) {
+            // 客户端已断开，无需再通知
+        }
+    }
+
+    private String resolveSessionId(ChatRequest request) {
+        // 创建会话ID（如果不存在）
+        String sessionId = request.getSessionId();
+        return sessionId != null ? sessionId : UUID.randomUUID().toString();
+    }
+
+    /**
+     * 保存用户消息并经由模型网关向模型发起请求，回调均在 OkHttp 的读线程中执行；
+     * 网关排队超时或已满时以 onError 通知
+     *
+     * @param sessionId 会话ID
+     * @param userInput 用户消息
+     * @param onToken 每收到一段增量内容时调用
+     * @param onComplete 回答结束时以完整内容调用，此时助手回复已保存到上下文
+     * @param onError 模型返回错误或连接失败时调用
+     * @return 上游连接，排队期间可取消
+     */
+    private CompletableFuture<WebSocket> openModelStream(String sessionId, String userInput, Consumer<String> onToken,
+                                                         Consumer<String> onComplete, Consumer<Throwable> onError) {
+        // 保存用户消息到上下文
+        ChatMessage userMessage = ChatMessage.createUserMessage(userInput);
+        chatContextService.saveMessage(sessionId, userMessage);
+
+        StringBuilder responseBuilder = new StringBuilder();
+
+        // 创建 WebSocket 监听器
+        WebSocketListener listener = new WebSocketListener() {
+            @Override
+            public void onMessage(WebSocket webSocket, String text) {
+                JSONObject responseJson = JSONObject.parseObject(text);
+                JSONObject header = responseJson.getJSONObject("header");
+                if (header.getInteger("code") == 0) {
+                    JSONObject payload = responseJson.getJSONObject("payload");
+                    JSONObject choices = payload.getJSONObject("choices");
+                    JSONArray textArray = choices.getJSONArray("text");
+                    if (textArray != null && !textArray.isEmpty()) {
+                        String content = textArray.getJSONObject(0).getString("content");
+                        responseBuilder.append(content);
+                        if (content != null && !content.isEmpty()) {
+                            onToken.accept(content);
+                        }
+                    }
+
+                    // 如果是最后一条消息，保存助手回复并通知调用方
+                    if (choices.getInteger("status") == 2) {
+                        String finalResponse = responseBuilder.toString();
+                        ChatMessage assistantMessage = ChatMessage.createAssistantMessage(finalResponse);
+                        chatContextService.saveMessage(sessionId, assistantMessage);
+                        onComplete.accept(finalResponse);
+                        webSocket.close(1000, "正常关闭");
+                    }
+                } else {
+                    onError.accept(new RuntimeException("请求失败：" + header.getString("message")));
+                    webSocket.close(1000, "错误关闭");
+                }
+            }
+
+            @Override
+            public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+                onError.accept(t);
+            }
+        };
+
+        // 获取历史消息
+        List<ChatMessage> history = chatContextService.getRecentHistory(sessionId, MAX_HISTORY_LENGTH, historyTokenBudget);
+        String requestString = buildRequest(sessionId, history).toJSONString();
+
+        // 取得上游名额后发送消息，握手完成前发送的消息由 OkHttp 暂存
+        CompletableFuture<WebSocket> socketFuture = modelGateway.open(listener);
+        socketFuture.whenComplete((webSocket, e) -> {
+            if (e == null) {
+                logger.debug("发送请求: {}", requestString);
+                webSocket.send(requestString);
+            } else if (!(e instanceof CancellationException)) {
+                onError.accept(e);
+            }
+        });
+        return socketFuture;
+    }
+
+    private JSONObject buildRequest(String sessionId, List<ChatMessage> history) {
+        // 构建请求消息
+        JSONObject requestJson = new JSONObject();
+
+        // 添加 header
+        JSONObject header = new JSONObject();
+        header.put("app_id", sparkAIUtil.getAppId());
+        header.put("uid", sessionId);
+        requestJson.put("header", header);
+
+        // 添加 parameter
+        JSONObject parameter = new JSONObject();
+        JSONObject chat = new JSONObject();
+        chat.put("domain", "4.0Ultra");
+        chat.put("temperature", 0.5);
+        chat.put("max_tokens", 1024);
+        chat.put("top_k", 4);
+        chat.put("random_threshold", 0.5);
+        chat.put("auditing", "default");
+        parameter.put("chat", chat);
+        requestJson.put("parameter", parameter);
+
+        // 添加 payload
+        JSONObject payload = new JSONObject();
+        JSONObject message = new JSONObject();
+
+        // 构建历史消息数组
+        JSONArray textArray = new JSONArray();
+        for (ChatMessage msg : history) {
+            JSONObject textObj = new JSONObject();
+            textObj.put("role", msg.getRole());
+            textObj.put("content", msg.getContent());
+            textArray.add(textObj);
+        }
+
+        message.put("text", textArray);
+        payload.put("message", message);
+        requestJson.put("payload", payload);
+        return requestJson;
+    }
+}
@@ -5,6 +5,7 @@ import com.github.pagehelper.PageInfo;
 import com.liuxy.campushub.dto.AdminLoginRequest;
 import com.liuxy.campushub.dto.AdminLoginResponse;
 import com.liuxy.campushub.dto.AdminInfoDTO;
+import com.liuxy.campushub.dto.TokenPair;
 import com.liuxy.campushub.dto.UserStatisticsResponse;
 import com.liuxy.campushub.entity.Admin;
 import com.liuxy.campushub.entity.AdminLog;
@@ -12,7 +13,9 @@ import com.liuxy.campushub.entity.StudentUser;
 import com.liuxy.campushub.mapper.AdminMapper;
 import com.liuxy.campushub.mapper.AdminLogMapper;
 import com.liuxy.campushub.mapper.StudentUserMapper;
+import com.liuxy.campushub.security.UserPrincipalCache;
 import com.liuxy.campushub.service.AdminService;
+import com.liuxy.campushub.service.RefreshTokenService;
 import com.liuxy.campushub.utils.JwtTokenUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -31,6 +34,8 @@ public class AdminServiceImpl implements AdminService {
     private final StudentUserMapper studentUserMapper;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenUtil jwtTokenUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -65,7 +70,7 @@ public class AdminServiceImpl implements AdminService {
         adminLogMapper.insert(log);
 
         // 生成token
-        String token = jwtTokenUtil.generateToken(admin.getId().longValue(), admin.getUsername(), 1);
+        TokenPair tokens = refreshTokenService.startSession(admin.getId().longValue(), admin.getUsername(), 1);
 
         // 构建响应
         AdminInfoDTO adminInfo = AdminInfoDTO.builder()
@@ -77,7 +82,8 @@ public class AdminServiceImpl implements AdminService {
                 .build();
 
         return AdminLoginResponse.builder()
-                .token(token)
+                .token(tokens.getToken())
+                .refreshToken(tokens.getRefreshToken())
                 .admin(adminInfo)
                 .build();
     }
@@ -96,8 +102,8 @@ public class AdminServiceImpl implements AdminService {
             adminLogMapper.insert(log);
         }
         
-        // 使令牌失效
-        jwtTokenUtil.invalidateToken(token);
+        // 使令牌失效并结束会话
+        refreshTokenService.endSession(token);
     }
 
     @Override
@@ -123,4 +129,25 @@ public class AdminServiceImpl implements AdminService {
         List<StudentUser> users = studentUserMapper.selectByCondition(username, status, null, null);
         return new PageInfo<>(users);
     }
+
+    @Override
+    public boolean updateUserStatus(Long userId, Integer status) {
+        StudentUser user = studentUserMapper.selectById(userId);
+        if (user == null || studentUserMapper.updateStatus(userId, status) == 0) {
+            return false;
+        }
+        // 已缓存的认证信息仍是旧状态，移除后下次请求重新加载
+        userPrincipalCache.evict(user.getUsername());
+        return true;
+    }
+
+    @Override
+    public boolean updateUserRole(Long userId, Integer userRole) {
+        StudentUser user = studentUserMapper.selectById(userId);
+        if (user == null || studentUserMapper.updateRole(userId, userRole) == 0) {
+            return false;
+        }
+        userPrincipalCache.evict(user.getUsername());
+        return true;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,232 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.service.AnswerCacheService;
+import com.liuxy.campushub.util.MinHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 知识库问答结果缓存实现类
+ * <p>
+ * 答案以 ai:answer:{知识库ID}:{版本}:{问题摘要} 存入 Redis 并设置过期时间；本机另维护一个按最近使用淘汰的
+ * 问题索引，保存问题的 MinHash 签名和对应的 Redis 键，相似命中时再从 Redis 取答案，答案过期或知识库版本变化
+ * 后索引项自动作废。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Slf4j
+@Service
+public class AnswerCacheServiceImpl implements AnswerCacheService {
+
+    private static final String ANSWER_KEY_PREFIX = "ai:answer:";
+    private static final String VERSION_KEY_PREFIX = "ai:answer:version:";
+
+    /**
+     * 归一化后短于该长度的问题只做精确匹配，过短的文本相似度没有意义
+     */
+    private static final int MIN_SIMILAR_LENGTH = 4;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MinHash minHash = new MinHash(64, 2);
+    private final Map<String, IndexEntry> index;
+
+    private final AtomicLong exactHits = new AtomicLong();
+    private final AtomicLong similarHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+
+    @Value("${ai.answer-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.answer-cache.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${ai.answer-cache.similarity-threshold:0.85}")
+    private double similarityThreshold;
+
+    private record IndexEntry(String knowledgeBaseId, long version, long[] signature, String key) {
+    }
+
+    public AnswerCacheServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                  @Value("${ai.answer-cache.local-index-size:5000}") int localIndexSize) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.index = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IndexEntry> eldest) {
+                return size() > localIndexSize;
+            }
+        };
+    }
+
+    @Override
+    public String get(String knowledgeBaseId, String question) {
+        if (!enabled || question == null) {
+            return null;
+        }
+        String normalized = normalize(question);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        try {
+            long version = currentVersion(knowledgeBaseId);
+            String key = answerKey(knowledgeBaseId, version, normalized);
+            String answer = stringRedisTemplate.opsForValue().get(key);
+            if (answer != null) {
+                exactHits.incrementAndGet();
+                remember(knowledgeBaseId, version, normalized, key);
+                return answer;
+            }
+
+            answer = findSimilar(knowledgeBaseId, version, normalized);
+            if (answer != null) {
+                similarHits.incrementAndGet();
+                return answer;
+            }
+        } catch (Exception e) {
+            log.warn("读取问答缓存失败: {}", e.getMessage());
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    @Override
+    public void put(String knowledgeBaseId, String question, String answer) {
+        if (!enabled || question == null || answer == null || answer.isEmpty()) {
+            return;
+        }
+        String normalized = normalize(question);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        try {
+            long version = currentVersion(knowledgeBaseId);
+            String key = answerKey(knowledgeBaseId, version, normalized);
+            stringRedisTemplate.opsForValue().set(key, answer, Duration.ofHours(ttlHours));
+            remember(knowledgeBaseId, version, normalized, key);
+            puts.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("写入问答缓存失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void invalidate(String knowledgeBaseId) {
+        // 旧版本的答案不再被读取，随过期时间自然清除
+        Long version = stringRedisTemplate.opsForValue().increment(VERSION_KEY_PREFIX + knowledgeBaseId);
+        synchronized (index) {
+            index.values().removeIf(entry -> entry.knowledgeBaseId().equals(knowledgeBaseId));
+        }
+        log.info("知识库问答缓存已失效 - 知识库: {}, 新版本: {}", knowledgeBaseId, version);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long exact = exactHits.get();
+        long similar = similarHits.get();
+        long total = exact + similar + misses.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("exactHits", exact);
+        stats.put("similarHits", similar);
+        stats.put("misses", misses.get());
+        stats.put("puts", puts.get());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) (exact + similar) / total);
+        synchronized (index) {
+            stats.put("localIndexSize", index.size());
+        }
+        return stats;
+    }
+
+    /**
+     * 在本机索引中查找同一知识库、同一版本下最相似的问题，相似度达到阈值时返回其答案
+     */
+    private String findSimilar(String knowledgeBaseId, long version, String normalized) {
+        if (normalized.length() < MIN_SIMILAR_LENGTH) {
+            return null;
+        }
+        long[] signature = minHash.signature(normalized);
+        String bestKey = null;
+        double bestScore = similarityThreshold;
+        synchronized (index) {
+            Iterator<IndexEntry> iterator = index.values().iterator();
+            while (iterator.hasNext()) {
+                IndexEntry entry = iterator.next();
+                if (!entry.knowledgeBaseId().equals(knowledgeBaseId)) {
+                    continue;
+                }
+                if (entry.version() != version) {
+                    iterator.remove();
+                    continue;
+                }
+                double score = MinHash.similarity(signature, entry.signature());
+                if (score >= bestScore) {
+                    bestScore = score;
+                    bestKey = entry.key();
+                }
+            }
+        }
+        if (bestKey == null) {
+            return null;
+        }
+        String answer = stringRedisTemplate.opsForValue().get(bestKey);
+        if (answer == null) {
+            // 答案已过期，索引项一并移除
+            String expiredKey = bestKey;
+            synchronized (index) {
+                index.values().removeIf(entry -> entry.key().equals(expiredKey));
+            }
+        }
+        return answer;
+    }
+
+    private void remember(String knowledgeBaseId, long version, String normalized, String key) {
+        if (normalized.length() < MIN_SIMILAR_LENGTH) {
+            return;
+        }
+        synchronized (index) {
+            if (index.get(key) == null) {
+                index.put(key, new IndexEntry(knowledgeBaseId, version, minHash.signature(normalized), key));
+            }
+        }
+    }
+
+    private long currentVersion(String knowledgeBaseId) {
+        String value = stringRedisTemplate.opsForValue().get(VERSION_KEY_PREFIX + knowledgeBaseId);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    private String answerKey(String knowledgeBaseId, long version, String normalized) {
+        String digest = DigestUtils.md5DigestAsHex(normalized.getBytes(StandardCharsets.UTF_8));
+        return ANSWER_KEY_PREFIX + knowledgeBaseId + ":" + version + ":" + digest;
+    }
+
+    /**
+     * 归一化问题文本：全角转半角、英文转小写，去掉空白和标点，只保留文字和数字
+     */
+    private static String normalize(String question) {
+        String text = Normalizer.normalize(question, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                builder.appendCodePoint(codePoint);
+            }
+            i += Character.charCount(codePoint);
+        }
+        return builder.toString();
+    }
+}
@@ -1,19 +1,26 @@
 package com.liuxy.campushub.service.impl;
 
 import com.liuxy.campushub.entity.Attachment;
+import com.liuxy.campushub.exception.BusinessException;
 import com.liuxy.campushub.mapper.AttachmentMapper;
+import com.liuxy.campushub.model.PageCursor;
 import com.liuxy.campushub.service.AttachmentService;
-import com.liuxy.campushub.util.SftpUtil;
+import com.liuxy.campushub.service.ImageVariantService;
+import com.liuxy.campushub.storage.BlobKeys;
+import com.liuxy.campushub.storage.BlobStore;
+import com.liuxy.campushub.vo.ScrollResult;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -29,16 +36,10 @@ public class AttachmentServiceImpl implements AttachmentService {
     private AttachmentMapper attachmentMapper;
 
     @Autowired
-    private SftpUtil sftpUtil;
+    private BlobStore blobStore;
 
-    @Value("${sftp.remote-path}")
-    private String remotePath;
-
-    @Value("${upload.avatar.url}")
-    private String urlPrefix;
-
-    @Value("${upload.avatar.path}")
-    private String avatarPath;
+    @Autowired
+    private ImageVariantService imageVariantService;
 
     @Override
     @Transactional
@@ -47,8 +48,21 @@ public class AttachmentServiceImpl implements AttachmentService {
             throw new IllegalArgumentException("postId cannot be null");
         }
 
-        // 保存文件到SFTP服务器
-        String fileName = sftpUtil.uploadFile(file, avatarPath);
+        // 只接受已知类型的文件，html、svg 等可执行脚本的文件不允许上传
+        String originalFilename = file.getOriginalFilename();
+        String extension = getFileExtension(originalFilename);
+        String fileType = getFileType(originalFilename);
+        if ("unknown".equals(fileType) || "other".equals(fileType)) {
+            throw new BusinessException(400, "不支持的文件类型: " + (extension != null ? extension : originalFilename));
+        }
+
+        // 保存文件到存储，内容类型由扩展名决定而不是取客户端上报的值
+        String fileName = BlobKeys.newFileName("." + extension.toLowerCase());
+        String imageType = BlobKeys.inlineImageType(fileName);
+        try (InputStream in = file.getInputStream()) {
+            blobStore.put(BlobKeys.of(BlobKeys.AVATARS, fileName), in, file.getSize(),
+                    imageType != null ? imageType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        }
         
         // 创建附件记录
         return createAttachment(postId, fileName);
@@ -75,19 +89,18 @@ public class AttachmentServiceImpl implements AttachmentService {
         Attachment attachment = new Attachment();
         attachment.setPostId(postId);
         attachment.setFileType(getFileType(fileName));
-        attachment.setFileUrl(urlPrefix + "/" + fileName);
+        attachment.setFileUrl(blobStore.url(BlobKeys.of(BlobKeys.AVATARS, fileName)));
         
         // 设置文件大小
-        attachment.setFileSize(0); // 由于使用SFTP，暂时无法获取文件大小
+        attachment.setFileSize(0); // 文件写入存储后不再回读大小
 
         attachmentMapper.insert(attachment);
-        return attachment.getFileId();
-    }
 
-    @Override
-    public String generateThumbnail(File file) {
-        // 由于使用SFTP，暂时不生成缩略图
-        return null;
+        // 图片在后台生成缩略图
+        if ("image".equals(attachment.getFileType())) {
+            imageVariantService.submitForAttachment(attachment.getFileId(), BlobKeys.of(BlobKeys.AVATARS, fileName));
+        }
+        return attachment.getFileId();
     }
 
     private String getFileType(String fileName) {
@@ -118,8 +131,9 @@ public class AttachmentServiceImpl implements AttachmentService {
     public boolean deleteAttachment(Long fileId) throws IOException {
         Attachment attachment = attachmentMapper.selectById(fileId);
         if (attachment != null) {
-            String fileName = attachment.getFileUrl().substring(attachment.getFileUrl().lastIndexOf("/") + 1);
-            sftpUtil.deleteFile(avatarPath, fileName);
+            String key = keyOf(attachment);
+            blobStore.delete(key);
+            blobStore.deleteAll(imageVariantService.variantKeys(key));
             return attachmentMapper.deleteById(fileId) > 0;
         }
         return false;
@@ -128,14 +142,48 @@ public class AttachmentServiceImpl implements AttachmentService {
     @Override
     @Transactional
     public boolean deleteAttachmentsByPostId(Long postId) throws IOException {
-        List<Attachment> attachments = attachmentMapper.selectByPostId(postId);
-        for (Attachment attachment : attachments) {
-            String fileName = attachment.getFileUrl().substring(attachment.getFileUrl().lastIndexOf("/") + 1);
-            sftpUtil.deleteFile(avatarPath, fileName);
+        List<String> keys = new ArrayList<>();
+        for (Attachment attachment : attachmentMapper.selectByPostId(postId)) {
+            String key = keyOf(attachment);
+            keys.add(key);
+            keys.addAll(imageVariantService.variantKeys(key));
         }
+        blobStore.deleteAll(keys);
         return attachmentMapper.deleteByPostId(postId) > 0;
     }
 
+    @Override
+    public List<String> deleteAttachmentRecordsByPostId(Long postId) {
+        List<String> fileNames = new ArrayList<>();
+        for (Attachment attachment : attachmentMapper.selectByPostId(postId)) {
+            fileNames.add(attachment.getFileUrl().substring(attachment.getFileUrl().lastIndexOf("/") + 1));
+        }
+        attachmentMapper.deleteByPostId(postId);
+        return fileNames;
+    }
+
+    @Override
+    public Map<Long, String> getCoverUrls(List<Long> postIds) {
+        Map<Long, String> coverUrls = new HashMap<>();
+        if (postIds == null || postIds.isEmpty()) {
+            return coverUrls;
+        }
+        for (Attachment attachment : attachmentMapper.selectFirstImagesByPostIds(postIds)) {
+            coverUrls.put(attachment.getPostId(),
+                    imageVariantService.feedUrl(keyOf(attachment), attachment.getVariantWidths(),
+                            attachment.getVariantFormat()));
+        }
+        return coverUrls;
+    }
+
+    /**
+     * 附件只记录了访问地址，对象键由地址中的文件名还原
+     */
+    private String keyOf(Attachment attachment) {
+        String fileUrl = attachment.getFileUrl();
+        return BlobKeys.of(BlobKeys.AVATARS, fileUrl.substring(fileUrl.lastIndexOf("/") + 1));
+    }
+
     @Override
     public Attachment getAttachmentById(Long fileId) {
         return attachmentMapper.selectById(fileId);
@@ -147,9 +195,14 @@ public class AttachmentServiceImpl implements AttachmentService {
     }
 
     @Override
-    public List<Attachment> getAttachmentsByType(String fileType, int pageNum, int pageSize) {
-        int offset = (pageNum - 1) * pageSize;
-        return attachmentMapper.selectByType(fileType, offset, pageSize);
+    public ScrollResult<Attachment> getAttachmentsByType(String fileType, String cursor, int pageNum, int pageSize) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        List<Attachment> attachments = attachmentMapper.selectByType(fileType,
+                pageCursor != null ? pageCursor.getSortKeyAsLocalDateTime() : null,
+                pageCursor != null ? pageCursor.getId() : null,
+                PageCursor.offsetOf(pageCursor, pageNum, pageSize), pageSize + 1);
+        return ScrollResult.of(attachments, pageSize,
+                attachment -> PageCursor.of(attachment.getUploadTime(), attachment.getFileId()));
     }
 
     @Override
@@ -4,59 +4,131 @@ import com.alibaba.fastjson.JSON;
 import com.liuxy.campushub.dto.ChatMessage;
 import com.liuxy.campushub.service.ChatContextService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
+/**
+ * 对话上下文服务实现类
+ * <p>
+ * 每个会话对应一个按时间顺序追加的 Redis 列表，写入时在同一个管道中 RPUSH、LTRIM、EXPIRE，
+ * 列表长度始终不超过上限；读取最近 N 条只需一次 LRANGE，不再加载整个会话后排序。
+ */
 @Service
 public class ChatContextServiceImpl implements ChatContextService {
 
-    private static final String CHAT_CONTEXT_KEY_PREFIX = "chat:context:";
-    private static final Duration CONTEXT_EXPIRATION = Duration.ofHours(24);
+    /**
+     * 与旧版哈希结构的 chat:context: 前缀区分，旧数据到期后自然清除
+     */
+    private static final String CHAT_HISTORY_KEY_PREFIX = "chat:history:";
 
     @Autowired
-    private RedisTemplate<String, String> redisTemplate;
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 每个会话最多保留的消息数
+     */
+    @Value("${ai.chat.history.max-messages:50}")
+    private int maxMessages;
+
+    /**
+     * 会话上下文的过期时间（小时），每次写入时重置
+     */
+    @Value("${ai.chat.history.ttl-hours:24}")
+    private long ttlHours;
 
     @Override
     public void saveMessage(String sessionId, ChatMessage message) {
-        String key = CHAT_CONTEXT_KEY_PREFIX + sessionId;
+        String key = CHAT_HISTORY_KEY_PREFIX + sessionId;
         String messageJson = JSON.toJSONString(message);
-        
-        // 使用消息ID作为field，消息内容作为value
-        redisTemplate.opsForHash().put(key, message.getMessageId(), messageJson);
-        
-        // 设置过期时间
-        redisTemplate.expire(key, CONTEXT_EXPIRATION);
+        long ttlSeconds = ttlHours * 3600;
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            conn.rPush(key, messageJson);
+            conn.lTrim(key, -maxMessages, -1);
+            conn.expire(key, ttlSeconds);
+            return null;
+        });
     }
 
     @Override
     public List<ChatMessage> getHistory(String sessionId) {
-        String key = CHAT_CONTEXT_KEY_PREFIX + sessionId;
-        Map<Object, Object> entries = redisTemplate.opsForHash().entries(key);
-        
-        return entries.values().stream()
-                .map(value -> JSON.parseObject(value.toString(), ChatMessage.class))
-                .sorted((m1, m2) -> m1.getTimestamp().compareTo(m2.getTimestamp()))
-                .collect(Collectors.toList());
+        return range(sessionId, 0);
     }
 
     @Override
     public void clearHistory(String sessionId) {
-        String key = CHAT_CONTEXT_KEY_PREFIX + sessionId;
-        redisTemplate.delete(key);
+        stringRedisTemplate.delete(CHAT_HISTORY_KEY_PREFIX + sessionId);
     }
 
     @Override
     public List<ChatMessage> getRecentHistory(String sessionId, int limit) {
-        List<ChatMessage> allHistory = getHistory(sessionId);
-        if (allHistory.size() <= limit) {
-            return allHistory;
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        return range(sessionId, -limit);
+    }
+
+    @Override
+    public List<ChatMessage> getRecentHistory(String sessionId, int limit, int maxTokens) {
+        List<ChatMessage> recent = getRecentHistory(sessionId, limit);
+        if (maxTokens <= 0 || recent.isEmpty()) {
+            return recent;
+        }
+        // 从最新的消息往前累加，超出预算即停止；最新一条（通常是本轮提问）总是保留
+        int used = 0;
+        int from = recent.size();
+        while (from > 0) {
+            int tokens = estimateTokens(recent.get(from - 1).getContent());
+            if (from < recent.size() && used + tokens > maxTokens) {
+                break;
+            }
+            used += tokens;
+            from--;
+        }
+        return recent.subList(from, recent.size());
+    }
+
+    private List<ChatMessage> range(String sessionId, long start) {
+        List<String> values = stringRedisTemplate.opsForList().range(CHAT_HISTORY_KEY_PREFIX + sessionId, start, -1);
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ChatMessage> messages = new ArrayList<>(values.size());
+        for (String value : values) {
+            messages.add(JSON.parseObject(value, ChatMessage.class));
+        }
+        return messages;
+    }
+
+    /**
+     * 粗略估算 token 数：中日韩字符按每字 1 个，其余字符按每 4 个 1 个，另加每条消息的角色开销
+     */
+    private static int estimateTokens(String content) {
+        if (content == null || content.isEmpty()) {
+            return 4;
+        }
+        int cjk = 0;
+        int other = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            if (Character.isIdeographic(codePoint)
+                    || Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HANGUL
+                    || Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HIRAGANA
+                    || Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.KATAKANA) {
+                cjk++;
+            } else {
+                other++;
+            }
+            i += Character.charCount(codePoint);
         }
-        return allHistory.subList(allHistory.size() - limit, allHistory.size());
+        return 4 + cjk + (other + 3) / 4;
     }
-} 
\ No newline at end of file
+}
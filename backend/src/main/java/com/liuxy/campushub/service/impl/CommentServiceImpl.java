@@ -2,11 +2,15 @@ package com.liuxy.campushub.service.impl;
 
 import com.liuxy.campushub.entity.Comment;
 import com.liuxy.campushub.enums.CommentStatusEnum;
+import com.liuxy.campushub.enums.PostCounterEnum;
 import com.liuxy.campushub.exception.BusinessException;
 import com.liuxy.campushub.mapper.CommentMapper;
-import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.model.PageCursor;
 import com.liuxy.campushub.service.CommentService;
+import com.liuxy.campushub.service.PostCounterService;
+import com.liuxy.campushub.service.PostPublishedCacheService;
 import com.liuxy.campushub.vo.CommentVO;
+import com.liuxy.campushub.vo.ScrollResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +19,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 评论服务实现类
@@ -40,7 +50,10 @@ public class CommentServiceImpl implements CommentService {
     private CommentMapper commentMapper;
 
     @Autowired
-    private PostMapper postMapper;
+    private PostCounterService postCounterService;
+
+    @Autowired
+    private PostPublishedCacheService postPublishedCacheService;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -69,8 +82,10 @@ public class CommentServiceImpl implements CommentService {
                 throw new BusinessException("创建评论失败");
             }
             
-            // 更新帖子评论数
-            postMapper.incrementCommentCount(comment.getPostId());
+            // 更新帖子评论数（事务提交后计入，定时批量落库），与其他计数接口一样只为已发布的帖子计数
+            if (postPublishedCacheService.isPublished(comment.getPostId())) {
+                postCounterService.increment(comment.getPostId(), PostCounterEnum.COMMENT);
+            }
             
             logger.info("评论创建成功，commentId: {}", comment.getCommentId());
             return comment.getCommentId();
@@ -96,34 +111,21 @@ public class CommentServiceImpl implements CommentService {
         try {
             logger.info("查询帖子评论列表，postId: {}", postId);
             
-            // 查询顶级评论
-            List<CommentVO> topComments = commentMapper.selectByPostId(postId);
-            
-            // 查询每个顶级评论的子评论并拼接头像URL
-            if (topComments != null) {
-                for (CommentVO comment : topComments) {
-                    // 拼接顶级评论的头像URL
-                    if (comment.getAvatar() != null && !comment.getAvatar().isEmpty()) {
-                        comment.setAvatar(imageBaseUrl + avatarPath + "/" + comment.getAvatar());
-                    }
-                    
-                    // 查询子评论
-                    List<CommentVO> children = commentMapper.selectByParentId(comment.getCommentId());
-                    
-                    // 拼接子评论的头像URL
-                    if (children != null) {
-                        for (CommentVO child : children) {
-                            if (child.getAvatar() != null && !child.getAvatar().isEmpty()) {
-                                child.setAvatar(imageBaseUrl + avatarPath + "/" + child.getAvatar());
-                            }
-                        }
-                    }
-                    
-                    // 将子评论设置到顶级评论中
-                    comment.setChildren(children);
+            // 一次查询帖子下全部评论，在内存中组装评论树
+            List<CommentVO> comments = commentMapper.selectAllByPostId(postId);
+            List<CommentVO> topComments = new ArrayList<>();
+            List<CommentVO> replies = new ArrayList<>();
+            for (CommentVO comment : comments) {
+                if (comment.getParentId() == null || comment.getParentId() == 0L) {
+                    topComments.add(comment);
+                } else {
+                    replies.add(comment);
                 }
             }
+            // 顶级评论按时间倒序
+            Collections.reverse(topComments);
             
+            assembleTree(topComments, replies);
             return topComments;
         } catch (Exception e) {
             logger.error("查询帖子评论列表失败", e);
@@ -132,12 +134,100 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public List<CommentVO> getCommentsByUserId(Long userId, int page, int pageSize) {
+    public ScrollResult<CommentVO> getCommentsByPostIdScroll(Long postId, Date lastTime, Long lastId, int pageSize) {
+        try {
+            // 每页的回复树随顶级评论数增长，限制单页条数
+            pageSize = ScrollResult.clampPageSize(pageSize);
+            logger.info("滚动查询帖子评论，postId: {}, lastTime: {}, lastId: {}, pageSize: {}", postId, lastTime, lastId, pageSize);
+            
+            // 多查询一条用于判断是否还有更多
+            List<CommentVO> topComments = commentMapper.selectTopLevelForScroll(postId, lastTime, lastId, pageSize + 1);
+            boolean hasMore = topComments.size() > pageSize;
+            if (hasMore) {
+                topComments = new ArrayList<>(topComments.subList(0, pageSize));
+            }
+            
+            // 按层级批量查询回复，每层一次IN查询
+            List<CommentVO> replies = new ArrayList<>();
+            Set<Long> visited = new HashSet<>();
+            List<Long> parentIds = new ArrayList<>();
+            for (CommentVO comment : topComments) {
+                visited.add(comment.getCommentId());
+                parentIds.add(comment.getCommentId());
+            }
+            while (!parentIds.isEmpty()) {
+                List<CommentVO> level = commentMapper.selectByParentIds(parentIds);
+                parentIds = new ArrayList<>();
+                for (CommentVO reply : level) {
+                    if (visited.add(reply.getCommentId())) {
+                        replies.add(reply);
+                        parentIds.add(reply.getCommentId());
+                    }
+                }
+            }
+            
+            assembleTree(topComments, replies);
+            
+            ScrollResult<CommentVO> result = new ScrollResult<>();
+            result.setItems(topComments);
+            result.setHasMore(hasMore);
+            if (!topComments.isEmpty()) {
+                CommentVO last = topComments.get(topComments.size() - 1);
+                result.setNextTimestamp(last.getCreatedAt());
+                result.setNextId(last.getCommentId());
+            }
+            return result;
+        } catch (Exception e) {
+            logger.error("滚动查询帖子评论失败", e);
+            throw new BusinessException("滚动查询帖子评论失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 将回复挂到父评论的children下，并拼接头像URL
+     *
+     * @param topComments 顶级评论
+     * @param replies 回复列表（按时间正序），父评论不在结果中的回复会被丢弃
+     */
+    private void assembleTree(List<CommentVO> topComments, List<CommentVO> replies) {
+        Map<Long, CommentVO> index = new HashMap<>(topComments.size() + replies.size());
+        for (CommentVO comment : topComments) {
+            prepareNode(comment);
+            index.put(comment.getCommentId(), comment);
+        }
+        for (CommentVO reply : replies) {
+            prepareNode(reply);
+            index.put(reply.getCommentId(), reply);
+        }
+        for (CommentVO reply : replies) {
+            CommentVO parent = index.get(reply.getParentId());
+            if (parent != null) {
+                parent.getChildren().add(reply);
+            }
+        }
+    }
+
+    private void prepareNode(CommentVO comment) {
+        comment.setChildren(new ArrayList<>());
+        if (comment.getAvatar() != null && !comment.getAvatar().isEmpty()) {
+            comment.setAvatar(imageBaseUrl + avatarPath + "/" + comment.getAvatar());
+        }
+    }
+
+    @Override
+    public ScrollResult<CommentVO> getCommentsByUserId(Long userId, String cursor, int page, int pageSize) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
         try {
-            logger.info("查询用户评论列表，userId: {}, page: {}, pageSize: {}", userId, page, pageSize);
+            logger.info("查询用户评论列表，userId: {}, cursor: {}, page: {}, pageSize: {}", userId, cursor, page, pageSize);
             
-            int offset = (page - 1) * pageSize;
-            return commentMapper.selectByUserId(userId, offset, pageSize);
+            List<CommentVO> comments = commentMapper.selectByUserId(userId,
+                    pageCursor != null ? pageCursor.getSortKeyAsDate() : null,
+                    pageCursor != null ? pageCursor.getId() : null,
+                    PageCursor.offsetOf(pageCursor, page, pageSize), pageSize + 1);
+            return ScrollResult.of(comments, pageSize,
+                    comment -> PageCursor.of(comment.getCreatedAt(), comment.getCommentId()));
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("查询用户评论列表失败", e);
             throw new BusinessException("查询用户评论列表失败: " + e.getMessage());
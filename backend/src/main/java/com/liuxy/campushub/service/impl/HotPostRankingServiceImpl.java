@@ -0,0 +1,422 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.entity.Post;
+import com.liuxy.campushub.enums.PostCounterEnum;
+import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.model.HotPostModel;
+import com.liuxy.campushub.service.HotPostRankingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 热点帖子排行服务实现类
+ * <p>
+ * 内存中保存近期（hot.ranking.max-age-days 天内）发布的帖子计数，全部按排序键放入一个有序索引，
+ * 热点排行即索引的前K项。排序键与当前时间无关（见 {@link HotPostModel#calculateRankingKey}），
+ * 计数变化时只需对单个帖子重新定位（O(log N)），排行出现空位时由后续条目自然补上，无需扫描。
+ * 计数增量在请求线程中累加到条目的 LongAdder 并标记为待重排，不加锁；定时任务每隔
+ * hot.ranking.reindex-interval-ms 在一次加锁内批量重新定位，排行最多滞后一个周期。
+ * 跟踪的帖子数超过 hot.ranking.max-tracked 时淘汰排序键最低的帖子，超出发布天数的帖子定时移除，
+ * 内存占用与帖子表大小无关。热度按天衰减到 0.2 倍，超出天数的帖子实际上不可能再进入前K。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Slf4j
+@Service
+public class HotPostRankingServiceImpl implements HotPostRankingService {
+
+    private final PostMapper postMapper;
+
+    @Value("${hot.ranking.capacity:1000}")
+    private int capacity;
+
+    @Value("${hot.ranking.max-tracked:20000}")
+    private int maxTracked;
+
+    @Value("${hot.ranking.max-age-days:7}")
+    private int maxAgeDays;
+
+    // 跟踪中的帖子计数快照
+    private final Map<Long, RankEntry> entries = new ConcurrentHashMap<>();
+    // 全部跟踪帖子的有序索引，前K项为热点排行
+    private final ConcurrentSkipListSet<RankKey> ranked = new ConcurrentSkipListSet<>();
+    // 当前享有突发加成的帖子，加成到期后需要重新定位
+    private final Set<Long> burstIds = ConcurrentHashMap.newKeySet();
+    // 计数已变化、等待重新定位的帖子
+    private final Set<Long> dirtyIds = ConcurrentHashMap.newKeySet();
+    // 索引结构修改锁，读操作不加锁
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Autowired
+    public HotPostRankingServiceImpl(PostMapper postMapper) {
+        this.postMapper = postMapper;
+    }
+
+    /**
+     * 应用启动完成后载入排行
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("启动时构建热点排行失败，可由管理员手动重建", e);
+        }
+    }
+
+    @Override
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        List<Post> posts = postMapper.findRankingCandidates(cutoff());
+        lock.lock();
+        try {
+            entries.clear();
+            ranked.clear();
+            burstIds.clear();
+            dirtyIds.clear();
+            for (Post post : posts) {
+                RankEntry entry = RankEntry.from(post);
+                if (entry == null) {
+                    continue;
+                }
+                entries.put(entry.postId, entry);
+                reindex(entry);
+            }
+            trim();
+        } finally {
+            lock.unlock();
+        }
+        log.info("热点排行重建完成，载入帖子数: {}, 跟踪帖子数: {}, 排行容量: {}, 耗时: {}ms",
+                posts.size(), entries.size(), capacity, System.currentTimeMillis() - start);
+        return entries.size();
+    }
+
+    @Override
+    public void onCounterDelta(Long postId, PostCounterEnum counter, long delta) {
+        if (postId == null || delta == 0) {
+            return;
+        }
+        RankEntry entry = entries.get(postId);
+        if (entry == null) {
+            // 未发布、已超出天数或排序过低被淘汰的帖子忽略
+            return;
+        }
+        // 先累加再标记，重排时先取消标记再读取计数，不会漏掉增量
+        entry.counter(counter).add(delta);
+        dirtyIds.add(postId);
+    }
+
+    /**
+     * 定时批量重新定位计数有变化的帖子，并让到期的突发加成失效
+     */
+    @Scheduled(fixedDelayString = "${hot.ranking.reindex-interval-ms:1000}",
+            initialDelayString = "${hot.ranking.reindex-interval-ms:1000}")
+    public void reindexDirty() {
+        try {
+            expireBursts();
+            if (dirtyIds.isEmpty()) {
+                return;
+            }
+            lock.lock();
+            try {
+                Iterator<Long> iterator = dirtyIds.iterator();
+                while (iterator.hasNext()) {
+                    Long postId = iterator.next();
+                    iterator.remove();
+                    RankEntry entry = entries.get(postId);
+                    if (entry != null) {
+                        reindex(entry);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (Exception e) {
+            log.error("重新定位热点排行失败", e);
+        }
+    }
+
+    @Override
+    public void onPostPublished(Post post) {
+        RankEntry entry = RankEntry.from(post);
+        if (entry == null || entry.createdAt.isBefore(cutoff())) {
+            return;
+        }
+        lock.lock();
+        try {
+            RankEntry old = entries.put(entry.postId, entry);
+            if (old != null) {
+                detach(old);
+            }
+            reindex(entry);
+            trim();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onPostRemoved(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            RankEntry entry = entries.remove(postId);
+            if (entry != null) {
+                detach(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 定时移除超出发布天数的帖子
+     */
+    @Scheduled(fixedDelayString = "${hot.ranking.prune-interval-ms:3600000}",
+            initialDelayString = "${hot.ranking.prune-interval-ms:3600000}")
+    public void pruneExpired() {
+        LocalDateTime cutoff = cutoff();
+        List<RankEntry> expired = entries.values().stream()
+                .filter(entry -> entry.createdAt.isBefore(cutoff))
+                .toList();
+        if (expired.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (RankEntry entry : expired) {
+                if (entries.remove(entry.postId, entry)) {
+                    detach(entry);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        log.info("移除超出 {} 天的排行帖子: {}, 剩余: {}", maxAgeDays, expired.size(), entries.size());
+    }
+
+    /**
+     * 只返回前 capacity 名，超出部分视为没有更多数据
+     */
+    @Override
+    public List<Post> getRankedPosts(int offset, int limit) {
+        int end = Math.min(size(), offset + Math.max(limit, 0));
+        if (offset < 0 || offset >= end) {
+            return Collections.emptyList();
+        }
+        List<Post> result = new ArrayList<>(end - offset);
+        Iterator<RankKey> iterator = ranked.iterator();
+        int position = 0;
+        while (iterator.hasNext() && position < end) {
+            RankKey key = iterator.next();
+            if (position++ < offset) {
+                continue;
+            }
+            RankEntry entry = entries.get(key.postId);
+            if (entry != null) {
+                result.add(entry.toPost());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Post getCounters(Long postId) {
+        RankEntry entry = postId == null ? null : entries.get(postId);
+        return entry == null ? null : entry.toPost();
+    }
+
+    @Override
+    public int size() {
+        return Math.min(Math.max(capacity, 0), ranked.size());
+    }
+
+    /**
+     * 重新计算排序键并放入索引（需持有锁）
+     */
+    private void reindex(RankEntry entry) {
+        ranked.remove(entry.rankKey());
+        long commentCount = entry.commentCount.sum();
+        boolean burst = HotPostModel.isBurstHot(commentCount, entry.createdAt);
+        if (burst) {
+            burstIds.add(entry.postId);
+        } else {
+            burstIds.remove(entry.postId);
+        }
+        entry.key = HotPostModel.calculateRankingKey(entry.viewCount.sum(), entry.likeCount.sum(),
+                commentCount, entry.shareCount.sum(), entry.createdAt, burst);
+        ranked.add(entry.rankKey());
+    }
+
+    /**
+     * 跟踪的帖子超出上限时淘汰排序键最低的帖子（需持有锁）
+     */
+    private void trim() {
+        while (entries.size() > Math.max(maxTracked, capacity)) {
+            RankKey last = ranked.pollLast();
+            if (last == null) {
+                break;
+            }
+            entries.remove(last.postId);
+            burstIds.remove(last.postId);
+            dirtyIds.remove(last.postId);
+        }
+    }
+
+    /**
+     * 从索引和突发集合中移除（需持有锁）
+     */
+    private void detach(RankEntry entry) {
+        ranked.remove(entry.rankKey());
+        burstIds.remove(entry.postId);
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minusDays(Math.max(maxAgeDays, 1));
+    }
+
+    /**
+     * 突发状态超过24小时后失效，降分并重新定位
+     */
+    private void expireBursts() {
+        if (burstIds.isEmpty()) {
+            return;
+        }
+        List<RankEntry> expired = new ArrayList<>();
+        for (Long postId : burstIds) {
+            RankEntry entry = entries.get(postId);
+            if (entry == null) {
+                burstIds.remove(postId);
+            } else if (!HotPostModel.isBurstHot(entry.commentCount.sum(), entry.createdAt)) {
+                expired.add(entry);
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (RankEntry entry : expired) {
+                if (entries.get(entry.postId) == entry) {
+                    reindex(entry);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 排行条目，计数可并发累加，排序键只在持有锁时修改
+     */
+    private static final class RankEntry {
+        private final Long postId;
+        private final LocalDateTime createdAt;
+        private final LongAdder viewCount = new LongAdder();
+        private final LongAdder likeCount = new LongAdder();
+        private final LongAdder commentCount = new LongAdder();
+        private final LongAdder shareCount = new LongAdder();
+        private volatile double key;
+
+        private RankEntry(Long postId, LocalDateTime createdAt) {
+            this.postId = postId;
+            this.createdAt = createdAt;
+        }
+
+        static RankEntry from(Post post) {
+            if (post == null || post.getPostId() == null || post.getCreatedAt() == null) {
+                return null;
+            }
+            RankEntry entry = new RankEntry(post.getPostId(), post.getCreatedAt());
+            entry.viewCount.add(valueOf(post.getViewCount()));
+            entry.likeCount.add(valueOf(post.getLikeCount()));
+            entry.commentCount.add(valueOf(post.getCommentCount()));
+            entry.shareCount.add(valueOf(post.getShareCount()));
+            return entry;
+        }
+
+        LongAdder counter(PostCounterEnum counter) {
+            return switch (counter) {
+                case VIEW -> viewCount;
+                case LIKE -> likeCount;
+                case COMMENT -> commentCount;
+                case SHARE -> shareCount;
+            };
+        }
+
+        private static long valueOf(Integer count) {
+            return count == null ? 0L : count;
+        }
+
+        RankKey rankKey() {
+            return new RankKey(key, postId);
+        }
+
+        Post toPost() {
+            Post post = new Post();
+            post.setPostId(postId);
+            post.setCreatedAt(createdAt);
+            post.setViewCount((int) viewCount.sum());
+            post.setLikeCount((int) likeCount.sum());
+            post.setCommentCount((int) commentCount.sum());
+            post.setShareCount((int) shareCount.sum());
+            post.setHotness(HotPostModel.calculateHotness(post));
+            return post;
+        }
+    }
+
+    /**
+     * 索引键：排序键降序，相同时帖子ID降序（新帖在前）
+     */
+    private static final class RankKey implements Comparable<RankKey> {
+        private final double key;
+        private final long postId;
+
+        private RankKey(double key, long postId) {
+            this.key = key;
+            this.postId = postId;
+        }
+
+        @Override
+        public int compareTo(RankKey other) {
+            int result = Double.compare(other.key, this.key);
+            return result != 0 ? result : Long.compare(other.postId, this.postId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RankKey other)) {
+                return false;
+            }
+            return Double.compare(key, other.key) == 0 && postId == other.postId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(postId) * 31 + Double.hashCode(key);
+        }
+    }
+}
@@ -2,11 +2,12 @@ package com.liuxy.campushub.service.impl;
 
 import com.liuxy.campushub.config.RabbitMQConfig;
 import com.liuxy.campushub.entity.Post;
-import com.liuxy.campushub.enums.PostTypeEnum;
-import com.liuxy.campushub.model.HotPostModel;
+import com.liuxy.campushub.mapper.PostMapper;
 import com.liuxy.campushub.service.HotPostService;
+import com.liuxy.campushub.service.HotScoreService;
 import com.liuxy.campushub.service.PostService;
 import com.liuxy.campushub.vo.HotPostVO;
+import com.liuxy.campushub.vo.PostVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,9 +16,8 @@ import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,12 +41,21 @@ public class HotPostServiceImpl implements HotPostService {
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
     
+    @Autowired
+    private RedisTemplate<String, HotPostVO> hotPostRedisTemplate;
+    
     @Autowired
     private RabbitTemplate rabbitTemplate;
     
     @Autowired
     private PostService postService;
     
+    @Autowired
+    private PostMapper postMapper;
+    
+    @Autowired
+    private HotScoreService hotScoreService;
+    
     /**
      * 获取完整的头像URL
      */
@@ -58,6 +67,16 @@ public class HotPostServiceImpl implements HotPostService {
         return imageBaseUrl + avatarPath + "/" + avatarFileName;
     }
     
+    /**
+     * 缓存中的头像可能是文件名，也可能是旧版本写入的完整URL
+     */
+    private String toAvatarUrl(String avatar) {
+        if (avatar == null || avatar.startsWith("http://") || avatar.startsWith("https://")) {
+            return avatar;
+        }
+        return getCompleteAvatarUrl(avatar);
+    }
+    
     @Override
     public List<HotPostVO> getHotPosts(int limit) {
         try {
@@ -70,40 +89,52 @@ public class HotPostServiceImpl implements HotPostService {
                 return refreshHotPostsCache(limit);
             }
             
-            // 获取帖子详情
-            List<HotPostVO> result = new ArrayList<>();
+            List<Long> postIds = new ArrayList<>(hotPosts.size());
+            List<Double> scores = new ArrayList<>(hotPosts.size());
             for (ZSetOperations.TypedTuple<Object> tuple : hotPosts) {
-                Long postId = Long.valueOf(tuple.getValue().toString());
-                Double score = tuple.getScore();
-                
-                // 从Redis获取帖子详情
-                Object cachedPost = redisTemplate.opsForValue().get(HOT_POST_DETAIL_KEY + postId);
-                HotPostVO postDetail;
-                
-                if (cachedPost == null) {
-                    // 如果缓存中没有详情，从数据库获取并更新缓存
-                    Post post = postService.getPostById(postId);
-                    if (post != null) {
-                        postDetail = HotPostVO.fromPost(post);
-                        // 设置完整的头像URL
-                        if (post.getAvatar() != null) {
-                            postDetail.setAvatar(getCompleteAvatarUrl(post.getAvatar()));
-                        }
-                        redisTemplate.opsForValue().set(HOT_POST_DETAIL_KEY + post.getPostId(), postDetail);
-                    } else {
-                        continue;
-                    }
+                postIds.add(Long.valueOf(tuple.getValue().toString()));
+                scores.add(tuple.getScore());
+            }
+            
+            // 一次 MGET 取回全部详情
+            List<String> keys = postIds.stream().map(id -> HOT_POST_DETAIL_KEY + id).collect(Collectors.toList());
+            List<HotPostVO> cached = hotPostRedisTemplate.opsForValue().multiGet(keys);
+            Map<Long, HotPostVO> details = new HashMap<>(postIds.size() * 2);
+            List<Long> missingIds = new ArrayList<>();
+            for (int i = 0; i < postIds.size(); i++) {
+                HotPostVO detail = cached != null ? cached.get(i) : null;
+                if (detail != null) {
+                    details.put(postIds.get(i), detail);
                 } else {
-                    // 将缓存中的对象转换为HotPostVO
-                    postDetail = convertToHotPostVO(cachedPost);
+                    missingIds.add(postIds.get(i));
                 }
-                
-                if (postDetail != null) {
-                    postDetail.setHotness(score);
-                    result.add(postDetail);
+            }
+            
+            // 缺失的详情用一条 SQL 批量查询，再用一次 MSET 回填缓存
+            if (!missingIds.isEmpty()) {
+                Map<String, HotPostVO> fills = new HashMap<>(missingIds.size() * 2);
+                for (PostVO postVO : postMapper.findPostVOsByIds(missingIds)) {
+                    HotPostVO detail = HotPostVO.computeFrom(postVO);
+                    details.put(detail.getPostId(), detail);
+                    fills.put(HOT_POST_DETAIL_KEY + detail.getPostId(), detail);
+                }
+                if (!fills.isEmpty()) {
+                    hotPostRedisTemplate.opsForValue().multiSet(fills);
                 }
             }
             
+            // 按排行顺序组装结果，缓存中保存头像文件名，返回时拼接完整URL
+            List<HotPostVO> result = new ArrayList<>(postIds.size());
+            for (int i = 0; i < postIds.size(); i++) {
+                HotPostVO postDetail = details.get(postIds.get(i));
+                if (postDetail == null) {
+                    continue;
+                }
+                postDetail.setAvatar(toAvatarUrl(postDetail.getAvatar()));
+                postDetail.setHotness(scores.get(i));
+                result.add(postDetail);
+            }
+            
             return result;
         } catch (Exception e) {
             log.error("获取热点帖子列表失败", e);
@@ -154,18 +185,14 @@ public class HotPostServiceImpl implements HotPostService {
             
             // 计算热度并更新Redis
             for (Post post : posts) {
-                double hotness = HotPostModel.calculateHotness(post);
+                double hotness = hotScoreService.score(post);
                 
                 // 更新热度分数
                 redisTemplate.opsForZSet().add(HOT_POSTS_KEY, post.getPostId(), hotness);
                 
-                // 获取帖子详情，包含用户头像
+                // 缓存帖子详情，头像保存文件名，读取时再拼接完整URL
                 HotPostVO hotPostVO = HotPostVO.fromPost(post);
-                // 设置完整的用户头像URL
-                if (post.getUserId() != null && post.getAvatar() != null) {
-                    hotPostVO.setAvatar(getCompleteAvatarUrl(post.getAvatar()));
-                }
-                redisTemplate.opsForValue().set(HOT_POST_DETAIL_KEY + post.getPostId(), hotPostVO);
+                hotPostRedisTemplate.opsForValue().set(HOT_POST_DETAIL_KEY + post.getPostId(), hotPostVO);
             }
             
             // 设置过期时间（1小时）
@@ -186,55 +213,4 @@ public class HotPostServiceImpl implements HotPostService {
             return new ArrayList<>();
         }
     }
-
-    /**
-     * 将缓存中的对象转换为HotPostVO
-     */
-    private HotPostVO convertToHotPostVO(Object cachedPost) {
-        if (cachedPost instanceof HotPostVO) {
-            return (HotPostVO) cachedPost;
-        }
-        
-        if (cachedPost instanceof Map) {
-            Map<String, Object> map = (Map<String, Object>) cachedPost;
-            HotPostVO vo = new HotPostVO();
-            
-            // 设置基本属性
-            vo.setPostId(((Number) map.get("postId")).longValue());
-            vo.setUserId(((Number) map.get("userId")).longValue());
-            vo.setTitle((String) map.get("title"));
-            vo.setContent((String) map.get("content"));
-            vo.setCategoryName((String) map.get("categoryName"));
-            // 正确处理 PostTypeEnum
-            String postTypeStr = (String) map.get("postType");
-            if (postTypeStr != null) {
-                vo.setPostType(PostTypeEnum.valueOf(postTypeStr));
-            }
-            vo.setBountyAmount(map.get("bountyAmount") != null ? 
-                new BigDecimal(map.get("bountyAmount").toString()) : null);
-            vo.setEmergencyLevel(((Number) map.get("emergencyLevel")).intValue());
-            vo.setViewCount(((Number) map.get("viewCount")).intValue());
-            vo.setLikeCount(((Number) map.get("likeCount")).intValue());
-            vo.setCommentCount(((Number) map.get("commentCount")).intValue());
-            vo.setShareCount(((Number) map.get("shareCount")).intValue());
-            vo.setCreatedAt(map.get("createdAt") != null ? 
-                new Date(((Number) map.get("createdAt")).longValue()) : null);
-            vo.setUsername((String) map.get("username"));
-            // 设置完整的头像URL
-            String avatar = (String) map.get("avatar");
-            if (avatar != null) {
-                vo.setAvatar(getCompleteAvatarUrl(avatar));
-            }
-            vo.setHotness(map.get("hotness") != null ? 
-                ((Number) map.get("hotness")).doubleValue() : null);
-            vo.setRank(map.get("rank") != null ? 
-                ((Number) map.get("rank")).intValue() : null);
-            vo.setIsNew((Boolean) map.get("isNew"));
-            vo.setIsBurst((Boolean) map.get("isBurst"));
-            
-            return vo;
-        }
-        
-        return null;
-    }
-} 
\ No newline at end of file
+}
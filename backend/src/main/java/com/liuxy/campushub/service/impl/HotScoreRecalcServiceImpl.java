@@ -0,0 +1,325 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.entity.Post;
+import com.liuxy.campushub.enums.HotScoreModeEnum;
+import com.liuxy.campushub.exception.BusinessException;
+import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.service.HotScoreRecalcService;
+import com.liuxy.campushub.service.HotScoreService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 热度分数定时重算服务实现类
+ * <p>
+ * 读取线程按 post_id 顺序分段取出过期帖子（每段从上一段最后一个ID之后继续，不使用 OFFSET），
+ * 每段交给重算线程池计算分数并以一条多行 UPDATE 写回，读取与写回并行进行。
+ * 锁以随机令牌持有，每读完一段续期一次，读取结束后等待写回期间每隔锁有效期的三分之一续期一次；
+ * 续期失败说明锁已过期被其他实例取得，本次重算立即停止读取。
+ * 写回失败的分段保持过期状态，下次重算时重新处理。
+ * <p>
+ * LOG 方式下分数不随时间变化，定时重算不执行，只保留手动触发。
+ * 统计信息中的待重算数与滞后时间取自最近一次重算开始时的查询，查看统计不会扫描帖子表。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Slf4j
+@Service
+public class HotScoreRecalcServiceImpl implements HotScoreRecalcService {
+
+    private static final String LOCK_KEY = "hot:score:recalc:lock";
+    private static final String HOT_POSTS_KEY = "hot:posts";
+
+    /**
+     * 令牌一致时删除锁，返回删除的键数
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0", Long.class);
+
+    /**
+     * 令牌一致时续期，返回1表示仍持有锁
+     */
+    private static final RedisScript<Long> EXTEND_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "return 0", Long.class);
+
+    private final PostMapper postMapper;
+    private final HotScoreService hotScoreService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ThreadPoolTaskExecutor executor;
+
+    @Value("${hot.score.recalc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hot.score.recalc.stale-after-ms:3600000}")
+    private long staleAfterMs;
+
+    @Value("${hot.score.recalc.batch-size:500}")
+    private int batchSize;
+
+    @Value("${hot.score.recalc.lock-ttl-ms:300000}")
+    private long lockTtlMs;
+
+    // 当前进度
+    private volatile boolean running;
+    private volatile long runStartedAt;
+    private volatile long runStalePosts;
+    private final AtomicLong runUpdatedPosts = new AtomicLong();
+    private final AtomicLong runLastPostId = new AtomicLong();
+
+    // 统计信息
+    private final AtomicLong completedRuns = new AtomicLong();
+    private final AtomicLong skippedRuns = new AtomicLong();
+    private final AtomicLong lostLocks = new AtomicLong();
+    private final AtomicLong updatedPosts = new AtomicLong();
+    private final AtomicLong failedChunks = new AtomicLong();
+    private volatile long lastRunAt;
+    private volatile long lastRunMillis;
+    private volatile long lastRunPosts;
+    private volatile long lastStalePosts;
+    private volatile long lastMaxLagSeconds;
+    private volatile long lastStaleCheckedAt;
+
+    public HotScoreRecalcServiceImpl(PostMapper postMapper,
+                                     HotScoreService hotScoreService,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     RedisTemplate<String, Object> redisTemplate,
+                                     @Qualifier("hotScoreRecalcExecutor") ThreadPoolTaskExecutor executor) {
+        this.postMapper = postMapper;
+        this.hotScoreService = hotScoreService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisTemplate = redisTemplate;
+        this.executor = executor;
+    }
+
+    /**
+     * 定时重算，锁被其他实例持有时跳过本次
+     */
+    @Scheduled(fixedDelayString = "${hot.score.recalc.interval-ms:600000}",
+            initialDelayString = "${hot.score.recalc.initial-delay-ms:60000}")
+    public void scheduledRecalculate() {
+        // LOG 方式的分数只在互动时变化，定时重算不会改变任何分数
+        if (!enabled || hotScoreService.getMode() == HotScoreModeEnum.LOG) {
+            return;
+        }
+        try {
+            if (runWithLock() == null) {
+                log.debug("热度分数重算正在其他实例执行，跳过本次");
+            }
+        } catch (Exception e) {
+            log.error("定时重算热度分数失败", e);
+        }
+    }
+
+    @Override
+    public int recalculate() {
+        Integer updated = runWithLock();
+        if (updated == null) {
+            throw new BusinessException(409, "热度分数重算正在进行中");
+        }
+        return updated;
+    }
+
+    /**
+     * 取得锁后执行重算
+     *
+     * @return 更新的帖子数，未取得锁时为null
+     */
+    private Integer runWithLock() {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = stringRedisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY, token, Duration.ofMillis(lockTtlMs));
+        if (!Boolean.TRUE.equals(acquired)) {
+            skippedRuns.incrementAndGet();
+            return null;
+        }
+        try {
+            return recalculateStale(token);
+        } finally {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_KEY), token);
+        }
+    }
+
+    private int recalculateStale(String token) {
+        long start = System.currentTimeMillis();
+        LocalDateTime threshold = LocalDateTime.now().minus(Duration.ofMillis(staleAfterMs));
+        runStartedAt = start;
+        runStalePosts = postMapper.countPostsNeedHotCalc(threshold);
+        LocalDateTime oldest = postMapper.getOldestHotCalcTime();
+        lastStalePosts = runStalePosts;
+        lastMaxLagSeconds = oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds());
+        lastStaleCheckedAt = start;
+        runUpdatedPosts.set(0);
+        runLastPostId.set(0);
+        running = true;
+        try {
+            int safeBatchSize = Math.max(batchSize, 1);
+            List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+            long afterId = 0;
+            while (true) {
+                List<Post> chunk = postMapper.getPostsNeedHotCalcAfter(threshold, afterId, safeBatchSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1).getPostId();
+                runLastPostId.set(afterId);
+                chunks.add(CompletableFuture.supplyAsync(() -> writeChunk(chunk), executor));
+                if (chunk.size() < safeBatchSize) {
+                    break;
+                }
+                if (!extendLock(token)) {
+                    lostLocks.incrementAndGet();
+                    log.warn("热度分数重算锁已失效，停止读取，已读取到帖子ID: {}", afterId);
+                    break;
+                }
+            }
+
+            int updated = awaitChunks(chunks, token);
+            completedRuns.incrementAndGet();
+            lastRunAt = System.currentTimeMillis();
+            lastRunMillis = lastRunAt - start;
+            lastRunPosts = updated;
+            log.info("热度分数重算完成，计算方式: {}, 待重算: {}, 已更新: {}, 分段数: {}, 耗时: {}ms",
+                    hotScoreService.getMode(), runStalePosts, updated, chunks.size(), lastRunMillis);
+            return updated;
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * 等待全部分段写回，等待期间定期续期，避免写回较慢时锁过期、其他实例开始重复重算
+     */
+    private int awaitChunks(List<CompletableFuture<Integer>> chunks, String token) {
+        long renewIntervalMs = Math.max(lockTtlMs / 3, 1);
+        boolean lockHeld = true;
+        int updated = 0;
+        for (CompletableFuture<Integer> chunk : chunks) {
+            while (true) {
+                try {
+                    updated += chunk.get(renewIntervalMs, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    if (lockHeld && !extendLock(token)) {
+                        // 已提交的分段仍会写完，写回是幂等的，只记录锁失效
+                        lockHeld = false;
+                        lostLocks.incrementAndGet();
+                        log.warn("热度分数重算锁在等待写回时失效");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("等待热度分数写回被中断", e);
+                } catch (ExecutionException e) {
+                    // writeChunk 自行处理异常，这里不会出现
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * 计算一段帖子的分数并写回，失败时返回0，这些帖子保持过期状态等待下次重算
+     */
+    private int writeChunk(List<Post> chunk) {
+        try {
+            double[] scores = new double[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                scores[i] = hotScoreService.score(chunk.get(i));
+                chunk.get(i).setHotScore(BigDecimal.valueOf(scores[i]).setScale(4, RoundingMode.HALF_UP));
+            }
+            postMapper.batchUpdateHotScores(chunk);
+            updateRanking(chunk, scores);
+
+            runUpdatedPosts.addAndGet(chunk.size());
+            updatedPosts.addAndGet(chunk.size());
+            return chunk.size();
+        } catch (Exception e) {
+            failedChunks.incrementAndGet();
+            log.error("热度分数分段写回失败，帖子ID: {} ~ {}",
+                    chunk.get(0).getPostId(), chunk.get(chunk.size() - 1).getPostId(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * 只更新已在 hot:posts 中的帖子（ZADD XX），不把冷门帖子加入排行
+     */
+    private void updateRanking(List<Post> chunk, double[] scores) {
+        @SuppressWarnings("unchecked")
+        RedisSerializer<Object> memberSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        byte[] hotPostsKey = HOT_POSTS_KEY.getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                connection.zSetCommands().zAdd(hotPostsKey, scores[i],
+                        memberSerializer.serialize(chunk.get(i).getPostId()),
+                        RedisZSetCommands.ZAddArgs.ifExists());
+            }
+            return null;
+        });
+    }
+
+    private boolean extendLock(String token) {
+        Long result = stringRedisTemplate.execute(EXTEND_SCRIPT, List.of(LOCK_KEY), token, String.valueOf(lockTtlMs));
+        return result != null && result == 1L;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("mode", hotScoreService.getMode());
+        stats.put("running", running);
+        if (running) {
+            stats.put("runStartedAt", runStartedAt);
+            stats.put("runStalePosts", runStalePosts);
+            stats.put("runUpdatedPosts", runUpdatedPosts.get());
+            stats.put("runLastPostId", runLastPostId.get());
+        }
+        stats.put("completedRuns", completedRuns.get());
+        stats.put("skippedRuns", skippedRuns.get());
+        stats.put("lostLocks", lostLocks.get());
+        stats.put("updatedPosts", updatedPosts.get());
+        stats.put("failedChunks", failedChunks.get());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("lastRunPosts", lastRunPosts);
+        stats.put("lockHeld", Boolean.TRUE.equals(stringRedisTemplate.hasKey(LOCK_KEY)));
+
+        // 滞后情况：最近一次重算开始时超过阈值未计算的帖子数，以及最久未计算的帖子距当时的秒数
+        stats.put("stalePosts", lastStalePosts);
+        stats.put("maxLagSeconds", lastMaxLagSeconds);
+        stats.put("staleCheckedAt", lastStaleCheckedAt);
+        return stats;
+    }
+}
@@ -0,0 +1,143 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.entity.Post;
+import com.liuxy.campushub.enums.HotScoreModeEnum;
+import com.liuxy.campushub.exception.BusinessException;
+import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.model.HotPostModel;
+import com.liuxy.campushub.service.HotScoreService;
+import com.liuxy.campushub.vo.PostVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 热度分数服务实现类
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Slf4j
+@Service
+public class HotScoreServiceImpl implements HotScoreService {
+
+    private static final String HOT_POSTS_KEY = "hot:posts";
+    private static final String HOT_POSTS_BACKFILL_KEY = "hot:posts:backfill";
+
+    private final PostMapper postMapper;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+
+    @Value("${hot.score.mode:DECAY}")
+    private HotScoreModeEnum mode;
+
+    @Value("${hot.score.backfill-batch-size:500}")
+    private int batchSize;
+
+    public HotScoreServiceImpl(PostMapper postMapper, RedisTemplate<String, Object> redisTemplate) {
+        this.postMapper = postMapper;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public HotScoreModeEnum getMode() {
+        return mode;
+    }
+
+    @Override
+    public double score(Post post) {
+        try {
+            return HotPostModel.calculateScore(mode, post.getPostId(), post.getViewCount(), post.getLikeCount(),
+                    post.getCommentCount(), post.getShareCount(), post.getCreatedAt());
+        } catch (Exception e) {
+            log.error("计算帖子热度分数失败: postId={}", post.getPostId(), e);
+            return 0.0;
+        }
+    }
+
+    @Override
+    public double score(PostVO post) {
+        if (post.getCreatedAt() == null) {
+            return 0.0;
+        }
+        LocalDateTime createdAt = LocalDateTime.ofInstant(post.getCreatedAt().toInstant(), ZoneId.systemDefault());
+        return HotPostModel.calculateScore(mode, post.getPostId(),
+                Objects.requireNonNullElse(post.getViewCount(), 0),
+                Objects.requireNonNullElse(post.getLikeCount(), 0),
+                Objects.requireNonNullElse(post.getCommentCount(), 0),
+                Objects.requireNonNullElse(post.getShareCount(), 0),
+                createdAt);
+    }
+
+    @Override
+    public int backfill() {
+        if (!backfilling.compareAndSet(false, true)) {
+            throw new BusinessException(409, "热度分数回填正在进行中");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            int safeBatchSize = Math.max(batchSize, 1);
+            redisTemplate.delete(HOT_POSTS_BACKFILL_KEY);
+            int total = 0;
+            long afterId = 0;
+            while (true) {
+                List<Post> chunk = postMapper.getPublishedPostsAfter(afterId, safeBatchSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1).getPostId();
+                double[] scores = new double[chunk.size()];
+                for (int i = 0; i < chunk.size(); i++) {
+                    scores[i] = score(chunk.get(i));
+                    chunk.get(i).setHotScore(BigDecimal.valueOf(scores[i]).setScale(4, RoundingMode.HALF_UP));
+                }
+                postMapper.batchUpdateHotScores(chunk);
+                addToBackfillKey(chunk, scores);
+                total += chunk.size();
+                if (chunk.size() < safeBatchSize) {
+                    break;
+                }
+            }
+
+            // 全部分数写入临时键后再用 RENAME 原子替换，读取方不会看到两种分数混在一起
+            if (total == 0) {
+                redisTemplate.delete(HOT_POSTS_KEY);
+            } else {
+                redisTemplate.rename(HOT_POSTS_BACKFILL_KEY, HOT_POSTS_KEY);
+            }
+
+            log.info("热度分数回填完成，计算方式: {}, 帖子数: {}, 耗时: {}ms",
+                    mode, total, System.currentTimeMillis() - start);
+            return total;
+        } finally {
+            backfilling.set(false);
+        }
+    }
+
+    /**
+     * 以管道方式把一段帖子的分数写入临时键
+     */
+    private void addToBackfillKey(List<Post> chunk, double[] scores) {
+        @SuppressWarnings("unchecked")
+        RedisSerializer<Object> memberSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        byte[] tempKey = HOT_POSTS_BACKFILL_KEY.getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                connection.zSetCommands().zAdd(tempKey, scores[i], memberSerializer.serialize(chunk.get(i).getPostId()));
+            }
+            return null;
+        });
+    }
+}
@@ -1,25 +1,27 @@
 package com.liuxy.campushub.service.impl;
 
 import com.liuxy.campushub.entity.Image;
+import com.liuxy.campushub.exception.BusinessException;
 import com.liuxy.campushub.mapper.ImageMapper;
 import com.liuxy.campushub.service.ImageService;
+import com.liuxy.campushub.service.ImageVariantService;
+import com.liuxy.campushub.storage.BlobKeys;
+import com.liuxy.campushub.storage.BlobStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -27,29 +29,30 @@ public class ImageServiceImpl implements ImageService {
 
     private static final Logger logger = LoggerFactory.getLogger(ImageServiceImpl.class);
 
-    @Value("${app.image.upload.path:/data/images}")
-    private String uploadBasePath;
+    @Autowired
+    private ImageMapper imageMapper;
 
-    @Value("${app.image.url.prefix:/images}")
-    private String imageUrlPrefix;
+    @Autowired
+    private BlobStore blobStore;
 
     @Autowired
-    private ImageMapper imageMapper;
+    private ImageVariantService imageVariantService;
 
     @Override
     @Transactional
     public Image uploadImage(MultipartFile file, Long uploaderId, String usageType) {
+        String imageType = BlobKeys.inlineImageType(file.getOriginalFilename());
+        if (imageType == null) {
+            throw new BusinessException(400, "不支持的图片格式: " + file.getOriginalFilename());
+        }
         try {
             // 生成存储路径
             String relativePath = generateRelativePath(file.getOriginalFilename());
-            String fullPath = uploadBasePath + relativePath;
-
-            // 确保目录存在
-            Path directory = Paths.get(fullPath).getParent();
-            Files.createDirectories(directory);
 
             // 保存文件
-            file.transferTo(new File(fullPath));
+            try (InputStream in = file.getInputStream()) {
+                blobStore.put(relativePath, in, file.getSize(), imageType);
+            }
 
             // 创建图片记录
             Image image = new Image();
@@ -68,6 +71,9 @@ public class ImageServiceImpl implements ImageService {
             // 保存到数据库
             imageMapper.insert(image);
 
+            // 后台生成缩略图
+            imageVariantService.submitForImage(image.getId(), BlobKeys.normalize(relativePath));
+
             return image;
         } catch (IOException e) {
             logger.error("图片上传失败", e);
@@ -100,9 +106,9 @@ public class ImageServiceImpl implements ImageService {
 
         // 删除物理文件
         try {
-            String fullPath = uploadBasePath + image.getFilePath();
-            Files.deleteIfExists(Paths.get(fullPath));
-        } catch (IOException e) {
+            blobStore.delete(image.getFilePath());
+            blobStore.deleteAll(imageVariantService.variantKeys(BlobKeys.normalize(image.getFilePath())));
+        } catch (IOException | IllegalArgumentException e) {
             logger.error("删除图片文件失败", e);
         }
 
@@ -113,19 +119,43 @@ public class ImageServiceImpl implements ImageService {
 
     @Override
     public String getImageUrl(Image image) {
-        return imageUrlPrefix + image.getFilePath();
+        return blobStore.url(image.getFilePath());
     }
 
     @Override
     public String getImagePath(Image image) {
-        return uploadBasePath + image.getFilePath();
+        return BlobKeys.normalize(image.getFilePath());
+    }
+
+    @Override
+    public Map<String, String> getFeedUrls(List<String> urls) {
+        Map<String, String> feedUrls = new HashMap<>();
+        // 商品图片的 file_path 以 / 开头
+        Map<String, String> urlByPath = new HashMap<>();
+        for (String url : urls) {
+            String key = blobStore.keyOf(url);
+            if (key != null) {
+                urlByPath.put("/" + key, url);
+            }
+        }
+        if (urlByPath.isEmpty()) {
+            return feedUrls;
+        }
+        for (Image image : imageMapper.selectByFilePaths(new ArrayList<>(urlByPath.keySet()))) {
+            if (image.getVariantWidths() != null && !image.getVariantWidths().isEmpty()) {
+                feedUrls.put(urlByPath.get(image.getFilePath()),
+                        imageVariantService.feedUrl(BlobKeys.normalize(image.getFilePath()),
+                                image.getVariantWidths(), image.getVariantFormat()));
+            }
+        }
+        return feedUrls;
     }
 
     private String generateRelativePath(String originalFilename) {
         String extension = getFileExtension(originalFilename);
         String uuid = UUID.randomUUID().toString().replace("-", "");
         String datePath = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
-        return "/products/" + datePath + "/" + uuid + "." + extension;
+        return "/" + BlobKeys.PRODUCTS + "/" + datePath + "/" + uuid + "." + extension;
     }
 
     private String getFileExtension(String filename) {
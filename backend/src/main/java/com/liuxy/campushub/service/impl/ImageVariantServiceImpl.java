@@ -0,0 +1,472 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.entity.Attachment;
+import com.liuxy.campushub.entity.Image;
+import com.liuxy.campushub.mapper.AttachmentMapper;
+import com.liuxy.campushub.mapper.ImageMapper;
+import com.liuxy.campushub.service.ImageVariantService;
+import com.liuxy.campushub.storage.BlobKeys;
+import com.liuxy.campushub.storage.BlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 图片多尺寸缩略图服务实现类
+ * <p>
+ * 解码前先读取图片尺寸，超出像素上限的图片直接跳过；原图远大于最大目标宽度时按整数倍跳行解码，
+ * 再从大到小逐级缩放，每一级都以上一级为输入。
+ * <p>
+ * 待处理状态保存在数据库中（variant_widths 为 NULL）：任务被拒绝或失败时记录保持待处理，
+ * 定时补偿任务按ID游标取出较早上传的待处理记录重新提交，队列满即停止本轮；失败次数达到上限后不再尝试。
+ * 本节点已在队列中的记录不会重复提交，多节点偶尔重复处理只会覆盖写入相同的缩略图。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Slf4j
+@Service
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    private static final String JPEG = "jpg";
+    private static final String WEBP = "webp";
+
+    private final BlobStore blobStore;
+    private final AttachmentMapper attachmentMapper;
+    private final ImageMapper imageMapper;
+    private final ThreadPoolTaskExecutor executor;
+
+    /**
+     * 目标宽度，升序
+     */
+    private final List<Integer> widths;
+
+    @Value("${image.variant.feed-width:480}")
+    private int feedWidth;
+
+    @Value("${image.variant.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    @Value("${image.variant.max-source-pixels:40000000}")
+    private long maxSourcePixels;
+
+    @Value("${image.variant.webp-enabled:true}")
+    private boolean webpEnabled;
+
+    @Value("${image.variant.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${image.variant.retry-batch-size:100}")
+    private int retryBatchSize;
+
+    @Value("${image.variant.retry-min-age-ms:300000}")
+    private long retryMinAgeMs;
+
+    /**
+     * 本节点已提交、尚未处理完的任务，如 image:12、attachment:34
+     */
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 缩略图生成结果
+     *
+     * @param widths 已生成的宽度
+     * @param format 每个宽度都生成了 WebP 时为 webp，否则为 jpg
+     */
+    private record Variants(List<Integer> widths, String format) {
+    }
+
+    public ImageVariantServiceImpl(BlobStore blobStore,
+                                   AttachmentMapper attachmentMapper,
+                                   ImageMapper imageMapper,
+                                   @Qualifier("imageVariantExecutor") ThreadPoolTaskExecutor executor,
+                                   @Value("${image.variant.widths:240,480,960}") String widths) {
+        this.blobStore = blobStore;
+        this.attachmentMapper = attachmentMapper;
+        this.imageMapper = imageMapper;
+        this.executor = executor;
+        this.widths = parseWidths(widths);
+    }
+
+    @Override
+    public void submitForAttachment(Long fileId, String key) {
+        runAfterCommit(() -> schedule("attachment:" + fileId, () -> processAttachment(fileId, key)));
+    }
+
+    @Override
+    public void submitForImage(Integer imageId, String key) {
+        runAfterCommit(() -> schedule("image:" + imageId, () -> processImage(imageId, key)));
+    }
+
+    @Override
+    public String feedUrl(String key, String variantWidths, String variantFormat) {
+        List<Integer> available = parseWidths(variantWidths);
+        if (available.isEmpty()) {
+            return blobStore.url(key);
+        }
+        int chosen = available.get(available.size() - 1);
+        for (int width : available) {
+            if (width >= feedWidth) {
+                chosen = width;
+                break;
+            }
+        }
+        return blobStore.url(variantKey(key, chosen, WEBP.equals(variantFormat) ? WEBP : JPEG));
+    }
+
+    /**
+     * 定时补偿：重新提交待处理的图片和附件，包括被拒绝、失败未达上限的任务和存量图片
+     */
+    @Scheduled(fixedDelayString = "${image.variant.retry-interval-ms:60000}",
+            initialDelayString = "${image.variant.retry-interval-ms:60000}")
+    public void retryPending() {
+        try {
+            LocalDateTime uploadedBefore = LocalDateTime.now().minus(Duration.ofMillis(retryMinAgeMs));
+            int submitted = retryImages(uploadedBefore);
+            if (!queueFull()) {
+                submitted += retryAttachments(uploadedBefore);
+            }
+            if (submitted > 0) {
+                log.info("缩略图补偿任务提交完成，任务数: {}", submitted);
+            }
+        } catch (Exception e) {
+            log.error("缩略图补偿任务失败", e);
+        }
+    }
+
+    private boolean queueFull() {
+        return executor.getThreadPoolExecutor().getQueue().remainingCapacity() == 0;
+    }
+
+    /**
+     * @return 提交的任务数，队列满时提前结束
+     */
+    private int retryImages(LocalDateTime uploadedBefore) {
+        int submitted = 0;
+        Integer afterId = 0;
+        List<Image> batch;
+        do {
+            batch = imageMapper.selectPendingVariants(afterId, maxAttempts, uploadedBefore, retryBatchSize);
+            for (Image image : batch) {
+                afterId = image.getId();
+                String taskId = "image:" + image.getId();
+                String key = imageKey(image);
+                if (key == null || inFlight.contains(taskId)) {
+                    continue;
+                }
+                if (!schedule(taskId, () -> processImage(image.getId(), key))) {
+                    return submitted;
+                }
+                submitted++;
+            }
+        } while (batch.size() == retryBatchSize);
+        return submitted;
+    }
+
+    /**
+     * @return 提交的任务数，队列满时提前结束
+     */
+    private int retryAttachments(LocalDateTime uploadedBefore) {
+        int submitted = 0;
+        Long afterId = 0L;
+        List<Attachment> batch;
+        do {
+            batch = attachmentMapper.selectPendingVariants(afterId, maxAttempts, uploadedBefore, retryBatchSize);
+            for (Attachment attachment : batch) {
+                afterId = attachment.getFileId();
+                String taskId = "attachment:" + attachment.getFileId();
+                String fileUrl = attachment.getFileUrl();
+                if (fileUrl == null || inFlight.contains(taskId)) {
+                    continue;
+                }
+                String key = BlobKeys.of(BlobKeys.AVATARS, fileUrl.substring(fileUrl.lastIndexOf('/') + 1));
+                if (!schedule(taskId, () -> processAttachment(attachment.getFileId(), key))) {
+                    return submitted;
+                }
+                submitted++;
+            }
+        } while (batch.size() == retryBatchSize);
+        return submitted;
+    }
+
+    /**
+     * 图片记录的对象键：商品图片保存的是以 / 开头的相对路径，头像只保存文件名
+     */
+    private String imageKey(Image image) {
+        String filePath = image.getFilePath();
+        if (filePath == null || filePath.isBlank()) {
+            return null;
+        }
+        try {
+            return filePath.contains("/") ? BlobKeys.normalize(filePath) : BlobKeys.of(BlobKeys.AVATARS, filePath);
+        } catch (IllegalArgumentException e) {
+            log.warn("图片路径不合法，跳过缩略图: {}, {}", image.getId(), filePath);
+            return null;
+        }
+    }
+
+    /**
+     * 提交任务，本节点已在处理中的记录直接跳过
+     *
+     * @return 队列已满被拒绝时返回false
+     */
+    private boolean schedule(String taskId, Runnable task) {
+        if (!inFlight.add(taskId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    inFlight.remove(taskId);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            inFlight.remove(taskId);
+            log.warn("缩略图任务队列已满，稍后由补偿任务重试: {}", taskId);
+            return false;
+        }
+    }
+
+    private void processAttachment(Long fileId, String key) {
+        Variants produced = generateQuietly(key);
+        if (produced == null) {
+            attachmentMapper.incrementVariantAttempts(fileId);
+            return;
+        }
+        String thumbnailUrl = produced.widths().isEmpty()
+                ? blobStore.url(key) : blobStore.url(variantKey(key, produced.widths().get(0), JPEG));
+        attachmentMapper.updateVariants(fileId, thumbnailUrl, joinWidths(produced.widths()), produced.format());
+    }
+
+    private void processImage(Integer imageId, String key) {
+        Variants produced = generateQuietly(key);
+        if (produced == null) {
+            imageMapper.incrementVariantAttempts(imageId);
+            return;
+        }
+        imageMapper.updateVariants(imageId, joinWidths(produced.widths()), produced.format());
+    }
+
+    @Override
+    public List<String> variantKeys(String key) {
+        List<String> keys = new ArrayList<>(widths.size() * 2);
+        for (int width : widths) {
+            keys.add(variantKey(key, width, JPEG));
+            keys.add(variantKey(key, width, WEBP));
+        }
+        return keys;
+    }
+
+    /**
+     * 事务中调用时等提交后再提交任务，避免后台线程回写时原记录还不可见
+     */
+    private void runAfterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * 生成缩略图
+     *
+     * @return 已生成的缩略图；原图不够宽或无法识别时宽度为空列表；处理失败时为null
+     */
+    private Variants generateQuietly(String key) {
+        long start = System.currentTimeMillis();
+        try {
+            Variants produced = generate(key);
+            log.debug("缩略图生成完成: {}, 宽度: {}, 格式: {}, 耗时: {}ms",
+                    key, produced.widths(), produced.format(), System.currentTimeMillis() - start);
+            return produced;
+        } catch (Exception | OutOfMemoryError e) {
+            log.warn("缩略图生成失败: {}, {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private Variants generate(String key) throws IOException {
+        try (InputStream in = blobStore.get(key);
+             ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                log.info("无法识别的图片格式，跳过缩略图: {}", key);
+                return new Variants(List.of(), JPEG);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    log.warn("图片像素过多，跳过缩略图: {}, {}x{}", key, width, height);
+                    return new Variants(List.of(), JPEG);
+                }
+                List<Integer> targets = widths.stream().filter(w -> w < width).toList();
+                if (targets.isEmpty()) {
+                    return new Variants(List.of(), JPEG);
+                }
+
+                // 原图远大于最大目标宽度时跳行解码，解码后的宽度仍不小于目标宽度的两倍
+                int subsampling = Math.max(1, width / (targets.get(targets.size() - 1) * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage current = toRgb(reader.read(0, param));
+
+                boolean allWebp = true;
+                for (int i = targets.size() - 1; i >= 0; i--) {
+                    int target = targets.get(i);
+                    current = scale(current, target);
+                    allWebp &= write(key, target, current);
+                }
+                return new Variants(targets, allWebp ? WEBP : JPEG);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 转为不带透明通道的RGB图片，透明部分填充白色
+     */
+    private BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * 缩放到目标宽度，缩小超过一半时先逐次减半，避免双线性插值丢失细节
+     */
+    private BufferedImage scale(BufferedImage source, int targetWidth) {
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth) {
+            current = resize(current, current.getWidth() / 2);
+        }
+        return current.getWidth() == targetWidth ? current : resize(current, targetWidth);
+    }
+
+    private BufferedImage resize(BufferedImage source, int targetWidth) {
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * @return 是否同时生成了 WebP
+     */
+    private boolean write(String key, int width, BufferedImage image) throws IOException {
+        byte[] jpeg = encode(image, "jpeg", true);
+        blobStore.put(variantKey(key, width, JPEG), new ByteArrayInputStream(jpeg), jpeg.length, "image/jpeg");
+
+        // WebP 编码器需要额外的 ImageIO 插件，没有时只生成 JPEG
+        if (webpEnabled && ImageIO.getImageWritersByFormatName(WEBP).hasNext()) {
+            byte[] webp = encode(image, WEBP, false);
+            blobStore.put(variantKey(key, width, WEBP), new ByteArrayInputStream(webp), webp.length, "image/webp");
+            return true;
+        }
+        return false;
+    }
+
+    private byte[] encode(BufferedImage image, String format, boolean setQuality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (setQuality && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 缩略图对象键：原图键去掉扩展名后追加 _w{宽度}
+     */
+    private String variantKey(String key, int width, String extension) {
+        int dot = key.lastIndexOf('.');
+        String base = dot > key.lastIndexOf('/') ? key.substring(0, dot) : key;
+        return base + "_w" + width + "." + extension;
+    }
+
+    private static List<Integer> parseWidths(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Integer::valueOf)
+                .sorted()
+                .distinct()
+                .toList();
+    }
+
+    private static String joinWidths(List<Integer> values) {
+        return values.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -2,11 +2,14 @@ package com.liuxy.campushub.service.impl;
 
 import com.liuxy.campushub.entity.LostFound;
 import com.liuxy.campushub.mapper.LostFoundMapper;
+import com.liuxy.campushub.model.PageCursor;
 import com.liuxy.campushub.service.LostFoundService;
+import com.liuxy.campushub.vo.ScrollResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -47,38 +50,59 @@ public class LostFoundServiceImpl implements LostFoundService {
     }
 
     @Override
-    public List<LostFound> searchLostFound(String keyword, int pageNum, int pageSize) {
-        int offset = (pageNum - 1) * pageSize;
-        return lostFoundMapper.search(keyword, offset, pageSize);
+    public ScrollResult<LostFound> searchLostFound(String keyword, String cursor, int pageNum, int pageSize) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        return byLostTime(lostFoundMapper.search(keyword, cursorTime(pageCursor), cursorId(pageCursor),
+                PageCursor.offsetOf(pageCursor, pageNum, pageSize), pageSize + 1), pageSize);
     }
 
     @Override
-    public List<LostFound> getUnfoundItems(int pageNum, int pageSize) {
-        int offset = (pageNum - 1) * pageSize;
-        return lostFoundMapper.selectUnfound(offset, pageSize);
+    public ScrollResult<LostFound> getUnfoundItems(String cursor, int pageNum, int pageSize) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        return byLostTime(lostFoundMapper.selectUnfound(cursorTime(pageCursor), cursorId(pageCursor),
+                PageCursor.offsetOf(pageCursor, pageNum, pageSize), pageSize + 1), pageSize);
     }
 
     @Override
-    public List<LostFound> getFoundItems(int pageNum, int pageSize) {
-        int offset = (pageNum - 1) * pageSize;
-        return lostFoundMapper.selectFound(offset, pageSize);
+    public ScrollResult<LostFound> getFoundItems(String cursor, int pageNum, int pageSize) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        List<LostFound> rows = lostFoundMapper.selectFound(cursorTime(pageCursor), cursorId(pageCursor),
+                PageCursor.offsetOf(pageCursor, pageNum, pageSize), pageSize + 1);
+        return ScrollResult.of(rows, pageSize, item -> PageCursor.of(item.getFoundTime(), item.getPostId()));
     }
 
     @Override
-    public List<LostFound> getNearbyLostFound(double longitude, double latitude, int radius, int pageNum, int pageSize) {
-        int offset = (pageNum - 1) * pageSize;
-        return lostFoundMapper.selectNearby(longitude, latitude, radius, offset, pageSize);
+    public ScrollResult<LostFound> getNearbyLostFound(double longitude, double latitude, int radius,
+                                                      String cursor, int pageNum, int pageSize) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        return byLostTime(lostFoundMapper.selectNearby(longitude, latitude, radius, cursorTime(pageCursor),
+                cursorId(pageCursor), PageCursor.offsetOf(pageCursor, pageNum, pageSize), pageSize + 1), pageSize);
     }
 
     @Override
-    public List<LostFound> getLostFoundByItemType(String itemType, int pageNum, int pageSize) {
-        int offset = (pageNum - 1) * pageSize;
-        return lostFoundMapper.selectByItemType(itemType, offset, pageSize);
+    public ScrollResult<LostFound> getLostFoundByItemType(String itemType, String cursor, int pageNum, int pageSize) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        return byLostTime(lostFoundMapper.selectByItemType(itemType, cursorTime(pageCursor), cursorId(pageCursor),
+                PageCursor.offsetOf(pageCursor, pageNum, pageSize), pageSize + 1), pageSize);
     }
 
     @Override
-    public List<LostFound> getLostFoundByTimeRange(String startTime, String endTime, int pageNum, int pageSize) {
-        int offset = (pageNum - 1) * pageSize;
-        return lostFoundMapper.selectByTimeRange(startTime, endTime, offset, pageSize);
+    public ScrollResult<LostFound> getLostFoundByTimeRange(String startTime, String endTime,
+                                                           String cursor, int pageNum, int pageSize) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        return byLostTime(lostFoundMapper.selectByTimeRange(startTime, endTime, cursorTime(pageCursor),
+                cursorId(pageCursor), PageCursor.offsetOf(pageCursor, pageNum, pageSize), pageSize + 1), pageSize);
     }
-}
\ No newline at end of file
+
+    private ScrollResult<LostFound> byLostTime(List<LostFound> rows, int pageSize) {
+        return ScrollResult.of(rows, pageSize, item -> PageCursor.of(item.getLostTime(), item.getPostId()));
+    }
+
+    private LocalDateTime cursorTime(PageCursor cursor) {
+        return cursor != null ? cursor.getSortKeyAsLocalDateTime() : null;
+    }
+
+    private Long cursorId(PageCursor cursor) {
+        return cursor != null ? cursor.getId() : null;
+    }
+}
@@ -0,0 +1,440 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.enums.PostCounterEnum;
+import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.model.PostCounterDelta;
+import com.liuxy.campushub.service.HotPostRankingService;
+import com.liuxy.campushub.service.PostCounterService;
+import com.liuxy.campushub.service.PostVelocityService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 帖子计数写回服务实现类
+ * <p>
+ * 每个帖子每种计数对应一个 LongAdder，请求线程只做内存累加；
+ * 定时任务把合并后的增量按批次写成多行 UPDATE。写库失败的增量转存到 Redis 积压哈希，
+ * 下次刷新时取回重试。进程崩溃最多丢失一个刷新周期内的增量，数量可通过统计接口观测。
+ * <p>
+ * 取回积压时用 Lua 脚本把积压哈希改名为本实例的处理中哈希并读出（改名与读取原子完成，
+ * 同一份积压只会被一个实例取走），写库结束后再删除。处理中哈希的键名带有实例ID和取回时间，
+ * 其他实例的处理中哈希超过最小存活时间仍未删除的，视为所属实例已崩溃，改回待取回状态；
+ * 本实例不在刷新中时遗留的处理中哈希（删除失败）直接改回。写库之后、删除之前崩溃时，这部分积压会重复写入一次。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Slf4j
+@Service
+public class PostCounterServiceImpl implements PostCounterService {
+
+    private static final String BACKLOG_KEY = "post:counter:backlog";
+    private static final String DRAINING_KEY_PREFIX = BACKLOG_KEY + ":draining:";
+    private static final String RECOVER_KEY_PREFIX = BACKLOG_KEY + ":recover:";
+    private static final PostCounterEnum[] COUNTERS = PostCounterEnum.values();
+
+    /**
+     * 积压哈希存在时改名为处理中哈希并返回其全部字段，不存在时返回空列表
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return {} end " +
+            "redis.call('RENAME', KEYS[1], KEYS[2]) " +
+            "return redis.call('HGETALL', KEYS[2])", List.class);
+
+    private final PostMapper postMapper;
+    private final HotPostRankingService hotPostRankingService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PostVelocityService postVelocityService;
+
+    @Value("${post.counter.batch-size:500}")
+    private int batchSize;
+
+    @Value("${post.counter.orphan-min-age-ms:300000}")
+    private long orphanMinAgeMs;
+
+    // 本实例ID，写入处理中哈希的键名
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // postId -> 各计数的累加器（下标与 PostCounterEnum 序号一致），刷新后归零的条目会被移除
+    private final Map<Long, LongAdder[]> pending = new ConcurrentHashMap<>();
+
+    // 写库成功后的回调（帖子详情缓存据此失效已写库的帖子）
+    private final List<Consumer<Collection<Long>>> flushListeners = new CopyOnWriteArrayList<>();
+
+    // 统计信息
+    private final AtomicLong accumulatedDeltas = new AtomicLong();
+    private final AtomicLong flushedDeltas = new AtomicLong();
+    private final AtomicLong spilledDeltas = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong recoveredOrphans = new AtomicLong();
+    private final AtomicLong maxPendingAtFlush = new AtomicLong();
+    private volatile long lastFlushAt;
+    private volatile long lastFlushMillis;
+
+    @Autowired
+    public PostCounterServiceImpl(PostMapper postMapper,
+                                  HotPostRankingService hotPostRankingService,
+                                  StringRedisTemplate stringRedisTemplate,
+                                  PostVelocityService postVelocityService) {
+        this.postMapper = postMapper;
+        this.hotPostRankingService = hotPostRankingService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.postVelocityService = postVelocityService;
+    }
+
+    @Override
+    public void increment(Long postId, PostCounterEnum counter) {
+        if (postId == null || counter == null) {
+            return;
+        }
+        // 在事务中调用时（如创建评论），等事务提交后再计数，避免回滚后计数偏大
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(postId, counter);
+                }
+            });
+            return;
+        }
+        apply(postId, counter);
+    }
+
+    private void apply(Long postId, PostCounterEnum counter) {
+        add(postId, counter, 1);
+        accumulatedDeltas.incrementAndGet();
+        hotPostRankingService.onCounterDelta(postId, counter, 1);
+        postVelocityService.record(postId, counter, 1);
+    }
+
+    /**
+     * 已有条目时 computeIfAbsent 不加锁，请求线程之间只在 LongAdder 上竞争。
+     * 刷新时会移除归零的条目，累加后条目已不在表中说明这次累加可能落在了被移除的条目上，
+     * 取回该条目上残留的增量重新累加，计数不会丢失
+     */
+    private void add(Long postId, PostCounterEnum counter, long value) {
+        long remaining = value;
+        while (remaining != 0) {
+            LongAdder[] adders = pending.computeIfAbsent(postId, id -> newAdders());
+            adders[counter.ordinal()].add(remaining);
+            if (pending.get(postId) == adders) {
+                return;
+            }
+            remaining = adders[counter.ordinal()].sumThenReset();
+        }
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[COUNTERS.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static boolean isDrained(LongAdder[] adders) {
+        for (LongAdder adder : adders) {
+            if (adder.sum() != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 定时刷新
+     */
+    @Scheduled(fixedDelayString = "${post.counter.flush-interval-ms:5000}",
+            initialDelayString = "${post.counter.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("定时刷新帖子计数失败", e);
+        }
+    }
+
+    /**
+     * 启动时及定时检查崩溃实例遗留的处理中哈希
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        recoverOrphans();
+    }
+
+    @Scheduled(fixedDelayString = "${post.counter.orphan-check-interval-ms:60000}",
+            initialDelayString = "${post.counter.orphan-check-interval-ms:60000}")
+    public synchronized void recoverOrphans() {
+        try {
+            long staleBefore = System.currentTimeMillis() - orphanMinAgeMs;
+            List<String> orphans = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(DRAINING_KEY_PREFIX + "*").count(1000).build();
+            try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    String key = cursor.next();
+                    // 键名：前缀 + 实例ID:取回时间:随机串
+                    String[] parts = key.substring(DRAINING_KEY_PREFIX.length()).split(":");
+                    if (parts.length != 3) {
+                        continue;
+                    }
+                    // 与刷新互斥，本实例的处理中哈希此时都是删除失败遗留的
+                    if (nodeId.equals(parts[0]) || Long.parseLong(parts[1]) < staleBefore) {
+                        orphans.add(key);
+                    }
+                }
+            }
+            int recovered = 0;
+            for (String orphan : orphans) {
+                try {
+                    stringRedisTemplate.rename(orphan, RECOVER_KEY_PREFIX + UUID.randomUUID());
+                    recovered++;
+                } catch (Exception e) {
+                    // 已被其他实例接管
+                }
+            }
+            if (recovered > 0) {
+                recoveredOrphans.addAndGet(recovered);
+                log.info("发现 {} 个崩溃实例遗留的计数积压，将在下次刷新时写入", recovered);
+            }
+        } catch (Exception e) {
+            log.warn("检查计数积压失败: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            int posts = flush();
+            log.info("停止前刷新帖子计数完成，帖子数: {}", posts);
+        } catch (Exception e) {
+            log.error("停止前刷新帖子计数失败", e);
+        }
+    }
+
+    @Override
+    public PostCounterDelta getPendingDelta(Long postId) {
+        LongAdder[] adders = postId == null ? null : pending.get(postId);
+        if (adders == null) {
+            return null;
+        }
+        Map<Long, PostCounterDelta> deltas = new HashMap<>(2);
+        for (PostCounterEnum counter : COUNTERS) {
+            addDelta(deltas, postId, counter, adders[counter.ordinal()].sum());
+        }
+        PostCounterDelta delta = deltas.get(postId);
+        return delta.isEmpty() ? null : delta;
+    }
+
+    @Override
+    public synchronized int flush() {
+        long start = System.currentTimeMillis();
+
+        // 1. 取出内存中的增量（sumThenReset 不会丢失并发写入）
+        Map<Long, PostCounterDelta> deltas = new LinkedHashMap<>();
+        long drained = 0;
+        for (Map.Entry<Long, LongAdder[]> entry : pending.entrySet()) {
+            LongAdder[] adders = entry.getValue();
+            for (PostCounterEnum counter : COUNTERS) {
+                long value = adders[counter.ordinal()].sumThenReset();
+                if (value != 0) {
+                    addDelta(deltas, entry.getKey(), counter, value);
+                    drained += value;
+                }
+            }
+            pending.computeIfPresent(entry.getKey(), (id, current) -> isDrained(current) ? null : current);
+        }
+        maxPendingAtFlush.accumulateAndGet(drained, Math::max);
+
+        // 2. 合并 Redis 中的积压增量
+        List<String> claimedKeys = drainBacklog(deltas);
+
+        List<PostCounterDelta> batch = new ArrayList<>(deltas.values());
+        batch.removeIf(PostCounterDelta::isEmpty);
+        if (batch.isEmpty()) {
+            deleteClaimed(claimedKeys);
+            return 0;
+        }
+
+        // 3. 分批写库
+        int safeBatchSize = Math.max(batchSize, 1);
+        for (int i = 0; i < batch.size(); i += safeBatchSize) {
+            List<PostCounterDelta> chunk = batch.subList(i, Math.min(i + safeBatchSize, batch.size()));
+            try {
+                postMapper.batchIncrementCounters(chunk);
+                flushedDeltas.addAndGet(sum(chunk));
+                notifyFlushed(chunk);
+            } catch (Exception e) {
+                failedFlushes.incrementAndGet();
+                log.error("批量写入帖子计数失败，转存积压，帖子数: {}", chunk.size(), e);
+                spill(chunk);
+            }
+        }
+        // 写库失败的部分已转存到新的积压哈希，处理中哈希可以删除
+        deleteClaimed(claimedKeys);
+
+        lastFlushAt = System.currentTimeMillis();
+        lastFlushMillis = lastFlushAt - start;
+        log.debug("帖子计数刷新完成，帖子数: {}, 耗时: {}ms", batch.size(), lastFlushMillis);
+        return batch.size();
+    }
+
+    @Override
+    public void addFlushListener(Consumer<Collection<Long>> listener) {
+        if (listener != null) {
+            flushListeners.add(listener);
+        }
+    }
+
+    private void notifyFlushed(List<PostCounterDelta> chunk) {
+        if (flushListeners.isEmpty()) {
+            return;
+        }
+        List<Long> postIds = chunk.stream().map(PostCounterDelta::getPostId).toList();
+        for (Consumer<Collection<Long>> listener : flushListeners) {
+            try {
+                listener.accept(postIds);
+            } catch (Exception e) {
+                log.warn("帖子计数写库回调失败，帖子数: {}, 原因: {}", postIds.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 取回 Redis 积压哈希，改名与读取在同一个脚本中完成，同一份积压只会被一个实例取走
+     *
+     * @return 本次取回的处理中哈希，写库结束后删除
+     */
+    private List<String> drainBacklog(Map<Long, PostCounterDelta> deltas) {
+        List<String> claimed = new ArrayList<>();
+        try {
+            List<String> candidates = new ArrayList<>();
+            candidates.add(BACKLOG_KEY);
+            ScanOptions options = ScanOptions.scanOptions().match(RECOVER_KEY_PREFIX + "*").count(1000).build();
+            try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+                cursor.forEachRemaining(candidates::add);
+            }
+            for (String candidate : candidates) {
+                String drainingKey = DRAINING_KEY_PREFIX + nodeId + ":" + System.currentTimeMillis() + ":" + UUID.randomUUID();
+                @SuppressWarnings("unchecked")
+                List<Object> fields = stringRedisTemplate.execute(CLAIM_SCRIPT, List.of(candidate, drainingKey));
+                if (fields == null || fields.isEmpty()) {
+                    continue;
+                }
+                claimed.add(drainingKey);
+                for (int i = 0; i + 1 < fields.size(); i += 2) {
+                    String[] parts = fields.get(i).toString().split(":");
+                    addDelta(deltas, Long.valueOf(parts[0]), PostCounterEnum.valueOf(parts[1]),
+                            Long.parseLong(fields.get(i + 1).toString()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("读取计数积压失败，下次刷新重试: {}", e.getMessage());
+        }
+        return claimed;
+    }
+
+    private void deleteClaimed(List<String> claimedKeys) {
+        if (claimedKeys.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.delete(claimedKeys);
+        } catch (Exception e) {
+            // 删除失败的处理中哈希超过最小存活时间后会被重新取回，这部分计数可能重复写入
+            log.warn("删除已处理的计数积压失败，键数: {}, 原因: {}", claimedKeys.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 写库失败时转存到 Redis；Redis 也不可用时放回内存，等待下次刷新
+     */
+    private void spill(List<PostCounterDelta> chunk) {
+        for (PostCounterDelta delta : chunk) {
+            long[] values = {delta.getViewDelta(), delta.getLikeDelta(), delta.getCommentDelta(), delta.getShareDelta()};
+            for (PostCounterEnum counter : COUNTERS) {
+                long value = values[counter.ordinal()];
+                if (value == 0) {
+                    continue;
+                }
+                try {
+                    stringRedisTemplate.opsForHash().increment(BACKLOG_KEY, delta.getPostId() + ":" + counter.name(), value);
+                    spilledDeltas.addAndGet(value);
+                } catch (Exception e) {
+                    add(delta.getPostId(), counter, value);
+                }
+            }
+        }
+    }
+
+    private void addDelta(Map<Long, PostCounterDelta> deltas, Long postId, PostCounterEnum counter, long value) {
+        PostCounterDelta delta = deltas.computeIfAbsent(postId, id -> {
+            PostCounterDelta d = new PostCounterDelta();
+            d.setPostId(id);
+            return d;
+        });
+        switch (counter) {
+            case VIEW -> delta.setViewDelta(delta.getViewDelta() + value);
+            case LIKE -> delta.setLikeDelta(delta.getLikeDelta() + value);
+            case COMMENT -> delta.setCommentDelta(delta.getCommentDelta() + value);
+            case SHARE -> delta.setShareDelta(delta.getShareDelta() + value);
+        }
+    }
+
+    private long sum(List<PostCounterDelta> chunk) {
+        long total = 0;
+        for (PostCounterDelta delta : chunk) {
+            total += delta.getViewDelta() + delta.getLikeDelta() + delta.getCommentDelta() + delta.getShareDelta();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long pendingDeltas = 0;
+        for (LongAdder[] adders : pending.values()) {
+            for (LongAdder adder : adders) {
+                pendingDeltas += adder.sum();
+            }
+        }
+        Map<String, Object> stats = new HashMap<>();
+        // 当前未落库的增量，即此刻崩溃会丢失的计数
+        stats.put("pendingDeltas", pendingDeltas);
+        stats.put("maxPendingAtFlush", maxPendingAtFlush.get());
+        stats.put("accumulatedDeltas", accumulatedDeltas.get());
+        stats.put("flushedDeltas", flushedDeltas.get());
+        stats.put("spilledDeltas", spilledDeltas.get());
+        stats.put("failedFlushes", failedFlushes.get());
+        stats.put("recoveredOrphans", recoveredOrphans.get());
+        stats.put("trackedPosts", pending.size());
+        stats.put("lastFlushAt", lastFlushAt);
+        stats.put("lastFlushMillis", lastFlushMillis);
+        return stats;
+    }
+}
@@ -0,0 +1,226 @@
+package com.liuxy.campushub.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liuxy.campushub.model.PostCounterDelta;
+import com.liuxy.campushub.service.PostCounterService;
+import com.liuxy.campushub.service.PostDetailCacheService;
+import com.liuxy.campushub.vo.PostDetailResponseVO;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 帖子详情缓存服务实现类
+ * <p>
+ * 读取顺序：本地LRU近缓存 -> Redis -> 数据库。近缓存TTL较短，
+ * 帖子修改时删除两级缓存并通过 Redis 频道通知其他实例清理近缓存。
+ * 点赞等操作不失效缓存，返回前在缓存的计数上加上本实例尚未写库的增量；
+ * 增量写库后（任一实例）删除对应帖子的两级缓存，下次读取从数据库加载最新计数，
+ * 避免增量清零后回退到缓存中的旧计数。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Slf4j
+@Service
+public class PostDetailCacheServiceImpl implements PostDetailCacheService {
+
+    private static final String DETAIL_KEY_PREFIX = "post:detail:";
+    private static final String INVALIDATE_CHANNEL = "post:detail:invalidate";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final PostCounterService postCounterService;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${post.detail.cache.local-size:1000}")
+    private int localSize;
+
+    @Value("${post.detail.cache.local-ttl-seconds:30}")
+    private long localTtlSeconds;
+
+    @Value("${post.detail.cache.redis-ttl-seconds:600}")
+    private long redisTtlSeconds;
+
+    // 本地近缓存（按访问顺序淘汰）
+    private Map<Long, LocalEntry> localCache;
+
+    // 每次失效递增，加载期间发生过失效的结果不写入近缓存
+    private final AtomicLong evictSequence = new AtomicLong();
+
+    @Autowired
+    public PostDetailCacheServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                      ObjectMapper objectMapper,
+                                      PostCounterService postCounterService,
+                                      RedisMessageListenerContainer listenerContainer) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.postCounterService = postCounterService;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void init() {
+        int maxSize = Math.max(localSize, 1);
+        localCache = Collections.synchronizedMap(new LinkedHashMap<Long, LocalEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, LocalEntry> eldest) {
+                return size() > maxSize;
+            }
+        });
+        // 其他实例修改帖子或写入计数时清理本地近缓存，消息体为逗号分隔的帖子ID
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                for (String postId : new String(message.getBody(), StandardCharsets.UTF_8).split(",")) {
+                    localCache.remove(Long.valueOf(postId));
+                }
+            } catch (Exception e) {
+                log.warn("处理帖子详情缓存失效消息失败: {}", e.getMessage());
+            }
+        }, new ChannelTopic(INVALIDATE_CHANNEL));
+        // 计数写库后缓存中的计数已落后，删除缓存
+        postCounterService.addFlushListener(this::evictFlushed);
+    }
+
+    @Override
+    public PostDetailResponseVO get(Long postId, Supplier<PostDetailResponseVO> loader) {
+        long sequence = evictSequence.get();
+
+        // 1. 本地近缓存
+        LocalEntry local = localCache.get(postId);
+        if (local != null && local.expireAt > System.currentTimeMillis()) {
+            return overlayCounters(local.value);
+        }
+
+        // 2. Redis
+        PostDetailResponseVO detail = readRedis(postId);
+
+        // 3. 数据库
+        if (detail == null) {
+            detail = loader.get();
+            writeRedis(postId, detail);
+        }
+
+        if (evictSequence.get() == sequence) {
+            localCache.put(postId, new LocalEntry(detail,
+                    System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(localTtlSeconds)));
+        }
+        return overlayCounters(detail);
+    }
+
+    @Override
+    public void evict(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        doEvict(postId);
+        // 事务提交前可能有并发读把旧数据重新写入缓存，提交后再删一次
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(postId);
+                }
+            });
+        }
+    }
+
+    private void doEvict(Long postId) {
+        evictSequence.incrementAndGet();
+        localCache.remove(postId);
+        try {
+            stringRedisTemplate.delete(DETAIL_KEY_PREFIX + postId);
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, String.valueOf(postId));
+        } catch (Exception e) {
+            log.warn("删除帖子详情缓存失败，postId: {}, {}", postId, e.getMessage());
+        }
+    }
+
+    /**
+     * 删除已写入计数的帖子缓存，一次 DEL 和一条失效消息覆盖整批帖子
+     */
+    private void evictFlushed(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        evictSequence.incrementAndGet();
+        List<String> keys = postIds.stream().map(postId -> DETAIL_KEY_PREFIX + postId).toList();
+        postIds.forEach(localCache::remove);
+        try {
+            stringRedisTemplate.delete(keys);
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL,
+                    String.join(",", postIds.stream().map(String::valueOf).toList()));
+        } catch (Exception e) {
+            log.warn("删除已写库帖子的详情缓存失败，帖子数: {}, {}", postIds.size(), e.getMessage());
+        }
+    }
+
+    private PostDetailResponseVO readRedis(Long postId) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(DETAIL_KEY_PREFIX + postId);
+            return json == null ? null : objectMapper.readValue(json, PostDetailResponseVO.class);
+        } catch (Exception e) {
+            log.warn("读取帖子详情缓存失败，postId: {}, {}", postId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(Long postId, PostDetailResponseVO detail) {
+        try {
+            stringRedisTemplate.opsForValue().set(DETAIL_KEY_PREFIX + postId,
+                    objectMapper.writeValueAsString(detail), redisTtlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入帖子详情缓存失败，postId: {}, {}", postId, e.getMessage());
+        }
+    }
+
+    /**
+     * 复制缓存对象并加上本实例未写库的增量，避免修改缓存中的共享实例
+     * <p>
+     * 排行服务中的计数是载入时的数据库值加上本实例的增量，缺少其他实例的互动，不能用来覆盖
+     */
+    private PostDetailResponseVO overlayCounters(PostDetailResponseVO cached) {
+        PostDetailResponseVO detail = new PostDetailResponseVO();
+        BeanUtils.copyProperties(cached, detail);
+        PostCounterDelta delta = postCounterService.getPendingDelta(cached.getPostId());
+        if (delta != null) {
+            detail.setViewCount(plus(cached.getViewCount(), delta.getViewDelta()));
+            detail.setLikeCount(plus(cached.getLikeCount(), delta.getLikeDelta()));
+            detail.setCommentCount(plus(cached.getCommentCount(), delta.getCommentDelta()));
+            detail.setShareCount(plus(cached.getShareCount(), delta.getShareDelta()));
+        }
+        return detail;
+    }
+
+    private static Integer plus(Integer count, long delta) {
+        return (int) ((count == null ? 0 : count) + delta);
+    }
+
+    private static final class LocalEntry {
+        private final PostDetailResponseVO value;
+        private final long expireAt;
+
+        private LocalEntry(PostDetailResponseVO value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+}
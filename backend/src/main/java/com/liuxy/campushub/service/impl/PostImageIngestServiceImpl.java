@@ -0,0 +1,214 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.exception.BusinessException;
+import com.liuxy.campushub.service.ImageVariantService;
+import com.liuxy.campushub.service.PostImageIngestService;
+import com.liuxy.campushub.storage.BlobKeys;
+import com.liuxy.campushub.storage.BlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 帖子图片上传服务实现类
+ * <p>
+ * base64 文本按需解码后直接写入存储，不在内存中生成完整的字节数组，也不落临时文件；
+ * 同一帖子的多张图片在有界线程池中并行上传。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Slf4j
+@Service
+public class PostImageIngestServiceImpl implements PostImageIngestService {
+
+    private final BlobStore blobStore;
+    private final ImageVariantService imageVariantService;
+    private final ThreadPoolTaskExecutor executor;
+
+    @Value("${post.image.ingest.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    @Autowired
+    public PostImageIngestServiceImpl(BlobStore blobStore,
+                                      ImageVariantService imageVariantService,
+                                      @Qualifier("imageIngestExecutor") ThreadPoolTaskExecutor executor) {
+        this.blobStore = blobStore;
+        this.imageVariantService = imageVariantService;
+        this.executor = executor;
+    }
+
+    @Override
+    public List<String> upload(List<String> base64Images) {
+        if (base64Images == null || base64Images.isEmpty()) {
+            return new ArrayList<>();
+        }
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<String>> futures = new ArrayList<>(base64Images.size());
+        for (String image : base64Images) {
+            futures.add(CompletableFuture.supplyAsync(() -> uploadOne(image), executor));
+        }
+
+        BusinessException failure = null;
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            failure = new BusinessException("处理图片超时");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new BusinessException("处理图片被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            failure = cause instanceof BusinessException be ? be
+                    : new BusinessException("处理图片失败: " + cause.getMessage());
+        }
+
+        if (failure != null) {
+            // 未完成的上传在结束后自行清理，已完成的立即清理
+            List<String> uploaded = new ArrayList<>();
+            for (CompletableFuture<String> future : futures) {
+                if (future.isDone() && !future.isCompletedExceptionally()) {
+                    uploaded.add(future.join());
+                } else if (!future.isDone()) {
+                    future.thenAccept(name -> deleteQuietly(List.of(name)));
+                }
+            }
+            deleteQuietly(uploaded);
+            log.error("帖子图片上传失败，共 {} 张", base64Images.size(), failure);
+            throw failure;
+        }
+
+        List<String> fileNames = new ArrayList<>(futures.size());
+        for (CompletableFuture<String> future : futures) {
+            fileNames.add(future.join());
+        }
+        log.info("帖子图片上传完成，数量: {}, 耗时: {}ms", fileNames.size(), System.currentTimeMillis() - start);
+        return fileNames;
+    }
+
+    private String uploadOne(String image) {
+        if (image == null || image.isBlank()) {
+            throw new BusinessException("图片内容不能为空");
+        }
+        String extension = ".jpg";
+        int offset = 0;
+        if (image.startsWith("data:")) {
+            int comma = image.indexOf(',');
+            if (comma < 0) {
+                throw new BusinessException("图片格式不正确");
+            }
+            extension = extensionOf(image.substring(5, comma));
+            offset = comma + 1;
+        }
+        String fileName = BlobKeys.newFileName(extension);
+        try (InputStream in = Base64.getDecoder().wrap(new AsciiInputStream(image, offset))) {
+            blobStore.put(BlobKeys.of(BlobKeys.AVATARS, fileName), in, decodedLength(image, offset),
+                    contentTypeOf(extension));
+            return fileName;
+        } catch (Exception e) {
+            throw new BusinessException("处理图片失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 由 base64 文本长度推算解码后的字节数，便于存储端不必先缓冲整个内容
+     */
+    private long decodedLength(String image, int offset) {
+        int length = image.length() - offset;
+        int padding = 0;
+        if (length > 0 && image.charAt(image.length() - 1) == '=') {
+            padding++;
+            if (length > 1 && image.charAt(image.length() - 2) == '=') {
+                padding++;
+            }
+        }
+        return (long) length / 4 * 3 - padding;
+    }
+
+    private String contentTypeOf(String extension) {
+        return switch (extension) {
+            case ".png" -> "image/png";
+            case ".gif" -> "image/gif";
+            default -> "image/jpeg";
+        };
+    }
+
+    private String extensionOf(String mediaType) {
+        if (mediaType.startsWith("image/png")) {
+            return ".png";
+        }
+        if (mediaType.startsWith("image/gif")) {
+            return ".gif";
+        }
+        return ".jpg";
+    }
+
+    @Override
+    public void deleteQuietly(List<String> fileNames) {
+        if (fileNames == null || fileNames.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        for (String name : fileNames) {
+            String key = BlobKeys.of(BlobKeys.AVATARS, name);
+            keys.add(key);
+            keys.addAll(imageVariantService.variantKeys(key));
+        }
+        executor.execute(() -> {
+            int deleted = blobStore.deleteAll(keys);
+            if (deleted < keys.size()) {
+                log.warn("部分图片文件删除失败，应删除 {} 个，实际删除 {} 个", keys.size(), deleted);
+            }
+        });
+    }
+
+    /**
+     * 把字符串中的 ASCII 字符逐个作为字节读出，避免先复制出整段字节数组
+     */
+    private static final class AsciiInputStream extends InputStream {
+        private final String text;
+        private int position;
+
+        private AsciiInputStream(String text, int offset) {
+            this.text = text;
+            this.position = offset;
+        }
+
+        @Override
+        public int read() {
+            return position < text.length() ? text.charAt(position++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= text.length()) {
+                return -1;
+            }
+            int count = Math.min(len, text.length() - position);
+            for (int i = 0; i < count; i++) {
+                buffer[off + i] = (byte) text.charAt(position++);
+            }
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return text.length() - position;
+        }
+    }
+}
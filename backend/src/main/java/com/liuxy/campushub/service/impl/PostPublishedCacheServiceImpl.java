@@ -0,0 +1,73 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.service.HotPostRankingService;
+import com.liuxy.campushub.service.PostPublishedCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 帖子发布状态缓存服务实现类
+ * <p>
+ * 读取不加锁。条目数超过上限时先清除过期条目，仍超出时整体清空，只会多查几次库。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Service
+public class PostPublishedCacheServiceImpl implements PostPublishedCacheService {
+
+    private final PostMapper postMapper;
+    private final HotPostRankingService hotPostRankingService;
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+
+    @Value("${post.counter.published-cache-size:10000}")
+    private int maxSize;
+
+    @Value("${post.counter.published-cache-ttl-ms:30000}")
+    private long ttlMs;
+
+    private record Entry(boolean published, long expireAt) {
+    }
+
+    @Autowired
+    public PostPublishedCacheServiceImpl(PostMapper postMapper, HotPostRankingService hotPostRankingService) {
+        this.postMapper = postMapper;
+        this.hotPostRankingService = hotPostRankingService;
+    }
+
+    @Override
+    public boolean isPublished(Long postId) {
+        if (postId == null) {
+            return false;
+        }
+        if (hotPostRankingService.getCounters(postId) != null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(postId);
+        if (entry != null && entry.expireAt() > now) {
+            return entry.published();
+        }
+        boolean published = postMapper.countPublishedById(postId) > 0;
+        if (cache.size() >= Math.max(maxSize, 1)) {
+            cache.values().removeIf(cached -> cached.expireAt() <= now);
+            if (cache.size() >= Math.max(maxSize, 1)) {
+                cache.clear();
+            }
+        }
+        cache.put(postId, new Entry(published, now + ttlMs));
+        return published;
+    }
+
+    @Override
+    public void evict(Long postId) {
+        if (postId != null) {
+            cache.remove(postId);
+        }
+    }
+}
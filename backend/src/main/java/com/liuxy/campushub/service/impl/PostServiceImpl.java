@@ -9,31 +9,35 @@ import com.liuxy.campushub.service.PostService;
 import com.liuxy.campushub.service.AttachmentService;
 import com.liuxy.campushub.service.CategoryService;
 import com.liuxy.campushub.service.TopicService;
+import com.liuxy.campushub.service.HotPostRankingService;
+import com.liuxy.campushub.service.PostCounterService;
+import com.liuxy.campushub.service.PostDetailCacheService;
+import com.liuxy.campushub.service.PostPublishedCacheService;
+import com.liuxy.campushub.service.PostImageIngestService;
+import com.liuxy.campushub.service.PostVelocityService;
+import com.liuxy.campushub.enums.PostCounterEnum;
 import com.liuxy.campushub.vo.PostDetailVO;
 import com.liuxy.campushub.vo.PostVO;
 import com.liuxy.campushub.vo.ScrollResult;
 import com.liuxy.campushub.vo.HotPostVO;
 import com.liuxy.campushub.model.HotPostModel;
+import com.liuxy.campushub.model.PageCursor;
+import com.liuxy.campushub.model.PostVelocity;
 import com.liuxy.campushub.exception.BusinessException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.util.CollectionUtils;
 import org.springframework.beans.BeanUtils;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.math.BigDecimal;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.io.FileInputStream;
-import org.springframework.web.multipart.MultipartFile;
-import org.springframework.mock.web.MockMultipartFile;
-import com.liuxy.campushub.util.SftpUtil;
 import java.time.ZoneId;
 import java.time.Instant;
 import com.liuxy.campushub.vo.PostDetailResponseVO;
@@ -51,7 +55,13 @@ public class PostServiceImpl implements PostService {
     private final AttachmentService attachmentService;
     private final CategoryService categoryService;
     private final TopicService topicService;
-    private final SftpUtil sftpUtil;
+    private final PostImageIngestService postImageIngestService;
+    private final TransactionTemplate transactionTemplate;
+    private final HotPostRankingService hotPostRankingService;
+    private final PostCounterService postCounterService;
+    private final PostDetailCacheService postDetailCacheService;
+    private final PostVelocityService postVelocityService;
+    private final PostPublishedCacheService postPublishedCacheService;
 
     // 注入图片访问基础URL
     @Value("${image.access.base-url:http://localhost:8081}") 
@@ -66,22 +76,28 @@ public class PostServiceImpl implements PostService {
                           AttachmentService attachmentService,
                           CategoryService categoryService,
                           TopicService topicService,
-                          SftpUtil sftpUtil) {
+                          PostImageIngestService postImageIngestService,
+                          TransactionTemplate transactionTemplate,
+                          HotPostRankingService hotPostRankingService,
+                          PostCounterService postCounterService,
+                          PostDetailCacheService postDetailCacheService,
+                          PostVelocityService postVelocityService,
+                          PostPublishedCacheService postPublishedCacheService) {
         this.postMapper = postMapper;
         this.attachmentService = attachmentService;
         this.categoryService = categoryService;
         this.topicService = topicService;
-        this.sftpUtil = sftpUtil;
+        this.postImageIngestService = postImageIngestService;
+        this.transactionTemplate = transactionTemplate;
+        this.hotPostRankingService = hotPostRankingService;
+        this.postCounterService = postCounterService;
+        this.postDetailCacheService = postDetailCacheService;
+        this.postVelocityService = postVelocityService;
+        this.postPublishedCacheService = postPublishedCacheService;
     }
 
     private static final Logger logger = LoggerFactory.getLogger(PostServiceImpl.class);
     
-    @Value("${upload.path}")
-    private String uploadPath;
-
-    @Value("${upload.avatar.path}")
-    private String avatarDiskPath; // 修改字段名避免冲突
-
     /**
      * 获取完整的头像URL
      */
@@ -94,8 +110,8 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public Long createPost(Post post, List<String> base64Images) {
+        List<String> fileNames = Collections.emptyList();
         try {
             logger.info("开始创建帖子，Post对象: {}", post);
             
@@ -131,35 +147,47 @@ public class PostServiceImpl implements PostService {
                 post.setEmergencyLevel(null);
             }
             
-            // 创建帖子
-            int result = postMapper.insert(post);
-            if (result <= 0) {
-                throw new BusinessException("创建帖子失败");
-            }
+            // 先在事务外并行上传图片，事务只包含元数据写入，不会在上传期间占用数据库连接
+            fileNames = postImageIngestService.upload(base64Images);
+            List<String> uploaded = fileNames;
             
-            // 处理话题关联
-            if (post.getTopics() != null && !post.getTopics().isEmpty()) {
-                topicService.batchLinkPostTopic(post.getPostId(), 
-                    post.getTopics().stream().map(Topic::getTopicId).collect(Collectors.toList()));
-            }
+            transactionTemplate.executeWithoutResult(status -> {
+                // 创建帖子
+                int result = postMapper.insert(post);
+                if (result <= 0) {
+                    throw new BusinessException("创建帖子失败");
+                }
+                
+                // 处理话题关联
+                if (post.getTopics() != null && !post.getTopics().isEmpty()) {
+                    topicService.batchLinkPostTopic(post.getPostId(), 
+                        post.getTopics().stream().map(Topic::getTopicId).collect(Collectors.toList()));
+                }
+                
+                // 帖子记录写入后再写附件记录
+                for (String fileName : uploaded) {
+                    attachmentService.createAttachment(post.getPostId(), fileName);
+                }
+            });
             
-            // 处理图片
-            if (!CollectionUtils.isEmpty(base64Images)) {
-                processImages(post.getPostId(), base64Images);
-            }
+            // 加入热点排行
+            hotPostRankingService.onPostPublished(post);
+            postPublishedCacheService.evict(post.getPostId());
             
             return post.getPostId();
         } catch (BusinessException e) {
+            postImageIngestService.deleteQuietly(fileNames);
             throw e;
         } catch (Exception e) {
             logger.error("创建帖子失败", e);
+            postImageIngestService.deleteQuietly(fileNames);
             throw new BusinessException("创建帖子失败: " + e.getMessage());
         }
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public boolean updatePost(Post post, List<String> base64Images) {
+        List<String> fileNames = Collections.emptyList();
         try {
             logger.info("开始更新帖子，postId: {}", post.getPostId());
             
@@ -168,31 +196,43 @@ public class PostServiceImpl implements PostService {
                 throw new BusinessException("帖子ID不能为空");
             }
             
-            // 更新帖子
-            boolean updated = postMapper.updateById(post) > 0;
-        // 更新话题关联
-        postMapper.deletePostTopicsByPostId(post.getPostId());
-        if (post.getTopics() != null && !post.getTopics().isEmpty()) {
-            postMapper.insertPostTopics(post.getPostId(),
-                post.getTopics().stream().map(Topic::getTopicId).collect(Collectors.toList()));
-        };
-            if (!updated) {
-                throw new BusinessException("更新帖子失败");
-            }
-            
-            // 处理图片
-            if (!CollectionUtils.isEmpty(base64Images)) {
-                // 删除旧的附件
-                attachmentService.deleteAttachmentsByPostId(post.getPostId());
-                // 添加新的附件
-                processImages(post.getPostId(), base64Images);
-            }
+            // 新图片在事务外并行上传
+            fileNames = postImageIngestService.upload(base64Images);
+            List<String> uploaded = fileNames;
+            
+            List<String> replaced = transactionTemplate.execute(status -> {
+                // 更新帖子
+                boolean updated = postMapper.updateById(post) > 0;
+                // 更新话题关联
+                postMapper.deletePostTopicsByPostId(post.getPostId());
+                if (post.getTopics() != null && !post.getTopics().isEmpty()) {
+                    postMapper.insertPostTopics(post.getPostId(),
+                        post.getTopics().stream().map(Topic::getTopicId).collect(Collectors.toList()));
+                }
+                if (!updated) {
+                    throw new BusinessException("更新帖子失败");
+                }
+                postDetailCacheService.evict(post.getPostId());
+                
+                // 有新图片时替换附件记录，旧文件在提交后删除
+                if (uploaded.isEmpty()) {
+                    return Collections.<String>emptyList();
+                }
+                List<String> oldFileNames = attachmentService.deleteAttachmentRecordsByPostId(post.getPostId());
+                for (String fileName : uploaded) {
+                    attachmentService.createAttachment(post.getPostId(), fileName);
+                }
+                return oldFileNames;
+            });
+            postImageIngestService.deleteQuietly(replaced);
             
             return true;
         } catch (BusinessException e) {
+            postImageIngestService.deleteQuietly(fileNames);
             throw e;
         } catch (Exception e) {
             logger.error("更新帖子失败", e);
+            postImageIngestService.deleteQuietly(fileNames);
             throw new BusinessException("更新帖子失败: " + e.getMessage());
         }
     }
@@ -202,17 +242,14 @@ public class PostServiceImpl implements PostService {
         try {
             logger.info("开始获取帖子详情，postId: {}", postId);
             
-            // 获取帖子基本信息
-            Post post = getPostById(postId);
-            if (post == null) {
-                throw new BusinessException(404, "帖子不存在");
-            }
-            
-            // 获取帖子关联的话题
-            List<Topic> topics = topicService.getTopicsByPostId(postId);
-            
-            // 构建并返回详情VO，在构建时处理URL拼接
-            PostDetailResponseVO detailVO = PostDetailResponseVO.fromEntities(post, topics, imageBaseUrl, avatarPath);
+            // 先读缓存，未命中时加载帖子及话题并在构建时处理URL拼接
+            PostDetailResponseVO detailVO = postDetailCacheService.get(postId, () -> {
+                Post post = getPostById(postId);
+                if (post == null) {
+                    throw new BusinessException(404, "帖子不存在");
+                }
+                return PostDetailResponseVO.fromEntities(post, post.getTopics(), imageBaseUrl, avatarPath);
+            });
 
             logger.info("获取帖子详情成功，postId: {}", postId);
             return detailVO;
@@ -251,61 +288,85 @@ public class PostServiceImpl implements PostService {
         Post post = new Post();
         post.setPostId(postId);
         post.setStatus(PostStatusEnum.fromCode(status));
-        return postMapper.updateById(post) > 0;
+        boolean updated = postMapper.updateById(post) > 0;
+        if (updated) {
+            postDetailCacheService.evict(postId);
+            postPublishedCacheService.evict(postId);
+            // 同步热点排行：发布则重新载入计数，其余状态移出排行
+            if (post.getStatus() == PostStatusEnum.PUBLISHED) {
+                hotPostRankingService.onPostPublished(postMapper.selectById(postId));
+            } else {
+                hotPostRankingService.onPostRemoved(postId);
+                postVelocityService.onPostRemoved(postId);
+            }
+        }
+        return updated;
     }
 
     @Override
-    @Transactional
     public boolean incrementViewCount(Long postId) {
-        return postMapper.incrementViewCount(postId) > 0;
+        if (!isCountable(postId)) {
+            return false;
+        }
+        postCounterService.increment(postId, PostCounterEnum.VIEW);
+        return true;
     }
 
     @Override
-    @Transactional
     public boolean incrementLikeCount(Long postId) {
-        return postMapper.incrementLikeCount(postId) > 0;
+        if (!isCountable(postId)) {
+            return false;
+        }
+        postCounterService.increment(postId, PostCounterEnum.LIKE);
+        return true;
     }
 
     @Override
-    @Transactional
     public boolean incrementCommentCount(Long postId) {
-        return postMapper.incrementCommentCount(postId) > 0;
+        if (!isCountable(postId)) {
+            return false;
+        }
+        postCounterService.increment(postId, PostCounterEnum.COMMENT);
+        return true;
     }
 
     @Override
-    @Transactional
     public boolean incrementShareCount(Long postId) {
-        return postMapper.incrementShareCount(postId) > 0;
+        if (!isCountable(postId)) {
+            return false;
+        }
+        postCounterService.increment(postId, PostCounterEnum.SHARE);
+        return true;
+    }
+
+    /**
+     * 只为已发布的帖子计数：先查排行数据（近期帖子都在其中），未命中再查短期缓存，最后按主键查库
+     */
+    private boolean isCountable(Long postId) {
+        return postPublishedCacheService.isPublished(postId);
     }
 
     @Override
-    public ScrollResult<PostVO> getPostList(Date lastTime, int pageSize) {
+    public ScrollResult<PostVO> getPostList(Date lastTime, Long lastId, String cursor, int pageSize) {
+        // 游标无效时直接返回400，不被下面的异常处理包装
+        PageCursor pageCursor = PageCursor.decode(cursor);
         try {
-            logger.info("开始获取帖子列表，lastTime: {}, pageSize: {}", lastTime, pageSize);
-            
-            // 多查询一条数据，用于判断是否还有更多数据
-            List<PostVO> posts = postMapper.selectPostsByTime(lastTime, pageSize + 1);
+            logger.info("开始获取帖子列表，lastTime: {}, lastId: {}, cursor: {}, pageSize: {}", lastTime, lastId, cursor, pageSize);
             
-            // 处理分页结果
-            ScrollResult<PostVO> result = new ScrollResult<>();
-            boolean hasMore = posts.size() > pageSize;
-            
-            // 如果有更多数据，则移除多查询的一条
-            if (hasMore) {
-                posts = posts.subList(0, pageSize);
+            if (pageCursor != null) {
+                lastTime = pageCursor.getSortKeyAsDate();
+                lastId = pageCursor.getId();
             }
             
-            result.setItems(posts);
-            result.setHasMore(hasMore);
-            
-            // 设置下一页的时间戳
-            if (!posts.isEmpty()) {
-                result.setNextTimestamp(posts.get(posts.size() - 1).getCreatedAt());
-            }
+            // 多查询一条数据，用于判断是否还有更多数据
+            List<PostVO> posts = postMapper.selectPostsByTime(lastTime, lastId, pageSize + 1);
+            ScrollResult<PostVO> result = processScrollResult(posts, pageSize);
             
-            logger.info("获取帖子列表完成，返回数据条数: {}, 是否有更多: {}", posts.size(), hasMore);
+            logger.info("获取帖子列表完成，返回数据条数: {}, 是否有更多: {}", result.getItems().size(), result.isHasMore());
             return result;
             
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("获取帖子列表失败", e);
             throw new RuntimeException("获取帖子列表失败: " + e.getMessage());
@@ -313,7 +374,7 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
-    public ScrollResult<PostVO> getPostsByCategory(Integer categoryId, Date lastTime, int pageSize) {
+    public ScrollResult<PostVO> getPostsByCategory(Integer categoryId, Date lastTime, Long lastId, int pageSize) {
         try {
             logger.info("开始获取分类帖子列表，categoryId: {}, lastTime: {}, pageSize: {}", categoryId, lastTime, pageSize);
             
@@ -322,6 +383,7 @@ public class PostServiceImpl implements PostService {
             params.put("pageSize", pageSize + 1);
             if (lastTime != null) {
                 params.put("lastTime", lastTime);
+                params.put("lastId", lastId);
             }
 
             List<PostVO> posts = postMapper.selectByCategoryForScroll(params);
@@ -333,7 +395,7 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
-    public ScrollResult<PostVO> getPostsByUser(Long userId, Date lastTime, int pageSize) {
+    public ScrollResult<PostVO> getPostsByUser(Long userId, Date lastTime, Long lastId, int pageSize) {
         try {
             logger.info("开始获取用户帖子列表，userId: {}, lastTime: {}, pageSize: {}", userId, lastTime, pageSize);
             
@@ -342,6 +404,7 @@ public class PostServiceImpl implements PostService {
             params.put("pageSize", pageSize + 1);
             if (lastTime != null) {
                 params.put("lastTime", lastTime);
+                params.put("lastId", lastId);
             }
 
             List<PostVO> posts = postMapper.selectByUserForScroll(params);
@@ -371,6 +434,12 @@ public class PostServiceImpl implements PostService {
             int result = postMapper.updateById(post);
             logger.info("更新帖子状态完成，postId: {}, 影响行数: {}", postId, result);
             
+            // 3. 移出热点排行并清理详情缓存
+            hotPostRankingService.onPostRemoved(postId);
+            postVelocityService.onPostRemoved(postId);
+            postDetailCacheService.evict(postId);
+            postPublishedCacheService.evict(postId);
+            
             return result > 0;
         } catch (Exception e) {
             logger.error("删除帖子失败，postId: {}", postId, e);
@@ -379,74 +448,47 @@ public class PostServiceImpl implements PostService {
     }
 
     /**
-     * 处理图片上传
-     */
-    private void processImages(Long postId, List<String> base64Images) {
-        try {
-            for (String base64Image : base64Images) {
-                byte[] imageBytes = Base64.getDecoder().decode(base64Image);
-                String fileName = UUID.randomUUID().toString() + ".jpg";
-                
-                // 创建临时文件
-                File tempFile = File.createTempFile("upload_", ".jpg");
-                try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                    fos.write(imageBytes);
-                }
-                
-                // 上传到SFTP服务器
-                try (FileInputStream fis = new FileInputStream(tempFile)) {
-                    MultipartFile multipartFile = new MockMultipartFile(
-                        fileName,
-                        fileName,
-                        "image/jpeg",
-                        fis
-                    );
-                    sftpUtil.uploadFile(multipartFile, avatarDiskPath);
-                }
-                
-                // 删除临时文件
-                tempFile.delete();
-                
-                // 创建附件记录
-                attachmentService.createAttachment(postId, fileName);
-            }
-        } catch (Exception e) {
-            logger.error("处理图片失败", e);
-            throw new BusinessException("处理图片失败: " + e.getMessage());
-        }
-    }
-
-    /**
-     * 处理滚动分页结果
+     * 处理滚动分页结果（posts 需多查一条），下一页游标为最后一条的 (created_at, post_id)
      */
     private ScrollResult<PostVO> processScrollResult(List<PostVO> posts, int pageSize) {
-        boolean hasMore = posts.size() > pageSize;
-        if (hasMore) {
-            posts = posts.subList(0, pageSize);
-        }
-        
-        ScrollResult<PostVO> result = new ScrollResult<>();
-        result.setItems(posts);
-        result.setHasMore(hasMore);
-        if (!posts.isEmpty()) {
-            result.setNextTimestamp(posts.get(posts.size()-1).getCreatedAt());
+        ScrollResult<PostVO> result = ScrollResult.of(posts, pageSize,
+                post -> PageCursor.of(post.getCreatedAt(), post.getPostId()));
+        List<PostVO> items = result.getItems();
+        if (!items.isEmpty()) {
+            PostVO last = items.get(items.size() - 1);
+            result.setNextTimestamp(last.getCreatedAt());
+            result.setNextId(last.getPostId());
+            
+            // 一次查询补齐本页帖子的封面图
+            Map<Long, String> coverUrls = attachmentService.getCoverUrls(
+                items.stream().map(PostVO::getPostId).collect(Collectors.toList()));
+            for (PostVO item : items) {
+                item.setCoverUrl(coverUrls.get(item.getPostId()));
+            }
         }
         return result;
     }
 
     @Override
-    public ScrollResult<PostVO> getPostsWaterfall(Date lastTime, int limit) {
+    public ScrollResult<PostVO> getPostsWaterfall(Date lastTime, Long lastId, String cursor, int limit) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
         try {
-            logger.info("开始瀑布流加载帖子列表，lastTime: {}, limit: {}", lastTime, limit);
+            logger.info("开始瀑布流加载帖子列表，lastTime: {}, lastId: {}, cursor: {}, limit: {}", lastTime, lastId, cursor, limit);
+            
+            if (pageCursor != null) {
+                lastTime = pageCursor.getSortKeyAsDate();
+                lastId = pageCursor.getId();
+            }
             
-            // 构建查询参数
+            // 构建查询参数（多查询一条，用于判断是否还有更多数据）
             Map<String, Object> params = new HashMap<>();
             params.put("status", PostStatusEnum.PUBLISHED.getCode());
-            params.put("limit", limit);
+            params.put("limit", limit + 1);
             
-            // 如果有lastTime参数，则添加时间条件
+            // 如果有lastTime参数，则添加复合游标条件
             if (lastTime != null) {
                 params.put("lastTime", lastTime);
+                params.put("lastId", lastId);
             }
             
             // 调用Mapper方法获取帖子列表
@@ -462,14 +504,9 @@ public class PostServiceImpl implements PostService {
                 }
             }
             
-            // 构建返回结果
-            ScrollResult<PostVO> result = new ScrollResult<>();
-            result.setItems(posts);
-            result.setHasMore(!posts.isEmpty());
-            if (!posts.isEmpty()) {
-                result.setNextTimestamp(posts.get(posts.size() - 1).getCreatedAt());
-            }
-            return result;
+            return processScrollResult(posts, limit);
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("瀑布流加载失败", e);
             throw new BusinessException("加载帖子列表失败: " + e.getMessage());
@@ -477,17 +514,34 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
-    public ScrollResult<PostVO> getPostsByUserId(Long userId, int page, int pageSize) {
+    public ScrollResult<PostVO> getPostsByUserId(Long userId, String cursor, int page, int pageSize) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
         try {
-            logger.info("开始获取用户帖子列表，userId: {}, page: {}, pageSize: {}", userId, page, pageSize);
+            logger.info("开始获取用户帖子列表，userId: {}, cursor: {}, page: {}, pageSize: {}", userId, cursor, page, pageSize);
             
             Map<String, Object> params = new HashMap<>();
             params.put("userId", userId);
-            params.put("offset", (page - 1) * pageSize);
-            params.put("pageSize", pageSize);
+            if (pageCursor != null) {
+                params.put("cursorTime", pageCursor.getSortKeyAsDate());
+                params.put("cursorId", pageCursor.getId());
+            }
+            params.put("offset", PageCursor.offsetOf(pageCursor, page, pageSize));
+            params.put("pageSize", pageSize + 1);
 
             List<PostVO> posts = postMapper.selectByUser(params);
-            return processScrollResult(posts, pageSize);
+            for (PostVO post : posts) {
+                if (post.getAvatar() != null && !post.getAvatar().isEmpty()) {
+                    post.setAvatar(getCompleteAvatarUrl(post.getAvatar()));
+                }
+            }
+            ScrollResult<PostVO> result = ScrollResult.of(posts, pageSize,
+                    post -> PageCursor.of(post.getCreatedAt(), post.getPostId()));
+            if (!result.getItems().isEmpty()) {
+                result.setNextTimestamp(result.getItems().get(result.getItems().size() - 1).getCreatedAt());
+            }
+            return result;
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("获取用户帖子列表失败", e);
             throw new BusinessException("获取用户帖子列表失败: " + e.getMessage());
@@ -562,35 +616,14 @@ public class PostServiceImpl implements PostService {
     public ScrollResult<HotPostVO> getHotPostsWithPagination(int page, int pageSize) {
         logger.info("获取热点帖子分页列表，页码: {}, 每页大小: {}", page, pageSize);
         
-        // 获取所有已发布的帖子
-        List<Post> posts = postMapper.findAllByStatus(PostStatusEnum.PUBLISHED);
-        if (CollectionUtils.isEmpty(posts)) {
-            logger.info("没有找到已发布的帖子");
-            return new ScrollResult<>();
-        }
-        
-        // 计算热度并排序
-        List<Post> sortedPosts = posts.stream()
-                .map(post -> {
-                    double hotness = HotPostModel.calculateHotness(post);
-                    post.setHotness(hotness);
-                    return post;
-                })
-                .sorted((p1, p2) -> Double.compare(p2.getHotness(), p1.getHotness()))
-                .collect(Collectors.toList());
-        
-        // 分页处理
-        int totalSize = sortedPosts.size();
-        int startIndex = (page - 1) * pageSize;
-        int endIndex = Math.min(startIndex + pageSize, totalSize);
-        
-        if (startIndex >= totalSize) {
-            logger.info("页码超出范围，总记录数: {}, 请求页码: {}", totalSize, page);
+        // 从内存排行中直接截取当前页，不再全表扫描
+        int startIndex = (Math.max(page, 1) - 1) * pageSize;
+        List<Post> pagePosts = hotPostRankingService.getRankedPosts(startIndex, pageSize);
+        if (pagePosts.isEmpty()) {
+            logger.info("页码超出范围，排行总数: {}, 请求页码: {}", hotPostRankingService.size(), page);
             return new ScrollResult<>();
         }
         
-        List<Post> pagePosts = sortedPosts.subList(startIndex, endIndex);
-        
         // 转换为HotPostVO
         List<HotPostVO> hotPostVOs = convertToHotPostVO(pagePosts);
         
@@ -602,7 +635,7 @@ public class PostServiceImpl implements PostService {
         // 构建分页结果
         ScrollResult<HotPostVO> result = new ScrollResult<>();
         result.setItems(hotPostVOs);
-        result.setHasMore(endIndex < totalSize);
+        result.setHasMore(startIndex + pagePosts.size() < hotPostRankingService.size());
         
         // 设置下次请求的时间参数（这里使用当前时间，因为热点排序不依赖时间）
         result.setNextTimestamp(new Date());
@@ -614,34 +647,35 @@ public class PostServiceImpl implements PostService {
     public List<HotPostVO> getBurstHotPosts(int limit) {
         logger.info("获取突发热点帖子列表，限制条数: {}", limit);
         
-        // 获取所有已发布的帖子
-        List<Post> posts = postMapper.findAllByStatus(PostStatusEnum.PUBLISHED);
-        if (CollectionUtils.isEmpty(posts)) {
-            logger.info("没有找到已发布的帖子");
+        // 突发热点（近期互动速度明显高于基线）由互动速度服务定时维护
+        List<PostVelocity> bursts = postVelocityService.getBurstPosts(limit);
+        if (CollectionUtils.isEmpty(bursts)) {
+            logger.info("没有找到突发热点帖子");
             return Collections.emptyList();
         }
         
-        // 筛选突发热点（评论量超过阈值且24小时内发布）
-        LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
-        List<Post> burstPosts = posts.stream()
-                .filter(post -> post.getCommentCount() > 100 && 
-                        post.getCreatedAt().isAfter(oneDayAgo))
-                .map(post -> {
-                    double hotness = HotPostModel.calculateHotness(post);
-                    post.setHotness(hotness);
-                    return post;
-                })
-                .sorted((p1, p2) -> Double.compare(p2.getHotness(), p1.getHotness()))
-                .limit(limit)
+        List<Long> postIds = bursts.stream()
+                .map(PostVelocity::getPostId)
                 .collect(Collectors.toList());
+        Map<Long, PostVO> postVOMap = postMapper.findPostVOsByIds(postIds).stream()
+                .collect(Collectors.toMap(PostVO::getPostId, postVO -> postVO, (a, b) -> a));
         
-        // 转换为HotPostVO
-        List<HotPostVO> hotPostVOs = convertToHotPostVO(burstPosts);
-        
-        // 设置排名和突发热点标记
-        for (int i = 0; i < hotPostVOs.size(); i++) {
-            hotPostVOs.get(i).setRank(i + 1);
-            hotPostVOs.get(i).setIsBurst(true);
+        // 按突发分数顺序转换为HotPostVO，设置排名、速度和突发标记
+        List<HotPostVO> hotPostVOs = new ArrayList<>(bursts.size());
+        for (PostVelocity burst : bursts) {
+            PostVO postVO = postVOMap.get(burst.getPostId());
+            if (postVO == null) {
+                continue;
+            }
+            HotPostVO hotPostVO = HotPostVO.computeFrom(postVO);
+            if (hotPostVO.getAvatar() != null) {
+                hotPostVO.setAvatar(getCompleteAvatarUrl(hotPostVO.getAvatar()));
+            }
+            hotPostVO.setRank(hotPostVOs.size() + 1);
+            hotPostVO.setIsBurst(true);
+            hotPostVO.setVelocity(burst.getVelocity());
+            hotPostVO.setAcceleration(burst.getAcceleration());
+            hotPostVOs.add(hotPostVO);
         }
         
         return hotPostVOs;
@@ -663,11 +697,14 @@ public class PostServiceImpl implements PostService {
                 .map(Post::getPostId)
                 .collect(Collectors.toList());
         
-        // 批量获取帖子VO (Mapper查询会包含avatar文件名)
-        List<PostVO> postVOs = postMapper.findPostVOsByIds(postIds);
+        // 批量获取帖子VO (Mapper查询会包含avatar文件名)，按传入顺序排列以保持排名
+        Map<Long, PostVO> postVOMap = postMapper.findPostVOsByIds(postIds).stream()
+                .collect(Collectors.toMap(PostVO::getPostId, postVO -> postVO, (a, b) -> a));
         
         // 将PostVO转换为HotPostVO并拼接头像URL
-        return postVOs.stream()
+        return postIds.stream()
+                .map(postVOMap::get)
+                .filter(Objects::nonNull)
                 .map(postVO -> {
                     HotPostVO hotPostVO = new HotPostVO();
                     // 复制PostVO属性，包括avatar文件名
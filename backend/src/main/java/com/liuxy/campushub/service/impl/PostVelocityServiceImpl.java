@@ -0,0 +1,358 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.enums.PostCounterEnum;
+import com.liuxy.campushub.model.HotPostModel;
+import com.liuxy.campushub.model.PostVelocity;
+import com.liuxy.campushub.model.VelocityWindow;
+import com.liuxy.campushub.service.PostVelocityService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 帖子互动速度跟踪服务实现类
+ * <p>
+ * 每个近期有互动的帖子在内存中对应一个按分钟分桶的环形窗口，互动按热度权重累加到当前分钟的桶中。
+ * 设短窗口为 S 分钟、整个窗口为 W 分钟：
+ * <ul>
+ *     <li>速度 = 最近 S 分钟的互动量 / S</li>
+ *     <li>加速度 = 速度 - 再往前 S 分钟的平均速度</li>
+ *     <li>基线 = 窗口中其余 W - S 分钟的平均速度</li>
+ * </ul>
+ * 速度不低于最低速度、且达到基线的若干倍时判定为突发，新帖没有基线，只要速度达标即为突发。
+ * 突发帖子按 速度 + 正向加速度 排序，定时刷新Top-K列表，读取时直接返回列表中的前几项。
+ * 只跟踪已发布的帖子：是否已发布由调用方在计数前确认（见 PostServiceImpl 的计数接口），这里不再重复查询。
+ * <p>
+ * 窗口增量定期以 HINCRBYFLOAT 累加到 Redis 哈希 post:velocity:{帖子ID}（字段为分钟数），
+ * 键的过期时间与窗口长度相同；同时在有序集合 post:velocity:active 中记录帖子ID及最近写入的分钟数，
+ * 超出窗口的成员在写入时一并移除。每次写入后按有序集合读取窗口内有互动的帖子（不 SCAN 整个键空间），
+ * 以各实例合并后的互动量替换本地已持久化的部分，
+ * 多实例时每个实例都按全部实例的互动判断突发（最多滞后一个写入周期）；启动时同样载入，重启后不会丢失最近的互动记录。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Slf4j
+@Service
+public class PostVelocityServiceImpl implements PostVelocityService {
+
+    private static final String KEY_PREFIX = "post:velocity:";
+    private static final String ACTIVE_KEY = "post:velocity:active";
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Map<Long, VelocityWindow> windows = new ConcurrentHashMap<>();
+    private volatile List<PostVelocity> topBursts = List.of();
+
+    @Value("${hot.velocity.window-minutes:60}")
+    private int windowMinutes;
+
+    @Value("${hot.velocity.short-window-minutes:10}")
+    private int shortWindowMinutes;
+
+    @Value("${hot.velocity.min-velocity:0.5}")
+    private double minVelocity;
+
+    @Value("${hot.velocity.burst-ratio:3.0}")
+    private double burstRatio;
+
+    @Value("${hot.velocity.capacity:100}")
+    private int capacity;
+
+    // 统计信息
+    private final AtomicLong recordedEvents = new AtomicLong();
+    private final AtomicLong persistedBuckets = new AtomicLong();
+    private final AtomicLong failedPersists = new AtomicLong();
+    private volatile int lastBurstCount;
+    private volatile long lastRefreshAt;
+    private volatile long lastRefreshMillis;
+    private volatile long lastPersistAt;
+    private volatile long lastLoadAt;
+    private volatile int lastLoadPosts;
+
+    public PostVelocityServiceImpl(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Override
+    public void record(Long postId, PostCounterEnum counter, long delta) {
+        if (postId == null || counter == null || delta <= 0) {
+            return;
+        }
+        double amount = HotPostModel.engagementWeight(counter) * delta;
+        long minute = currentMinute();
+        // 在 compute 中写入，与刷新时移除空闲窗口互斥，不会写入已被移除的窗口
+        windows.compute(postId, (id, window) -> {
+            VelocityWindow target = window != null ? window : new VelocityWindow(windowMinutes);
+            target.add(minute, amount, false);
+            return target;
+        });
+        recordedEvents.incrementAndGet();
+    }
+
+    @Override
+    public PostVelocity getVelocity(Long postId) {
+        VelocityWindow window = postId == null ? null : windows.get(postId);
+        return window == null ? null : calculate(postId, window, currentMinute());
+    }
+
+    @Override
+    public List<PostVelocity> getBurstPosts(int limit) {
+        List<PostVelocity> current = topBursts;
+        return current.subList(0, Math.max(0, Math.min(limit, current.size())));
+    }
+
+    @Override
+    public void onPostRemoved(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        windows.remove(postId);
+        List<PostVelocity> current = topBursts;
+        if (current.stream().anyMatch(velocity -> postId.equals(velocity.getPostId()))) {
+            topBursts = current.stream().filter(velocity -> !postId.equals(velocity.getPostId())).toList();
+        }
+        try {
+            stringRedisTemplate.delete(KEY_PREFIX + postId);
+            stringRedisTemplate.opsForZSet().remove(ACTIVE_KEY, String.valueOf(postId));
+        } catch (Exception e) {
+            log.warn("删除帖子互动速度记录失败，postId: {}, 原因: {}", postId, e.getMessage());
+        }
+    }
+
+    /**
+     * 定时刷新突发Top-K，顺带移除整个窗口内都没有互动的帖子
+     */
+    @Scheduled(fixedDelayString = "${hot.velocity.refresh-interval-ms:10000}",
+            initialDelayString = "${hot.velocity.refresh-interval-ms:10000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("刷新突发热点失败", e);
+        }
+    }
+
+    /**
+     * 定时将窗口增量写入 Redis，再读回各实例合并后的记录
+     */
+    @Scheduled(fixedDelayString = "${hot.velocity.persist-interval-ms:30000}",
+            initialDelayString = "${hot.velocity.persist-interval-ms:30000}")
+    public void scheduledPersist() {
+        try {
+            persist();
+            loadFromRedis();
+        } catch (Exception e) {
+            log.error("同步帖子互动速度失败", e);
+        }
+    }
+
+    /**
+     * 启动时载入 Redis 中仍在窗口内的互动记录
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            int posts = loadFromRedis();
+            refresh();
+            log.info("载入帖子互动速度完成，帖子数: {}, 突发帖子数: {}", posts, lastBurstCount);
+        } catch (Exception e) {
+            log.warn("载入帖子互动速度失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从 post:velocity:active 取出窗口内有互动的帖子，分批以管道读取，用合并后的互动量替换本地窗口中已持久化的部分
+     *
+     * @return 读取的帖子数
+     */
+    private synchronized int loadFromRedis() {
+        long minute = currentMinute();
+        Set<String> members = stringRedisTemplate.opsForZSet()
+                .rangeByScore(ACTIVE_KEY, minute - windowMinutes + 1, Double.POSITIVE_INFINITY);
+        List<Long> postIds = new ArrayList<>(members == null ? 0 : members.size());
+        if (members != null) {
+            for (String member : members) {
+                try {
+                    postIds.add(Long.valueOf(member));
+                } catch (NumberFormatException e) {
+                    log.debug("忽略无效的互动速度成员: {}", member);
+                }
+            }
+        }
+
+        long fromMinute = minute - windowMinutes + 1;
+        for (int from = 0; from < postIds.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> batch = postIds.subList(from, Math.min(postIds.size(), from + LOAD_BATCH_SIZE));
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long postId : batch) {
+                    connection.hashCommands().hGetAll((KEY_PREFIX + postId).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                if (results.get(i) instanceof Map<?, ?> buckets && !buckets.isEmpty()) {
+                    mergeWindow(batch.get(i), buckets, fromMinute);
+                }
+            }
+        }
+        lastLoadAt = System.currentTimeMillis();
+        lastLoadPosts = postIds.size();
+        return postIds.size();
+    }
+
+    private void mergeWindow(Long postId, Map<?, ?> buckets, long fromMinute) {
+        windows.compute(postId, (id, window) -> {
+            VelocityWindow target = window != null ? window : new VelocityWindow(windowMinutes);
+            for (Map.Entry<?, ?> bucket : buckets.entrySet()) {
+                long minute = Long.parseLong(bucket.getKey().toString());
+                if (minute >= fromMinute) {
+                    target.merge(minute, Double.parseDouble(bucket.getValue().toString()));
+                }
+            }
+            return target;
+        });
+    }
+
+    @PreDestroy
+    public void persistOnShutdown() {
+        try {
+            persist();
+        } catch (Exception e) {
+            log.error("停止前写入帖子互动速度失败", e);
+        }
+    }
+
+    private void refresh() {
+        long start = System.currentTimeMillis();
+        long minute = start / MILLIS_PER_MINUTE;
+        long idleBefore = minute - windowMinutes + 1;
+        PriorityQueue<PostVelocity> heap = new PriorityQueue<>(Comparator.comparingDouble(PostVelocity::getScore));
+        int bursts = 0;
+        for (Long postId : windows.keySet()) {
+            VelocityWindow window = windows.computeIfPresent(postId,
+                    (id, current) -> current.isIdle(idleBefore) ? null : current);
+            if (window == null) {
+                continue;
+            }
+            PostVelocity velocity = calculate(postId, window, minute);
+            if (!velocity.isBurst()) {
+                continue;
+            }
+            bursts++;
+            heap.offer(velocity);
+            if (heap.size() > Math.max(capacity, 0)) {
+                heap.poll();
+            }
+        }
+        List<PostVelocity> top = new ArrayList<>(heap);
+        top.sort(Comparator.comparingDouble(PostVelocity::getScore).reversed());
+        topBursts = List.copyOf(top);
+
+        lastBurstCount = bursts;
+        lastRefreshAt = System.currentTimeMillis();
+        lastRefreshMillis = lastRefreshAt - start;
+    }
+
+    private PostVelocity calculate(Long postId, VelocityWindow window, long minute) {
+        int size = Math.max(windowMinutes, 2);
+        int shortWindow = Math.max(1, Math.min(shortWindowMinutes, size / 2));
+        // 上界不含，当前分钟（尚未结束）计入最近的短窗口
+        long end = minute + 1;
+        double velocity = window.sum(end - shortWindow, end) / shortWindow;
+        double previous = window.sum(end - 2L * shortWindow, end - shortWindow) / shortWindow;
+        double baseline = window.sum(end - size, end - shortWindow) / (size - shortWindow);
+        double acceleration = velocity - previous;
+        boolean burst = velocity >= minVelocity && velocity >= burstRatio * baseline;
+        return new PostVelocity(postId, velocity, acceleration, baseline,
+                velocity + Math.max(acceleration, 0), burst);
+    }
+
+    private synchronized void persist() {
+        Map<Long, Map<Long, Double>> drained = new HashMap<>();
+        int buckets = 0;
+        for (Map.Entry<Long, VelocityWindow> entry : windows.entrySet()) {
+            Map<Long, Double> unflushed = entry.getValue().drainUnflushed();
+            if (!unflushed.isEmpty()) {
+                drained.put(entry.getKey(), unflushed);
+                buckets += unflushed.size();
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        long ttlSeconds = windowMinutes * 60L;
+        long minute = currentMinute();
+        byte[] activeKey = ACTIVE_KEY.getBytes(StandardCharsets.UTF_8);
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Map.Entry<Long, Map<Long, Double>> post : drained.entrySet()) {
+                    byte[] key = (KEY_PREFIX + post.getKey()).getBytes(StandardCharsets.UTF_8);
+                    for (Map.Entry<Long, Double> bucket : post.getValue().entrySet()) {
+                        connection.hashCommands().hIncrBy(key,
+                                String.valueOf(bucket.getKey()).getBytes(StandardCharsets.UTF_8), bucket.getValue());
+                    }
+                    connection.keyCommands().expire(key, ttlSeconds);
+                    // 成员分数与哈希的过期时间同步，窗口外的成员对应的哈希已过期
+                    connection.zSetCommands().zAdd(activeKey, minute,
+                            String.valueOf(post.getKey()).getBytes(StandardCharsets.UTF_8));
+                }
+                connection.zSetCommands().zRemRangeByScore(activeKey, Double.NEGATIVE_INFINITY, minute - windowMinutes);
+                return null;
+            });
+            persistedBuckets.addAndGet(buckets);
+            lastPersistAt = System.currentTimeMillis();
+        } catch (Exception e) {
+            failedPersists.incrementAndGet();
+            log.warn("帖子互动速度写入Redis失败，下次重试，帖子数: {}, 原因: {}", drained.size(), e.getMessage());
+            for (Map.Entry<Long, Map<Long, Double>> post : drained.entrySet()) {
+                VelocityWindow window = windows.get(post.getKey());
+                if (window != null) {
+                    post.getValue().forEach(window::restoreUnflushed);
+                }
+            }
+        }
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / MILLIS_PER_MINUTE;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("windowMinutes", windowMinutes);
+        stats.put("shortWindowMinutes", shortWindowMinutes);
+        stats.put("trackedPosts", windows.size());
+        stats.put("burstPosts", lastBurstCount);
+        stats.put("topSize", topBursts.size());
+        stats.put("recordedEvents", recordedEvents.get());
+        stats.put("persistedBuckets", persistedBuckets.get());
+        stats.put("failedPersists", failedPersists.get());
+        stats.put("lastRefreshAt", lastRefreshAt);
+        stats.put("lastRefreshMillis", lastRefreshMillis);
+        stats.put("lastPersistAt", lastPersistAt);
+        stats.put("lastLoadAt", lastLoadAt);
+        stats.put("lastLoadPosts", lastLoadPosts);
+        return stats;
+    }
+}
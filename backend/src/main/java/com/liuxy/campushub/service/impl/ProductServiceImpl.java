@@ -5,10 +5,12 @@ import com.liuxy.campushub.dto.ProductResponse;
 import com.liuxy.campushub.dto.ProductListResponse;
 import com.liuxy.campushub.entity.Product;
 import com.liuxy.campushub.entity.Image;
+import com.liuxy.campushub.exception.BusinessException;
 import com.liuxy.campushub.mapper.ProductMapper;
+import com.liuxy.campushub.model.PageCursor;
 import com.liuxy.campushub.service.ProductService;
 import com.liuxy.campushub.service.ImageService;
-import com.liuxy.campushub.utils.SecurityUtil;
+import com.liuxy.campushub.vo.ScrollResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
@@ -20,6 +22,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -41,7 +44,7 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional
-    public Long publishProduct(Long sellerId, ProductRequest request) {
+    public Long publishProduct(Long sellerId, String sellerUsername, ProductRequest request) {
         logger.info("发布商品，发布者ID：{}", sellerId);
         try {
             // 创建商品实体
@@ -50,8 +53,7 @@ public class ProductServiceImpl implements ProductService {
             product.setSellerId(sellerId);
             product.setStatus("出售中");
             product.setViewCount(0);
-            // 使用SecurityUtil获取当前用户名
-            product.setSellerUsername(SecurityUtil.getCurrentUsername());
+            product.setSellerUsername(sellerUsername);
 
             // 保存商品信息
             int result = productMapper.insert(product);
@@ -207,9 +209,12 @@ public class ProductServiceImpl implements ProductService {
             String status,
             String sortField,
             String sortOrder,
+            String cursor,
             Integer pageNum,
             Integer pageSize) {
         logger.info("查询商品列表");
+        // 游标无效时直接返回400，不被下面的异常处理包装
+        PageCursor pageCursor = PageCursor.decode(cursor);
         try {
             // 参数校验和预处理
             if (keyword != null) {
@@ -222,17 +227,27 @@ public class ProductServiceImpl implements ProductService {
                 searchType = "all";
             }
 
-            // 计算偏移量
-            int offset = (pageNum - 1) * pageSize;
+            if (!Arrays.asList("createTime", "price", "viewCount").contains(sortField)) {
+                sortField = "createTime";
+            }
+            boolean asc = "asc".equalsIgnoreCase(sortOrder);
+
+            // 有游标时按键集翻页，否则按页码
+            int offset = PageCursor.offsetOf(pageCursor, pageNum, pageSize);
 
-            // 查询商品列表
-            List<Product> products = productMapper.selectProductList(
+            // 查询商品列表（多查一条用于判断是否有下一页）
+            List<Product> rows = productMapper.selectProductList(
                 categoryId, keyword, searchType, minPrice, maxPrice, status,
-                sortField, sortOrder, offset, pageSize);
+                sortField, asc ? "ASC" : "DESC", cursorKey(pageCursor, sortField),
+                pageCursor != null ? pageCursor.getId() : null, offset, pageSize + 1);
+            String field = sortField;
+            ScrollResult<Product> page = ScrollResult.of(rows, pageSize,
+                product -> PageCursor.of(sortKeyOf(product, field, asc), product.getProductId()));
+            List<Product> products = page.getItems();
 
-            // 查询总记录数
-            Long total = productMapper.countProductList(
-                categoryId, keyword, searchType, minPrice, maxPrice, status);
+            // 总记录数只在页码模式下统计
+            Long total = pageCursor == null ? productMapper.countProductList(
+                categoryId, keyword, searchType, minPrice, maxPrice, status) : null;
 
             // 转换为响应DTO
             List<ProductResponse> productResponses = products.stream()
@@ -242,6 +257,7 @@ public class ProductServiceImpl implements ProductService {
                     return response;
                 })
                 .collect(Collectors.toList());
+            fillCoverThumbnails(productResponses);
 
             // 构建响应对象
             ProductListResponse response = new ProductListResponse();
@@ -249,6 +265,8 @@ public class ProductServiceImpl implements ProductService {
             response.setTotal(total);
             response.setPageNum(pageNum);
             response.setPageSize(pageSize);
+            response.setHasMore(page.isHasMore());
+            response.setNextCursor(page.getNextCursor());
 
             return response;
         } catch (Exception e) {
@@ -308,28 +326,34 @@ public class ProductServiceImpl implements ProductService {
             String status,
             String sortField,
             String sortOrder,
+            String cursor,
             Integer pageNum,
             Integer pageSize) {
         logger.info("查询用户发布的商品列表，用户ID：{}", userId);
+        PageCursor pageCursor = PageCursor.decode(cursor);
         try {
-            // 计算偏移量
-            int offset = (pageNum - 1) * pageSize;
-
-            // 映射排序字段到数据库列名
-            String dbSortField = switch (sortField) {
-                case "createTime" -> "create_time";
-                case "updateTime" -> "update_time";
-                case "price" -> "min_price";
-                case "viewCount" -> "view_count";
-                default -> "create_time";
+            int offset = PageCursor.offsetOf(pageCursor, pageNum, pageSize);
+            boolean asc = "asc".equalsIgnoreCase(sortOrder);
+
+            // 映射排序字段到排序列，价格按最低价生成列排序
+            String field = sortField == null ? "createTime" : sortField;
+            String sortColumn = switch (field) {
+                case "updateTime" -> "p.update_time";
+                case "price" -> "p.sort_price_low";
+                case "viewCount" -> "p.view_count";
+                default -> "p.create_time";
             };
 
-            // 查询商品列表
-            List<Product> products = productMapper.selectMyProducts(
-                userId, status, dbSortField, sortOrder, offset, pageSize);
+            // 查询商品列表（多查一条用于判断是否有下一页）
+            List<Product> rows = productMapper.selectMyProducts(
+                userId, status, sortColumn, asc ? "ASC" : "DESC", cursorKey(pageCursor, field),
+                pageCursor != null ? pageCursor.getId() : null, offset, pageSize + 1);
+            ScrollResult<Product> page = ScrollResult.of(rows, pageSize,
+                product -> PageCursor.of(myProductSortKeyOf(product, field), product.getProductId()));
+            List<Product> products = page.getItems();
 
-            // 查询总记录数
-            Long total = productMapper.countMyProducts(userId, status);
+            // 总记录数只在页码模式下统计
+            Long total = pageCursor == null ? productMapper.countMyProducts(userId, status) : null;
 
             // 转换为响应DTO
             List<ProductResponse> productResponses = products.stream()
@@ -339,6 +363,7 @@ public class ProductServiceImpl implements ProductService {
                     return response;
                 })
                 .collect(Collectors.toList());
+            fillCoverThumbnails(productResponses);
 
             // 构建响应对象
             ProductListResponse response = new ProductListResponse();
@@ -346,11 +371,86 @@ public class ProductServiceImpl implements ProductService {
             response.setTotal(total);
             response.setPageNum(pageNum);
             response.setPageSize(pageSize);
+            response.setHasMore(page.isHasMore());
+            response.setNextCursor(page.getNextCursor());
 
             return response;
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("查询用户发布的商品列表失败，用户ID：" + userId, e);
             throw new RuntimeException("查询用户发布的商品列表失败", e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 将游标中的排序值还原为与排序字段对应的类型
+     */
+    private Object cursorKey(PageCursor cursor, String sortField) {
+        if (cursor == null) {
+            return null;
+        }
+        return switch (sortField) {
+            case "price" -> cursor.getSortKeyAsDecimal();
+            case "viewCount" -> cursor.getSortKeyAsLong();
+            default -> cursor.getSortKeyAsLocalDateTime();
+        };
+    }
+
+    /**
+     * 计算商品列表中记录的排序值，与 ProductMapper.xml 中的 productSortExpr 保持一致
+     */
+    private Object sortKeyOf(Product product, String sortField, boolean asc) {
+        return switch (sortField) {
+            case "price" -> sortPrice(product, asc);
+            case "viewCount" -> product.getViewCount();
+            default -> product.getCreateTime();
+        };
+    }
+
+    /**
+     * 计算我的商品列表中记录的排序值
+     */
+    private Object myProductSortKeyOf(Product product, String sortField) {
+        return switch (sortField) {
+            case "updateTime" -> product.getUpdateTime();
+            case "price" -> sortPrice(product, true);
+            case "viewCount" -> product.getViewCount();
+            default -> product.getCreateTime();
+        };
+    }
+
+    /**
+     * 计算价格排序值，与 product 表生成列 sort_price_low / sort_price_high 的定义一致
+     *
+     * @param low true 取最低价列，false 取最高价列
+     */
+    private static BigDecimal sortPrice(Product product, boolean low) {
+        BigDecimal price = null;
+        if ("固定价".equals(product.getPriceType())) {
+            price = product.getExpectPrice();
+        } else if ("区间报价".equals(product.getPriceType())) {
+            price = low ? product.getMinPrice() : product.getMaxPrice();
+        }
+        return price == null ? BigDecimal.ZERO : price;
+    }
+
+    /**
+     * 用首张封面图的缩略图填充列表封面，一页只查询一次图片表
+     */
+    private void fillCoverThumbnails(List<ProductResponse> responses) {
+        List<String> firstCovers = responses.stream()
+            .filter(response -> response.getCoverImages() != null && !response.getCoverImages().isEmpty())
+            .map(response -> response.getCoverImages().get(0))
+            .collect(Collectors.toList());
+        if (firstCovers.isEmpty()) {
+            return;
+        }
+        Map<String, String> feedUrls = imageService.getFeedUrls(firstCovers);
+        for (ProductResponse response : responses) {
+            if (response.getCoverImages() != null && !response.getCoverImages().isEmpty()) {
+                response.setCoverThumbnail(feedUrls.get(response.getCoverImages().get(0)));
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.dto.TokenPair;
+import com.liuxy.campushub.exception.BusinessException;
+import com.liuxy.campushub.security.UserPrincipalCache;
+import com.liuxy.campushub.service.RefreshTokenService;
+import com.liuxy.campushub.service.TokenRevocationService;
+import com.liuxy.campushub.utils.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 刷新令牌服务实现类
+ * <p>
+ * Redis 中每个会话一个键 token:session:{sid}，值为当前有效的刷新令牌ID，过期时间随每次刷新顺延（滑动会话），
+ * 但不超过首次登录后的最长会话时间。比较并替换在一个 Lua 脚本中完成，并发刷新时只有一个请求成功。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final String SESSION_KEY_PREFIX = "token:session:";
+
+    /**
+     * 返回1：轮换成功；0：会话不存在或已过期；-1：令牌已被使用过，会话已删除
+     */
+    private static final RedisScript<Long> ROTATE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) " +
+            "if not current then return 0 end " +
+            "if current ~= ARGV[1] then redis.call('DEL', KEYS[1]) return -1 end " +
+            "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) " +
+            "return 1", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JwtTokenUtil jwtTokenUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserPrincipalCache userPrincipalCache;
+
+    @Value("${jwt.refresh.expiration:1209600}")
+    private long refreshExpirationSeconds;
+
+    @Value("${jwt.refresh.max-lifetime:2592000}")
+    private long maxLifetimeSeconds;
+
+    public RefreshTokenServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                   JwtTokenUtil jwtTokenUtil,
+                                   TokenRevocationService tokenRevocationService,
+                                   UserPrincipalCache userPrincipalCache) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userPrincipalCache = userPrincipalCache;
+    }
+
+    @Override
+    public TokenPair startSession(Long userId, String username, Integer role) {
+        String sessionId = UUID.randomUUID().toString();
+        String refreshTokenId = UUID.randomUUID().toString();
+        long authTime = System.currentTimeMillis() / 1000;
+        Date refreshExpiresAt = refreshExpiresAt(authTime);
+
+        stringRedisTemplate.opsForValue().set(SESSION_KEY_PREFIX + sessionId, refreshTokenId,
+                refreshExpiresAt.getTime() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        return new TokenPair(
+                jwtTokenUtil.generateToken(userId, username, role, sessionId),
+                jwtTokenUtil.generateRefreshToken(userId, username, role, refreshTokenId, sessionId,
+                        authTime, refreshExpiresAt));
+    }
+
+    @Override
+    public TokenPair refresh(String refreshToken) {
+        Claims claims = jwtTokenUtil.parseRefreshToken(refreshToken);
+        if (claims == null) {
+            throw new BusinessException(401, "刷新令牌无效或已过期");
+        }
+        String sessionId = claims.get(JwtTokenUtil.CLAIM_SESSION_ID, String.class);
+        String username = claims.get("username", String.class);
+        Long userId = claims.get("userId", Long.class);
+        Integer role = claims.get("role", Integer.class);
+        Long authTime = claims.get(JwtTokenUtil.CLAIM_AUTH_TIME, Long.class);
+        if (sessionId == null || username == null || authTime == null) {
+            throw new BusinessException(401, "刷新令牌无效或已过期");
+        }
+
+        if (System.currentTimeMillis() / 1000 - authTime >= maxLifetimeSeconds) {
+            terminate(sessionId);
+            throw new BusinessException(401, "登录已过期，请重新登录");
+        }
+        if (userPrincipalCache.get(username) == null) {
+            terminate(sessionId);
+            throw new BusinessException(401, "账户状态异常，请联系管理员");
+        }
+
+        String nextTokenId = UUID.randomUUID().toString();
+        Date refreshExpiresAt = refreshExpiresAt(authTime);
+        Long result = stringRedisTemplate.execute(ROTATE_SCRIPT, List.of(SESSION_KEY_PREFIX + sessionId),
+                claims.getId(), nextTokenId,
+                String.valueOf(Math.max(1, refreshExpiresAt.getTime() - System.currentTimeMillis())));
+
+        if (result == null || result == 0) {
+            throw new BusinessException(401, "登录已过期，请重新登录");
+        }
+        if (result < 0) {
+            // 已轮换掉的刷新令牌被再次使用，会话已在脚本中删除，同时吊销会话内的访问令牌
+            log.warn("检测到刷新令牌重复使用，结束会话: userId={}, sid={}", userId, sessionId);
+            revokeAccessTokens(sessionId);
+            throw new BusinessException(401, "登录状态已失效，请重新登录");
+        }
+
+        return new TokenPair(
+                jwtTokenUtil.generateToken(userId, username, role, sessionId),
+                jwtTokenUtil.generateRefreshToken(userId, username, role, nextTokenId, sessionId,
+                        authTime, refreshExpiresAt));
+    }
+
+    @Override
+    public void endSession(String accessToken) {
+        String sessionId;
+        try {
+            sessionId = jwtTokenUtil.parseToken(accessToken).get(JwtTokenUtil.CLAIM_SESSION_ID, String.class);
+        } catch (JwtException | IllegalArgumentException e) {
+            return;
+        }
+        jwtTokenUtil.invalidateToken(accessToken);
+        if (sessionId != null) {
+            terminate(sessionId);
+        }
+    }
+
+    private void terminate(String sessionId) {
+        stringRedisTemplate.delete(SESSION_KEY_PREFIX + sessionId);
+        revokeAccessTokens(sessionId);
+    }
+
+    /**
+     * 会话内签发的访问令牌都带有会话ID，按会话ID吊销即可全部失效，记录保留到最后一个访问令牌过期
+     */
+    private void revokeAccessTokens(String sessionId) {
+        tokenRevocationService.revoke(sessionId,
+                new Date(System.currentTimeMillis() + jwtTokenUtil.getExpiration() * 1000));
+    }
+
+    /**
+     * 刷新令牌过期时间：从现在起顺延，但不超过最长会话时间
+     */
+    private Date refreshExpiresAt(long authTime) {
+        long slidingExpiry = System.currentTimeMillis() + refreshExpirationSeconds * 1000;
+        long absoluteExpiry = (authTime + maxLifetimeSeconds) * 1000;
+        return new Date(Math.min(slidingExpiry, absoluteExpiry));
+    }
+}
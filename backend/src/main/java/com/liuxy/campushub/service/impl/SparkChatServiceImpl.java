@@ -4,13 +4,13 @@ import com.liuxy.campushub.config.SparkConfig;
 import com.liuxy.campushub.dto.SparkChatRequest;
 import com.liuxy.campushub.dto.SparkChatResponse;
 import com.liuxy.campushub.handler.SparkWebSocketHandler;
+import com.liuxy.campushub.service.AnswerCacheService;
 import com.liuxy.campushub.service.SparkChatService;
-import com.liuxy.campushub.utils.ApiAuthAlgorithm;
+import com.liuxy.campushub.util.ModelGateway;
+import okhttp3.WebSocket;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.web.socket.TextMessage;
-import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.client.standard.StandardWebSocketClient;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 import java.util.ArrayList;
@@ -26,36 +26,26 @@ public class SparkChatServiceImpl implements SparkChatService {
     @Autowired
     private SparkConfig sparkConfig;
 
+    @Autowired
+    @Qualifier("chatDocGateway")
+    private ModelGateway chatDocGateway;
+
+    @Autowired
+    private AnswerCacheService answerCacheService;
+
     @Override
     public SparkChatResponse chat(SparkChatRequest request) {
+        CompletableFuture<WebSocket> session = null;
         try {
-            // 生成鉴权参数
-            long timestamp = System.currentTimeMillis() / 1000;
-            String signature = ApiAuthAlgorithm.getSignature(
-                sparkConfig.getAppId(),
-                sparkConfig.getSecret(),
-                timestamp
-            );
+            // 相同或相近的问题直接返回缓存的答案
+            String knowledgeBaseId = String.valueOf(sparkConfig.getRepoId());
+            String cached = answerCacheService.get(knowledgeBaseId, request.getQuestion());
+            if (cached != null) {
+                return JSON.parseObject(cached, SparkChatResponse.class);
+            }
 
-            // 构建WebSocket URL - 使用知识库文档问答的URL
-            String url = String.format(
-                "wss://chatdoc.xfyun.cn/openapi/chat?appId=%s&timestamp=%d&signature=%s",
-                sparkConfig.getAppId(),
-                timestamp,
-                signature
-            );
-
-            // 创建WebSocket客户端
-            StandardWebSocketClient client = new StandardWebSocketClient();
-            
             // 创建CompletableFuture用于异步获取结果
             CompletableFuture<SparkChatResponse> future = new CompletableFuture<>();
-            
-            // 建立WebSocket连接
-            WebSocketSession session = client.execute(
-                new SparkWebSocketHandler(future),
-                url
-            ).get(10, TimeUnit.SECONDS);
 
             // 构建知识库问答请求
             Map<String, Object> requestBody = new HashMap<>();
@@ -76,13 +66,22 @@ public class SparkChatServiceImpl implements SparkChatService {
             chatExtends.put("qaMode", sparkConfig.getQaMode());
             requestBody.put("chatExtends", chatExtends);
 
-            // 发送消息
+            // 经由网关建立连接（复用客户端和签名地址，超出并发上限时排队）并发送消息
             String message = JSON.toJSONString(requestBody);
-            session.sendMessage(new TextMessage(message));
+            session = chatDocGateway.open(new SparkWebSocketHandler(future));
+            WebSocket webSocket = session.get(10, TimeUnit.SECONDS);
+            webSocket.send(message);
 
-            // 等待响应
-            return future.get(30, TimeUnit.SECONDS);
+            // 等待响应，只缓存成功的回答
+            SparkChatResponse response = future.get(30, TimeUnit.SECONDS);
+            if ((response.getCode() == null || response.getCode() == 0)
+                    && response.getContent() != null && !response.getContent().isBlank()) {
+                answerCacheService.put(knowledgeBaseId, request.getQuestion(), JSON.toJSONString(response));
+            }
+            return response;
         } catch (Exception e) {
+            // 排队或等待回答超时时放弃排队或断开上游连接，立即归还网关名额
+            chatDocGateway.cancel(session);
             SparkChatResponse response = new SparkChatResponse();
             response.setCode(500);
             response.setMessage("请求失败: " + e.getMessage());
@@ -5,40 +5,54 @@ import com.liuxy.campushub.entity.StudentUser;
 import com.liuxy.campushub.entity.Image;
 import com.liuxy.campushub.mapper.StudentUserMapper;
 import com.liuxy.campushub.mapper.ImageMapper;
+import com.liuxy.campushub.security.CurrentUserContext;
+import com.liuxy.campushub.security.LoginIdResolver;
+import com.liuxy.campushub.service.ImageVariantService;
+import com.liuxy.campushub.service.RefreshTokenService;
 import com.liuxy.campushub.service.StudentUserService;
-import com.liuxy.campushub.utils.JwtTokenUtil;
-import com.liuxy.campushub.util.SftpUtil;
+import com.liuxy.campushub.storage.BlobKeys;
+import com.liuxy.campushub.storage.BlobStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class StudentUserServiceImpl implements StudentUserService {
 
-    @Value("${upload.avatar.path:/data/images/avatars}")
-    private String avatarUploadPath;
-
-    @Value("${upload.avatar.url:http://117.72.104.119/avatars}")
-    private String avatarUrlPrefix;
-
     @Autowired
-    private JwtTokenUtil jwtTokenUtil;
+    private RefreshTokenService refreshTokenService;
 
     @Autowired
     private ImageMapper imageMapper;
 
     @Autowired
-    private SftpUtil sftpUtil;
+    private BlobStore blobStore;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
 
     private static final Logger logger = LoggerFactory.getLogger(StudentUserServiceImpl.class);
 
@@ -48,6 +62,38 @@ public class StudentUserServiceImpl implements StudentUserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private LoginIdResolver loginIdResolver;
+
+    @Autowired
+    private CurrentUserContext currentUserContext;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    @Qualifier("loginExecutor")
+    private ThreadPoolTaskExecutor loginExecutor;
+
+    private static final String LOGIN_FAILURE_KEY_PREFIX = "login:fail:";
+
+    /**
+     * 失败次数加一，没有过期时间时设置窗口（计数与过期在同一个脚本中完成，不会留下永不过期的计数）
+     */
+    private static final RedisScript<Long> RECORD_FAILURE_SCRIPT = new DefaultRedisScript<>(
+            "local count = redis.call('INCR', KEYS[1]) " +
+            "if redis.call('TTL', KEYS[1]) < 0 then redis.call('EXPIRE', KEYS[1], ARGV[1]) end " +
+            "return count", Long.class);
+
+    @Value("${login.rate-limit.max-failures:5}")
+    private int loginMaxFailures;
+
+    @Value("${login.rate-limit.window-seconds:300}")
+    private long loginFailureWindowSeconds;
+
+    @Value("${login.timeout-seconds:10}")
+    private long loginTimeoutSeconds;
+
     @Override
     @Transactional
     public RegisterResponse register(RegisterRequest request) {
@@ -127,7 +173,7 @@ public class StudentUserServiceImpl implements StudentUserService {
     @Override
     public UserInfoDTO getUserInfoById(Long userId) {
         logger.debug("查询用户详细信息，用户ID：{}", userId);
-        StudentUser user = studentUserMapper.selectById(userId);
+        StudentUser user = currentUserContext.findStudent(userId);
         if (user == null) {
             throw new RuntimeException("用户不存在");
         }
@@ -136,7 +182,7 @@ public class StudentUserServiceImpl implements StudentUserService {
         if (user.getAvatarImageId() != null) {
             Image image = imageMapper.selectById(Long.valueOf(user.getAvatarImageId()));
             if (image != null && image.getFilePath() != null) {
-                avatarUrl = avatarUrlPrefix + "/" + image.getFilePath();
+                avatarUrl = blobStore.url(BlobKeys.of(BlobKeys.AVATARS, image.getFilePath()));
             }
         }
         return UserInfoDTO.builder()
@@ -158,24 +204,43 @@ public class StudentUserServiceImpl implements StudentUserService {
 
     @Override
     public void logout(String token) {
-        jwtTokenUtil.invalidateToken(token);
+        refreshTokenService.endSession(token);
         logger.info("用户登出成功，令牌已失效");
     }
 
     @Override
-    public LoginResponse login(LoginRequest request) {
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
         logger.debug("开始处理登录请求，登录凭证：{}", request.getLoginId());
-        
+
+        // 失败次数检查在请求线程完成，超限的请求不进入线程池
+        if (failedAttempts(request.getLoginId()) >= loginMaxFailures) {
+            logger.warn("登录失败：凭证 [{}] 失败次数过多", request.getLoginId());
+            return CompletableFuture.completedFuture(
+                    LoginResponse.fail("登录失败次数过多，请" + loginFailureWindowSeconds / 60 + "分钟后再试"));
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(request), loginExecutor)
+                    .completeOnTimeout(LoginResponse.fail("登录超时，请稍后再试"), loginTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TaskRejectedException e) {
+            logger.warn("登录线程池已满，拒绝登录请求：{}", request.getLoginId());
+            return CompletableFuture.completedFuture(LoginResponse.fail("登录人数过多，请稍后再试"));
+        }
+    }
+
+    private LoginResponse authenticate(LoginRequest request) {
         // 根据登录凭证查询用户
-        StudentUser user = studentUserMapper.findByLoginId(request.getLoginId());
+        StudentUser user = loginIdResolver.resolve(request.getLoginId());
         if (user == null) {
             logger.warn("登录失败：未找到与 [{}] 关联的用户", request.getLoginId());
+            recordFailure(request.getLoginId());
             return LoginResponse.fail("用户不存在或凭证错误");
         }
 
         // 验证密码是否匹配
         if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
             logger.warn("登录失败：用户 [{}] 密码不匹配", request.getLoginId());
+            recordFailure(request.getLoginId());
             return LoginResponse.fail("密码错误");
         }
 
@@ -186,14 +251,54 @@ public class StudentUserServiceImpl implements StudentUserService {
             return LoginResponse.fail("账户状态异常，请联系管理员");
         }
 
+        clearFailures(request.getLoginId());
         logger.info("用户 [{}] 登录成功", user.getUsername());
-        String token = jwtTokenUtil.generateToken(user.getUserId(), user.getUsername(), user.getUserRole());
-        return LoginResponse.success(user.getUserId(), user.getUsername(), user.getUserRole(), token);
+        TokenPair tokens = refreshTokenService.startSession(user.getUserId(), user.getUsername(), user.getUserRole());
+        return LoginResponse.success(user.getUserId(), user.getUsername(), user.getUserRole(), tokens);
+    }
+
+    /**
+     * 当前窗口内的登录失败次数，Redis 不可用时不做限制
+     */
+    private long failedAttempts(String loginId) {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(failureKey(loginId));
+            return value != null ? Long.parseLong(value) : 0;
+        } catch (Exception e) {
+            logger.warn("读取登录失败次数失败：{}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private void recordFailure(String loginId) {
+        try {
+            stringRedisTemplate.execute(RECORD_FAILURE_SCRIPT, List.of(failureKey(loginId)),
+                    String.valueOf(loginFailureWindowSeconds));
+        } catch (Exception e) {
+            logger.warn("记录登录失败次数失败：{}", e.getMessage());
+        }
+    }
+
+    private void clearFailures(String loginId) {
+        try {
+            stringRedisTemplate.delete(failureKey(loginId));
+        } catch (Exception e) {
+            logger.warn("清除登录失败次数失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 失败计数的键：凭证去空白、转小写后取摘要，大小写或空格不同的写法共用一个计数，
+     * 任意长度、任意字符的输入也不会直接进入键名
+     */
+    private static String failureKey(String loginId) {
+        String normalized = loginId == null ? "" : loginId.trim().toLowerCase(Locale.ROOT);
+        return LOGIN_FAILURE_KEY_PREFIX + DigestUtils.md5DigestAsHex(normalized.getBytes(StandardCharsets.UTF_8));
     }
 
     @Override
     public UpdateResponse updateUserInfo(Long userId, UpdateUserRequest request) {
-        StudentUser user = studentUserMapper.selectById(userId);
+        StudentUser user = currentUserContext.findStudent(userId);
         if (user == null) {
             throw new RuntimeException("用户不存在");
         }
@@ -222,7 +327,7 @@ public class StudentUserServiceImpl implements StudentUserService {
 
     @Override
     public UpdateResponse changePassword(Long userId, ChangePasswordRequest request) {
-        StudentUser user = studentUserMapper.selectById(userId);
+        StudentUser user = currentUserContext.findStudent(userId);
         if (user == null) {
             throw new RuntimeException("用户不存在");
         }
@@ -249,7 +354,7 @@ public class StudentUserServiceImpl implements StudentUserService {
             userId, file.getOriginalFilename(), file.getSize(), file.getContentType());
 
         // 验证用户是否存在
-        StudentUser user = studentUserMapper.selectById(userId);
+        StudentUser user = currentUserContext.findStudent(userId);
         if (user == null) {
             return UpdateResponse.failure("用户不存在");
         }
@@ -260,9 +365,20 @@ public class StudentUserServiceImpl implements StudentUserService {
             return UpdateResponse.failure("只允许上传图片文件");
         }
 
+        // 扩展名决定文件被访问时的内容类型，只接受可内联显示的图片格式
+        String originalFilename = file.getOriginalFilename();
+        String imageType = BlobKeys.inlineImageType(originalFilename);
+        if (imageType == null) {
+            return UpdateResponse.failure("只允许上传jpg、png、gif、bmp、webp格式的图片");
+        }
+
         try {
-            // 使用SFTP上传文件
-            String filename = sftpUtil.uploadFile(file, avatarUploadPath);
+            // 上传文件到存储
+            String extension = originalFilename.substring(originalFilename.lastIndexOf(".")).toLowerCase();
+            String filename = BlobKeys.newFileName(extension);
+            try (InputStream in = file.getInputStream()) {
+                blobStore.put(BlobKeys.of(BlobKeys.AVATARS, filename), in, file.getSize(), imageType);
+            }
             logger.info("头像上传成功 - 用户ID: {}, 文件名: {}", userId, filename);
 
             // 插入图片信息到数据库
@@ -275,6 +391,7 @@ public class StudentUserServiceImpl implements StudentUserService {
             image.setUsageType("avatar");
             image.setUploadTime(LocalDateTime.now());
             imageMapper.insert(image);
+            imageVariantService.submitForImage(image.getId(), BlobKeys.of(BlobKeys.AVATARS, filename));
 
             // 更新用户头像ID
             user.setAvatarImageId(image.getId());
@@ -0,0 +1,205 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.service.TokenRevocationService;
+import com.liuxy.campushub.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌吊销服务实现类
+ * <p>
+ * Redis 中以 token:revoked:{jti} 保存吊销记录，过期时间与令牌剩余有效期一致。
+ * 吊销时通过 Redis 频道广播令牌ID，各实例收到后加入本地布隆过滤器。
+ * 布隆过滤器判定“不存在”时直接放行，判定“可能存在”时再查 Redis 确认。
+ * 布隆过滤器无法删除元素，定期从 Redis 中仍有效的记录重建，已过期令牌随之移出；
+ * 首次同步完成前所有判断都查询 Redis。
+ * <p>
+ * Redis 不可用时：布隆过滤器命中的令牌按已吊销处理，未命中的放行（首次同步前过滤器不完整，也按此处理），
+ * Redis 故障不会让所有用户被登出。写入 Redis 失败的吊销记录保存在本地并定期重试，
+ * 重建过滤器时一并加入，写入成功前不会丢失。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final String REVOKED_KEY_PREFIX = "token:revoked:";
+    private static final String REVOKED_CHANNEL = "token:revoked";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${security.revocation.expected-tokens:100000}")
+    private long expectedTokens;
+
+    @Value("${security.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+
+    // 重建期间收到的吊销同时写入新过滤器
+    private volatile BloomFilter rebuilding;
+
+    // 是否已从 Redis 完成过一次同步
+    private volatile boolean synced;
+
+    // 写入 Redis 失败、等待重试的吊销记录：令牌ID -> 过期时间（毫秒）
+    private final Map<String, Long> pendingRevocations = new ConcurrentHashMap<>();
+
+    public TokenRevocationServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                      RedisMessageListenerContainer listenerContainer) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedTokens, falsePositiveRate);
+        // 先订阅再同步，同步期间的吊销不会遗漏
+        listenerContainer.addMessageListener((message, pattern) ->
+                addLocal(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(REVOKED_CHANNEL));
+        rebuild();
+    }
+
+    @Override
+    public void revoke(String tokenId, Date expiresAt) {
+        if (tokenId == null || expiresAt == null) {
+            return;
+        }
+        long ttlMillis = expiresAt.getTime() - System.currentTimeMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+        // 先写 Redis 再写本地过滤器，与重建并发时重建扫描一定能看到这条记录
+        try {
+            stringRedisTemplate.opsForValue().set(REVOKED_KEY_PREFIX + tokenId, "1", ttlMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.error("令牌吊销记录写入Redis失败，本实例先行生效并稍后重试: {}", tokenId, e);
+            pendingRevocations.put(tokenId, expiresAt.getTime());
+            addLocal(tokenId);
+            return;
+        }
+        addLocal(tokenId);
+        publish(tokenId);
+    }
+
+    private void publish(String tokenId) {
+        try {
+            stringRedisTemplate.convertAndSend(REVOKED_CHANNEL, tokenId);
+        } catch (Exception e) {
+            log.warn("令牌吊销通知发送失败，其他实例将在下次重建后生效: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        Long pendingExpireAt = pendingRevocations.get(tokenId);
+        if (pendingExpireAt != null && pendingExpireAt > System.currentTimeMillis()) {
+            return true;
+        }
+        boolean mightBeRevoked = filter.mightContain(tokenId);
+        if (synced && !mightBeRevoked) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(REVOKED_KEY_PREFIX + tokenId));
+        } catch (Exception e) {
+            // 过滤器命中的令牌无法确认时按已吊销处理；首次同步前未命中的令牌放行，避免 Redis 故障时全部登出
+            log.warn("查询令牌吊销记录失败，按{}处理: {}, {}", mightBeRevoked ? "已吊销" : "未吊销", tokenId, e.getMessage());
+            return mightBeRevoked;
+        }
+    }
+
+    /**
+     * 重试写入 Redis 失败的吊销记录，写入成功后广播给其他实例
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.retry-interval-ms:10000}",
+            initialDelayString = "${security.revocation.retry-interval-ms:10000}")
+    public void retryPending() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Long> entry : pendingRevocations.entrySet()) {
+            String tokenId = entry.getKey();
+            long ttlMillis = entry.getValue() - now;
+            if (ttlMillis <= 0) {
+                pendingRevocations.remove(tokenId, entry.getValue());
+                continue;
+            }
+            try {
+                stringRedisTemplate.opsForValue().set(REVOKED_KEY_PREFIX + tokenId, "1", ttlMillis, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                log.warn("重试写入令牌吊销记录失败，待处理 {} 条: {}", pendingRevocations.size(), e.getMessage());
+                return;
+            }
+            pendingRevocations.remove(tokenId, entry.getValue());
+            publish(tokenId);
+        }
+    }
+
+    private synchronized void addLocal(String tokenId) {
+        filter.put(tokenId);
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(tokenId);
+        }
+    }
+
+    /**
+     * 从 Redis 中仍有效的吊销记录重建布隆过滤器
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.rebuild-interval-ms:600000}",
+            initialDelayString = "${security.revocation.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        BloomFilter next = new BloomFilter(expectedTokens, falsePositiveRate);
+        synchronized (this) {
+            rebuilding = next;
+        }
+        long count = 0;
+        // 尚未写入 Redis 的吊销记录扫描不到，直接加入新过滤器
+        long now = System.currentTimeMillis();
+        pendingRevocations.forEach((tokenId, expireAt) -> {
+            if (expireAt > now) {
+                next.put(tokenId);
+            }
+        });
+        ScanOptions options = ScanOptions.scanOptions().match(REVOKED_KEY_PREFIX + "*").count(1000).build();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                next.put(cursor.next().substring(REVOKED_KEY_PREFIX.length()));
+                count++;
+            }
+            synchronized (this) {
+                filter = next;
+                rebuilding = null;
+            }
+            synced = true;
+            log.debug("令牌吊销过滤器重建完成，有效记录数: {}", count);
+        } catch (Exception e) {
+            log.warn("令牌吊销过滤器重建失败，继续使用现有过滤器: {}", e.getMessage());
+            synchronized (this) {
+                rebuilding = null;
+            }
+        }
+        if (count > expectedTokens) {
+            log.warn("有效吊销记录数 {} 超过预期 {}，误判率将上升", count, expectedTokens);
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.liuxy.campushub.service.impl;
 
 import com.liuxy.campushub.entity.Topic;
 import com.liuxy.campushub.mapper.TopicMapper;
+import com.liuxy.campushub.model.PageCursor;
+import com.liuxy.campushub.service.PostDetailCacheService;
 import com.liuxy.campushub.service.TopicService;
+import com.liuxy.campushub.vo.ScrollResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +32,9 @@ public class TopicServiceImpl implements TopicService {
     @Autowired
     private TopicMapper topicMapper;
 
+    @Autowired
+    private PostDetailCacheService postDetailCacheService;
+
     @Override
     @Transactional
     public Integer createTopic(Topic topic) {
@@ -60,6 +66,7 @@ public class TopicServiceImpl implements TopicService {
     @Override
     @Transactional
     public boolean linkPostTopic(Long postId, Integer topicId) {
+        postDetailCacheService.evict(postId);
         return topicMapper.insertPostTopic(postId, topicId) > 0;
     }
 
@@ -78,6 +85,7 @@ public class TopicServiceImpl implements TopicService {
     @Override
     @Transactional
     public boolean unlinkPostTopic(Long postId, Integer topicId) {
+        postDetailCacheService.evict(postId);
         return topicMapper.unlinkPostTopic(postId, topicId) > 0;
     }
 
@@ -87,9 +95,14 @@ public class TopicServiceImpl implements TopicService {
     }
 
     @Override
-    public List<Topic> searchTopics(String keyword, int pageNum, int pageSize) {
-        int offset = (pageNum - 1) * pageSize;
-        return topicMapper.search(keyword, offset, pageSize);
+    public ScrollResult<Topic> searchTopics(String keyword, String cursor, int pageNum, int pageSize) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        List<Topic> topics = topicMapper.search(keyword,
+                pageCursor != null ? pageCursor.getSortKeyAsLong() : null,
+                pageCursor != null ? pageCursor.getId() : null,
+                PageCursor.offsetOf(pageCursor, pageNum, pageSize), pageSize + 1);
+        return ScrollResult.of(topics, pageSize,
+                topic -> PageCursor.of(topic.getUsageCount(), topic.getTopicId().longValue()));
     }
 
     @Override
@@ -127,6 +140,7 @@ public class TopicServiceImpl implements TopicService {
     public boolean unlinkAllPostTopics(Long postId) {
         try {
             logger.info("开始解除帖子与所有话题的关联，postId: {}", postId);
+            postDetailCacheService.evict(postId);
             
             // 获取帖子关联的所有话题ID
             List<Integer> topicIds = topicMapper.getTopicIdsByPostId(postId);
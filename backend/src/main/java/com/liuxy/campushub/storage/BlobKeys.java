@@ -0,0 +1,110 @@
+package com.liuxy.campushub.storage;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 对象键约定
+ * <p>
+ * 头像、帖子图片和附件沿用原来 avatars 目录下的平铺文件名；商品图片按日期分目录。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public final class BlobKeys {
+
+    /**
+     * 头像、帖子图片、附件
+     */
+    public static final String AVATARS = "avatars";
+
+    /**
+     * 商品图片
+     */
+    public static final String PRODUCTS = "products";
+
+    /**
+     * 允许浏览器内联显示的图片类型，按扩展名识别。
+     * 不含 svg 等可携带脚本的格式，其余文件一律按附件下载。
+     */
+    private static final Map<String, String> INLINE_IMAGE_TYPES = Map.of(
+            "jpg", "image/jpeg",
+            "jpeg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif",
+            "bmp", "image/bmp",
+            "webp", "image/webp");
+
+    private BlobKeys() {
+    }
+
+    /**
+     * 拼接对象键
+     *
+     * @param prefix 目录前缀
+     * @param name 文件名或相对路径
+     * @return 对象键
+     */
+    public static String of(String prefix, String name) {
+        return prefix + "/" + strip(name);
+    }
+
+    /**
+     * 生成文件名：年月日_时分秒_随机UUID.扩展名
+     *
+     * @param extension 扩展名，如 .jpg
+     * @return 文件名
+     */
+    public static String newFileName(String extension) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        return timestamp + "_" + UUID.randomUUID().toString().substring(0, 8) + extension;
+    }
+
+    /**
+     * 校验并规范化对象键：去掉开头的斜杠，拒绝空段、"." 和 ".." 以防越出存储根目录
+     *
+     * @param key 对象键
+     * @return 规范化后的键
+     * @throws IllegalArgumentException 键不合法
+     */
+    public static String normalize(String key) {
+        String stripped = key == null ? "" : strip(key);
+        if (stripped.isEmpty() || stripped.contains("\\")) {
+            throw new IllegalArgumentException("非法的对象键: " + key);
+        }
+        for (String segment : stripped.split("/", -1)) {
+            if (segment.isEmpty() || ".".equals(segment) || "..".equals(segment)) {
+                throw new IllegalArgumentException("非法的对象键: " + key);
+            }
+        }
+        return stripped;
+    }
+
+    /**
+     * 获取可内联显示的图片类型
+     *
+     * @param key 对象键或文件名
+     * @return 图片的内容类型，不在白名单中时返回null
+     */
+    public static String inlineImageType(String key) {
+        if (key == null) {
+            return null;
+        }
+        int dot = key.lastIndexOf('.');
+        if (dot < 0 || dot < key.lastIndexOf('/')) {
+            return null;
+        }
+        return INLINE_IMAGE_TYPES.get(key.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static String strip(String name) {
+        int start = 0;
+        while (start < name.length() && name.charAt(start) == '/') {
+            start++;
+        }
+        return name.substring(start);
+    }
+}
@@ -0,0 +1,109 @@
+package com.liuxy.campushub.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+
+/**
+ * 文件存储接口
+ * <p>
+ * 对象以相对键（如 avatars/20240407_120000_ab12cd34.jpg）寻址，与具体存储位置无关。
+ * 业务代码只依赖本接口，切换本地磁盘、SFTP 或 S3 兼容存储只需修改 storage.type 配置。
+ * 所有读写均为流式，不把整个文件读入内存。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public interface BlobStore {
+
+    /**
+     * 写入对象，已存在时覆盖
+     *
+     * @param key 对象键
+     * @param content 内容（由调用方关闭）
+     * @param contentLength 内容长度，未知时传 -1
+     * @param contentType 内容类型，可为null
+     */
+    void put(String key, InputStream content, long contentLength, String contentType) throws IOException;
+
+    /**
+     * 读取整个对象，调用方负责关闭返回的流
+     *
+     * @param key 对象键
+     * @return 内容流
+     * @throws java.nio.file.NoSuchFileException 对象不存在
+     */
+    InputStream get(String key) throws IOException;
+
+    /**
+     * 读取对象的一段内容，调用方负责关闭返回的流
+     *
+     * @param key 对象键
+     * @param offset 起始位置
+     * @param length 读取长度
+     * @return 内容流
+     * @throws java.nio.file.NoSuchFileException 对象不存在
+     */
+    InputStream getRange(String key, long offset, long length) throws IOException;
+
+    /**
+     * 获取对象大小
+     *
+     * @param key 对象键
+     * @return 字节数
+     * @throws java.nio.file.NoSuchFileException 对象不存在
+     */
+    long size(String key) throws IOException;
+
+    /**
+     * 删除对象，不存在时忽略
+     *
+     * @param key 对象键
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * 批量删除对象，单个失败只记录日志
+     *
+     * @param keys 对象键
+     * @return 成功删除的数量
+     */
+    int deleteAll(Collection<String> keys);
+
+    /**
+     * 获取对象的访问地址
+     *
+     * @param key 对象键
+     * @return 访问URL
+     */
+    String url(String key);
+
+    /**
+     * 由访问地址还原对象键
+     *
+     * @param url 访问URL
+     * @return 对象键，不是本存储的地址时返回null
+     */
+    String keyOf(String url);
+
+    /**
+     * 把对象的一段内容写入目标通道，用于下载接口输出
+     * <p>
+     * 默认实现经由 {@link #getRange} 复制，本地磁盘实现直接从 FileChannel 的指定位置写出
+     *
+     * @param key 对象键
+     * @param offset 起始位置
+     * @param length 长度
+     * @param target 目标通道
+     */
+    default void transferTo(String key, long offset, long length, WritableByteChannel target) throws IOException {
+        try (InputStream in = getRange(key, offset, length)) {
+            OutputStream out = Channels.newOutputStream(target);
+            in.transferTo(out);
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.liuxy.campushub.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * 本地磁盘存储
+ * <p>
+ * 写入先落到同目录下的临时文件再原子改名，读取方不会看到写了一半的文件。
+ * 输出时按请求的区段从 FileChannel 分块写出，不把整个文件读入内存。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public class LocalBlobStore implements BlobStore {
+    private static final Logger logger = LoggerFactory.getLogger(LocalBlobStore.class);
+
+    private final Path root;
+    private final String publicBaseUrl;
+
+    public LocalBlobStore(Path root, String publicBaseUrl) {
+        this.root = root.toAbsolutePath().normalize();
+        this.publicBaseUrl = publicBaseUrl;
+    }
+
+    private Path resolve(String key) {
+        return root.resolve(BlobKeys.normalize(key));
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        logger.debug("本地文件写入成功: {}", target);
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public InputStream getRange(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        channel.position(offset);
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public int deleteAll(Collection<String> keys) {
+        int deleted = 0;
+        for (String key : keys) {
+            try {
+                delete(key);
+                deleted++;
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("删除本地文件失败: {}, {}", key, e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public String url(String key) {
+        return publicBaseUrl + "/" + BlobKeys.normalize(key);
+    }
+
+    @Override
+    public String keyOf(String url) {
+        String prefix = publicBaseUrl + "/";
+        return url != null && url.startsWith(prefix) ? url.substring(prefix.length()) : null;
+    }
+
+    @Override
+    public void transferTo(String key, long offset, long length, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.liuxy.campushub.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按键的首段目录把对象分派到不同的存储
+ * <p>
+ * 用于让某些目录沿用原有的存储位置，例如商品图片仍写本地磁盘、头像仍写原来的SFTP目录，
+ * 其余对象写入默认存储。分派时去掉目录前缀，下层存储的根目录和访问地址即对应该目录本身。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public class RoutingBlobStore implements BlobStore, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RoutingBlobStore.class);
+
+    private final BlobStore fallback;
+    private final Map<String, BlobStore> routes;
+
+    /**
+     * @param fallback 默认存储，键不匹配任何目录时使用，键原样传入
+     * @param routes 目录前缀（如 products）到存储的映射
+     */
+    public RoutingBlobStore(BlobStore fallback, Map<String, BlobStore> routes) {
+        this.fallback = fallback;
+        this.routes = new LinkedHashMap<>(routes);
+    }
+
+    private record Target(BlobStore store, String key) {
+    }
+
+    private Target route(String key) {
+        String normalized = BlobKeys.normalize(key);
+        for (Map.Entry<String, BlobStore> route : routes.entrySet()) {
+            String prefix = route.getKey() + "/";
+            if (normalized.startsWith(prefix)) {
+                return new Target(route.getValue(), normalized.substring(prefix.length()));
+            }
+        }
+        return new Target(fallback, normalized);
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        Target target = route(key);
+        target.store().put(target.key(), content, contentLength, contentType);
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        Target target = route(key);
+        return target.store().get(target.key());
+    }
+
+    @Override
+    public InputStream getRange(String key, long offset, long length) throws IOException {
+        Target target = route(key);
+        return target.store().getRange(target.key(), offset, length);
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        Target target = route(key);
+        return target.store().size(target.key());
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Target target = route(key);
+        target.store().delete(target.key());
+    }
+
+    @Override
+    public int deleteAll(Collection<String> keys) {
+        Map<BlobStore, List<String>> grouped = new IdentityHashMap<>();
+        for (String key : keys) {
+            try {
+                Target target = route(key);
+                grouped.computeIfAbsent(target.store(), store -> new ArrayList<>()).add(target.key());
+            } catch (IllegalArgumentException e) {
+                logger.warn("跳过非法对象键: {}", key);
+            }
+        }
+        int deleted = 0;
+        for (Map.Entry<BlobStore, List<String>> group : grouped.entrySet()) {
+            deleted += group.getKey().deleteAll(group.getValue());
+        }
+        return deleted;
+    }
+
+    @Override
+    public String url(String key) {
+        Target target = route(key);
+        return target.store().url(target.key());
+    }
+
+    @Override
+    public String keyOf(String url) {
+        for (Map.Entry<String, BlobStore> route : routes.entrySet()) {
+            String key = route.getValue().keyOf(url);
+            if (key != null) {
+                return route.getKey() + "/" + key;
+            }
+        }
+        return fallback.keyOf(url);
+    }
+
+    @Override
+    public void transferTo(String key, long offset, long length, WritableByteChannel target) throws IOException {
+        Target routed = route(key);
+        routed.store().transferTo(routed.key(), offset, length, target);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (BlobStore store : routes.values()) {
+            if (store instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (fallback instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.liuxy.campushub.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * S3 兼容对象存储（AWS S3、MinIO 等）
+ * <p>
+ * 区间读取使用 HTTP Range 请求，批量删除按每批 1000 个键调用 DeleteObjects。
+ * 长度未知的内容先写入本地临时文件再上传，避免整段读入内存。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public class S3BlobStore implements BlobStore, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(S3BlobStore.class);
+
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final S3Client client;
+    private final String bucket;
+    private final String prefix;
+    private final String publicBaseUrl;
+
+    /**
+     * @param client S3客户端
+     * @param bucket 存储桶
+     * @param prefix 键前缀，可为空
+     * @param publicBaseUrl 对外访问地址（CDN 或存储桶域名）
+     */
+    public S3BlobStore(S3Client client, String bucket, String prefix, String publicBaseUrl) {
+        this.client = client;
+        this.bucket = bucket;
+        this.prefix = prefix == null || prefix.isBlank() ? "" : BlobKeys.normalize(prefix) + "/";
+        this.publicBaseUrl = publicBaseUrl;
+    }
+
+    private String resolve(String key) {
+        return prefix + BlobKeys.normalize(key);
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(resolve(key))
+                .contentType(contentType)
+                .build();
+        try {
+            if (contentLength >= 0) {
+                client.putObject(request, RequestBody.fromInputStream(content, contentLength));
+                return;
+            }
+            Path temp = Files.createTempFile("blob-", ".tmp");
+            try {
+                Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+                client.putObject(request, RequestBody.fromFile(temp));
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (S3Exception e) {
+            throw new IOException("对象写入失败: " + key + ", " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return open(key, null);
+    }
+
+    @Override
+    public InputStream getRange(String key, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        return open(key, "bytes=" + offset + "-" + (offset + length - 1));
+    }
+
+    private InputStream open(String key, String range) throws IOException {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(resolve(key))
+                .range(range)
+                .build();
+        try {
+            return client.getObject(request);
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (S3Exception e) {
+            throw new IOException("对象读取失败: " + key + ", " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        try {
+            return client.headObject(HeadObjectRequest.builder().bucket(bucket).key(resolve(key)).build())
+                    .contentLength();
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new NoSuchFileException(key);
+            }
+            throw new IOException("获取对象信息失败: " + key + ", " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(resolve(key)).build());
+        } catch (S3Exception e) {
+            throw new IOException("对象删除失败: " + key + ", " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int deleteAll(Collection<String> keys) {
+        List<ObjectIdentifier> batch = new ArrayList<>(Math.min(keys.size(), DELETE_BATCH_SIZE));
+        int deleted = 0;
+        for (String key : keys) {
+            try {
+                batch.add(ObjectIdentifier.builder().key(resolve(key)).build());
+            } catch (IllegalArgumentException e) {
+                logger.warn("跳过非法对象键: {}", key);
+                continue;
+            }
+            if (batch.size() == DELETE_BATCH_SIZE) {
+                deleted += deleteBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleted += deleteBatch(batch);
+        }
+        return deleted;
+    }
+
+    private int deleteBatch(List<ObjectIdentifier> batch) {
+        try {
+            DeleteObjectsResponse response = client.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(bucket)
+                    .delete(Delete.builder().objects(batch).quiet(true).build())
+                    .build());
+            response.errors().forEach(error ->
+                    logger.warn("删除对象失败: {}, {}", error.key(), error.message()));
+            return batch.size() - response.errors().size();
+        } catch (S3Exception e) {
+            logger.warn("批量删除对象失败: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public String url(String key) {
+        return publicBaseUrl + "/" + resolve(key);
+    }
+
+    @Override
+    public String keyOf(String url) {
+        String base = publicBaseUrl + "/" + prefix;
+        return url != null && url.startsWith(base) ? url.substring(base.length()) : null;
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+}
@@ -0,0 +1,187 @@
+package com.liuxy.campushub.storage;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.SftpException;
+import com.liuxy.campushub.util.SftpChannelPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.Collection;
+
+/**
+ * SFTP存储，通道从 {@link SftpChannelPool} 借用
+ * <p>
+ * 读取时通道一直占用到返回的流关闭为止；批量删除共用一个通道。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public class SftpBlobStore implements BlobStore {
+    private static final Logger logger = LoggerFactory.getLogger(SftpBlobStore.class);
+
+    private final SftpChannelPool channelPool;
+    private final String root;
+    private final String publicBaseUrl;
+
+    public SftpBlobStore(SftpChannelPool channelPool, String root, String publicBaseUrl) {
+        this.channelPool = channelPool;
+        this.root = root.endsWith("/") ? root.substring(0, root.length() - 1) : root;
+        this.publicBaseUrl = publicBaseUrl;
+    }
+
+    private String resolve(String key) {
+        return root + "/" + BlobKeys.normalize(key);
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        String path = resolve(key);
+        channelPool.execute(channel -> {
+            try {
+                channel.put(content, path);
+            } catch (SftpException e) {
+                if (e.id != ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+                    throw e;
+                }
+                // 目录不存在时逐级创建后重试，打开文件失败时内容流尚未被读取
+                mkdirs(channel, path.substring(0, path.lastIndexOf('/')));
+                channel.put(content, path);
+            }
+            return null;
+        });
+        logger.debug("SFTP文件写入成功: {}", path);
+    }
+
+    private void mkdirs(ChannelSftp channel, String dir) throws SftpException {
+        StringBuilder current = new StringBuilder();
+        for (String segment : dir.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            current.append('/').append(segment);
+            try {
+                channel.stat(current.toString());
+            } catch (SftpException e) {
+                if (e.id != ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+                    throw e;
+                }
+                channel.mkdir(current.toString());
+            }
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return open(key, 0, -1);
+    }
+
+    @Override
+    public InputStream getRange(String key, long offset, long length) throws IOException {
+        return open(key, offset, length);
+    }
+
+    private InputStream open(String key, long offset, long length) throws IOException {
+        String path = resolve(key);
+        ChannelSftp channel = channelPool.borrow();
+        InputStream in;
+        try {
+            in = offset > 0 ? channel.get(path, null, offset) : channel.get(path);
+        } catch (SftpException e) {
+            channelPool.release(channel, !channel.isConnected());
+            throw translate(e, path);
+        }
+        InputStream content = length >= 0 ? new BoundedInputStream(in, length) : in;
+        return new FilterInputStream(content) {
+            private boolean released;
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!released) {
+                        released = true;
+                        channelPool.release(channel, !channel.isConnected());
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        String path = resolve(key);
+        return channelPool.execute(channel -> {
+            try {
+                return channel.stat(path).getSize();
+            } catch (SftpException e) {
+                throw translate(e, path);
+            }
+        });
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        String path = resolve(key);
+        channelPool.execute(channel -> {
+            deleteQuietlyIfMissing(channel, path);
+            return null;
+        });
+    }
+
+    private void deleteQuietlyIfMissing(ChannelSftp channel, String path) throws SftpException {
+        try {
+            channel.rm(path);
+        } catch (SftpException e) {
+            if (e.id != ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public int deleteAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        try {
+            return channelPool.execute(channel -> {
+                int deleted = 0;
+                for (String key : keys) {
+                    try {
+                        deleteQuietlyIfMissing(channel, resolve(key));
+                        deleted++;
+                    } catch (SftpException | IllegalArgumentException e) {
+                        logger.warn("删除SFTP文件失败: {}, {}", key, e.getMessage());
+                    }
+                }
+                return deleted;
+            });
+        } catch (IOException e) {
+            logger.warn("批量删除SFTP文件失败: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public String url(String key) {
+        return publicBaseUrl + "/" + BlobKeys.normalize(key);
+    }
+
+    @Override
+    public String keyOf(String url) {
+        String prefix = publicBaseUrl + "/";
+        return url != null && url.startsWith(prefix) ? url.substring(prefix.length()) : null;
+    }
+
+    private IOException translate(SftpException e, String path) {
+        if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+            return new NoSuchFileException(path);
+        }
+        return new IOException("SFTP操作失败: " + path + ", " + e.getMessage(), e);
+    }
+}
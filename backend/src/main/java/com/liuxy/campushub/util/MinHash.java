@@ -0,0 +1,90 @@
+package com.liuxy.campushub.util;
+
+import java.util.Arrays;
+
+/**
+ * 基于字符 n-gram 的 MinHash 签名
+ * <p>
+ * 两个签名中相同位置取值相等的比例是对应 n-gram 集合 Jaccard 相似度的无偏估计，
+ * 签名长度固定，比较只需逐位对比，适合在内存中对大量短文本做近似去重和相似查找。
+ * 中文没有分词时按相邻两个字切分即可得到较好的效果。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public final class MinHash {
+
+    private final int shingleSize;
+    private final long[] seeds;
+
+    /**
+     * @param numHashes 签名长度，越长估计越准，常用 64~128
+     * @param shingleSize n-gram 长度
+     */
+    public MinHash(int numHashes, int shingleSize) {
+        this.shingleSize = Math.max(1, shingleSize);
+        this.seeds = new long[Math.max(1, numHashes)];
+        long seed = 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < seeds.length; i++) {
+            seed += 0x9e3779b97f4a7c15L;
+            seeds[i] = mix(seed);
+        }
+    }
+
+    /**
+     * 计算签名，文本短于 n-gram 长度时把整段文本作为一个 n-gram
+     */
+    public long[] signature(String text) {
+        long[] signature = new long[seeds.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        int count = Math.max(1, text.length() - shingleSize + 1);
+        for (int start = 0; start < count; start++) {
+            long base = hash(text, start, Math.min(text.length(), start + shingleSize));
+            for (int i = 0; i < seeds.length; i++) {
+                long h = mix(base ^ seeds[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * 估算两个签名对应文本的 Jaccard 相似度
+     */
+    public static double similarity(long[] a, long[] b) {
+        int length = Math.min(a.length, b.length);
+        if (length == 0) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / length;
+    }
+
+    /**
+     * 64位FNV-1a
+     */
+    private static long hash(String text, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
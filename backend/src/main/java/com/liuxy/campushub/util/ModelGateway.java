@@ -0,0 +1,376 @@
+package com.liuxy.campushub.util;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * 大模型 WebSocket 网关
+ * <p>
+ * 所有会话共用同一个 OkHttpClient（连接池、DNS 缓存、TLS 会话复用）。签名后的鉴权地址在有效期内复用，
+ * 不再为每次对话重新计算 HMAC。同时打开的上游会话数有上限，超出的请求按到达顺序排队，
+ * 排队不阻塞调用线程，超过等待时间或队列已满时直接失败。
+ * 会话在上游关闭、失败或被调用方取消时归还名额，由排在最前面的请求接替。
+ * 构造时只依赖客户端和签名函数，可以直接指向测试用的本地 WebSocket 服务器。
+ *
+ * @author liuxy
+ * @since 2024-04-07
+ */
+public class ModelGateway implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ModelGateway.class);
+
+    private final String name;
+    private final OkHttpClient client;
+    private final LongFunction<String> urlSigner;
+    private final Settings settings;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Pending> waiting = new ArrayDeque<>();
+    private int active;
+    private boolean closed;
+    private volatile SignedUrl signedUrl;
+
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong queueTimeouts = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong signatures = new AtomicLong();
+    private final AtomicLong queueWaitTotalMillis = new AtomicLong();
+    private final AtomicLong queueWaitMaxMillis = new AtomicLong();
+    private final AtomicLong firstMessageCount = new AtomicLong();
+    private final AtomicLong firstMessageTotalMillis = new AtomicLong();
+    private final AtomicLong firstMessageMaxMillis = new AtomicLong();
+
+    /**
+     * 网关参数
+     *
+     * @param maxSessions 同时打开的上游会话上限
+     * @param maxQueue 排队请求上限
+     * @param queueTimeout 排队等待超时
+     * @param authUrlTtl 签名地址的复用时间，需小于服务端允许的时钟偏差
+     */
+    public record Settings(int maxSessions, int maxQueue, Duration queueTimeout, Duration authUrlTtl) {
+    }
+
+    private record SignedUrl(String url, long signedAtMillis) {
+    }
+
+    /**
+     * @param name 网关名称，用于日志
+     * @param client 共用的 HTTP 客户端
+     * @param urlSigner 以秒级时间戳生成带鉴权参数的完整地址
+     * @param settings 网关参数
+     */
+    public ModelGateway(String name, OkHttpClient client, LongFunction<String> urlSigner, Settings settings) {
+        this.name = name;
+        this.client = client;
+        this.urlSigner = urlSigner;
+        this.settings = settings;
+        logger.info("模型网关已创建 - 名称: {}, 最大会话数: {}, 最大排队数: {}",
+                name, settings.maxSessions(), settings.maxQueue());
+    }
+
+    /**
+     * 打开一个上游会话
+     * <p>
+     * 有空闲名额时立即建立连接，否则排队。返回的 Future 在连接请求发出后完成，可以立即 send，
+     * 消息由 OkHttp 在握手成功后发送。调用方不再需要结果时应调用 {@link #cancel(CompletableFuture)}；
+     * 队列已满时以 RejectedExecutionException 失败，排队超时以 TimeoutException 失败。
+     *
+     * @param listener 上游消息监听器，回调在 OkHttp 的读线程中执行
+     * @return 上游连接
+     */
+    public CompletableFuture<WebSocket> open(WebSocketListener listener) {
+        Pending pending = new Pending(listener);
+        synchronized (lock) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("模型网关已关闭"));
+            }
+            if (active < settings.maxSessions() && waiting.isEmpty()) {
+                active++;
+            } else if (waiting.size() >= settings.maxQueue()) {
+                rejected.incrementAndGet();
+                return CompletableFuture.failedFuture(new RejectedExecutionException("模型服务繁忙，请稍后再试"));
+            } else {
+                waiting.add(pending);
+                pending.future.orTimeout(settings.queueTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .whenComplete((ws, e) -> {
+                            if (e != null) {
+                                onLeftQueue(pending, e);
+                            }
+                        });
+                return pending.future;
+            }
+        }
+        connect(pending);
+        return pending.future;
+    }
+
+    /**
+     * 排队中的请求超时或被调用方取消
+     */
+    private void onLeftQueue(Pending pending, Throwable e) {
+        boolean removed;
+        synchronized (lock) {
+            removed = waiting.remove(pending);
+        }
+        if (removed && e instanceof TimeoutException) {
+            queueTimeouts.incrementAndGet();
+        }
+    }
+
+    private void connect(Pending pending) {
+        long waited = System.currentTimeMillis() - pending.enqueuedAtMillis;
+        queueWaitTotalMillis.addAndGet(waited);
+        queueWaitMaxMillis.accumulateAndGet(waited, Math::max);
+
+        Session session;
+        try {
+            Request request = new Request.Builder().url(authUrl()).build();
+            TrackingListener listener = new TrackingListener(pending);
+            session = new Session(client.newWebSocket(request, listener), listener);
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            pending.future.completeExceptionally(e);
+            release();
+            return;
+        }
+        opened.incrementAndGet();
+        if (!pending.future.complete(session)) {
+            // 调用方在名额交接期间已经取消
+            session.cancel();
+        }
+    }
+
+    /**
+     * 放弃一个会话：仍在排队时退出队列，已建立连接时断开连接并立即归还名额
+     * <p>
+     * 调用方等待结果超时或提前结束时调用，不必等上游关闭连接。会话已结束时为空操作。
+     *
+     * @param session open 返回的上游连接，可以为 null
+     */
+    public void cancel(CompletableFuture<WebSocket> session) {
+        if (session == null || session.cancel(true) || session.isCompletedExceptionally()) {
+            return;
+        }
+        session.join().cancel();
+    }
+
+    /**
+     * 归还名额，优先交给队首仍在等待的请求
+     */
+    private void release() {
+        Pending next;
+        synchronized (lock) {
+            do {
+                next = waiting.poll();
+            } while (next != null && next.future.isDone());
+            if (next == null) {
+                active--;
+                return;
+            }
+        }
+        connect(next);
+    }
+
+    private String authUrl() {
+        SignedUrl current = signedUrl;
+        long now = System.currentTimeMillis();
+        if (current == null || now - current.signedAtMillis() >= settings.authUrlTtl().toMillis()) {
+            current = new SignedUrl(urlSigner.apply(now / 1000), now);
+            signedUrl = current;
+            signatures.incrementAndGet();
+        }
+        return current.url();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取网关统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (lock) {
+            stats.put("active", active);
+            stats.put("queued", waiting.size());
+        }
+        long connected = opened.get();
+        long firstMessages = firstMessageCount.get();
+        stats.put("maxSessions", settings.maxSessions());
+        stats.put("maxQueue", settings.maxQueue());
+        stats.put("opened", connected);
+        stats.put("rejected", rejected.get());
+        stats.put("queueTimeouts", queueTimeouts.get());
+        stats.put("failures", failures.get());
+        stats.put("signatures", signatures.get());
+        stats.put("meanQueueWaitMillis", connected == 0 ? 0 : queueWaitTotalMillis.get() / connected);
+        stats.put("maxQueueWaitMillis", queueWaitMaxMillis.get());
+        stats.put("meanFirstMessageMillis", firstMessages == 0 ? 0 : firstMessageTotalMillis.get() / firstMessages);
+        stats.put("maxFirstMessageMillis", firstMessageMaxMillis.get());
+        return stats;
+    }
+
+    /**
+     * 拒绝新的请求并让排队中的请求失败，已打开的会话不受影响
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            Pending pending;
+            while ((pending = waiting.poll()) != null) {
+                pending.future.completeExceptionally(new RejectedExecutionException("模型网关已关闭"));
+            }
+        }
+        logger.info("模型网关已关闭 - 名称: {}", name);
+    }
+
+    private static final class Pending {
+        private final WebSocketListener listener;
+        private final long enqueuedAtMillis = System.currentTimeMillis();
+        private final CompletableFuture<WebSocket> future = new CompletableFuture<>();
+
+        private Pending(WebSocketListener listener) {
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * 交给调用方的上游连接，cancel 时除断开连接外立即归还名额，不等 OkHttp 回调 onFailure
+     */
+    private static final class Session implements WebSocket {
+        private final WebSocket delegate;
+        private final TrackingListener listener;
+
+        private Session(WebSocket delegate, TrackingListener listener) {
+            this.delegate = delegate;
+            this.listener = listener;
+        }
+
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @Override
+        public long queueSize() {
+            return delegate.queueSize();
+        }
+
+        @Override
+        public boolean send(String text) {
+            return delegate.send(text);
+        }
+
+        @Override
+        public boolean send(ByteString bytes) {
+            return delegate.send(bytes);
+        }
+
+        @Override
+        public boolean close(int code, String reason) {
+            return delegate.close(code, reason);
+        }
+
+        @Override
+        public void cancel() {
+            delegate.cancel();
+            listener.releaseOnce();
+        }
+    }
+
+    /**
+     * 转发回调，同时记录首条消息延迟，并在会话结束时归还名额（只归还一次）
+     */
+    private final class TrackingListener extends WebSocketListener {
+        private final Pending pending;
+        private final long connectStartMillis = System.currentTimeMillis();
+        private final AtomicBoolean firstMessage = new AtomicBoolean(true);
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private TrackingListener(Pending pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket, Response response) {
+            pending.listener.onOpen(webSocket, response);
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            recordFirstMessage();
+            pending.listener.onMessage(webSocket, text);
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, ByteString bytes) {
+            recordFirstMessage();
+            pending.listener.onMessage(webSocket, bytes);
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            pending.listener.onClosing(webSocket, code, reason);
+            // 回应对端的关闭帧，调用方已经关闭过时为空操作
+            webSocket.close(code, null);
+        }
+
+        @Override
+        public void onClosed(WebSocket webSocket, int code, String reason) {
+            try {
+                pending.listener.onClosed(webSocket, code, reason);
+            } finally {
+                releaseOnce();
+            }
+        }
+
+        @Override
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+            failures.incrementAndGet();
+            logger.debug("模型网关上游连接失败 - 名称: {}, 原因: {}", name, t.getMessage());
+            try {
+                pending.listener.onFailure(webSocket, t, response);
+            } finally {
+                releaseOnce();
+            }
+        }
+
+        private void recordFirstMessage() {
+            if (firstMessage.compareAndSet(true, false)) {
+                long elapsed = System.currentTimeMillis() - connectStartMillis;
+                firstMessageCount.incrementAndGet();
+                firstMessageTotalMillis.addAndGet(elapsed);
+                firstMessageMaxMillis.accumulateAndGet(elapsed, Math::max);
+            }
+        }
+
+        private void releaseOnce() {
+            if (released.compareAndSet(false, true)) {
+                release();
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.liuxy.campushub.util;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpException;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectState;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * SFTP通道池
+ * <p>
+ * 每个池化对象是一条独立的SSH会话及其上的SFTP通道，并发上传分别走不同的TCP连接，
+ * 不受单个会话的通道数限制和窗口大小影响。借出时只检查连接状态，空闲时由驱逐线程
+ * 发送一次 realpath 请求做健康检查，超过空闲时间的通道会被关闭。
+ * 构造时只依赖连接参数，可以直接指向测试用的内嵌SSH服务器。
+ */
+public class SftpChannelPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SftpChannelPool.class);
+
+    private final GenericObjectPool<ChannelSftp> pool;
+
+    /**
+     * 在借出的通道上执行的操作
+     */
+    @FunctionalInterface
+    public interface ChannelCallback<T> {
+        T doInChannel(ChannelSftp channel) throws SftpException, IOException;
+    }
+
+    /**
+     * 连接池参数
+     *
+     * @param minIdle 最少空闲通道数
+     * @param maxTotal 最大通道数
+     * @param maxWait 借用等待超时
+     * @param idleTimeout 空闲多久后关闭
+     * @param evictionInterval 驱逐及健康检查间隔
+     * @param connectTimeout 建立会话/通道的超时
+     */
+    public record Settings(int minIdle, int maxTotal, Duration maxWait, Duration idleTimeout,
+                           Duration evictionInterval, Duration connectTimeout) {
+    }
+
+    /**
+     * 创建通道池，通道在首次借用时建立
+     *
+     * @param knownHosts known_hosts 格式的服务器公钥文件，连接时严格校验服务器身份
+     */
+    public SftpChannelPool(String host, int port, String username, String password, String knownHosts,
+                           Settings settings) {
+        GenericObjectPoolConfig<ChannelSftp> config = new GenericObjectPoolConfig<>();
+        config.setMinIdle(settings.minIdle());
+        config.setMaxIdle(settings.maxTotal());
+        config.setMaxTotal(settings.maxTotal());
+        config.setMaxWait(settings.maxWait());
+        config.setBlockWhenExhausted(true);
+        config.setTestOnBorrow(true);
+        config.setTestWhileIdle(true);
+        config.setMinEvictableIdleDuration(settings.idleTimeout());
+        config.setTimeBetweenEvictionRuns(settings.evictionInterval());
+        config.setJmxEnabled(false);
+        this.pool = new GenericObjectPool<>(
+                new ChannelFactory(host, port, username, password, knownHosts,
+                        (int) settings.connectTimeout().toMillis()),
+                config);
+        logger.info("SFTP通道池已创建 - 主机: {}, 端口: {}, 最大通道数: {}", host, port, settings.maxTotal());
+    }
+
+    /**
+     * 借出一个通道执行操作后归还；连接层面出错的通道直接销毁，不再放回池中
+     *
+     * @param callback 操作
+     * @return 操作结果
+     */
+    public <T> T execute(ChannelCallback<T> callback) throws IOException {
+        ChannelSftp channel = borrow();
+        boolean broken = false;
+        try {
+            return callback.doInChannel(channel);
+        } catch (SftpException e) {
+            broken = isConnectionError(e) || !channel.isConnected();
+            throw new IOException(e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            broken = !channel.isConnected();
+            throw e;
+        } finally {
+            release(channel, broken);
+        }
+    }
+
+    /**
+     * 借出通道，调用方负责通过 {@link #release(ChannelSftp, boolean)} 归还
+     */
+    public ChannelSftp borrow() throws IOException {
+        try {
+            return pool.borrowObject();
+        } catch (NoSuchElementException e) {
+            throw new IOException("获取SFTP通道超时", e);
+        } catch (Exception e) {
+            throw new IOException("SFTP连接失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 归还通道
+     *
+     * @param channel 通道
+     * @param broken 是否已损坏，损坏的通道会被销毁
+     */
+    public void release(ChannelSftp channel, boolean broken) {
+        try {
+            if (broken) {
+                pool.invalidateObject(channel);
+            } else {
+                pool.returnObject(channel);
+            }
+        } catch (Exception e) {
+            logger.warn("归还SFTP通道失败: {}", e.getMessage());
+        }
+    }
+
+    private boolean isConnectionError(SftpException e) {
+        return e.id == ChannelSftp.SSH_FX_NO_CONNECTION
+                || e.id == ChannelSftp.SSH_FX_CONNECTION_LOST
+                || e.getCause() instanceof IOException;
+    }
+
+    /**
+     * 获取连接池统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("active", pool.getNumActive());
+        stats.put("idle", pool.getNumIdle());
+        stats.put("waiters", pool.getNumWaiters());
+        stats.put("maxTotal", pool.getMaxTotal());
+        stats.put("created", pool.getCreatedCount());
+        stats.put("destroyed", pool.getDestroyedCount());
+        stats.put("destroyedByEviction", pool.getDestroyedByEvictorCount());
+        stats.put("destroyedByValidation", pool.getDestroyedByBorrowValidationCount());
+        stats.put("borrowed", pool.getBorrowedCount());
+        stats.put("returned", pool.getReturnedCount());
+        stats.put("meanBorrowWaitMillis", pool.getMeanBorrowWaitDuration().toMillis());
+        stats.put("maxBorrowWaitMillis", pool.getMaxBorrowWaitDuration().toMillis());
+        stats.put("meanActiveMillis", pool.getMeanActiveDuration().toMillis());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+        logger.info("SFTP通道池已关闭");
+    }
+
+    /**
+     * 创建、校验、销毁通道，每个通道独占一条SSH会话
+     */
+    private static final class ChannelFactory extends BasePooledObjectFactory<ChannelSftp> {
+        private final String host;
+        private final int port;
+        private final String username;
+        private final String password;
+        private final String knownHosts;
+        private final int connectTimeoutMillis;
+
+        private ChannelFactory(String host, int port, String username, String password, String knownHosts,
+                               int connectTimeoutMillis) {
+            this.host = host;
+            this.port = port;
+            this.username = username;
+            this.password = password;
+            this.knownHosts = knownHosts;
+            this.connectTimeoutMillis = connectTimeoutMillis;
+        }
+
+        @Override
+        public ChannelSftp create() throws JSchException {
+            if (knownHosts == null || knownHosts.isBlank()) {
+                throw new JSchException("未配置SFTP服务器公钥文件 sftp.known-hosts");
+            }
+            // 服务器公钥不在 known_hosts 中或与记录不符时拒绝连接，防止中间人攻击
+            JSch jsch = new JSch();
+            jsch.setKnownHosts(knownHosts);
+            Session session = jsch.getSession(username, host, port);
+            session.setPassword(password);
+            session.setConfig("StrictHostKeyChecking", "yes");
+            try {
+                session.connect(connectTimeoutMillis);
+                ChannelSftp channel = (ChannelSftp) session.openChannel("sftp");
+                channel.connect(connectTimeoutMillis);
+                logger.debug("新建SFTP通道 - 主机: {}", host);
+                return channel;
+            } catch (JSchException e) {
+                session.disconnect();
+                logger.error("SFTP连接失败: {}", e.getMessage());
+                throw e;
+            }
+        }
+
+        @Override
+        public PooledObject<ChannelSftp> wrap(ChannelSftp channel) {
+            return new DefaultPooledObject<>(channel);
+        }
+
+        @Override
+        public boolean validateObject(PooledObject<ChannelSftp> pooled) {
+            ChannelSftp channel = pooled.getObject();
+            if (!isOpen(channel)) {
+                return false;
+            }
+            // 借出时只检查连接状态；空闲检测时才往返一次服务器
+            if (pooled.getState() == PooledObjectState.EVICTION) {
+                try {
+                    channel.realpath(".");
+                } catch (SftpException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void destroyObject(PooledObject<ChannelSftp> pooled) {
+            ChannelSftp channel = pooled.getObject();
+            Session session = null;
+            try {
+                session = channel.getSession();
+            } catch (JSchException ignored) {
+                // 通道未连接时没有会话
+            }
+            channel.disconnect();
+            if (session != null) {
+                session.disconnect();
+            }
+        }
+
+        private boolean isOpen(ChannelSftp channel) {
+            try {
+                return channel.isConnected() && !channel.isClosed() && channel.getSession().isConnected();
+            } catch (JSchException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -1,97 +1,29 @@
 package com.liuxy.campushub.util;
 
 import com.jcraft.jsch.*;
+import com.liuxy.campushub.storage.BlobKeys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Properties;
+import java.util.Map;
 import java.util.Vector;
-import java.util.UUID;
 
+/**
+ * SFTP文件操作工具，所有操作都从 {@link SftpChannelPool} 借用通道，可在多个线程中并发调用
+ */
 @Component
 public class SftpUtil {
     private static final Logger logger = LoggerFactory.getLogger(SftpUtil.class);
 
-    @Value("${sftp.host}")
-    private String host;
+    private final SftpChannelPool channelPool;
 
-    @Value("${sftp.port}")
-    private int port;
-
-    @Value("${sftp.username}")
-    private String username;
-
-    @Value("${sftp.password}")
-    private String password;
-
-    @Value("${sftp.remote-path}")
-    private String remotePath;
-
-    private ChannelSftp channelSftp;
-    private Session session;
-
-    public void connect() throws JSchException {
-        try {
-            JSch jsch = new JSch();
-            session = jsch.getSession(username, host, port);
-            session.setPassword(password);
-
-            Properties config = new Properties();
-            config.put("StrictHostKeyChecking", "no");
-            session.setConfig(config);
-
-            logger.info("正在连接SFTP服务器 - 主机: {}, 端口: {}, 用户名: {}", host, port, username);
-            session.connect();
-            logger.info("SFTP服务器连接成功");
-
-            Channel channel = session.openChannel("sftp");
-            channel.connect();
-            channelSftp = (ChannelSftp) channel;
-            logger.info("SFTP通道已打开");
-        } catch (JSchException e) {
-            logger.error("SFTP连接失败: {}", e.getMessage());
-            throw e;
-        }
-    }
-
-    public void disconnect() {
-        if (channelSftp != null && channelSftp.isConnected()) {
-            channelSftp.disconnect();
-            logger.info("SFTP通道已关闭");
-        }
-        if (session != null && session.isConnected()) {
-            session.disconnect();
-            logger.info("SFTP会话已关闭");
-        }
-    }
-
-    private void ensureDirectoryExists(String path) throws IOException {
-        try {
-            logger.info("检查目录是否存在: {}", path);
-            channelSftp.ls(path);
-            logger.info("目录已存在: {}", path);
-        } catch (SftpException e) {
-            if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
-                logger.info("目录不存在，尝试创建: {}", path);
-                try {
-                    channelSftp.mkdir(path);
-                    logger.info("成功创建目录: {}", path);
-                } catch (SftpException ex) {
-                    logger.error("创建目录失败: {} - {}", path, ex.getMessage());
-                    throw new IOException("创建目录失败: " + ex.getMessage());
-                }
-            } else {
-                logger.error("检查目录失败: {} - {}", path, e.getMessage());
-                throw new IOException("检查目录失败: " + e.getMessage());
-            }
-        }
+    public SftpUtil(SftpChannelPool channelPool) {
+        this.channelPool = channelPool;
     }
 
     /**
@@ -102,38 +34,36 @@ public class SftpUtil {
      * @return 上传后的文件名
      */
     public String uploadFile(MultipartFile file, String remotePath) throws IOException {
-        if (channelSftp == null || !channelSftp.isConnected()) {
-            try {
-                connect();
-            } catch (JSchException e) {
-                throw new IOException("SFTP连接失败: " + e.getMessage());
-            }
+        logger.info("开始SFTP上传文件，远程路径: {}", remotePath);
+        String originalFilename = file.getOriginalFilename();
+        String extension = originalFilename != null && originalFilename.contains(".")
+                ? originalFilename.substring(originalFilename.lastIndexOf(".")) : "";
+        try (InputStream inputStream = file.getInputStream()) {
+            return uploadStream(inputStream, remotePath, extension);
         }
+    }
 
+    /**
+     * 以流的方式上传文件
+     *
+     * @param inputStream 文件内容（由调用方关闭）
+     * @param remotePath 远程路径
+     * @param extension 扩展名，如 .jpg
+     * @return 上传后的文件名
+     */
+    public String uploadStream(InputStream inputStream, String remotePath, String extension) throws IOException {
+        String filename = BlobKeys.newFileName(extension);
+        String fullPath = remotePath + "/" + filename;
         try {
-            logger.info("开始SFTP上传文件，远程路径: {}", remotePath);
-            logger.info("SFTP连接状态: {}", channelSftp.isConnected() ? "已连接" : "未连接");
-
-            // 生成文件名：年月日_时分秒_随机UUID.扩展名
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String filename = timestamp + "_" + UUID.randomUUID().toString().substring(0, 8) + extension;
-            
-            // 上传文件
-            String fullPath = remotePath + "/" + filename;
-            logger.info("开始上传文件: {}", fullPath);
-            try (InputStream inputStream = file.getInputStream()) {
-                channelSftp.put(inputStream, fullPath);
-                logger.info("文件上传成功: {}", fullPath);
-                return filename;
-            }
-        } catch (SftpException e) {
+            channelPool.execute(channel -> {
+                channel.put(inputStream, fullPath);
+                return null;
+            });
+            logger.info("文件上传成功: {}", fullPath);
+            return filename;
+        } catch (IOException e) {
             logger.error("SFTP上传文件失败: {}", e.getMessage());
-            throw new IOException("文件上传失败: " + e.getMessage());
-        } catch (Exception e) {
-            logger.error("文件上传过程中发生错误: {}", e.getMessage());
-            throw new IOException("文件上传失败: " + e.getMessage());
+            throw new IOException("文件上传失败: " + e.getMessage(), e);
         }
     }
 
@@ -144,22 +74,17 @@ public class SftpUtil {
      * @param fileName 文件名
      */
     public void deleteFile(String remotePath, String fileName) throws IOException {
-        if (channelSftp == null || !channelSftp.isConnected()) {
-            try {
-                connect();
-            } catch (JSchException e) {
-                throw new IOException("SFTP连接失败: " + e.getMessage());
-            }
-        }
-
+        String fullPath = remotePath + "/" + fileName;
+        logger.info("开始删除文件: {}", fullPath);
         try {
-            String fullPath = remotePath + "/" + fileName;
-            logger.info("开始删除文件: {}", fullPath);
-            channelSftp.rm(fullPath);
+            channelPool.execute(channel -> {
+                channel.rm(fullPath);
+                return null;
+            });
             logger.info("文件删除成功: {}", fullPath);
-        } catch (SftpException e) {
+        } catch (IOException e) {
             logger.error("删除文件失败: {}", e.getMessage());
-            throw new IOException("删除文件失败: " + e.getMessage());
+            throw new IOException("删除文件失败: " + e.getMessage(), e);
         }
     }
 
@@ -169,36 +94,59 @@ public class SftpUtil {
      * @param remotePath 远程路径
      * @return 文件列表
      */
+    @SuppressWarnings("unchecked")
     public Vector<ChannelSftp.LsEntry> listFiles(String remotePath) throws IOException {
-        if (channelSftp == null || !channelSftp.isConnected()) {
-            try {
-                connect();
-            } catch (JSchException e) {
-                throw new IOException("SFTP连接失败: " + e.getMessage());
-            }
-        }
-
         try {
             logger.info("开始列出目录内容: {}", remotePath);
-            Vector<ChannelSftp.LsEntry> list = channelSftp.ls(remotePath);
+            Vector<ChannelSftp.LsEntry> list = channelPool.execute(channel -> channel.ls(remotePath));
             logger.info("成功列出目录内容，文件数量: {}", list.size());
             return list;
-        } catch (SftpException e) {
+        } catch (IOException e) {
             logger.error("列出目录内容失败: {}", e.getMessage());
-            throw new IOException("列出目录内容失败: " + e.getMessage());
+            throw new IOException("列出目录内容失败: " + e.getMessage(), e);
         }
     }
 
     /**
-     * 下载文件
+     * 下载文件，通道在返回的输入流关闭时归还
      *
      * @param remotePath 远程路径
      * @param fileName 文件名
      * @return 文件输入流
      */
-    public InputStream downloadFile(String remotePath, String fileName) throws SftpException {
+    public InputStream downloadFile(String remotePath, String fileName) throws IOException {
         logger.info("开始下载文件，路径: {}, 文件名: {}", remotePath, fileName);
-        channelSftp.cd(remotePath);
-        return channelSftp.get(fileName);
+        ChannelSftp channel = channelPool.borrow();
+        InputStream in;
+        try {
+            in = channel.get(remotePath + "/" + fileName);
+        } catch (SftpException e) {
+            channelPool.release(channel, !channel.isConnected());
+            throw new IOException("下载文件失败: " + e.getMessage(), e);
+        }
+        return new FilterInputStream(in) {
+            private boolean released;
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!released) {
+                        released = true;
+                        channelPool.release(channel, !channel.isConnected());
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * 获取通道池统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getPoolStats() {
+        return channelPool.getStats();
     }
-} 
\ No newline at end of file
+}
@@ -1,7 +1,9 @@
 package com.liuxy.campushub.utils;
 
+import com.liuxy.campushub.service.TokenRevocationService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.mybatis.logging.Logger;
 import org.mybatis.logging.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,61 +13,160 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
 
 @Component
 public class JwtTokenUtil {
-    private static final Set<String> tokenBlacklist = ConcurrentHashMap.newKeySet();
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenUtil.class);
 
+    /**
+     * 会话ID，同一次登录签发的访问令牌和刷新令牌共用
+     */
+    public static final String CLAIM_SESSION_ID = "sid";
+
+    /**
+     * 首次登录时间（秒），刷新时原样带入新令牌
+     */
+    public static final String CLAIM_AUTH_TIME = "authTime";
+
+    private static final String CLAIM_TYPE = "typ";
+    private static final String TYPE_REFRESH = "refresh";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    public void invalidateToken(String token) {
-        tokenBlacklist.add(token);
+    // 密钥和解析器在启动时构建一次，二者均不可变、线程安全
+    private SecretKey secretKey;
+    private JwtParser jwtParser;
+
+    private final TokenRevocationService tokenRevocationService;
 
-        //logger.info("Token已加入黑名单：{}", token);
+    public JwtTokenUtil(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
     }
 
-    private SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @PostConstruct
+    public void init() {
+        secretKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parser().verifyWith(secretKey).build();
+    }
+
+    /**
+     * 吊销令牌，所有实例上立即失效；无法解析或已过期的令牌无需处理
+     */
+    public void invalidateToken(String token) {
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            tokenRevocationService.revoke(claims.getId(), claims.getExpiration());
+        } catch (JwtException | IllegalArgumentException e) {
+            // 令牌本身已无效
+        }
     }
 
     public String generateToken(Long userId, String username, Integer role) {
+        return generateToken(userId, username, role, null);
+    }
+
+    /**
+     * 生成访问令牌
+     *
+     * @param sessionId 会话ID，可为null
+     */
+    public String generateToken(Long userId, String username, Integer role, String sessionId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("username", username);
         claims.put("role", role);
+        if (sessionId != null) {
+            claims.put(CLAIM_SESSION_ID, sessionId);
+        }
 
         return Jwts.builder()
                 .claims().add(claims).and()
+                .id(UUID.randomUUID().toString())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration * 1000))
-                .signWith(getSecretKey())
+                .signWith(secretKey)
+                .compact();
+    }
+
+    /**
+     * 生成刷新令牌，只能用于换取新令牌，不能用于访问接口
+     *
+     * @param tokenId 令牌ID
+     * @param sessionId 会话ID
+     * @param authTime 首次登录时间（秒）
+     * @param expiresAt 过期时间
+     */
+    public String generateRefreshToken(Long userId, String username, Integer role,
+                                       String tokenId, String sessionId, long authTime, Date expiresAt) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
+        claims.put("username", username);
+        claims.put("role", role);
+        claims.put(CLAIM_SESSION_ID, sessionId);
+        claims.put(CLAIM_AUTH_TIME, authTime);
+        claims.put(CLAIM_TYPE, TYPE_REFRESH);
+
+        return Jwts.builder()
+                .claims().add(claims).and()
+                .id(tokenId)
+                .issuedAt(new Date())
+                .expiration(expiresAt)
+                .signWith(secretKey)
                 .compact();
     }
 
+    /**
+     * 校验并解析刷新令牌，只校验签名和有效期，轮换状态由调用方检查
+     *
+     * @param token 刷新令牌
+     * @return 声明，令牌无效、已过期或不是刷新令牌时返回null
+     */
+    public Claims parseRefreshToken(String token) {
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            return TYPE_REFRESH.equals(claims.get(CLAIM_TYPE, String.class)) ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public long getExpiration() {
+        return expiration;
+    }
+
     public Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSecretKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * 校验签名和有效期并解析，一次完成，同时检查令牌及其所属会话是否已吊销
+     *
+     * @param token 访问令牌
+     * @return 声明，令牌无效、已过期、已吊销或是刷新令牌时返回null
+     */
+    public Claims verifyAndParse(String token) {
         try {
-            Jwts.parser().verifyWith(getSecretKey()).build().parseSignedClaims(token);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            if (TYPE_REFRESH.equals(claims.get(CLAIM_TYPE, String.class))
+                    || tokenRevocationService.isRevoked(claims.getId())
+                    || tokenRevocationService.isRevoked(claims.get(CLAIM_SESSION_ID, String.class))) {
+                return null;
+            }
+            return claims;
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
 
+    public boolean validateToken(String token) {
+        return verifyAndParse(token) != null;
+    }
+
     public boolean canRefresh(String token) {
         final Date expiration = parseToken(token).getExpiration();
         return expiration.before(new Date(System.currentTimeMillis() + 300 * 1000));
@@ -1,59 +1,59 @@
 package com.liuxy.campushub.utils;
 
 import com.alibaba.fastjson.JSONObject;
-import okhttp3.HttpUrl;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.WebSocket;
-import okhttp3.WebSocketListener;
 import org.springframework.stereotype.Component;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.Base64;
-import java.util.Date;
 import java.util.Locale;
-import java.util.TimeZone;
 
 @Component
 public class SparkAIUtil {
-    
-    private final OkHttpClient okHttpClient;
+
+    /**
+     * RFC 1123 格式的日期，DateTimeFormatter 线程安全，可以共用
+     */
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
     private final JSONObject config;
     
-    public SparkAIUtil(OkHttpClient okHttpClient, JSONObject config) {
-        this.okHttpClient = okHttpClient;
+    public SparkAIUtil(JSONObject config) {
         this.config = config;
     }
     
     public String getAppId() {
         return config.getString("appId");
     }
-    
-    public WebSocket createWebSocket(WebSocketListener listener) throws Exception {
+
+    /**
+     * 生成带鉴权参数的 WebSocket 地址，由模型网关在有效期内缓存复用
+     *
+     * @param epochSecond 签名时间（秒）
+     * @return 鉴权地址
+     */
+    public String signUrl(long epochSecond) {
         String url = config.getString("url");
         String apiKey = config.getString("apiKey");
         String apiSecret = config.getString("apiSecret");
-        String appId = config.getString("appId");
 
         // 将 https 转换为 wss
         String wsUrl = url.replace("https://", "wss://");
-        String authUrl = getAuthUrl(wsUrl, apiKey, apiSecret);
-        
-        Request request = new Request.Builder()
-                .url(authUrl)
-                .build();
-        
-        return okHttpClient.newWebSocket(request, listener);
+        try {
+            return getAuthUrl(wsUrl, apiKey, apiSecret, epochSecond);
+        } catch (Exception e) {
+            throw new IllegalStateException("生成星火鉴权地址失败: " + e.getMessage(), e);
+        }
     }
     
-    private String getAuthUrl(String hostUrl, String apiKey, String apiSecret) throws Exception {
+    private String getAuthUrl(String hostUrl, String apiKey, String apiSecret, long epochSecond) throws Exception {
         URI uri = new URI(hostUrl);
-        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss z", Locale.US);
-        format.setTimeZone(TimeZone.getTimeZone("GMT"));
-        String date = format.format(new Date());
+        String date = DATE_FORMAT.format(Instant.ofEpochSecond(epochSecond));
         
         String preStr = "host: " + uri.getHost() + "\n" +
                 "date: " + date + "\n" +
@@ -80,4 +80,4 @@ public class SparkAIUtil {
         
         return fullUrl;
     }
-} 
\ No newline at end of file
+}
@@ -6,7 +6,10 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.springframework.beans.BeanUtils;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Date;
+import java.util.Objects;
 
 /**
  * 热点帖子VO
@@ -34,6 +37,16 @@ public class HotPostVO extends PostVO {
      * 是否为突发热点
      */
     private Boolean isBurst;
+
+    /**
+     * 互动速度（每分钟加权互动量），仅突发热点列表返回
+     */
+    private Double velocity;
+
+    /**
+     * 互动加速度，仅突发热点列表返回
+     */
+    private Double acceleration;
     
     /**
      * 从Post实体转换为HotPostVO
@@ -65,4 +78,25 @@ public class HotPostVO extends PostVO {
         
         return vo;
     }
-} 
\ No newline at end of file
+
+    /**
+     * 从PostVO转换为HotPostVO，并按计数和发布时间计算热度、是否新发布、是否突发
+     */
+    public static HotPostVO computeFrom(PostVO postVO) {
+        HotPostVO vo = fromPostVO(postVO);
+        if (postVO.getCreatedAt() == null) {
+            return vo;
+        }
+        LocalDateTime createdAt = LocalDateTime.ofInstant(postVO.getCreatedAt().toInstant(), ZoneId.systemDefault());
+        long commentCount = Objects.requireNonNullElse(postVO.getCommentCount(), 0);
+        vo.setHotness(HotPostModel.calculateHotness(postVO.getPostId(),
+                Objects.requireNonNullElse(postVO.getViewCount(), 0),
+                Objects.requireNonNullElse(postVO.getLikeCount(), 0),
+                commentCount,
+                Objects.requireNonNullElse(postVO.getShareCount(), 0),
+                createdAt));
+        vo.setIsNew(HotPostModel.isNewPost(createdAt));
+        vo.setIsBurst(HotPostModel.isBurstHot(commentCount, createdAt));
+        return vo;
+    }
+}
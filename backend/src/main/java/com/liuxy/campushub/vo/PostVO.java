@@ -27,4 +27,7 @@ public class PostVO {
     // 用户相关信息
     private String username;
     private String avatar;
+    
+    // 封面图（首张图片的列表尺寸缩略图，没有图片时为空）
+    private String coverUrl;
 } 
\ No newline at end of file
@@ -1,15 +1,56 @@
 package com.liuxy.campushub.vo;
 
+import com.liuxy.campushub.model.PageCursor;
 import lombok.Data;
 import java.util.List;
 import java.util.Date;
+import java.util.function.Function;
 
 /**
  * 滚动分页结果
  */
 @Data
 public class ScrollResult<T> {
+
+    /**
+     * 游标翻页的单页最大条数，超出时按最大值查询
+     */
+    public static final int MAX_PAGE_SIZE = 50;
+
     private List<T> items;       // 当前页数据
     private boolean hasMore;     // 是否有更多数据
     private Date nextTimestamp;  // 下次请求的时间参数
-} 
\ No newline at end of file
+    private Long nextId;         // 下次请求的ID参数（与时间组成复合游标，避免同一时间的数据被跳过）
+    private String nextCursor;   // 下次请求的游标（不透明字符串，原样传回即可）
+
+    /**
+     * 将前端传入的每页大小限制在 [1, MAX_PAGE_SIZE] 内，只用于游标翻页；页码分页接口保持原有的每页大小语义
+     *
+     * @param pageSize 每页大小
+     * @return 限制后的每页大小
+     */
+    public static int clampPageSize(int pageSize) {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 根据多查询一条的结果构建分页结果
+     *
+     * @param rows 查询结果，条数最多为 pageSize + 1
+     * @param pageSize 每页大小
+     * @param cursorOf 根据记录生成游标
+     * @return 分页结果
+     */
+    public static <T> ScrollResult<T> of(List<T> rows, int pageSize, Function<T, PageCursor> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        ScrollResult<T> result = new ScrollResult<>();
+        result.setItems(items);
+        result.setHasMore(hasMore);
+        if (!items.isEmpty()) {
+            result.setNextCursor(cursorOf.apply(items.get(items.size() - 1)).encode());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,7 @@
+-- 热度分数定时重算索引
+-- 每次重算开始时统计过期帖子数和最久未计算的时间：
+--   WHERE status = 'PUBLISHED' AND (last_hot_calc IS NULL OR last_hot_calc < ?)
+--   SELECT MIN(COALESCE(last_hot_calc, created_at)) ... WHERE status = 'PUBLISHED'
+-- 以下索引使两条查询都只扫描索引，不回表读取整行。
+
+CREATE INDEX idx_post_status_hot_calc ON post (status, last_hot_calc, created_at);
@@ -0,0 +1,24 @@
+-- 图片缩略图
+-- 缩略图与原图存放在同一目录，文件名追加 _w{宽度}；此处只记录已生成的宽度，NULL 表示尚未生成。
+
+ALTER TABLE attachment ADD COLUMN variant_widths VARCHAR(64) NULL COMMENT '已生成的缩略图宽度，逗号分隔';
+ALTER TABLE image ADD COLUMN variant_widths VARCHAR(64) NULL COMMENT '已生成的缩略图宽度，逗号分隔';
+
+-- 列表批量取帖子首图：WHERE file_type = 'image' AND post_id IN (...) GROUP BY post_id
+CREATE INDEX idx_attachment_post_type ON attachment (post_id, file_type, file_id);
+
+-- 商品列表按封面地址反查图片记录
+CREATE INDEX idx_image_file_path ON image (file_path);
+
+-- 缩略图格式和失败次数：variant_widths 为 NULL 即待生成，由定时补偿任务按ID游标重新提交，
+-- 包括队列满被拒绝的任务和上线前的存量图片；失败达到次数上限后不再尝试
+ALTER TABLE attachment
+    ADD COLUMN variant_format VARCHAR(8) NULL COMMENT '缩略图格式，webp 表示同时生成了 WebP',
+    ADD COLUMN variant_attempts INT NOT NULL DEFAULT 0 COMMENT '缩略图生成失败次数';
+ALTER TABLE image
+    ADD COLUMN variant_format VARCHAR(8) NULL COMMENT '缩略图格式，webp 表示同时生成了 WebP',
+    ADD COLUMN variant_attempts INT NOT NULL DEFAULT 0 COMMENT '缩略图生成失败次数';
+
+-- 补偿任务：WHERE variant_widths IS NULL AND id > ? ORDER BY id
+CREATE INDEX idx_image_variant_pending ON image (variant_widths, id);
+CREATE INDEX idx_attachment_variant_pending ON attachment (file_type, variant_widths, file_id);
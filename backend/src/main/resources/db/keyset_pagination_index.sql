@@ -0,0 +1,46 @@
+-- 列表游标分页索引
+-- 各列表按 (排序列, ID) 复合游标翻页，以下索引使游标定位只需扫描索引，不再随页数增加扫描行数。
+-- InnoDB 二级索引自带主键，ID 列显式列出以便与 ORDER BY 对齐。
+
+-- 失物招领：未找到列表 WHERE found_time IS NULL ORDER BY lost_time DESC, post_id DESC
+CREATE INDEX idx_lost_found_found_lost ON lost_found (found_time, lost_time, post_id);
+
+-- 失物招领：已找到列表 WHERE found_time IS NOT NULL ORDER BY found_time DESC, post_id DESC
+CREATE INDEX idx_lost_found_found_time ON lost_found (found_time, post_id);
+
+-- 失物招领：按类型 WHERE item_type = ? ORDER BY lost_time DESC, post_id DESC
+CREATE INDEX idx_lost_found_type_lost ON lost_found (item_type, lost_time, post_id);
+
+-- 失物招领：时间范围、搜索、附近列表 ORDER BY lost_time DESC, post_id DESC
+CREATE INDEX idx_lost_found_lost_time ON lost_found (lost_time, post_id);
+
+-- 附件：按类型 WHERE file_type = ? ORDER BY upload_time DESC, file_id DESC
+CREATE INDEX idx_attachment_type_upload ON attachment (file_type, upload_time, file_id);
+
+-- 评论：用户评论 WHERE user_id = ? AND status = 'normal' ORDER BY created_at DESC, comment_id DESC
+CREATE INDEX idx_comment_user_created ON comment (user_id, created_at, comment_id);
+
+-- 话题：搜索 WHERE topic_name LIKE '%?%' ORDER BY usage_count DESC, topic_id DESC
+-- 模糊匹配无法走索引，按排序列顺序扫描并过滤，取满一页即停止
+CREATE INDEX idx_topic_usage ON topic (usage_count, topic_id);
+
+-- 商品：价格排序的游标需要比较真实的列，原先按 CASE 表达式排序无法使用索引。
+-- 升序取最低价、降序取最高价，固定价商品两列都取期望价，空值按0处理，与 ProductServiceImpl.sortPrice 一致。
+ALTER TABLE product
+    ADD COLUMN sort_price_low DECIMAL(10, 2) GENERATED ALWAYS AS (COALESCE(CASE
+        WHEN price_type = '固定价' THEN expect_price
+        WHEN price_type = '区间报价' THEN min_price
+    END, 0)) STORED,
+    ADD COLUMN sort_price_high DECIMAL(10, 2) GENERATED ALWAYS AS (COALESCE(CASE
+        WHEN price_type = '固定价' THEN expect_price
+        WHEN price_type = '区间报价' THEN max_price
+    END, 0)) STORED;
+
+-- 商品列表：WHERE status = ? ORDER BY 排序列 方向, product_id 方向
+CREATE INDEX idx_product_status_create ON product (status, create_time, product_id);
+CREATE INDEX idx_product_status_view ON product (status, view_count, product_id);
+CREATE INDEX idx_product_status_price_low ON product (status, sort_price_low, product_id);
+CREATE INDEX idx_product_status_price_high ON product (status, sort_price_high, product_id);
+
+-- 我的商品：WHERE seller_id = ? [AND status = ?] ORDER BY create_time DESC, product_id DESC
+CREATE INDEX idx_product_seller_status_create ON product (seller_id, status, create_time, product_id);
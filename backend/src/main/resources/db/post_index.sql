@@ -0,0 +1,12 @@
+-- 帖子时间线分页索引
+-- 列表、瀑布流按 (created_at, post_id) 复合游标倒序翻页，以下索引使定位本页帖子ID只需扫描索引。
+-- InnoDB 二级索引自带主键，post_id 显式列出以便与 ORDER BY 对齐。
+
+-- 首页列表、瀑布流：WHERE status = ? ORDER BY created_at DESC, post_id DESC
+CREATE INDEX idx_post_status_created ON post (status, created_at, post_id);
+
+-- 分类时间线：WHERE category_id = ? AND status = ? ORDER BY created_at DESC, post_id DESC
+CREATE INDEX idx_post_category_status_created ON post (category_id, status, created_at, post_id);
+
+-- 用户时间线：WHERE user_id = ? [AND status = ?] ORDER BY created_at DESC, post_id DESC
+CREATE INDEX idx_post_user_status_created ON post (user_id, status, created_at, post_id);
@@ -0,0 +1,9 @@
+-- 学生用户登录索引
+-- 登录时按凭证类型对 username、student_number、phone 之一做等值查询，每列各需一个索引。
+-- 原先的 username = ? OR student_number = ? OR phone = ? 写法在 MySQL 上通常退化为全表扫描。
+
+CREATE INDEX idx_student_user_username ON student_user (username);
+
+CREATE INDEX idx_student_user_student_number ON student_user (student_number);
+
+CREATE INDEX idx_student_user_phone ON student_user (phone);
@@ -0,0 +1,78 @@
+package com.liuxy.campushub.controller;
+
+import com.liuxy.campushub.storage.BlobStore;
+import com.liuxy.campushub.storage.LocalBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 文件访问接口测试：完整与区段输出，读取失败时返回错误而不是截断的200
+ */
+public class MediaControllerTest {
+
+    private static final byte[] CONTENT = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    private MediaController controller;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        BlobStore store = new LocalBlobStore(tempDir, "http://localhost/media");
+        store.put("avatars/a.jpg", new ByteArrayInputStream(CONTENT), CONTENT.length, "image/jpeg");
+        controller = new MediaController();
+        ReflectionTestUtils.setField(controller, "blobStore", store);
+    }
+
+    @Test
+    public void testFullAndRangeResponses() throws IOException {
+        MockHttpServletResponse full = new MockHttpServletResponse();
+        controller.getMedia("/avatars/a.jpg", null, full);
+        assertEquals(200, full.getStatus());
+        assertEquals("image/jpeg", full.getContentType());
+        assertEquals("0123456789abcdef", full.getContentAsString());
+
+        MockHttpServletResponse partial = new MockHttpServletResponse();
+        controller.getMedia("/avatars/a.jpg", "bytes=10-", partial);
+        assertEquals(206, partial.getStatus());
+        assertEquals("bytes 10-15/16", partial.getHeader("Content-Range"));
+        assertEquals("abcdef", partial.getContentAsString());
+    }
+
+    @Test
+    public void testMissingFileIsNotFound() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.getMedia("/avatars/missing.jpg", null, response);
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    public void testReadFailureBeforeCommitFailsResponse() throws IOException {
+        BlobStore failing = mock(BlobStore.class);
+        when(failing.size("avatars/a.jpg")).thenReturn((long) CONTENT.length);
+        doThrow(new IOException("磁盘读取失败")).when(failing).transferTo(anyString(), anyLong(), anyLong(), any());
+        ReflectionTestUtils.setField(controller, "blobStore", failing);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.getMedia("/avatars/a.jpg", null, response);
+        assertEquals(500, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}
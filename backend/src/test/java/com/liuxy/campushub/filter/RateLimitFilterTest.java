@@ -0,0 +1,120 @@
+package com.liuxy.campushub.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liuxy.campushub.config.RateLimitConfig;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 接口限流测试：容量内放行、超出后返回429及 Retry-After，Redis 结果与本地退回
+ */
+public class RateLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RateLimitConfig config;
+    private StringRedisTemplate stringRedisTemplate;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        RateLimitConfig.Rule rule = new RateLimitConfig.Rule();
+        rule.setMethod("POST");
+        rule.setPattern("/api/posts/**");
+        rule.setCapacity(2);
+        rule.setRefillTokens(1);
+        rule.setRefillPeriodSeconds(60);
+        config = new RateLimitConfig();
+        config.setRules(List.of(rule));
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        filter = new RateLimitFilter(config, stringRedisTemplate, objectMapper);
+    }
+
+    @Test
+    public void testLocalBucketAllowsBurstThenDenies() throws Exception {
+        MockHttpServletResponse first = send("10.0.0.1");
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader("RateLimit-Limit"));
+        assertEquals("1", first.getHeader("RateLimit-Remaining"));
+
+        MockHttpServletResponse second = send("10.0.0.1");
+        assertEquals(200, second.getStatus());
+        assertEquals("0", second.getHeader("RateLimit-Remaining"));
+
+        MockHttpServletResponse denied = send("10.0.0.1");
+        assertEquals(429, denied.getStatus());
+        assertEquals("0", denied.getHeader("RateLimit-Remaining"));
+        // 每60秒补充一个令牌，需等待一个补充间隔
+        assertEquals("60", denied.getHeader("Retry-After"));
+        JsonNode body = objectMapper.readTree(denied.getContentAsString());
+        assertEquals(429, body.get("code").asInt());
+        assertEquals("请求过于频繁，请稍后再试", body.get("message").asText());
+
+        // 其他客户端使用独立的令牌桶
+        assertEquals(200, send("10.0.0.2").getStatus());
+    }
+
+    @Test
+    public void testUnmatchedRequestIsNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+            assertNull(response.getHeader("RateLimit-Limit"));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDistributedResultSetsRetryAfter() throws Exception {
+        config.setDistributed(true);
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenReturn(List.of(0L, 5500L, 100000L));
+
+        MockHttpServletResponse denied = send("10.0.0.1");
+        assertEquals(429, denied.getStatus());
+        assertEquals("6", denied.getHeader("Retry-After"));
+        assertEquals("100", denied.getHeader("RateLimit-Reset"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRedisFailureFallsBackToLocal() throws Exception {
+        config.setDistributed(true);
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenThrow(new IllegalStateException("Redis不可用"));
+
+        assertEquals(200, send("10.0.0.1").getStatus());
+        assertEquals(200, send("10.0.0.1").getStatus());
+        MockHttpServletResponse denied = send("10.0.0.1");
+        assertEquals(429, denied.getStatus());
+        assertNotNull(denied.getHeader("Retry-After"));
+    }
+
+    private MockHttpServletResponse send(String remoteAddr) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/posts/create");
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
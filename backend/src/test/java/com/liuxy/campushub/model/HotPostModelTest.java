@@ -0,0 +1,70 @@
+package com.liuxy.campushub.model;
+
+import com.liuxy.campushub.enums.HotScoreModeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 热度模型测试：对数分数的取值、与 DECAY 排序一致、存储分数不计入突发系数
+ */
+public class HotPostModelTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testLogScoreValues() {
+        LocalDateTime epoch = HotPostModel.SCORE_EPOCH;
+        // 基础分 = 50 * 0.2 = 10
+        assertEquals(Math.log(10), HotPostModel.calculateLogScore(50, 0, 0, 0, epoch), DELTA);
+        // 晚发布一天，分数增加 ln(5)
+        assertEquals(Math.log(10) + Math.log(5),
+                HotPostModel.calculateLogScore(50, 0, 0, 0, epoch.plusDays(1)), DELTA);
+        // 没有互动时按最小基础分计入，而不是负无穷
+        assertEquals(Math.log(0.05), HotPostModel.calculateLogScore(0, 0, 0, 0, epoch), DELTA);
+        assertTrue(HotPostModel.calculateLogScore(0, 0, 0, 0, epoch) < HotPostModel.calculateLogScore(0, 0, 0, 1, epoch));
+    }
+
+    @Test
+    public void testLogScoreMatchesDecayOrdering() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime older = now.minusHours(30);
+        LocalDateTime newer = now.minusHours(6);
+
+        double decayOlder = HotPostModel.calculateHotness(1L, 400, 50, 10, 5, older);
+        double decayNewer = HotPostModel.calculateHotness(2L, 40, 5, 1, 0, newer);
+        double logOlder = HotPostModel.calculateLogScore(400, 50, 10, 5, older);
+        double logNewer = HotPostModel.calculateLogScore(40, 5, 1, 0, newer);
+
+        // 两帖的 DECAY 热度之比等于对数分数之差的指数
+        assertEquals(Math.log(decayOlder / decayNewer), logOlder - logNewer, 1e-6);
+        assertEquals(HotPostModel.calculateLogScore(400, 50, 10, 5, older),
+                HotPostModel.calculateScore(HotScoreModeEnum.LOG, 1L, 400, 50, 10, 5, older), DELTA);
+    }
+
+    @Test
+    public void testBurstIsExcludedFromStoredScore() {
+        LocalDateTime createdAt = LocalDateTime.now().minusHours(2);
+        long comments = 200;
+        assertTrue(HotPostModel.isBurstHot(comments, createdAt));
+
+        double stored = HotPostModel.calculateLogScore(100, 20, comments, 3, createdAt);
+        // 存储的分数与不含突发系数的排序键一致
+        assertEquals(HotPostModel.calculateRankingKey(100, 20, comments, 3, createdAt, false), stored, DELTA);
+        assertEquals(HotPostModel.calculateRankingKey(100, 20, comments, 3, createdAt, true) - Math.log(1.5),
+                stored, DELTA);
+        // DECAY 的实时热度在突发窗口内仍带突发系数
+        double base = 100 * 0.2 + 20 * 0.3 + comments * 0.25 + 3 * 0.1;
+        assertEquals(base * Math.pow(0.2, 2 / 24.0) * 1.5,
+                HotPostModel.calculateHotness(1L, 100, 20, comments, 3, createdAt), 1e-6);
+    }
+
+    @Test
+    public void testRankingKeyWithoutEngagement() {
+        assertEquals(Double.NEGATIVE_INFINITY,
+                HotPostModel.calculateRankingKey(0, 0, 0, 0, LocalDateTime.now(), false));
+    }
+}
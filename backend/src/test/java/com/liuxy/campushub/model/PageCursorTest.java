@@ -0,0 +1,93 @@
+package com.liuxy.campushub.model;
+
+import com.liuxy.campushub.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分页游标测试：各类型排序值的往返、篡改游标返回400、空排序值的编码
+ */
+public class PageCursorTest {
+
+    @Test
+    public void testRoundTrip() {
+        LocalDateTime time = LocalDateTime.of(2024, 4, 7, 12, 30, 15, 123_000_000);
+        PageCursor timeCursor = PageCursor.decode(PageCursor.of(time, 42L).encode());
+        assertEquals(time, timeCursor.getSortKeyAsLocalDateTime());
+        assertEquals(42L, timeCursor.getId());
+
+        Date date = new Date(1712464215123L);
+        assertEquals(date, PageCursor.decode(PageCursor.of(date, 1L).encode()).getSortKeyAsDate());
+
+        assertEquals(99L, PageCursor.decode(PageCursor.of(99, 2L).encode()).getSortKeyAsLong());
+
+        BigDecimal price = new BigDecimal("12.50");
+        assertEquals(price, PageCursor.decode(PageCursor.of(price, 3L).encode()).getSortKeyAsDecimal());
+        // 整数排序值可以按小数读取
+        assertEquals(0, BigDecimal.valueOf(7).compareTo(PageCursor.decode(PageCursor.of(7L, 4L).encode()).getSortKeyAsDecimal()));
+    }
+
+    @Test
+    public void testNullSortKey() {
+        PageCursor cursor = PageCursor.decode(PageCursor.of(null, 5L).encode());
+        assertTrue(cursor.isSortKeyNull());
+        assertNull(cursor.getSortKeyAsDate());
+        assertNull(cursor.getSortKeyAsLocalDateTime());
+        assertNull(cursor.getSortKeyAsLong());
+        assertNull(cursor.getSortKeyAsDecimal());
+        assertEquals(5L, cursor.getId());
+
+        assertFalse(PageCursor.decode(PageCursor.of(0, 5L).encode()).isSortKeyNull());
+    }
+
+    @Test
+    public void testBlankCursorMeansFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+        assertEquals(20, PageCursor.offsetOf(null, 3, 10));
+        assertEquals(0, PageCursor.offsetOf(PageCursor.of(1L, 1L), 3, 10));
+    }
+
+    @Test
+    public void testTamperedCursorIsRejected() {
+        assertInvalid("not base64 !");
+        assertInvalid(raw("T123"));
+        assertInvalid(raw("|5"));
+        assertInvalid(raw("Tabc|5"));
+        assertInvalid(raw("T123|abc"));
+        assertInvalid(raw("D1.2.3|5"));
+        assertInvalid(raw("X123|5"));
+        assertInvalid(raw("N123|5"));
+        assertInvalid(raw("T|5"));
+    }
+
+    @Test
+    public void testCursorFromAnotherListIsRejected() {
+        PageCursor decimal = PageCursor.decode(PageCursor.of(new BigDecimal("1.5"), 1L).encode());
+        assertEquals(400, assertThrows(BusinessException.class, decimal::getSortKeyAsLocalDateTime).getErrorCode());
+        assertEquals(400, assertThrows(BusinessException.class, decimal::getSortKeyAsLong).getErrorCode());
+
+        PageCursor time = PageCursor.decode(PageCursor.of(new Date(), 1L).encode());
+        assertEquals(400, assertThrows(BusinessException.class, time::getSortKeyAsDecimal).getErrorCode());
+    }
+
+    private static void assertInvalid(String cursor) {
+        BusinessException e = assertThrows(BusinessException.class, () -> PageCursor.decode(cursor));
+        assertEquals(400, e.getErrorCode());
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,40 @@
+package com.liuxy.campushub.mq;
+
+import com.liuxy.campushub.mapper.PostMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 热度更新批量消费测试：处理失败时异常交给容器重试，不在监听方法内吞掉
+ */
+public class HotPostBatchUpdateConsumerTest {
+
+    @Test
+    public void testFailureIsRethrownForRetry() {
+        PostMapper postMapper = mock(PostMapper.class);
+        when(postMapper.findPostVOsByIds(anyList())).thenThrow(new IllegalStateException("数据库不可用"));
+        HotPostBatchUpdateConsumer consumer = new HotPostBatchUpdateConsumer();
+        ReflectionTestUtils.setField(consumer, "postMapper", postMapper);
+
+        assertThrows(IllegalStateException.class, () -> consumer.handleHotPostUpdates(List.of(1L, 2L, 1L)));
+    }
+
+    @Test
+    public void testEmptyBatchIsIgnored() {
+        PostMapper postMapper = mock(PostMapper.class);
+        HotPostBatchUpdateConsumer consumer = new HotPostBatchUpdateConsumer();
+        ReflectionTestUtils.setField(consumer, "postMapper", postMapper);
+
+        consumer.handleHotPostUpdates(Arrays.asList(null, null));
+        verifyNoInteractions(postMapper);
+    }
+}
@@ -0,0 +1,127 @@
+package com.liuxy.campushub.security;
+
+import com.liuxy.campushub.entity.StudentUser;
+import com.liuxy.campushub.exception.BusinessException;
+import com.liuxy.campushub.mapper.StudentUserMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 当前用户注入测试：未登录时按 required 返回401或null，同一请求内只构造一次、资料只查询一次
+ */
+public class CurrentUserArgumentResolverTest {
+
+    private StudentUserMapper studentUserMapper;
+    private CurrentUserContext context;
+    private CurrentUserArgumentResolver resolver;
+    private ServletWebRequest webRequest;
+
+    @BeforeEach
+    public void setUp() {
+        studentUserMapper = mock(StudentUserMapper.class);
+        context = new CurrentUserContext(studentUserMapper);
+        resolver = new CurrentUserArgumentResolver(context);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        webRequest = new ServletWebRequest(request);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testSupportsOnlyAnnotatedAuthUser() throws Exception {
+        assertTrue(resolver.supportsParameter(parameter("required", 0)));
+        assertTrue(resolver.supportsParameter(parameter("optional", 0)));
+        assertFalse(resolver.supportsParameter(parameter("plain", 0)));
+        assertFalse(resolver.supportsParameter(parameter("wrongType", 0)));
+    }
+
+    @Test
+    public void testAnonymousRequest() throws Exception {
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> resolver.resolveArgument(parameter("required", 0), null, webRequest, null));
+        assertEquals(401, e.getErrorCode());
+        assertNull(resolver.resolveArgument(parameter("optional", 0), null, webRequest, null));
+    }
+
+    @Test
+    public void testUserIsBuiltOncePerRequest() throws Exception {
+        login(5L, "alice", "ADMIN");
+        StudentUser profile = new StudentUser();
+        profile.setUserId(5L);
+        when(studentUserMapper.findByUsername("alice")).thenReturn(profile);
+
+        AuthUser user = (AuthUser) resolver.resolveArgument(parameter("required", 0), null, webRequest, null);
+        assertEquals(5L, user.getId());
+        assertEquals("alice", user.getUsername());
+        assertTrue(user.isAdmin());
+        // 控制器注入与服务层获取的是同一个实例，资料按需加载且只查询一次
+        assertSame(user, context.get());
+        verify(studentUserMapper, never()).findByUsername("alice");
+        assertSame(profile, user.getProfile());
+        assertSame(profile, context.findStudent(5L));
+        verify(studentUserMapper, times(1)).findByUsername("alice");
+        verify(studentUserMapper, never()).selectById(5L);
+
+        // 查询其他用户仍按ID查库
+        context.findStudent(6L);
+        verify(studentUserMapper).selectById(6L);
+    }
+
+    private static void login(Long id, String username, String role) {
+        UserDetailsImpl principal = UserDetailsImpl.build(id, username, null, null, List.of(role));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static MethodParameter parameter(String methodName, int index) throws NoSuchMethodException {
+        for (Method method : Handlers.class.getDeclaredMethods()) {
+            if (method.getName().equals(methodName)) {
+                return new MethodParameter(method, index);
+            }
+        }
+        throw new NoSuchMethodException(methodName);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Handlers {
+        void required(@CurrentUser AuthUser user) {
+        }
+
+        void optional(@CurrentUser(required = false) AuthUser user) {
+        }
+
+        void plain(AuthUser user) {
+        }
+
+        void wrongType(@CurrentUser Long userId) {
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.liuxy.campushub.security;
+
+import com.liuxy.campushub.entity.Admin;
+import com.liuxy.campushub.entity.StudentUser;
+import com.liuxy.campushub.mapper.AdminMapper;
+import com.liuxy.campushub.mapper.StudentUserMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 已认证用户信息缓存测试：命中不查库、禁用结果同样缓存、移除后立即按新状态加载
+ */
+public class UserPrincipalCacheTest {
+
+    private StudentUserMapper studentUserMapper;
+    private AdminMapper adminMapper;
+    private UserPrincipalCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        studentUserMapper = mock(StudentUserMapper.class);
+        adminMapper = mock(AdminMapper.class);
+        cache = new UserPrincipalCache(studentUserMapper, adminMapper);
+        ReflectionTestUtils.setField(cache, "size", 2);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        cache.init();
+    }
+
+    @Test
+    public void testHitDoesNotQueryDatabase() {
+        when(studentUserMapper.findByUsername("alice")).thenReturn(student(1L, "alice", 1, 0));
+
+        UserDetailsImpl first = cache.get("alice");
+        UserDetailsImpl second = cache.get("alice");
+
+        assertNotNull(first);
+        assertEquals(1L, first.getId());
+        assertNull(first.getPassword());
+        assertSame(first, second);
+        verify(studentUserMapper, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    public void testEvictAppliesNewStatusAndRole() {
+        when(studentUserMapper.findByUsername("alice")).thenReturn(student(1L, "alice", 1, 0));
+        assertTrue(hasAuthority(cache.get("alice"), "USER"));
+
+        // 管理员调整角色后移除缓存，下次请求按新角色认证
+        when(studentUserMapper.findByUsername("alice")).thenReturn(student(1L, "alice", 1, 1));
+        assertTrue(hasAuthority(cache.get("alice"), "USER"));
+        cache.evict("alice");
+        assertTrue(hasAuthority(cache.get("alice"), "ADMIN"));
+
+        // 禁用后移除缓存，立即拒绝认证
+        when(studentUserMapper.findByUsername("alice")).thenReturn(student(1L, "alice", 0, 1));
+        cache.evict("alice");
+        assertNull(cache.get("alice"));
+    }
+
+    @Test
+    public void testMissingUserIsCachedAndAdminFallback() {
+        assertNull(cache.get("ghost"));
+        assertNull(cache.get("ghost"));
+        verify(studentUserMapper, times(1)).findByUsername("ghost");
+        verify(adminMapper, times(1)).findByUsername("ghost");
+
+        Admin admin = new Admin();
+        admin.setId(7);
+        admin.setUsername("root");
+        admin.setStatus(1);
+        when(adminMapper.findByUsername("root")).thenReturn(admin);
+        UserDetailsImpl principal = cache.get("root");
+        assertEquals(7L, principal.getId());
+        assertTrue(hasAuthority(principal, "ADMIN"));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        when(studentUserMapper.findByUsername("a")).thenReturn(student(1L, "a", 1, 0));
+        when(studentUserMapper.findByUsername("b")).thenReturn(student(2L, "b", 1, 0));
+        when(studentUserMapper.findByUsername("c")).thenReturn(student(3L, "c", 1, 0));
+        cache.get("a");
+        cache.get("b");
+        cache.get("c");
+        // 容量为2，最早访问的 a 已被淘汰
+        cache.get("a");
+        verify(studentUserMapper, times(2)).findByUsername("a");
+    }
+
+    private static boolean hasAuthority(UserDetailsImpl principal, String authority) {
+        return principal.getAuthorities().stream().anyMatch(granted -> authority.equals(granted.getAuthority()));
+    }
+
+    private static StudentUser student(Long id, String username, int status, int role) {
+        StudentUser user = new StudentUser();
+        user.setUserId(id);
+        user.setUsername(username);
+        user.setStatus(status);
+        user.setUserRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,158 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.controller.AIChatController;
+import com.liuxy.campushub.dto.ChatMessage;
+import com.liuxy.campushub.service.ChatContextService;
+import com.liuxy.campushub.util.ModelGateway;
+import com.liuxy.campushub.utils.SparkAIUtil;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * 流式对话测试：SSE 事件顺序、模型错误与网关拒绝时的错误事件、客户端断开时取消上游连接
+ */
+public class AIChatServiceImplTest {
+
+    private static final String BODY = "{\"sessionId\":\"s1\",\"message\":\"介绍一下图书馆\"}";
+
+    private ModelGateway modelGateway;
+    private ChatContextService chatContextService;
+    private MockMvc mockMvc;
+    private final AtomicReference<WebSocketListener> listener = new AtomicReference<>();
+
+    @BeforeEach
+    public void setUp() {
+        modelGateway = mock(ModelGateway.class);
+        chatContextService = mock(ChatContextService.class);
+        when(chatContextService.getRecentHistory(eq("s1"), anyInt(), anyInt())).thenReturn(List.of());
+        SparkAIUtil sparkAIUtil = mock(SparkAIUtil.class);
+        when(sparkAIUtil.getAppId()).thenReturn("app");
+
+        AIChatServiceImpl service = new AIChatServiceImpl();
+        ReflectionTestUtils.setField(service, "sparkAIUtil", sparkAIUtil);
+        ReflectionTestUtils.setField(service, "modelGateway", modelGateway);
+        ReflectionTestUtils.setField(service, "chatContextService", chatContextService);
+        ReflectionTestUtils.setField(service, "streamTimeoutMs", 60000L);
+
+        AIChatController controller = new AIChatController();
+        ReflectionTestUtils.setField(controller, "aiChatService", service);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    public void testTokensThenDone() throws Exception {
+        WebSocket socket = mock(WebSocket.class);
+        openReturns(CompletableFuture.completedFuture(socket));
+
+        MvcResult result = startStream();
+        verify(socket).send(contains("介绍一下图书馆"));
+
+        listener.get().onMessage(socket, frame(1, "图书馆"));
+        listener.get().onMessage(socket, frame(1, ""));
+        listener.get().onMessage(socket, frame(2, "八点开门"));
+
+        String events = content(result);
+        assertTrue(events.startsWith("event:session\ndata:s1\n\n"), events);
+        int first = events.indexOf("event:token\ndata:图书馆\n\n");
+        int second = events.indexOf("event:token\ndata:八点开门\n\n");
+        int done = events.indexOf("event:done\ndata:{\"sessionId\":\"s1\"}\n\n");
+        assertTrue(first > 0 && first < second && second < done, events);
+        // 空内容不推送
+        assertEquals(2, events.split("event:token").length - 1);
+
+        ArgumentCaptor<ChatMessage> saved = ArgumentCaptor.forClass(ChatMessage.class);
+        verify(chatContextService, times(2)).saveMessage(eq("s1"), saved.capture());
+        assertEquals("图书馆八点开门", saved.getAllValues().get(1).getContent());
+        verify(socket).close(1000, "正常关闭");
+    }
+
+    @Test
+    public void testModelErrorSendsErrorEvent() throws Exception {
+        WebSocket socket = mock(WebSocket.class);
+        openReturns(CompletableFuture.completedFuture(socket));
+
+        MvcResult result = startStream();
+        listener.get().onMessage(socket, "{\"header\":{\"code\":10013,\"message\":\"内容不合规\"}}");
+        // 出错后的迟到消息不再推送
+        listener.get().onMessage(socket, frame(1, "迟到"));
+
+        String events = content(result);
+        assertTrue(events.contains("event:error\ndata:AI服务暂时不可用: 请求失败：内容不合规\n\n"), events);
+        assertFalse(events.contains("event:token"), events);
+        assertFalse(events.contains("event:done"), events);
+    }
+
+    @Test
+    public void testGatewayRejectionSendsErrorEvent() throws Exception {
+        openReturns(CompletableFuture.failedFuture(new IllegalStateException("排队已满")));
+
+        String events = content(startStream());
+        assertTrue(events.contains("event:session\ndata:s1\n\n"), events);
+        assertTrue(events.contains("event:error\ndata:AI服务暂时不可用: 排队已满\n\n"), events);
+    }
+
+    @Test
+    public void testClientDisconnectCancelsUpstream() throws Exception {
+        CompletableFuture<WebSocket> pending = new CompletableFuture<>();
+        openReturns(pending);
+
+        MvcResult result = startStream();
+        verify(modelGateway, never()).cancel(any());
+
+        // 客户端断开，容器结束异步请求
+        result.getRequest().getAsyncContext().complete();
+        verify(modelGateway).cancel(pending);
+    }
+
+    private void openReturns(CompletableFuture<WebSocket> future) {
+        when(modelGateway.open(any())).thenAnswer(invocation -> {
+            listener.set(invocation.getArgument(0));
+            return future;
+        });
+    }
+
+    private MvcResult startStream() throws Exception {
+        return mockMvc.perform(post("/api/v1/ai/chat/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static String content(MvcResult result) throws Exception {
+        return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static String frame(int status, String content) {
+        return "{\"header\":{\"code\":0},\"payload\":{\"choices\":{\"status\":" + status
+                + ",\"text\":[{\"role\":\"assistant\",\"content\":\"" + content + "\"}]}}}";
+    }
+}
@@ -0,0 +1,117 @@
+package com.liuxy.campushub.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 问答缓存测试：归一化后精确命中、MinHash 相似命中、知识库版本变化与答案过期后失效、Redis 不可用时按未命中处理
+ */
+public class AnswerCacheServiceImplTest {
+
+    private static final String QUESTION = "图书馆周末几点开门到几点关门？";
+
+    private final Map<String, String> redis = new HashMap<>();
+    private ValueOperations<String, String> valueOps;
+    private AnswerCacheServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        valueOps = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.get(anyString())).thenAnswer(invocation -> redis.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOps).set(anyString(), anyString(), any(Duration.class));
+        when(valueOps.increment(anyString())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            long value = Long.parseLong(redis.getOrDefault(key, "0")) + 1;
+            redis.put(key, String.valueOf(value));
+            return value;
+        });
+
+        service = new AnswerCacheServiceImpl(redisTemplate, 100);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "ttlHours", 24L);
+        ReflectionTestUtils.setField(service, "similarityThreshold", 0.85);
+    }
+
+    @Test
+    public void testExactHitIgnoresCaseAndPunctuation() {
+        service.put("kb1", "What is CampusHub?", "校园社区");
+        assertEquals("校园社区", service.get("kb1", "  what is campushub "));
+        assertEquals("校园社区", service.get("kb1", "ＷＨＡＴ　ＩＳ　ＣＡＭＰＵＳＨＵＢ！"));
+        assertNull(service.get("kb2", "What is CampusHub?"));
+
+        Map<String, Object> stats = service.getStats();
+        assertEquals(2L, stats.get("exactHits"));
+        assertEquals(1L, stats.get("misses"));
+    }
+
+    @Test
+    public void testSimilarQuestionHits() {
+        service.put("kb1", QUESTION, "周末九点到二十二点");
+
+        assertEquals("周末九点到二十二点", service.get("kb1", "图书馆周末几点开门到几点关门呢"));
+        assertNull(service.get("kb1", "图书馆工作日几点开门"));
+        // 过短的问题只做精确匹配
+        assertNull(service.get("kb1", "图书馆"));
+        assertEquals(1L, service.getStats().get("similarHits"));
+    }
+
+    @Test
+    public void testInvalidateDropsOldVersion() {
+        service.put("kb1", QUESTION, "旧答案");
+        service.put("kb2", QUESTION, "其他知识库");
+
+        service.invalidate("kb1");
+        assertNull(service.get("kb1", QUESTION));
+        assertNull(service.get("kb1", "图书馆周末几点开门到几点关门呢"));
+        assertEquals("其他知识库", service.get("kb2", QUESTION));
+        assertEquals(1, service.getStats().get("localIndexSize"));
+
+        service.put("kb1", QUESTION, "新答案");
+        assertEquals("新答案", service.get("kb1", QUESTION));
+    }
+
+    @Test
+    public void testExpiredAnswerRemovesIndexEntry() {
+        service.put("kb1", QUESTION, "答案");
+        redis.keySet().removeIf(key -> key.startsWith("ai:answer:kb1:"));
+
+        assertNull(service.get("kb1", "图书馆周末几点开门到几点关门呢"));
+        assertEquals(0, service.getStats().get("localIndexSize"));
+    }
+
+    @Test
+    public void testRedisFailureIsMiss() {
+        when(valueOps.get(anyString())).thenThrow(new RedisConnectionFailureException("连接失败"));
+
+        assertNull(service.get("kb1", QUESTION));
+        assertEquals(1L, service.getStats().get("misses"));
+    }
+
+    @Test
+    public void testDisabled() {
+        ReflectionTestUtils.setField(service, "enabled", false);
+        service.put("kb1", QUESTION, "答案");
+        assertEquals(0, redis.size());
+        assertNull(service.get("kb1", QUESTION));
+    }
+}
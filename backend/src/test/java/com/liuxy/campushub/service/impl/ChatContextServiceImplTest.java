@@ -0,0 +1,111 @@
+package com.liuxy.campushub.service.impl;
+
+import com.alibaba.fastjson.JSON;
+import com.liuxy.campushub.dto.ChatMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 对话上下文测试：写入时在同一管道中追加并截断列表，读取最近 N 条只取列表尾部，token 预算从最新消息往前截断
+ */
+public class ChatContextServiceImplTest {
+
+    private static final String KEY = "chat:history:s1";
+
+    private StringRedisTemplate redisTemplate;
+    private ListOperations<String, String> listOps;
+    private StringRedisConnection connection;
+    private ChatContextServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        listOps = mock(ListOperations.class);
+        connection = mock(StringRedisConnection.class);
+        when(redisTemplate.opsForList()).thenReturn(listOps);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            RedisCallback<?> callback = invocation.getArgument(0);
+            callback.doInRedis(connection);
+            return List.of();
+        });
+
+        service = new ChatContextServiceImpl();
+        ReflectionTestUtils.setField(service, "stringRedisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(service, "maxMessages", 50);
+        ReflectionTestUtils.setField(service, "ttlHours", 24L);
+    }
+
+    @Test
+    public void testSaveAppendsAndTrimsInOnePipeline() {
+        ChatMessage message = ChatMessage.createUserMessage("你好");
+        service.saveMessage("s1", message);
+
+        InOrder order = inOrder(connection);
+        order.verify(connection).rPush(KEY, JSON.toJSONString(message));
+        order.verify(connection).lTrim(KEY, -50, -1);
+        order.verify(connection).expire(KEY, 24 * 3600L);
+        verify(redisTemplate, never()).opsForList();
+    }
+
+    @Test
+    public void testRecentHistoryReadsTailOnly() {
+        when(listOps.range(KEY, -2, -1)).thenReturn(json("第二条", "第三条"));
+
+        List<ChatMessage> recent = service.getRecentHistory("s1", 2);
+        assertEquals(2, recent.size());
+        assertEquals("第二条", recent.get(0).getContent());
+        assertEquals("第三条", recent.get(1).getContent());
+
+        assertTrue(service.getRecentHistory("s1", 0).isEmpty());
+        verify(listOps, times(1)).range(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void testTokenBudgetKeepsNewestMessages() {
+        // 估算值：10、6、8
+        when(listOps.range(KEY, -10, -1)).thenReturn(json("一二三四五六", "abcdefgh", "七八九十"));
+
+        List<ChatMessage> fit = service.getRecentHistory("s1", 10, 14);
+        assertEquals(List.of("abcdefgh", "七八九十"), fit.stream().map(ChatMessage::getContent).toList());
+
+        // 预算不足一条时仍保留最新的提问
+        List<ChatMessage> newest = service.getRecentHistory("s1", 10, 1);
+        assertEquals(List.of("七八九十"), newest.stream().map(ChatMessage::getContent).toList());
+
+        assertEquals(3, service.getRecentHistory("s1", 10, 0).size());
+    }
+
+    @Test
+    public void testEmptySession() {
+        assertTrue(service.getHistory("missing").isEmpty());
+        assertTrue(service.getRecentHistory("missing", 10, 100).isEmpty());
+    }
+
+    private static List<String> json(String... contents) {
+        return Arrays.stream(contents)
+                .map(content -> JSON.toJSONString(ChatMessage.createUserMessage(content)))
+                .toList();
+    }
+}
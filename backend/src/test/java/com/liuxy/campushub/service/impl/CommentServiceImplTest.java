@@ -0,0 +1,104 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.mapper.CommentMapper;
+import com.liuxy.campushub.vo.CommentVO;
+import com.liuxy.campushub.vo.ScrollResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 评论查询测试：一次查询组装评论树、游标分页按层批量查询回复
+ */
+public class CommentServiceImplTest {
+
+    private CommentMapper commentMapper;
+    private CommentServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        commentMapper = mock(CommentMapper.class);
+        service = new CommentServiceImpl();
+        ReflectionTestUtils.setField(service, "commentMapper", commentMapper);
+        ReflectionTestUtils.setField(service, "imageBaseUrl", "http://img");
+        ReflectionTestUtils.setField(service, "avatarPath", "/avatars");
+    }
+
+    @Test
+    public void testTreeIsAssembledFromOneQuery() {
+        // 按时间正序返回：两条顶级评论、二级回复、三级回复，以及父评论已删除的回复
+        when(commentMapper.selectAllByPostId(1L)).thenReturn(List.of(
+                comment(10L, null, "a.jpg"),
+                comment(11L, 0L, null),
+                comment(12L, 10L, null),
+                comment(13L, 12L, null),
+                comment(14L, 99L, null)));
+
+        List<CommentVO> tree = service.getCommentsByPostId(1L);
+
+        assertEquals(List.of(11L, 10L), tree.stream().map(CommentVO::getCommentId).toList());
+        CommentVO first = tree.get(1);
+        assertEquals("http://img/avatars/a.jpg", first.getAvatar());
+        assertEquals(12L, first.getChildren().get(0).getCommentId());
+        assertEquals(13L, first.getChildren().get(0).getChildren().get(0).getCommentId());
+        assertTrue(tree.get(0).getChildren().isEmpty());
+        verify(commentMapper, times(1)).selectAllByPostId(1L);
+        verify(commentMapper, never()).selectByParentIds(anyList());
+    }
+
+    @Test
+    public void testScrollLoadsRepliesLevelByLevel() {
+        when(commentMapper.selectTopLevelForScroll(eq(1L), any(), any(), eq(3)))
+                .thenReturn(List.of(comment(30L, null, null), comment(20L, null, null), comment(10L, null, null)));
+        when(commentMapper.selectByParentIds(List.of(30L, 20L)))
+                .thenReturn(List.of(comment(31L, 30L, null)));
+        when(commentMapper.selectByParentIds(List.of(31L)))
+                .thenReturn(List.of(comment(32L, 31L, null)));
+        when(commentMapper.selectByParentIds(List.of(32L))).thenReturn(List.of());
+
+        ScrollResult<CommentVO> result = service.getCommentsByPostIdScroll(1L, null, null, 2);
+
+        assertTrue(result.isHasMore());
+        assertEquals(List.of(30L, 20L), result.getItems().stream().map(CommentVO::getCommentId).toList());
+        assertEquals(20L, result.getNextId());
+        CommentVO top = result.getItems().get(0);
+        assertEquals(32L, top.getChildren().get(0).getChildren().get(0).getCommentId());
+        verify(commentMapper, times(3)).selectByParentIds(anyList());
+    }
+
+    @Test
+    public void testScrollLastPage() {
+        when(commentMapper.selectTopLevelForScroll(eq(1L), any(), any(), eq(11)))
+                .thenReturn(List.of(comment(5L, null, null)));
+        when(commentMapper.selectByParentIds(anyList())).thenReturn(List.of());
+
+        ScrollResult<CommentVO> result = service.getCommentsByPostIdScroll(1L, new Date(), 6L, 10);
+
+        assertFalse(result.isHasMore());
+        assertEquals(1, result.getItems().size());
+    }
+
+    private static CommentVO comment(Long id, Long parentId, String avatar) {
+        CommentVO comment = new CommentVO();
+        comment.setCommentId(id);
+        comment.setParentId(parentId);
+        comment.setAvatar(avatar);
+        comment.setCreatedAt(new Date(id * 1000));
+        return comment;
+    }
+}
@@ -0,0 +1,164 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.entity.Post;
+import com.liuxy.campushub.enums.PostCounterEnum;
+import com.liuxy.campushub.mapper.PostMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 热点排行测试：排序、分页容量、计数增量的批量重排、跟踪上限淘汰、过期移除和突发加成失效
+ */
+public class HotPostRankingServiceImplTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.now().minusHours(2);
+
+    private PostMapper postMapper;
+    private HotPostRankingServiceImpl service;
+    private final List<Post> candidates = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        postMapper = mock(PostMapper.class);
+        when(postMapper.findRankingCandidates(any())).thenReturn(candidates);
+        service = new HotPostRankingServiceImpl(postMapper);
+        ReflectionTestUtils.setField(service, "capacity", 10);
+        ReflectionTestUtils.setField(service, "maxTracked", 100);
+        ReflectionTestUtils.setField(service, "maxAgeDays", 7);
+    }
+
+    @Test
+    public void testOrdersByRankingKeyWithinCapacity() {
+        candidates.add(post(1L, 10, CREATED_AT));
+        candidates.add(post(2L, 30, CREATED_AT));
+        candidates.add(post(3L, 20, CREATED_AT));
+        // 基础分相同时新发布的帖子在前
+        candidates.add(post(4L, 20, CREATED_AT.plusHours(1)));
+        ReflectionTestUtils.setField(service, "capacity", 3);
+
+        assertEquals(4, service.rebuild());
+
+        assertEquals(3, service.size());
+        assertEquals(List.of(2L, 4L, 3L), ids(service.getRankedPosts(0, 10)));
+        assertEquals(List.of(4L), ids(service.getRankedPosts(1, 1)));
+        // 超出排行容量的页为空
+        assertTrue(service.getRankedPosts(3, 10).isEmpty());
+    }
+
+    @Test
+    public void testCounterDeltasAreReindexedOnTick() {
+        candidates.add(post(1L, 30, CREATED_AT));
+        candidates.add(post(2L, 10, CREATED_AT));
+        service.rebuild();
+
+        for (int i = 0; i < 100; i++) {
+            service.onCounterDelta(2L, PostCounterEnum.LIKE, 1);
+        }
+        // 计数立即可见，排名等到下一次批量重排
+        assertEquals(100, service.getCounters(2L).getLikeCount());
+        assertEquals(List.of(1L, 2L), ids(service.getRankedPosts(0, 10)));
+
+        service.reindexDirty();
+        assertEquals(List.of(2L, 1L), ids(service.getRankedPosts(0, 10)));
+    }
+
+    @Test
+    public void testDeltasForUntrackedOrRemovedPostsAreIgnored() {
+        candidates.add(post(1L, 10, CREATED_AT));
+        candidates.add(post(2L, 20, CREATED_AT));
+        service.rebuild();
+
+        service.onCounterDelta(99L, PostCounterEnum.VIEW, 5);
+        service.onCounterDelta(1L, PostCounterEnum.LIKE, 1000);
+        service.onPostRemoved(1L);
+        service.reindexDirty();
+
+        assertNull(service.getCounters(99L));
+        assertNull(service.getCounters(1L));
+        assertEquals(List.of(2L), ids(service.getRankedPosts(0, 10)));
+    }
+
+    @Test
+    public void testTrimEvictsLowestWhenOverMaxTracked() {
+        ReflectionTestUtils.setField(service, "capacity", 2);
+        ReflectionTestUtils.setField(service, "maxTracked", 3);
+        for (long id = 1; id <= 5; id++) {
+            candidates.add(post(id, (int) id * 10, CREATED_AT));
+        }
+
+        assertEquals(3, service.rebuild());
+        assertNull(service.getCounters(1L));
+        assertNull(service.getCounters(2L));
+        assertNotNull(service.getCounters(3L));
+
+        service.onPostPublished(post(6L, 100, CREATED_AT));
+        assertNull(service.getCounters(3L));
+        assertEquals(List.of(6L, 5L), ids(service.getRankedPosts(0, 10)));
+    }
+
+    @Test
+    public void testPruneRemovesPostsOlderThanMaxAge() {
+        candidates.add(post(1L, 1000, LocalDateTime.now().minusDays(8)));
+        candidates.add(post(2L, 10, CREATED_AT));
+        service.rebuild();
+        assertEquals(List.of(1L, 2L), ids(service.getRankedPosts(0, 10)));
+
+        service.pruneExpired();
+
+        assertNull(service.getCounters(1L));
+        assertEquals(List.of(2L), ids(service.getRankedPosts(0, 10)));
+        // 超出天数的帖子重新上架时也不进入排行
+        service.onPostPublished(post(1L, 1000, LocalDateTime.now().minusDays(8)));
+        assertNull(service.getCounters(1L));
+    }
+
+    @Test
+    public void testBurstBonusExpiresAfterWindow() throws InterruptedException {
+        // 发布时长按小时向下取整，约1秒后超出24小时的突发窗口
+        LocalDateTime createdAt = LocalDateTime.now().minusHours(25).plusSeconds(1);
+        Post burst = post(1L, 0, createdAt);
+        burst.setCommentCount(101);
+        Post steady = post(2L, 30, createdAt);
+        candidates.add(burst);
+        candidates.add(steady);
+        service.rebuild();
+
+        // 突发期间 25.25 * 1.5 高于 30
+        assertEquals(List.of(1L, 2L), ids(service.getRankedPosts(0, 10)));
+
+        Thread.sleep(1500);
+        service.reindexDirty();
+        assertEquals(List.of(2L, 1L), ids(service.getRankedPosts(0, 10)));
+    }
+
+    /**
+     * 只有浏览量的帖子，基础分为 views * 0.2
+     */
+    private static Post post(Long id, int baseTimesFive, LocalDateTime createdAt) {
+        Post post = new Post();
+        post.setPostId(id);
+        post.setViewCount(baseTimesFive * 5);
+        post.setLikeCount(0);
+        post.setCommentCount(0);
+        post.setShareCount(0);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+
+    private static List<Long> ids(List<Post> posts) {
+        return posts.stream().map(Post::getPostId).toList();
+    }
+}
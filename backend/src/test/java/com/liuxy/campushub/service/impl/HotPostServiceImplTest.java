@@ -0,0 +1,139 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.config.RedisConfig;
+import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.vo.HotPostVO;
+import com.liuxy.campushub.vo.PostVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 热点帖子列表测试：一次 MGET 取详情、缺失详情批量回查并 MSET 回填、按排行顺序返回，以及详情缓存的类型化序列化
+ */
+public class HotPostServiceImplTest {
+
+    private ValueOperations<String, HotPostVO> detailOps;
+    private PostMapper postMapper;
+    private HotPostServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        ZSetOperations<String, Object> zSetOps = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+        // 排行榜的成员经 Object 序列化器读回为 Integer
+        Set<ZSetOperations.TypedTuple<Object>> ranking = new LinkedHashSet<>();
+        ranking.add(new DefaultTypedTuple<>(3, 30.0));
+        ranking.add(new DefaultTypedTuple<>(1, 20.0));
+        ranking.add(new DefaultTypedTuple<>(2, 10.0));
+        when(zSetOps.reverseRangeWithScores("hot:posts", 0, 2)).thenReturn(ranking);
+
+        RedisTemplate<String, HotPostVO> hotPostRedisTemplate = mock(RedisTemplate.class);
+        detailOps = mock(ValueOperations.class);
+        when(hotPostRedisTemplate.opsForValue()).thenReturn(detailOps);
+        postMapper = mock(PostMapper.class);
+
+        service = new HotPostServiceImpl();
+        ReflectionTestUtils.setField(service, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(service, "hotPostRedisTemplate", hotPostRedisTemplate);
+        ReflectionTestUtils.setField(service, "postMapper", postMapper);
+        ReflectionTestUtils.setField(service, "imageBaseUrl", "http://img");
+        ReflectionTestUtils.setField(service, "avatarPath", "/avatars");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMissingDetailsAreLoadedInOneQueryAndBackfilled() {
+        List<String> keys = List.of("hot:post:detail:3", "hot:post:detail:1", "hot:post:detail:2");
+        when(detailOps.multiGet(keys)).thenReturn(Arrays.asList(detail(3L, "a.jpg"), null, detail(2L, "https://cdn/b.jpg")));
+        when(postMapper.findPostVOsByIds(List.of(1L))).thenReturn(List.of(postVO(1L)));
+
+        List<HotPostVO> posts = service.getHotPosts(3);
+
+        assertEquals(List.of(3L, 1L, 2L), posts.stream().map(HotPostVO::getPostId).toList());
+        assertEquals(List.of(30.0, 20.0, 10.0), posts.stream().map(HotPostVO::getHotness).toList());
+        // 缓存中的文件名拼接为完整URL，旧数据中的完整URL原样返回
+        assertEquals("http://img/avatars/a.jpg", posts.get(0).getAvatar());
+        assertEquals("http://img/avatars/c.jpg", posts.get(1).getAvatar());
+        assertEquals("https://cdn/b.jpg", posts.get(2).getAvatar());
+
+        ArgumentCaptor<Map<String, HotPostVO>> fills = ArgumentCaptor.forClass(Map.class);
+        verify(detailOps).multiSet(fills.capture());
+        assertEquals(Set.of("hot:post:detail:1"), fills.getValue().keySet());
+    }
+
+    @Test
+    public void testAllCachedSkipsDatabase() {
+        when(detailOps.multiGet(anyList())).thenReturn(List.of(detail(3L, null), detail(1L, null), detail(2L, null)));
+
+        assertEquals(3, service.getHotPosts(3).size());
+        verify(postMapper, never()).findPostVOsByIds(anyList());
+        verify(detailOps, never()).multiSet(anyMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDetailSerializerIsTypedAndTolerant() {
+        RedisTemplate<String, HotPostVO> template = new RedisConfig().hotPostRedisTemplate(mock(RedisConnectionFactory.class));
+        RedisSerializer<HotPostVO> serializer = (RedisSerializer<HotPostVO>) template.getValueSerializer();
+
+        HotPostVO vo = detail(7L, "a.jpg");
+        String json = new String(serializer.serialize(vo), StandardCharsets.UTF_8);
+        // 不写类型信息和空字段
+        assertFalse(json.contains("@class"), json);
+        assertFalse(json.contains("null"), json);
+        assertEquals(vo, serializer.deserialize(json.getBytes(StandardCharsets.UTF_8)));
+
+        // 旧格式中多余的字段被忽略
+        HotPostVO legacy = serializer.deserialize("{\"postId\":8,\"title\":\"旧数据\",\"removedField\":1}"
+                .getBytes(StandardCharsets.UTF_8));
+        assertEquals(8L, legacy.getPostId().longValue());
+        assertEquals("旧数据", legacy.getTitle());
+        assertNull(legacy.getHotness());
+    }
+
+    private static HotPostVO detail(Long postId, String avatar) {
+        HotPostVO vo = new HotPostVO();
+        vo.setPostId(postId);
+        vo.setTitle("帖子" + postId);
+        vo.setAvatar(avatar);
+        return vo;
+    }
+
+    private static PostVO postVO(Long postId) {
+        PostVO postVO = new PostVO();
+        postVO.setPostId(postId);
+        postVO.setTitle("帖子" + postId);
+        postVO.setAvatar("c.jpg");
+        postVO.setCommentCount(5);
+        postVO.setCreatedAt(new Date(1712464215000L));
+        return postVO;
+    }
+}
@@ -0,0 +1,124 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.entity.Post;
+import com.liuxy.campushub.enums.HotScoreModeEnum;
+import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.service.HotScoreService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 热度分数定时重算测试：等待写回期间续期锁、LOG 方式跳过定时重算、统计信息不查询帖子表
+ */
+public class HotScoreRecalcServiceImplTest {
+
+    private static final String LOCK_KEY = "hot:score:recalc:lock";
+
+    private PostMapper postMapper;
+    private HotScoreService hotScoreService;
+    private StringRedisTemplate stringRedisTemplate;
+    private ThreadPoolTaskExecutor executor;
+    private HotScoreRecalcServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        postMapper = mock(PostMapper.class);
+        hotScoreService = mock(HotScoreService.class);
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), any(), any())).thenReturn(1L);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+        service = new HotScoreRecalcServiceImpl(postMapper, hotScoreService, stringRedisTemplate,
+                mock(RedisTemplate.class), executor);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "staleAfterMs", 3_600_000L);
+        ReflectionTestUtils.setField(service, "batchSize", 10);
+        ReflectionTestUtils.setField(service, "lockTtlMs", 90L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLockIsRenewedWhileWaitingForWrites() {
+        when(hotScoreService.getMode()).thenReturn(HotScoreModeEnum.DECAY);
+        when(postMapper.countPostsNeedHotCalc(any())).thenReturn(2L);
+        when(postMapper.getOldestHotCalcTime()).thenReturn(LocalDateTime.now().minusHours(3));
+        when(postMapper.getPostsNeedHotCalcAfter(any(), anyLong(), anyInt())).thenReturn(List.of(post(1L), post(2L)));
+        when(hotScoreService.score(any(Post.class))).thenAnswer(invocation -> {
+            Thread.sleep(150);
+            return 1.0;
+        });
+
+        assertEquals(2, service.recalculate());
+        // 锁有效期90ms，写回耗时约300ms，等待期间按30ms间隔续期
+        verify(stringRedisTemplate, atLeastOnce()).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), any(), eq("90"));
+        assertEquals(0L, service.getStats().get("lostLocks"));
+    }
+
+    @Test
+    public void testScheduledRunIsSkippedInLogMode() {
+        when(hotScoreService.getMode()).thenReturn(HotScoreModeEnum.LOG);
+        service.scheduledRecalculate();
+        verifyNoInteractions(postMapper);
+        verify(stringRedisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    public void testStatsComeFromLastRun() {
+        when(hotScoreService.getMode()).thenReturn(HotScoreModeEnum.DECAY);
+        when(postMapper.countPostsNeedHotCalc(any())).thenReturn(5L);
+        when(postMapper.getOldestHotCalcTime()).thenReturn(LocalDateTime.now().minusSeconds(120));
+        when(postMapper.getPostsNeedHotCalcAfter(any(), anyLong(), anyInt())).thenReturn(List.of());
+        service.scheduledRecalculate();
+
+        Map<String, Object> stats = service.getStats();
+        assertEquals(5L, stats.get("stalePosts"));
+        assertTrue(Math.abs((Long) stats.get("maxLagSeconds") - 120) <= 2);
+        // 查看统计不再查询帖子表，两条统计查询只在重算开始时执行一次
+        service.getStats();
+        verify(postMapper).countPostsNeedHotCalc(any());
+        verify(postMapper).getOldestHotCalcTime();
+    }
+
+    private static Post post(long id) {
+        Post post = new Post();
+        post.setPostId(id);
+        return post;
+    }
+}
@@ -0,0 +1,110 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.enums.PostCounterEnum;
+import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.model.PostCounterDelta;
+import com.liuxy.campushub.service.HotPostRankingService;
+import com.liuxy.campushub.service.PostVelocityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 帖子计数写回测试：并发累加与刷新交错时计数不丢失，刷新后增量清零
+ */
+public class PostCounterServiceImplTest {
+
+    private PostMapper postMapper;
+    private PostCounterServiceImpl service;
+    private final Map<Long, AtomicLong> written = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        postMapper = mock(PostMapper.class);
+        doAnswer(invocation -> {
+            List<PostCounterDelta> chunk = invocation.getArgument(0);
+            for (PostCounterDelta delta : chunk) {
+                written.computeIfAbsent(delta.getPostId(), id -> new AtomicLong()).addAndGet(delta.getViewDelta());
+            }
+            return chunk.size();
+        }).when(postMapper).batchIncrementCounters(anyList());
+
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        when(redis.scan(any(ScanOptions.class))).thenReturn(mock(Cursor.class));
+
+        service = new PostCounterServiceImpl(postMapper, mock(HotPostRankingService.class), redis,
+                mock(PostVelocityService.class));
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+    }
+
+    @Test
+    public void testPendingDeltaUntilFlush() {
+        service.increment(1L, PostCounterEnum.VIEW);
+        service.increment(1L, PostCounterEnum.VIEW);
+        service.increment(1L, PostCounterEnum.LIKE);
+
+        PostCounterDelta delta = service.getPendingDelta(1L);
+        assertEquals(2, delta.getViewDelta());
+        assertEquals(1, delta.getLikeDelta());
+
+        assertEquals(1, service.flush());
+        assertNull(service.getPendingDelta(1L));
+        assertEquals(2, written.get(1L).get());
+        verify(postMapper).batchIncrementCounters(anyList());
+    }
+
+    @Test
+    public void testConcurrentIncrementsSurviveFlushes() throws InterruptedException {
+        int threads = 4;
+        int perThread = 20000;
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    service.increment((long) (i % 3), PostCounterEnum.VIEW);
+                }
+                done.countDown();
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        // 刷新与累加交错进行，刷新会移除归零的条目
+        Thread flusher = new Thread(() -> {
+            while (running.get()) {
+                service.flush();
+            }
+        });
+        flusher.start();
+
+        done.await();
+        running.set(false);
+        flusher.join();
+        service.flush();
+
+        long total = written.values().stream().mapToLong(AtomicLong::get).sum();
+        assertEquals((long) threads * perThread, total);
+    }
+}
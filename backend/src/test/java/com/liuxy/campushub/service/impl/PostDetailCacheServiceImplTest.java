@@ -0,0 +1,114 @@
+package com.liuxy.campushub.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liuxy.campushub.enums.PostCounterEnum;
+import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.model.PostCounterDelta;
+import com.liuxy.campushub.service.HotPostRankingService;
+import com.liuxy.campushub.service.PostVelocityService;
+import com.liuxy.campushub.vo.PostDetailResponseVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 帖子详情缓存测试：未写库增量的叠加，以及增量写库后缓存失效、读到数据库中的最新计数
+ */
+public class PostDetailCacheServiceImplTest {
+
+    private static final Long POST_ID = 1L;
+
+    private final Map<Long, Integer> dbViews = new ConcurrentHashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private StringRedisTemplate redis;
+    private PostCounterServiceImpl counterService;
+    private PostDetailCacheServiceImpl cacheService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        dbViews.put(POST_ID, 10);
+
+        PostMapper postMapper = mock(PostMapper.class);
+        doAnswer(invocation -> {
+            List<PostCounterDelta> chunk = invocation.getArgument(0);
+            for (PostCounterDelta delta : chunk) {
+                dbViews.merge(delta.getPostId(), (int) delta.getViewDelta(), Integer::sum);
+            }
+            return chunk.size();
+        }).when(postMapper).batchIncrementCounters(anyList());
+
+        redis = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOps = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(valueOps);
+        when(redis.scan(any(ScanOptions.class))).thenReturn(mock(Cursor.class));
+
+        counterService = new PostCounterServiceImpl(postMapper, mock(HotPostRankingService.class), redis,
+                mock(PostVelocityService.class));
+        ReflectionTestUtils.setField(counterService, "batchSize", 500);
+
+        cacheService = new PostDetailCacheServiceImpl(redis, new ObjectMapper(),
+                counterService, mock(RedisMessageListenerContainer.class));
+        ReflectionTestUtils.setField(cacheService, "localSize", 100);
+        ReflectionTestUtils.setField(cacheService, "localTtlSeconds", 60L);
+        ReflectionTestUtils.setField(cacheService, "redisTtlSeconds", 600L);
+        cacheService.init();
+    }
+
+    @Test
+    public void testPendingDeltaIsOverlaidOnCachedDetail() {
+        assertEquals(10, read().getViewCount());
+
+        counterService.increment(POST_ID, PostCounterEnum.VIEW);
+        counterService.increment(POST_ID, PostCounterEnum.VIEW);
+
+        assertEquals(12, read().getViewCount());
+        // 命中本地近缓存，没有重新加载
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testIncrementFlushReadKeepsCount() {
+        assertEquals(10, read().getViewCount());
+        for (int i = 0; i < 3; i++) {
+            counterService.increment(POST_ID, PostCounterEnum.VIEW);
+        }
+        assertEquals(13, read().getViewCount());
+
+        assertEquals(1, counterService.flush());
+
+        // 增量已清零，缓存被删除后从数据库读到写入后的计数，不回退到10
+        assertEquals(13, read().getViewCount());
+        assertEquals(2, loads.get());
+        verify(redis).delete(List.of("post:detail:" + POST_ID));
+        verify(redis).convertAndSend("post:detail:invalidate", String.valueOf(POST_ID));
+    }
+
+    private PostDetailResponseVO read() {
+        return cacheService.get(POST_ID, () -> {
+            loads.incrementAndGet();
+            PostDetailResponseVO detail = new PostDetailResponseVO();
+            detail.setPostId(POST_ID);
+            detail.setViewCount(dbViews.get(POST_ID));
+            return detail;
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.exception.BusinessException;
+import com.liuxy.campushub.service.ImageVariantService;
+import com.liuxy.campushub.storage.BlobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 帖子图片上传测试：超时与存储失败分别给出明确的错误信息
+ */
+public class PostImageIngestServiceImplTest {
+
+    private static final String IMAGE = "data:image/png;base64,aGVsbG8=";
+
+    private BlobStore blobStore;
+    private ThreadPoolTaskExecutor executor;
+    private PostImageIngestServiceImpl service;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() {
+        blobStore = mock(BlobStore.class);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+        service = new PostImageIngestServiceImpl(blobStore, mock(ImageVariantService.class), executor);
+        ReflectionTestUtils.setField(service, "timeoutSeconds", 1L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void testTimeoutHasExplicitMessage() throws IOException {
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(blobStore).put(anyString(), any(), anyLong(), anyString());
+
+        BusinessException e = assertThrows(BusinessException.class, () -> service.upload(List.of(IMAGE)));
+        assertEquals("处理图片超时", e.getMessage());
+    }
+
+    @Test
+    public void testStorageFailureKeepsCause() throws IOException {
+        doThrow(new IOException("磁盘已满")).when(blobStore).put(anyString(), any(), anyLong(), anyString());
+
+        BusinessException e = assertThrows(BusinessException.class, () -> service.upload(List.of(IMAGE)));
+        assertEquals("处理图片失败: 磁盘已满", e.getMessage());
+    }
+}
@@ -0,0 +1,122 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.exception.BusinessException;
+import com.liuxy.campushub.mapper.PostMapper;
+import com.liuxy.campushub.model.PageCursor;
+import com.liuxy.campushub.service.AttachmentService;
+import com.liuxy.campushub.service.CategoryService;
+import com.liuxy.campushub.service.HotPostRankingService;
+import com.liuxy.campushub.service.PostCounterService;
+import com.liuxy.campushub.service.PostDetailCacheService;
+import com.liuxy.campushub.service.PostImageIngestService;
+import com.liuxy.campushub.service.PostPublishedCacheService;
+import com.liuxy.campushub.service.PostVelocityService;
+import com.liuxy.campushub.service.TopicService;
+import com.liuxy.campushub.vo.PostVO;
+import com.liuxy.campushub.vo.ScrollResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 帖子时间线测试：按 (发布时间, 帖子ID) 复合游标翻页
+ */
+public class PostServiceImplTest {
+
+    private PostMapper postMapper;
+    private AttachmentService attachmentService;
+    private PostServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        postMapper = mock(PostMapper.class);
+        attachmentService = mock(AttachmentService.class);
+        when(attachmentService.getCoverUrls(anyList())).thenReturn(Map.of(3L, "http://img/3.jpg"));
+        service = new PostServiceImpl(postMapper, attachmentService, mock(CategoryService.class),
+                mock(TopicService.class), mock(PostImageIngestService.class), mock(TransactionTemplate.class),
+                mock(HotPostRankingService.class), mock(PostCounterService.class), mock(PostDetailCacheService.class),
+                mock(PostVelocityService.class), mock(PostPublishedCacheService.class));
+    }
+
+    @Test
+    public void testCursorCarriesTimeAndId() {
+        // 同一时间发布的帖子靠ID区分，游标同时携带两者
+        Date sameTime = new Date(1712464215000L);
+        when(postMapper.selectPostsByTime(null, null, 3))
+                .thenReturn(List.of(post(3L, sameTime), post(2L, sameTime), post(1L, sameTime)));
+
+        ScrollResult<PostVO> first = service.getPostList(null, null, null, 2);
+
+        assertTrue(first.isHasMore());
+        assertEquals(List.of(3L, 2L), first.getItems().stream().map(PostVO::getPostId).toList());
+        assertEquals("http://img/3.jpg", first.getItems().get(0).getCoverUrl());
+        assertNull(first.getItems().get(1).getCoverUrl());
+        PageCursor next = PageCursor.decode(first.getNextCursor());
+        assertEquals(sameTime, next.getSortKeyAsDate());
+        assertEquals(2L, next.getId());
+        verify(attachmentService, times(1)).getCoverUrls(List.of(3L, 2L));
+
+        when(postMapper.selectPostsByTime(sameTime, 2L, 3)).thenReturn(List.of(post(1L, sameTime)));
+        ScrollResult<PostVO> second = service.getPostList(null, null, first.getNextCursor(), 2);
+        assertFalse(second.isHasMore());
+        assertEquals(1L, second.getItems().get(0).getPostId());
+    }
+
+    @Test
+    public void testLegacyTimeAndIdParameters() {
+        Date lastTime = new Date(1712464215000L);
+        when(postMapper.selectPostsByTime(lastTime, 9L, 11)).thenReturn(List.of());
+
+        ScrollResult<PostVO> result = service.getPostList(lastTime, 9L, null, 10);
+
+        assertFalse(result.isHasMore());
+        assertTrue(result.getItems().isEmpty());
+        verify(attachmentService, never()).getCoverUrls(anyList());
+    }
+
+    @Test
+    public void testWaterfallPassesCompositeCursor() {
+        Date time = new Date(1712464215000L);
+        when(postMapper.getPostsWaterfall(any())).thenReturn(List.of());
+
+        service.getPostsWaterfall(null, null, PageCursor.of(time, 7L).encode(), 20);
+
+        verify(postMapper).getPostsWaterfall(argThat(params ->
+                time.equals(params.get("lastTime")) && Long.valueOf(7L).equals(params.get("lastId"))
+                        && Integer.valueOf(21).equals(params.get("limit"))));
+    }
+
+    @Test
+    public void testInvalidCursorIsRejectedBeforeQuery() {
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> service.getPostList(null, null, "not base64 !", 10));
+        assertEquals(400, e.getErrorCode());
+        verify(postMapper, never()).selectPostsByTime(any(), any(), anyInt());
+    }
+
+    private static PostVO post(Long id, Date createdAt) {
+        PostVO post = new PostVO();
+        post.setPostId(id);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+}
@@ -0,0 +1,159 @@
+package com.liuxy.campushub.service.impl;
+
+import com.liuxy.campushub.dto.TokenPair;
+import com.liuxy.campushub.exception.BusinessException;
+import com.liuxy.campushub.security.UserDetailsImpl;
+import com.liuxy.campushub.security.UserPrincipalCache;
+import com.liuxy.campushub.service.TokenRevocationService;
+import com.liuxy.campushub.utils.JwtTokenUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 刷新令牌测试：每次刷新轮换令牌，旧令牌再次使用时结束整个会话
+ * <p>
+ * Redis 以内存表代替，轮换脚本按相同语义执行：令牌ID一致时替换，不一致时删除会话。
+ */
+public class RefreshTokenServiceImplTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-0123456789";
+
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+    private StringRedisTemplate stringRedisTemplate;
+    private TokenRevocationService tokenRevocationService;
+    private UserPrincipalCache userPrincipalCache;
+    private RefreshTokenServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+        when(stringRedisTemplate.delete(anyString()))
+                .thenAnswer(invocation -> redis.remove(invocation.<String>getArgument(0)) != null);
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenAnswer(invocation -> rotate(invocation.<List<String>>getArgument(1).get(0),
+                        invocation.getArgument(2), invocation.getArgument(3)));
+
+        tokenRevocationService = mock(TokenRevocationService.class);
+        JwtTokenUtil jwtTokenUtil = new JwtTokenUtil(tokenRevocationService);
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", 3600L);
+        jwtTokenUtil.init();
+
+        userPrincipalCache = mock(UserPrincipalCache.class);
+        when(userPrincipalCache.get("alice"))
+                .thenReturn(UserDetailsImpl.build(1L, "alice", null, null, List.of("USER")));
+
+        service = new RefreshTokenServiceImpl(stringRedisTemplate, jwtTokenUtil, tokenRevocationService, userPrincipalCache);
+        ReflectionTestUtils.setField(service, "refreshExpirationSeconds", 1209600L);
+        ReflectionTestUtils.setField(service, "maxLifetimeSeconds", 2592000L);
+    }
+
+    @Test
+    public void testRefreshRotatesToken() {
+        TokenPair login = service.startSession(1L, "alice", 0);
+        assertEquals(1, redis.size());
+
+        TokenPair first = service.refresh(login.getRefreshToken());
+        TokenPair second = service.refresh(first.getRefreshToken());
+
+        assertNotNull(second.getToken());
+        assertNotEquals(login.getRefreshToken(), first.getRefreshToken());
+        assertNotEquals(first.getRefreshToken(), second.getRefreshToken());
+        assertEquals(1, redis.size());
+        verify(tokenRevocationService, never()).revoke(anyString(), any(Date.class));
+    }
+
+    @Test
+    public void testReuseEndsSession() {
+        TokenPair login = service.startSession(1L, "alice", 0);
+        String sessionKey = redis.keySet().iterator().next();
+        TokenPair rotated = service.refresh(login.getRefreshToken());
+
+        // 已轮换掉的令牌再次出现：会话删除，会话内的访问令牌一并吊销
+        BusinessException reuse = assertThrows(BusinessException.class, () -> service.refresh(login.getRefreshToken()));
+        assertEquals(401, reuse.getErrorCode());
+        assertTrue(redis.isEmpty());
+        verify(tokenRevocationService).revoke(eq(sessionKey.substring("token:session:".length())), any(Date.class));
+
+        // 合法持有者手中最新的令牌同样失效，需要重新登录
+        BusinessException expired = assertThrows(BusinessException.class, () -> service.refresh(rotated.getRefreshToken()));
+        assertEquals(401, expired.getErrorCode());
+    }
+
+    @Test
+    public void testAccessTokenCannotRefresh() {
+        TokenPair login = service.startSession(1L, "alice", 0);
+        BusinessException e = assertThrows(BusinessException.class, () -> service.refresh(login.getToken()));
+        assertEquals(401, e.getErrorCode());
+        assertEquals(1, redis.size());
+    }
+
+    @Test
+    public void testDisabledUserCannotRefresh() {
+        TokenPair login = service.startSession(1L, "alice", 0);
+        when(userPrincipalCache.get("alice")).thenReturn(null);
+
+        BusinessException e = assertThrows(BusinessException.class, () -> service.refresh(login.getRefreshToken()));
+        assertEquals(401, e.getErrorCode());
+        assertTrue(redis.isEmpty());
+    }
+
+    @Test
+    public void testMaxLifetimeEndsSession() {
+        TokenPair login = service.startSession(1L, "alice", 0);
+        ReflectionTestUtils.setField(service, "maxLifetimeSeconds", 0L);
+
+        BusinessException e = assertThrows(BusinessException.class, () -> service.refresh(login.getRefreshToken()));
+        assertEquals("登录已过期，请重新登录", e.getMessage());
+        assertTrue(redis.isEmpty());
+    }
+
+    /**
+     * 与 ROTATE_SCRIPT 相同的语义
+     */
+    private long rotate(String key, String expected, String next) {
+        synchronized (redis) {
+            String current = redis.get(key);
+            if (current == null) {
+                return 0;
+            }
+            if (!current.equals(expected)) {
+                redis.remove(key);
+                return -1;
+            }
+            redis.put(key, next);
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.liuxy.campushub.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 令牌吊销测试：过滤器未命中时不访问 Redis，Redis 故障时只有过滤器命中的令牌按已吊销处理
+ */
+public class TokenRevocationServiceImplTest {
+
+    private static final String PREFIX = "token:revoked:";
+
+    private StringRedisTemplate stringRedisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private TokenRevocationServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        service = new TokenRevocationServiceImpl(stringRedisTemplate, mock(RedisMessageListenerContainer.class));
+        ReflectionTestUtils.setField(service, "expectedTokens", 1000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.001);
+    }
+
+    @Test
+    public void testUnrevokedTokenSkipsRedisAfterSync() {
+        initWithScan(emptyCursor());
+
+        assertFalse(service.isRevoked("active"));
+        verify(stringRedisTemplate, never()).hasKey(anyString());
+    }
+
+    @Test
+    public void testRevokedTokenIsConfirmedInRedis() {
+        initWithScan(emptyCursor());
+        service.revoke("revoked", future());
+        when(stringRedisTemplate.hasKey(PREFIX + "revoked")).thenReturn(true);
+
+        assertTrue(service.isRevoked("revoked"));
+        verify(valueOperations).set(eq(PREFIX + "revoked"), eq("1"), anyLong(), eq(TimeUnit.MILLISECONDS));
+        verify(stringRedisTemplate).convertAndSend("token:revoked", "revoked");
+    }
+
+    @Test
+    public void testRedisFailureFailsOpenUnlessFilterHits() {
+        initWithScan(emptyCursor());
+        service.revoke("revoked", future());
+        when(stringRedisTemplate.hasKey(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertTrue(service.isRevoked("revoked"));
+        assertFalse(service.isRevoked("active"));
+    }
+
+    @Test
+    public void testBeforeFirstSyncMissesFailOpen() {
+        when(stringRedisTemplate.scan(any(ScanOptions.class))).thenThrow(new RedisConnectionFailureException("down"));
+        service.init();
+        when(stringRedisTemplate.hasKey(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        // 首次同步前过滤器不完整，未命中的令牌仍查询 Redis，查询失败时放行
+        assertFalse(service.isRevoked("active"));
+        verify(stringRedisTemplate).hasKey(PREFIX + "active");
+    }
+
+    @Test
+    public void testUnsyncedRevocationIsKeptAndRetried() {
+        initWithScan(emptyCursor());
+        doThrow(new RedisConnectionFailureException("down"))
+                .when(valueOperations).set(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+
+        service.revoke("revoked", future());
+        when(stringRedisTemplate.hasKey(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+        assertTrue(service.isRevoked("revoked"));
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+
+        // 重建时 Redis 中扫描不到，尚未写入的记录仍加入新过滤器
+        service.rebuild();
+        assertTrue(service.isRevoked("revoked"));
+
+        // Redis 恢复后重试写入并广播
+        doNothing().when(valueOperations).set(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+        service.retryPending();
+        verify(stringRedisTemplate).convertAndSend("token:revoked", "revoked");
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(service, "pendingRevocations")).isEmpty());
+    }
+
+    @Test
+    public void testExpiredTokenIsNotRecorded() {
+        initWithScan(emptyCursor());
+        service.revoke("expired", new Date(System.currentTimeMillis() - 1000));
+        verify(valueOperations, never()).set(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+        assertFalse(service.isRevoked("expired"));
+    }
+
+    private void initWithScan(Cursor<String> cursor) {
+        when(stringRedisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        if (ReflectionTestUtils.getField(service, "filter") == null) {
+            service.init();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cursor<String> emptyCursor() {
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenReturn(false);
+        return cursor;
+    }
+
+    private static Date future() {
+        return new Date(System.currentTimeMillis() + 60_000);
+    }
+}
@@ -0,0 +1,140 @@
+package com.liuxy.campushub.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * BlobStore 契约测试，各存储实现继承本类并提供待测实例，业务代码依赖的行为在所有实现上保持一致
+ */
+public abstract class BlobStoreContractTest {
+
+    private static final byte[] CONTENT = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    protected BlobStore store;
+
+    /**
+     * 创建待测存储，每个用例一个新实例
+     */
+    protected abstract BlobStore createStore() throws Exception;
+
+    /**
+     * 释放存储占用的资源
+     */
+    protected void destroyStore() throws Exception {
+    }
+
+    @BeforeEach
+    public void setUpStore() throws Exception {
+        store = createStore();
+    }
+
+    @AfterEach
+    public void tearDownStore() throws Exception {
+        destroyStore();
+    }
+
+    @Test
+    public void testPutGetAndSize() throws IOException {
+        store.put("avatars/a.jpg", new ByteArrayInputStream(CONTENT), CONTENT.length, "image/jpeg");
+
+        assertEquals(CONTENT.length, store.size("avatars/a.jpg"));
+        try (InputStream in = store.get("avatars/a.jpg")) {
+            assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testPutWithUnknownLength() throws IOException {
+        store.put("products/2024/04/07/b.png", new ByteArrayInputStream(CONTENT), -1, "image/png");
+
+        try (InputStream in = store.get("products/2024/04/07/b.png")) {
+            assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testPutOverwritesExisting() throws IOException {
+        byte[] updated = "updated".getBytes(StandardCharsets.UTF_8);
+        store.put("avatars/a.jpg", new ByteArrayInputStream(CONTENT), CONTENT.length, null);
+        store.put("avatars/a.jpg", new ByteArrayInputStream(updated), updated.length, null);
+
+        assertEquals(updated.length, store.size("avatars/a.jpg"));
+        try (InputStream in = store.get("avatars/a.jpg")) {
+            assertArrayEquals(updated, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testGetRangeAndTransferTo() throws IOException {
+        store.put("avatars/a.jpg", new ByteArrayInputStream(CONTENT), CONTENT.length, null);
+
+        try (InputStream in = store.getRange("avatars/a.jpg", 3, 5)) {
+            assertEquals("34567", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.transferTo("avatars/a.jpg", 10, 6, Channels.newChannel(out));
+        assertEquals("abcdef", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testMissingObject() throws IOException {
+        assertThrows(NoSuchFileException.class, () -> store.size("avatars/missing.jpg"));
+        assertThrows(NoSuchFileException.class, () -> {
+            try (InputStream in = store.get("avatars/missing.jpg")) {
+                in.readAllBytes();
+            }
+        });
+        // 删除不存在的对象不报错
+        store.delete("avatars/missing.jpg");
+    }
+
+    @Test
+    public void testDeleteAndDeleteAll() throws IOException {
+        List<String> keys = List.of("avatars/a.jpg", "avatars/b.jpg", "products/2024/04/07/c.jpg");
+        for (String key : keys) {
+            store.put(key, new ByteArrayInputStream(CONTENT), CONTENT.length, null);
+        }
+
+        store.delete("avatars/a.jpg");
+        assertThrows(NoSuchFileException.class, () -> store.size("avatars/a.jpg"));
+
+        assertEquals(2, store.deleteAll(keys.subList(1, keys.size())));
+        for (String key : keys) {
+            assertThrows(NoSuchFileException.class, () -> store.size(key));
+        }
+    }
+
+    @Test
+    public void testUrlRoundTrip() {
+        for (String key : List.of("avatars/a.jpg", "products/2024/04/07/c.jpg")) {
+            assertEquals(key, store.keyOf(store.url(key)));
+            // 开头的斜杠不影响地址
+            assertEquals(store.url(key), store.url("/" + key));
+        }
+        assertNull(store.keyOf("https://elsewhere.example.com/avatars/a.jpg"));
+    }
+
+    @Test
+    public void testRejectsKeysOutsideRoot() {
+        assertThrows(IllegalArgumentException.class, () ->
+                store.put("avatars/../../etc/passwd", new ByteArrayInputStream(CONTENT), CONTENT.length, null));
+        assertThrows(IllegalArgumentException.class, () -> store.get("avatars//a.jpg"));
+        assertThrows(IllegalArgumentException.class, () -> store.url(""));
+    }
+}
@@ -0,0 +1,161 @@
+package com.liuxy.campushub.storage;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 测试用 S3 替身，对象按路径风格（/存储桶/对象键）保存在内存中
+ * <p>
+ * 只实现 S3BlobStore 用到的 PutObject、GetObject（含单段 Range）、HeadObject、DeleteObject 和 DeleteObjects。
+ */
+class FakeS3Dispatcher extends Dispatcher {
+
+    private static final Pattern DELETE_KEY = Pattern.compile("<Key>(.*?)</Key>");
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    private final String bucket;
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+    FakeS3Dispatcher(String bucket) {
+        this.bucket = bucket;
+    }
+
+    /**
+     * 存储桶中的对象，键为完整的对象键（含前缀）
+     */
+    Map<String, byte[]> objects() {
+        return objects;
+    }
+
+    @Override
+    public MockResponse peek() {
+        // SDK 上传时带 Expect: 100-continue，先回复 100 再读请求体，避免客户端等待超时
+        return new MockResponse().setSocketPolicy(SocketPolicy.EXPECT_CONTINUE);
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        URI uri = URI.create(request.getPath());
+        String path = uri.getPath();
+        String bucketPath = "/" + bucket;
+        if (!path.equals(bucketPath) && !path.startsWith(bucketPath + "/")) {
+            return error(404, "NoSuchBucket");
+        }
+        String key = path.length() > bucketPath.length() ? path.substring(bucketPath.length() + 1) : "";
+        switch (request.getMethod()) {
+            case "PUT":
+                return putObject(key, request);
+            case "GET":
+                return getObject(key, request.getHeader("Range"), true);
+            case "HEAD":
+                return getObject(key, null, false);
+            case "DELETE":
+                objects.remove(key);
+                return new MockResponse().setResponseCode(204);
+            case "POST":
+                if (key.isEmpty() && uri.getRawQuery() != null && uri.getRawQuery().startsWith("delete")) {
+                    return deleteObjects(request);
+                }
+                return error(405, "MethodNotAllowed");
+            default:
+                return error(405, "MethodNotAllowed");
+        }
+    }
+
+    private MockResponse putObject(String key, RecordedRequest request) {
+        byte[] body = request.getBody().readByteArray();
+        String contentSha256 = request.getHeader("x-amz-content-sha256");
+        if (contentSha256 != null && contentSha256.startsWith("STREAMING-")) {
+            body = decodeAwsChunked(body);
+        }
+        objects.put(key, body);
+        return new MockResponse().setHeader("ETag", etag(body));
+    }
+
+    private MockResponse getObject(String key, String range, boolean withBody) {
+        byte[] content = objects.get(key);
+        if (content == null) {
+            return withBody ? error(404, "NoSuchKey") : new MockResponse().setResponseCode(404);
+        }
+        int start = 0;
+        int end = content.length - 1;
+        MockResponse response = new MockResponse().setHeader("ETag", etag(content));
+        if (range != null) {
+            Matcher matcher = RANGE.matcher(range);
+            if (!matcher.matches()) {
+                return error(416, "InvalidRange");
+            }
+            start = Integer.parseInt(matcher.group(1));
+            end = Math.min(Integer.parseInt(matcher.group(2)), content.length - 1);
+            response.setResponseCode(206)
+                    .setHeader("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+        }
+        if (!withBody) {
+            return response.setHeader("Content-Length", content.length);
+        }
+        return response.setBody(new Buffer().write(content, start, end - start + 1));
+    }
+
+    private MockResponse deleteObjects(RecordedRequest request) {
+        Matcher matcher = DELETE_KEY.matcher(request.getBody().readUtf8());
+        while (matcher.find()) {
+            objects.remove(matcher.group(1));
+        }
+        return new MockResponse()
+                .setHeader("Content-Type", "application/xml")
+                .setBody("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                        + "<DeleteResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\"></DeleteResult>");
+    }
+
+    private MockResponse error(int status, String code) {
+        return new MockResponse()
+                .setResponseCode(status)
+                .setHeader("Content-Type", "application/xml")
+                .setBody("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                        + "<Error><Code>" + code + "</Code><Message>" + code + "</Message></Error>");
+    }
+
+    /**
+     * 还原 aws-chunked 编码的请求体：每块为 "十六进制长度;chunk-signature=...\r\n内容\r\n"，长度为0的块结束
+     */
+    private static byte[] decodeAwsChunked(byte[] encoded) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int position = 0;
+        while (position < encoded.length) {
+            int lineEnd = position;
+            while (encoded[lineEnd] != '\r' || encoded[lineEnd + 1] != '\n') {
+                lineEnd++;
+            }
+            String header = new String(encoded, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";", 2)[0].trim(), 16);
+            if (size == 0) {
+                break;
+            }
+            out.write(encoded, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] content) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
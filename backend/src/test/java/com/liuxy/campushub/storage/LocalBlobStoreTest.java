@@ -0,0 +1,39 @@
+package com.liuxy.campushub.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 本地磁盘存储契约测试，根目录为临时目录
+ */
+public class LocalBlobStoreTest extends BlobStoreContractTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Override
+    protected BlobStore createStore() {
+        return new LocalBlobStore(tempDir, "http://localhost:8081");
+    }
+
+    @Test
+    public void testWritesUnderRootWithoutTempFiles() throws IOException {
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+        store.put("avatars/a.jpg", new ByteArrayInputStream(content), content.length, null);
+
+        assertArrayEquals(content, Files.readAllBytes(tempDir.resolve("avatars").resolve("a.jpg")));
+        try (Stream<Path> files = Files.list(tempDir.resolve("avatars"))) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.liuxy.campushub.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 按目录分派的存储契约测试：商品图片写入单独的本地目录，其余对象写入默认存储
+ */
+public class RoutingBlobStoreTest extends BlobStoreContractTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Override
+    protected BlobStore createStore() {
+        BlobStore fallback = new LocalBlobStore(tempDir.resolve("shared"), "http://localhost:8081");
+        BlobStore products = new LocalBlobStore(tempDir.resolve("legacy").resolve(BlobKeys.PRODUCTS),
+                "/images/" + BlobKeys.PRODUCTS);
+        return new RoutingBlobStore(fallback, Map.of(BlobKeys.PRODUCTS, products));
+    }
+
+    @Test
+    public void testRoutesByFirstSegment() throws IOException {
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+        store.put("products/2024/04/07/a.jpg", new ByteArrayInputStream(content), content.length, null);
+        store.put("avatars/b.jpg", new ByteArrayInputStream(content), content.length, null);
+
+        assertTrue(Files.exists(tempDir.resolve("legacy/products/2024/04/07/a.jpg")));
+        assertFalse(Files.exists(tempDir.resolve("shared/products")));
+        assertTrue(Files.exists(tempDir.resolve("shared/avatars/b.jpg")));
+
+        // 商品图片沿用原来的相对地址
+        assertEquals("/images/products/2024/04/07/a.jpg", store.url("/products/2024/04/07/a.jpg"));
+        assertEquals("http://localhost:8081/avatars/b.jpg", store.url("avatars/b.jpg"));
+    }
+}
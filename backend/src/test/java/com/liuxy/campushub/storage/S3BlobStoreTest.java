@@ -0,0 +1,75 @@
+package com.liuxy.campushub.storage;
+
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * S3 兼容存储契约测试，连接本地的 S3 替身（路径风格访问，与 MinIO 的配置方式相同）
+ */
+public class S3BlobStoreTest extends BlobStoreContractTest {
+
+    private static final String BUCKET = "campushub";
+    private static final String PREFIX = "test";
+
+    private MockWebServer server;
+    private FakeS3Dispatcher dispatcher;
+
+    @Override
+    protected BlobStore createStore() throws IOException {
+        dispatcher = new FakeS3Dispatcher(BUCKET);
+        server = new MockWebServer();
+        server.setDispatcher(dispatcher);
+        server.start();
+
+        S3Client client = S3Client.builder()
+                .endpointOverride(URI.create("http://" + server.getHostName() + ":" + server.getPort()))
+                .region(Region.US_EAST_1)
+                .forcePathStyle(true)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .build();
+        return new S3BlobStore(client, BUCKET, PREFIX, "http://cdn.example.com");
+    }
+
+    @Override
+    protected void destroyStore() throws IOException {
+        ((S3BlobStore) store).close();
+        server.shutdown();
+    }
+
+    @Test
+    public void testKeysCarryPrefix() throws IOException {
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+        store.put("avatars/a.jpg", new ByteArrayInputStream(content), content.length, "image/jpeg");
+
+        assertArrayEquals(content, dispatcher.objects().get(PREFIX + "/avatars/a.jpg"));
+        assertEquals("http://cdn.example.com/" + PREFIX + "/avatars/a.jpg", store.url("avatars/a.jpg"));
+    }
+
+    @Test
+    public void testDeleteAllUsesSingleBatchRequest() throws Exception {
+        byte[] content = "x".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 3; i++) {
+            store.put("avatars/" + i + ".jpg", new ByteArrayInputStream(content), content.length, null);
+        }
+        int before = server.getRequestCount();
+
+        store.deleteAll(List.of("avatars/0.jpg", "avatars/1.jpg", "avatars/2.jpg"));
+
+        assertEquals(before + 1, server.getRequestCount());
+        assertTrue(dispatcher.objects().isEmpty());
+    }
+}
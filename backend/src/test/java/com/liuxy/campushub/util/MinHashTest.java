@@ -0,0 +1,42 @@
+package com.liuxy.campushub.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MinHash 测试：签名稳定、相同文本相似度为1、近似文本高于缓存阈值、无关文本接近0
+ */
+public class MinHashTest {
+
+    private final MinHash minHash = new MinHash(64, 2);
+
+    @Test
+    public void testSignatureIsDeterministic() {
+        long[] signature = minHash.signature("图书馆周末几点开门");
+        assertEquals(64, signature.length);
+        // 种子固定，不同实例、不同进程得到相同签名
+        assertArrayEquals(signature, new MinHash(64, 2).signature("图书馆周末几点开门"));
+        assertEquals(1.0, MinHash.similarity(signature, minHash.signature("图书馆周末几点开门")));
+    }
+
+    @Test
+    public void testSimilarity() {
+        long[] question = minHash.signature("图书馆周末几点开门到几点关门");
+        // 只多一个字，n-gram 集合的 Jaccard 相似度为 13/14
+        assertTrue(MinHash.similarity(question, minHash.signature("图书馆周末几点开门到几点关门呢")) >= 0.85);
+        assertTrue(MinHash.similarity(question, minHash.signature("图书馆工作日几点开门")) < 0.5);
+        assertTrue(MinHash.similarity(question, minHash.signature("食堂今天有什么菜")) < 0.1);
+    }
+
+    @Test
+    public void testShortText() {
+        // 短于 n-gram 长度时整段作为一个 n-gram
+        long[] single = minHash.signature("书");
+        assertEquals(1.0, MinHash.similarity(single, minHash.signature("书")));
+        assertTrue(MinHash.similarity(single, minHash.signature("馆")) < 0.1);
+        assertEquals(0.0, MinHash.similarity(new long[0], single));
+    }
+}
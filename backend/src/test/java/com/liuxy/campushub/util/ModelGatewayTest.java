@@ -0,0 +1,157 @@
+package com.liuxy.campushub.util;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 模型网关测试，上游为本地的 WebSocket 服务器，握手后不回复任何消息，模拟迟迟不作答的模型服务
+ */
+public class ModelGatewayTest {
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private ModelGateway gateway;
+    private final AtomicInteger signatures = new AtomicInteger();
+    private final CountDownLatch serverOpened = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+                    @Override
+                    public void onOpen(WebSocket webSocket, Response response) {
+                        serverOpened.countDown();
+                    }
+                });
+            }
+        });
+        server.start();
+        client = new OkHttpClient();
+        gateway = new ModelGateway("test", client, timestamp -> {
+            signatures.incrementAndGet();
+            return server.url("/chat?timestamp=" + timestamp).toString();
+        }, new ModelGateway.Settings(1, 1, Duration.ofSeconds(5), Duration.ofMinutes(1)));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        gateway.close();
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+        server.shutdown();
+    }
+
+    @Test
+    public void testCancelReleasesSlotToQueuedRequest() throws Exception {
+        CompletableFuture<WebSocket> first = gateway.open(new WebSocketListener() { });
+        first.get(5, TimeUnit.SECONDS).send("{}");
+        assertTrue(serverOpened.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<WebSocket> second = gateway.open(new WebSocketListener() { });
+        assertFalse(second.isDone());
+        assertEquals(1, gateway.getStats().get("queued"));
+
+        // 上游一直不作答，调用方放弃后名额立即交给排队的请求
+        gateway.cancel(first);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(1, gateway.getStats().get("active"));
+        assertEquals(0, gateway.getStats().get("queued"));
+
+        gateway.cancel(second);
+        assertEquals(0, gateway.getStats().get("active"));
+        // 同一会话重复取消不会多归还名额
+        gateway.cancel(first);
+        assertEquals(0, gateway.getStats().get("active"));
+    }
+
+    @Test
+    public void testCancelQueuedRequestLeavesQueue() throws Exception {
+        CompletableFuture<WebSocket> first = gateway.open(new WebSocketListener() { });
+        first.get(5, TimeUnit.SECONDS);
+        CompletableFuture<WebSocket> second = gateway.open(new WebSocketListener() { });
+
+        gateway.cancel(second);
+        assertTrue(second.isCancelled());
+        assertEquals(0, gateway.getStats().get("queued"));
+
+        gateway.cancel(first);
+        assertEquals(0, gateway.getStats().get("active"));
+    }
+
+    @Test
+    public void testRejectsWhenQueueFull() throws Exception {
+        CompletableFuture<WebSocket> first = gateway.open(new WebSocketListener() { });
+        first.get(5, TimeUnit.SECONDS);
+        CompletableFuture<WebSocket> second = gateway.open(new WebSocketListener() { });
+
+        CompletableFuture<WebSocket> third = gateway.open(new WebSocketListener() { });
+        ExecutionException e = assertThrows(ExecutionException.class, () -> third.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(1L, gateway.getStats().get("rejected"));
+
+        gateway.cancel(second);
+        gateway.cancel(first);
+    }
+
+    @Test
+    public void testQueueTimeout() throws Exception {
+        ModelGateway shortQueue = new ModelGateway("short", client, timestamp -> server.url("/chat").toString(),
+                new ModelGateway.Settings(1, 1, Duration.ofMillis(100), Duration.ofMinutes(1)));
+        CompletableFuture<WebSocket> first = shortQueue.open(new WebSocketListener() { });
+        first.get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<WebSocket> second = shortQueue.open(new WebSocketListener() { });
+        ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        // 出队在计时线程中完成，可能略晚于 get 返回
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Long.valueOf(1L).equals(shortQueue.getStats().get("queueTimeouts"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, shortQueue.getStats().get("queued"));
+        assertEquals(1L, shortQueue.getStats().get("queueTimeouts"));
+
+        shortQueue.cancel(first);
+        shortQueue.close();
+    }
+
+    @Test
+    public void testReusesSignedUrlWithinTtl() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<WebSocket> session = gateway.open(new WebSocketListener() { });
+            session.get(5, TimeUnit.SECONDS);
+            gateway.cancel(session);
+        }
+        assertEquals(1, signatures.get());
+        assertEquals(3L, gateway.getStats().get("opened"));
+    }
+}
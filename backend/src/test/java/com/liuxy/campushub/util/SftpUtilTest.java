@@ -0,0 +1,169 @@
+package com.liuxy.campushub.util;
+
+import com.jcraft.jsch.ChannelSftp;
+import org.apache.sshd.common.config.keys.PublicKeyEntry;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.sftp.server.SftpSubsystemFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SftpUtil 与 SftpChannelPool 测试，连接内嵌的 SSH 服务器，根目录为临时目录
+ */
+public class SftpUtilTest {
+
+    private static final String USERNAME = "campus";
+    private static final String PASSWORD = "secret";
+    private static final int MAX_CHANNELS = 4;
+
+    @TempDir
+    Path tempDir;
+
+    private Path root;
+    private Path knownHosts;
+    private SshServer server;
+    private SftpChannelPool channelPool;
+    private SftpUtil sftpUtil;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        root = Files.createDirectories(tempDir.resolve("root"));
+        Files.createDirectories(root.resolve("upload"));
+
+        server = SshServer.setUpDefaultServer();
+        server.setHost("127.0.0.1");
+        server.setPort(0);
+        SimpleGeneratorHostKeyProvider hostKeys = new SimpleGeneratorHostKeyProvider(tempDir.resolve("hostkey.ser"));
+        server.setKeyPairProvider(hostKeys);
+        server.setPasswordAuthenticator((username, password, session) ->
+                USERNAME.equals(username) && PASSWORD.equals(password));
+        server.setSubsystemFactories(List.of(new SftpSubsystemFactory()));
+        server.setFileSystemFactory(new VirtualFileSystemFactory(root));
+        server.start();
+
+        SftpChannelPool.Settings settings = new SftpChannelPool.Settings(0, MAX_CHANNELS,
+                Duration.ofSeconds(5), Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofSeconds(5));
+        // 非22端口在 known_hosts 中记为 [主机]:端口
+        PublicKey hostKey = hostKeys.loadKeys(null).iterator().next().getPublic();
+        knownHosts = tempDir.resolve("known_hosts");
+        Files.writeString(knownHosts, "[127.0.0.1]:" + server.getPort() + " " + PublicKeyEntry.toString(hostKey) + "\n");
+        channelPool = new SftpChannelPool("127.0.0.1", server.getPort(), USERNAME, PASSWORD, knownHosts.toString(),
+                settings);
+        sftpUtil = new SftpUtil(channelPool);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        channelPool.close();
+        server.stop(true);
+    }
+
+    @Test
+    public void testUploadDownloadListDelete() throws IOException {
+        byte[] content = "hello sftp".getBytes(StandardCharsets.UTF_8);
+
+        String filename = sftpUtil.uploadStream(new ByteArrayInputStream(content), "/upload", ".txt");
+        assertTrue(filename.endsWith(".txt"));
+        assertArrayEquals(content, Files.readAllBytes(root.resolve("upload").resolve(filename)));
+
+        try (InputStream in = sftpUtil.downloadFile("/upload", filename)) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+
+        Vector<ChannelSftp.LsEntry> entries = sftpUtil.listFiles("/upload");
+        assertTrue(entries.stream().anyMatch(entry -> filename.equals(entry.getFilename())));
+
+        sftpUtil.deleteFile("/upload", filename);
+        assertFalse(Files.exists(root.resolve("upload").resolve(filename)));
+        assertEquals(0, sftpUtil.getPoolStats().get("active"));
+    }
+
+    @Test
+    public void testConcurrentUploadsShareBoundedPool() throws Exception {
+        int uploads = MAX_CHANNELS * 4;
+        ExecutorService executor = Executors.newFixedThreadPool(uploads);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < uploads; i++) {
+                byte[] content = ("file-" + i).getBytes(StandardCharsets.UTF_8);
+                futures.add(executor.submit(() ->
+                        sftpUtil.uploadStream(new ByteArrayInputStream(content), "/upload", ".txt")));
+            }
+            for (Future<String> future : futures) {
+                assertTrue(Files.exists(root.resolve("upload").resolve(future.get())));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long created = ((Number) channelPool.getStats().get("created")).longValue();
+        assertTrue(created <= MAX_CHANNELS, "通道数超过上限: " + created);
+        assertEquals(0, channelPool.getStats().get("active"));
+    }
+
+    @Test
+    public void testDownloadReturnsChannelOnClose() throws IOException {
+        Files.writeString(root.resolve("upload").resolve("a.txt"), "a");
+
+        InputStream in = sftpUtil.downloadFile("/upload", "a.txt");
+        assertEquals(1, channelPool.getStats().get("active"));
+        in.close();
+        in.close();
+
+        assertEquals(0, channelPool.getStats().get("active"));
+        assertEquals(1L, ((Number) channelPool.getStats().get("returned")).longValue());
+    }
+
+    @Test
+    public void testMissingFileKeepsChannelPooled() throws IOException {
+        assertThrows(IOException.class, () -> sftpUtil.deleteFile("/upload", "missing.txt"));
+        assertThrows(IOException.class, () -> sftpUtil.downloadFile("/upload", "missing.txt"));
+
+        // 文件不存在不是连接错误，通道应归还复用而不是销毁
+        assertEquals(0, channelPool.getStats().get("active"));
+        assertEquals(0L, ((Number) channelPool.getStats().get("destroyed")).longValue());
+        assertEquals(1L, ((Number) channelPool.getStats().get("created")).longValue());
+    }
+
+    @Test
+    public void testUnknownHostKeyIsRejected() throws IOException {
+        Path otherKnownHosts = tempDir.resolve("other_known_hosts");
+        Files.writeString(otherKnownHosts, "");
+        SftpChannelPool.Settings settings = new SftpChannelPool.Settings(0, 1,
+                Duration.ofSeconds(5), Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofSeconds(5));
+        SftpChannelPool untrusted = new SftpChannelPool("127.0.0.1", server.getPort(), USERNAME, PASSWORD,
+                otherKnownHosts.toString(), settings);
+        try {
+            // 服务器公钥不在 known_hosts 中，不会连接
+            IOException e = assertThrows(IOException.class, () -> new SftpUtil(untrusted).listFiles("/upload"));
+            assertTrue(e.getMessage().contains("SFTP连接失败"), e.getMessage());
+        } finally {
+            untrusted.close();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.liuxy.campushub.utils;
+
+import com.liuxy.campushub.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 令牌工具测试：一次解析完成签名、有效期、令牌类型和吊销状态的校验
+ */
+public class JwtTokenUtilTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-0123456789";
+
+    private TokenRevocationService tokenRevocationService;
+    private JwtTokenUtil jwtTokenUtil;
+
+    @BeforeEach
+    public void setUp() {
+        tokenRevocationService = mock(TokenRevocationService.class);
+        jwtTokenUtil = newUtil(3600L);
+    }
+
+    @Test
+    public void testValidTokenIsParsedOnce() {
+        String token = jwtTokenUtil.generateToken(1L, "alice", 0, "session-1");
+
+        Claims claims = jwtTokenUtil.verifyAndParse(token);
+
+        assertNotNull(claims);
+        assertEquals("alice", claims.get("username", String.class));
+        assertEquals(1L, claims.get("userId", Long.class));
+        assertEquals("session-1", claims.get(JwtTokenUtil.CLAIM_SESSION_ID, String.class));
+        assertTrue(jwtTokenUtil.validateToken(token));
+    }
+
+    @Test
+    public void testInvalidTokensAreRejected() {
+        String token = jwtTokenUtil.generateToken(1L, "alice", 0);
+        // 篡改签名的第一个字符
+        int index = token.lastIndexOf('.') + 1;
+        String tampered = token.substring(0, index) + (token.charAt(index) == 'A' ? 'B' : 'A') + token.substring(index + 1);
+        assertNull(jwtTokenUtil.verifyAndParse(tampered));
+        assertNull(jwtTokenUtil.verifyAndParse("not-a-token"));
+
+        // 其他密钥签发
+        JwtTokenUtil other = newUtil(3600L);
+        ReflectionTestUtils.setField(other, "secret", SECRET + "-other");
+        other.init();
+        assertNull(jwtTokenUtil.verifyAndParse(other.generateToken(1L, "alice", 0)));
+
+        // 已过期
+        assertNull(jwtTokenUtil.verifyAndParse(newUtil(-10L).generateToken(1L, "alice", 0)));
+    }
+
+    @Test
+    public void testRefreshTokenCannotAccessApi() {
+        String refresh = jwtTokenUtil.generateRefreshToken(1L, "alice", 0, "rt-1", "session-1",
+                System.currentTimeMillis() / 1000, new Date(System.currentTimeMillis() + 60_000));
+
+        assertNull(jwtTokenUtil.verifyAndParse(refresh));
+        assertNotNull(jwtTokenUtil.parseRefreshToken(refresh));
+        assertNull(jwtTokenUtil.parseRefreshToken(jwtTokenUtil.generateToken(1L, "alice", 0)));
+    }
+
+    @Test
+    public void testRevokedTokenAndSessionAreRejected() {
+        String token = jwtTokenUtil.generateToken(1L, "alice", 0, "session-1");
+        String jti = jwtTokenUtil.parseToken(token).getId();
+
+        when(tokenRevocationService.isRevoked(jti)).thenReturn(true);
+        assertFalse(jwtTokenUtil.validateToken(token));
+
+        when(tokenRevocationService.isRevoked(jti)).thenReturn(false);
+        when(tokenRevocationService.isRevoked("session-1")).thenReturn(true);
+        assertFalse(jwtTokenUtil.validateToken(token));
+    }
+
+    @Test
+    public void testInvalidateRevokesByTokenId() {
+        String token = jwtTokenUtil.generateToken(1L, "alice", 0);
+        Claims claims = jwtTokenUtil.parseToken(token);
+
+        jwtTokenUtil.invalidateToken(token);
+
+        verify(tokenRevocationService).revoke(eq(claims.getId()), any(Date.class));
+    }
+
+    private JwtTokenUtil newUtil(long expirationSeconds) {
+        JwtTokenUtil util = new JwtTokenUtil(tokenRevocationService);
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "expiration", expirationSeconds);
+        util.init();
+        return util;
+    }
+}